@@ -50,6 +50,8 @@ java {
 
 tasks.withType<JavaCompile>().configureEach {
     options.release.set(23)
+    // Band-math kernels use the incubating Vector API when the runtime resolves it.
+    options.compilerArgs.addAll(listOf("--add-modules", "jdk.incubator.vector"))
 }
 
 sourceSets {
@@ -85,6 +87,7 @@ dependencies {
 
 tasks.test {
     useJUnitPlatform()
+    jvmArgs("--add-modules", "jdk.incubator.vector")
 }
 
 val integrationTest = tasks.register<Test>("integrationTest") {
@@ -98,7 +101,7 @@ val integrationTest = tasks.register<Test>("integrationTest") {
         System.getenv("GDAL_FFM_RUN_INTEGRATION") == "true"
     }
     maxHeapSize = "2g"
-    jvmArgs("--enable-native-access=ALL-UNNAMED")
+    jvmArgs("--enable-native-access=ALL-UNNAMED", "--add-modules", "jdk.incubator.vector")
 }
 
 tasks.register<JavaExec>("smokeTest") {
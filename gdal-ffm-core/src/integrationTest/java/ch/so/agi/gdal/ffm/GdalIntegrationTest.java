@@ -1,16 +1,27 @@
 package ch.so.agi.gdal.ffm;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 
@@ -22,6 +33,16 @@ class GdalIntegrationTest {
         assertTrue(drivers.stream().anyMatch(driver -> "GTiff".equalsIgnoreCase(driver.shortName())));
     }
 
+    @Test
+    void driverCapabilitySnapshotDescribesGtiff() {
+        DriverCapabilities gtiff = Gdal.driverCapabilities("gtiff").orElseThrow();
+
+        assertTrue(gtiff.raster());
+        assertTrue(gtiff.create());
+        assertTrue(gtiff.createCopy());
+        assertTrue(Gdal.listDrivers().size() >= Gdal.listWritableRasterDrivers().size());
+    }
+
     @Test
     void listCompressionOptionsForGtiffReturnsValues() {
         List<String> compressionOptions = Gdal.listCompressionOptions("GTiff");
@@ -85,6 +106,618 @@ class GdalIntegrationTest {
         assertTrue(json.contains("\"size\""), "Expected raster size block in info JSON");
     }
 
+    @Test
+    void identifyDetectsRasterDriverWithoutOpening() throws Exception {
+        DatasetFormat format = Gdal.identify(DatasetRef.local(bundledRaster())).orElseThrow();
+
+        assertEquals("GTiff", format.driverShortName());
+        assertTrue(format.raster());
+    }
+
+    @Test
+    void identifyReturnsEmptyForUnknownContent() throws Exception {
+        Path unknown = Files.createTempFile("gdal-ffm-unknown-", ".bin");
+        try {
+            Files.write(unknown, new byte[] {0x13, 0x37, 0x00, 0x42});
+            assertTrue(Gdal.identify(DatasetRef.local(unknown)).isEmpty());
+        } finally {
+            Files.deleteIfExists(unknown);
+        }
+    }
+
+    @Test
+    void datasetCatalogDescribesRasterAndVectorFiles() throws Exception {
+        Path directory = Files.createTempDirectory("gdal-ffm-catalog-");
+        try {
+            Files.copy(bundledRaster(), directory.resolve("raster.tif"));
+            writeZonesGeoJson(directory.resolve("zones.geojson"));
+            Files.writeString(directory.resolve("notes.txt"), "not a dataset");
+
+            List<DatasetCatalogEntry> entries = DatasetCatalog.scan(directory, 2);
+
+            assertEquals(2, entries.size());
+            DatasetCatalogEntry raster = entries.get(0);
+            assertEquals("GTiff", raster.driverShortName());
+            assertTrue(raster.isRaster());
+            assertTrue(raster.raster().bandCount() > 0);
+            assertTrue(raster.raster().width() > 0);
+
+            DatasetCatalogEntry vector = entries.get(1);
+            assertEquals("GeoJSON", vector.driverShortName());
+            assertFalse(vector.isRaster());
+            OgrLayerMetadata layer = vector.layers().getFirst();
+            assertEquals(2, layer.featureCount());
+            assertEquals(new BoundingBox(0, 0, 4, 4), layer.extent());
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    @Test
+    void datasetCatalogReportsUnreadableDatasets() {
+        DatasetRef missing = DatasetRef.local(outputFile("catalog-missing.gpkg"));
+
+        List<DatasetCatalogEntry> entries = DatasetCatalog.scan(List.of(missing), 1);
+
+        assertEquals(1, entries.size());
+        assertTrue(entries.getFirst().isFailed());
+    }
+
+    @Test
+    void rasterBandReadsBlocksAndWindows() throws Exception {
+        try (RasterDataset dataset = Gdal.openRaster(bundledRaster());
+             Arena arena = Arena.ofConfined()) {
+            RasterBand band = dataset.band(1);
+            assertEquals(dataset.width(), band.width());
+            assertTrue(band.blockCountX() > 0 && band.blockCountY() > 0);
+
+            MemorySegment block = arena.allocate((long) band.blockWidth() * band.blockHeight()
+                    * band.dataType().sizeBytes());
+            band.readBlock(0, 0, block);
+
+            RasterWindow window = band.blockWindow(0, 0);
+            double[] values = new double[Math.toIntExact(window.pixelCount())];
+            band.readWindow(window, values);
+            MemorySegment converted = arena.allocate(ValueLayout.JAVA_DOUBLE, window.pixelCount());
+            band.readWindow(window, RasterDataType.FLOAT64, converted);
+            assertEquals(values[0], converted.getAtIndex(ValueLayout.JAVA_DOUBLE, 0));
+
+            assertThrows(IllegalStateException.class, () -> band.writeWindow(window, values));
+            assertThrows(
+                    IllegalArgumentException.class,
+                    () -> band.readWindow(new RasterWindow(0, 0, band.width() + 1, 1), new double[band.width() + 1])
+            );
+        }
+    }
+
+    @Test
+    void rasterBandWritesWindowInPlace() throws Exception {
+        Path grid = outputFile("raster-io-input.asc");
+        Path output = outputFile("raster-io-output.tif");
+        writeAsciiGrid(grid);
+        Gdal.rasterConvert(output, grid, "--overwrite", "--output-format", "GTiff");
+
+        try (RasterDataset dataset = Gdal.openRaster(DatasetRef.local(output), true, GdalConfig.empty())) {
+            dataset.band(1).writeWindow(new RasterWindow(1, 1, 2, 2), new int[] {60, 70, 100, 110});
+            dataset.flush();
+        }
+
+        try (RasterDataset dataset = Gdal.openRaster(output)) {
+            int[] values = new int[16];
+            dataset.band(1).readWindow(new RasterWindow(0, 0, 4, 4), values);
+            assertArrayEquals(new int[] {1, 2, 3, 4, 5, 60, 70, 8, 9, 100, 110, 12, 13, 14, 15, 16}, values);
+        }
+    }
+
+    @Test
+    void rasterTileProcessorCoversBandInParallel() throws Exception {
+        DatasetRef source = DatasetRef.local(bundledRaster());
+        double expected;
+        int tileCount;
+        try (RasterDataset dataset = Gdal.openRaster(source)) {
+            RasterBand band = dataset.band(1);
+            double[] values = new double[band.width() * band.height()];
+            band.readWindow(new RasterWindow(0, 0, band.width(), band.height()), values);
+            expected = sum(values);
+            tileCount = band.blockCountX() * band.blockCountY();
+        }
+
+        List<RasterTile> delivered = new ArrayList<>();
+        double[] total = new double[1];
+        RasterTileProcessor.process(source, 1, 4, true, GdalConfig.empty(), (dataset, tile) -> {
+            double[] values = new double[Math.toIntExact(tile.window().pixelCount())];
+            dataset.band(tile.bandNumber()).readWindow(tile.window(), values);
+            return sum(values);
+        }, result -> {
+            delivered.add(result.tile());
+            total[0] += result.value();
+        });
+
+        assertEquals(tileCount, delivered.size());
+        assertEquals(expected, total[0], 1e-6);
+        List<RasterTile> rowMajor = new ArrayList<>();
+        try (RasterDataset dataset = Gdal.openRaster(source)) {
+            RasterTileProcessor.tiles(dataset.band(1)).forEach(rowMajor::add);
+        }
+        assertEquals(rowMajor, delivered);
+    }
+
+    @Test
+    void rasterWriterWritesBlocksInAnyOrderAndFinishesAsCog() throws Exception {
+        Path output = outputFile("raster-writer.tif");
+        Path cog = outputFile("raster-writer-cog.tif");
+        RasterWriteSpec spec = new RasterWriteSpec("GTiff", 64, 48, 1, RasterDataType.INT32)
+                .withBlockSize(32, 32)
+                .withCompressionThreads(2)
+                .withCreationOptions(Map.of("COMPRESS", "DEFLATE"))
+                .withGeoreference(new double[] {2600000, 1, 0, 1200048, 0, -1}, "EPSG:2056")
+                .withOverviews("NEAREST", List.of(2))
+                .withCogCopy(DatasetRef.local(cog), Map.of("COMPRESS", "DEFLATE"));
+
+        try (RasterWriter writer = Gdal.createRaster(output, spec)) {
+            assertEquals(32, writer.blockWidth());
+            assertThrows(
+                    IllegalArgumentException.class,
+                    () -> writer.write(1, new RasterWindow(1, 0, 31, 32), new int[31 * 32])
+            );
+            for (int blockY = writer.blockCountY() - 1; blockY >= 0; blockY--) {
+                for (int blockX = writer.blockCountX() - 1; blockX >= 0; blockX--) {
+                    RasterWindow window = writer.blockWindow(blockX, blockY);
+                    int[] values = new int[Math.toIntExact(window.pixelCount())];
+                    for (int row = 0; row < window.height(); row++) {
+                        for (int column = 0; column < window.width(); column++) {
+                            values[row * window.width() + column] = (window.y() + row) * 64 + window.x() + column;
+                        }
+                    }
+                    writer.write(1, window, values);
+                }
+            }
+        }
+
+        for (Path written : List.of(output, cog)) {
+            try (RasterDataset dataset = Gdal.openRaster(written)) {
+                int[] values = new int[64 * 48];
+                dataset.band(1).readWindow(new RasterWindow(0, 0, 64, 48), values);
+                for (int i = 0; i < values.length; i++) {
+                    assertEquals(i, values[i]);
+                }
+                RasterMetadata metadata = dataset.metadata();
+                assertEquals("EPSG:2056", metadata.crs());
+                assertTrue(metadata.bands().getFirst().overviewCount() >= 1);
+            }
+        }
+    }
+
+    @Test
+    void cancelledFinishLeavesRasterWriterRetryable() throws Exception {
+        Path output = outputFile("raster-finish-retry.tif");
+        RasterWriteSpec spec = new RasterWriteSpec("GTiff", 64, 64, 1, RasterDataType.BYTE)
+                .withBlockSize(64, 64)
+                .withOverviews("AVERAGE", List.of(2));
+        try (RasterWriter writer = Gdal.createRaster(output, spec)) {
+            writer.write(1, writer.blockWindow(0, 0), new byte[64 * 64]);
+
+            assertThrows(RuntimeException.class, () -> writer.finish((complete, message) -> false));
+            writer.finish(null);
+            assertThrows(IllegalStateException.class, () -> writer.finish(null));
+        }
+
+        try (RasterDataset dataset = Gdal.openRaster(output)) {
+            assertEquals(1, dataset.band(1).overviewCount());
+        }
+    }
+
+    @Test
+    void scaledWindowReadsUseOverviewsAndResampling() throws Exception {
+        Path output = outputFile("raster-overview-read.tif");
+        RasterWriteSpec spec = new RasterWriteSpec("GTiff", 64, 64, 1, RasterDataType.FLOAT32)
+                .withBlockSize(64, 64)
+                .withOverviews("AVERAGE", List.of(2, 4));
+        try (RasterWriter writer = Gdal.createRaster(output, spec)) {
+            float[] values = new float[64 * 64];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = i % 64;
+            }
+            writer.write(1, writer.blockWindow(0, 0), values);
+        }
+        // Overwrite the full-resolution pixels without rebuilding the overviews, so only a read that is served
+        // from an overview still sees the original gradient.
+        try (RasterDataset dataset = Gdal.openRaster(DatasetRef.local(output), true, GdalConfig.empty())) {
+            float[] constant = new float[64 * 64];
+            Arrays.fill(constant, 1000f);
+            dataset.band(1).writeWindow(new RasterWindow(0, 0, 64, 64), constant);
+        }
+
+        try (RasterDataset dataset = Gdal.openRaster(output)) {
+            RasterBand band = dataset.band(1);
+            assertEquals(2, band.overviewCount());
+            assertEquals(32, band.overview(0).width());
+            assertEquals(16, band.overview(1).height());
+
+            float[] thumbnail = new float[16 * 16];
+            band.readWindow(new RasterWindow(0, 0, 64, 64), 16, 16, RasterResampling.AVERAGE, thumbnail);
+            for (int column = 0; column < 16; column++) {
+                assertEquals(4 * column + 1.5, thumbnail[column], 1e-6);
+            }
+            float[] fullResolution = new float[4 * 4];
+            band.readWindow(new RasterWindow(0, 0, 4, 4), fullResolution);
+            assertEquals(1000f, fullResolution[0]);
+            assertThrows(IllegalArgumentException.class, () -> band.overview(2));
+        }
+    }
+
+    @Test
+    void bandStatisticsAndHistogramUseNativeCalls() throws Exception {
+        Path grid = outputFile("raster-stats-input.asc");
+        Path output = outputFile("raster-stats.tif");
+        writeAsciiGrid(grid);
+        Gdal.rasterConvert(output, grid, "--overwrite", "--output-format", "GTiff");
+
+        try (RasterDataset dataset = Gdal.openRaster(output)) {
+            RasterBand band = dataset.band(1);
+            List<Double> progress = new ArrayList<>();
+            RasterBandStatistics statistics = band.statistics(false, (complete, message) -> progress.add(complete));
+
+            assertEquals(1.0, statistics.min());
+            assertEquals(16.0, statistics.max());
+            assertEquals(8.5, statistics.mean(), 1e-9);
+            assertTrue(statistics.stdDev() > 0);
+            assertTrue(!progress.isEmpty());
+
+            RasterHistogram histogram = band.histogram(0.5, 16.5, 4);
+            assertArrayEquals(new long[] {4, 4, 4, 4}, histogram.counts());
+
+            assertThrows(
+                    GdalException.class,
+                    () -> band.histogram(0.5, 16.5, 4, false, false, (complete, message) -> false)
+            );
+        }
+    }
+
+    @Test
+    void rasterMetadataReadsStructuredValues() throws Exception {
+        Path output = outputFile("raster-metadata.tif");
+        RasterWriteSpec spec = new RasterWriteSpec("GTiff", 20, 10, 2, RasterDataType.UINT16)
+                .withBlockSize(16, 16)
+                .withGeoreference(new double[] {2600000, 2, 0, 1200020, 0, -2}, "EPSG:2056")
+                .withNoDataValue(0);
+        try (RasterWriter ignored = Gdal.createRaster(output, spec)) {
+            // Empty raster; only the metadata matters.
+        }
+
+        RasterMetadata metadata = Gdal.rasterMetadata(output);
+
+        assertEquals(20, metadata.width());
+        assertEquals(10, metadata.height());
+        assertEquals(2, metadata.bandCount());
+        assertEquals(RasterDataType.UINT16, metadata.bands().get(1).dataType());
+        assertEquals(16, metadata.bands().getFirst().blockWidth());
+        assertEquals(0.0, metadata.bands().getFirst().noDataValue().orElseThrow());
+        assertArrayEquals(new double[] {2600000, 2, 0, 1200020, 0, -2}, metadata.geoTransform());
+        assertEquals(new BoundingBox(2600000, 1200000, 2600040, 1200020), metadata.extent());
+        assertEquals("EPSG:2056", metadata.crs());
+        assertTrue(metadata.crsWkt().contains("CH1903+"));
+    }
+
+    @Test
+    void rasterCalculatorEvaluatesExpressionPerBlock() throws Exception {
+        Path red = outputFile("calc-red.tif");
+        Path nir = outputFile("calc-nir.tif");
+        Path output = outputFile("calc-ndvi.tif");
+        RasterWriteSpec inputSpec = new RasterWriteSpec("GTiff", 40, 24, 1, RasterDataType.FLOAT32)
+                .withBlockSize(16, 16);
+        for (Path path : List.of(red, nir)) {
+            try (RasterWriter writer = Gdal.createRaster(path, inputSpec)) {
+                for (int blockY = 0; blockY < writer.blockCountY(); blockY++) {
+                    for (int blockX = 0; blockX < writer.blockCountX(); blockX++) {
+                        RasterWindow window = writer.blockWindow(blockX, blockY);
+                        float[] values = new float[Math.toIntExact(window.pixelCount())];
+                        for (int row = 0; row < window.height(); row++) {
+                            for (int column = 0; column < window.width(); column++) {
+                                int x = window.x() + column;
+                                values[row * window.width() + column] = path.equals(red) ? 1 + x % 4 : 8;
+                            }
+                        }
+                        if (path.equals(nir) && blockX == 0 && blockY == 0) {
+                            values[0] = -1;
+                        }
+                        writer.write(1, window, values);
+                    }
+                }
+            }
+        }
+
+        RasterCalculator.calculate(
+                RasterExpression.parse("(B - A) / (B + A)"),
+                List.of(
+                        new RasterCalculatorInput("A", DatasetRef.local(red), 1),
+                        new RasterCalculatorInput("B", DatasetRef.local(nir), 1, -1.0)
+                ),
+                DatasetRef.local(output),
+                new RasterWriteSpec("GTiff", 40, 24, 1, RasterDataType.FLOAT32)
+                        .withBlockSize(16, 16)
+                        .withNoDataValue(-9999),
+                3,
+                GdalConfig.empty(),
+                null
+        );
+
+        try (RasterDataset dataset = Gdal.openRaster(output)) {
+            float[] values = new float[40 * 24];
+            dataset.band(1).readWindow(new RasterWindow(0, 0, 40, 24), values);
+            assertEquals(-9999f, values[0]);
+            for (int i = 1; i < values.length; i++) {
+                float a = 1 + (i % 40) % 4;
+                assertEquals((8 - a) / (8 + a), values[i], 1e-6f);
+            }
+        }
+    }
+
+    @Test
+    void inMemoryVrtStepsChainWithoutTemporaryFiles() throws Exception {
+        Path grid = outputFile("chain-input.asc");
+        Path input = outputFile("chain-input.tif");
+        Path output = outputFile("chain-output.tif");
+        writeAsciiGrid(grid);
+        Gdal.rasterConvert(input, grid, "--overwrite", "--output-format", "GTiff");
+
+        InMemoryDataset clip;
+        try (InMemoryDataset mosaic = Gdal.rasterMosaicInMemory(List.of(DatasetRef.local(input)))) {
+            clip = Gdal.rasterClipInMemory(mosaic.ref(), "--bbox", "1,1,3,3");
+            try (clip) {
+                assertEquals(List.of("mosaic.vrt"), mosaic.files());
+                assertTrue(clip.ref().identifier().startsWith("/vsimem/"));
+                Gdal.rasterConvert(
+                        DatasetRef.local(output),
+                        clip.ref(),
+                        "--overwrite",
+                        "--output-format",
+                        "GTiff"
+                );
+            }
+            assertTrue(clip.isClosed());
+        }
+
+        assertEquals(List.of(), clip.files());
+        assertThrows(IllegalStateException.class, clip::ref);
+        try (RasterDataset dataset = Gdal.openRaster(output)) {
+            int[] values = new int[4];
+            dataset.band(1).readWindow(new RasterWindow(0, 0, 2, 2), values);
+            assertArrayEquals(new int[] {6, 7, 10, 11}, values);
+        }
+    }
+
+    @Test
+    void rasterPipelineRunsStepsInOneExecution() throws Exception {
+        Path grid = outputFile("pipeline-input.asc");
+        Path output = outputFile("pipeline-output.tif");
+        writeAsciiGrid(grid);
+        List<Double> progress = new ArrayList<>();
+
+        GdalPipeline.readRaster(grid)
+                .clip(new BoundingBox(1, 1, 3, 3))
+                .resize(4, 4, "--resampling", "nearest")
+                .write(
+                        DatasetRef.local(output),
+                        GdalConfig.empty(),
+                        (complete, message) -> progress.add(complete),
+                        "--overwrite",
+                        "--output-format",
+                        "GTiff"
+                );
+
+        assertTrue(!progress.isEmpty());
+        try (RasterDataset dataset = Gdal.openRaster(output)) {
+            assertEquals(4, dataset.width());
+            int[] values = new int[16];
+            dataset.band(1).readWindow(new RasterWindow(0, 0, 4, 4), values);
+            assertArrayEquals(new int[] {6, 6, 7, 7, 6, 6, 7, 7, 10, 10, 11, 11, 10, 10, 11, 11}, values);
+        }
+    }
+
+    @Test
+    void batchConvertIsolatesFailedJobs() throws Exception {
+        Path grid = outputFile("batch-input.asc");
+        writeAsciiGrid(grid);
+        List<GdalBatchJob> jobs = List.of(
+                GdalBatchJob.of(grid, outputFile("batch-0.tif")),
+                GdalBatchJob.of(outputFile("batch-missing.asc"), outputFile("batch-1.tif")),
+                GdalBatchJob.of(grid, outputFile("batch-2.tif"))
+        );
+        List<Integer> progressJobs = Collections.synchronizedList(new ArrayList<>());
+        List<GdalBatchResult> completed = new ArrayList<>();
+
+        GdalBatchReport report = GdalBatch.run(
+                GdalBatchOperation.CONVERT,
+                jobs,
+                2,
+                GdalConfig.empty(),
+                (index, job, complete, message) -> progressJobs.add(index),
+                completed::add,
+                "--overwrite",
+                "--output-format",
+                "GTiff"
+        );
+
+        assertEquals(3, completed.size());
+        assertEquals(2, report.succeededCount());
+        assertEquals(1, report.failures().getFirst().index());
+        assertTrue(report.failures().getFirst().failure() instanceof GdalException);
+        assertTrue(progressJobs.contains(0) && progressJobs.contains(2));
+        assertTrue(report.inputBytes() > 0);
+        for (int index : List.of(0, 2)) {
+            assertEquals(4, Gdal.rasterMetadata(jobs.get(index).target()).width());
+        }
+    }
+
+    @Test
+    void rasterConvertToBufferReturnsEncodedBytes() throws Exception {
+        Path grid = outputFile("buffer-input.asc");
+        writeAsciiGrid(grid);
+
+        GdalMemoryBuffer buffer = Gdal.rasterConvertToBuffer(DatasetRef.local(grid), "GTiff");
+        try (buffer) {
+            byte[] bytes = buffer.toByteArray();
+            assertEquals(buffer.byteSize(), bytes.length);
+            assertTrue(bytes.length > 16 * 4);
+            assertEquals('I', (char) bytes[0]);
+            assertEquals('I', (char) bytes[1]);
+            assertEquals(bytes[2], buffer.asByteBuffer().get(2));
+        }
+        assertThrows(IllegalStateException.class, buffer::toByteArray);
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Gdal.rasterConvertToBuffer(DatasetRef.local(grid), "GTiff", "--format", "PNG")
+        );
+    }
+
+    @Test
+    void wrappedMemoryBuffersOpenWithoutTemporaryFiles() throws Exception {
+        Path grid = outputFile("wrapped-input.asc");
+        writeAsciiGrid(grid);
+        byte[] bytes = Files.readAllBytes(grid);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+
+        DatasetRef ref;
+        try (InMemoryDataset upload = InMemoryDataset.wrap(direct, "upload.asc")) {
+            ref = upload.ref();
+            RasterMetadata metadata = Gdal.rasterMetadata(ref);
+            assertEquals(4, metadata.width());
+            assertThrows(IllegalStateException.class, upload::takeBuffer);
+        }
+        assertThrows(RuntimeException.class, () -> Gdal.rasterMetadata(ref));
+
+        try (InMemoryDataset heapCopy = InMemoryDataset.wrap(MemorySegment.ofArray(bytes), "heap.asc");
+             RasterDataset dataset = Gdal.openRaster(heapCopy.ref())) {
+            int[] values = new int[16];
+            dataset.band(1).readWindow(new RasterWindow(0, 0, 4, 4), values);
+            assertEquals(16, values[15]);
+        }
+    }
+
+    @Test
+    void tileRendererEncodesCachedLv95Tiles() throws Exception {
+        Path source = outputFile("tile-source.tif");
+        RasterWriteSpec spec = new RasterWriteSpec("GTiff", 64, 64, 3, RasterDataType.BYTE)
+                .withGeoreference(new double[] {2600000, 1, 0, 1200064, 0, -1}, "EPSG:2056");
+        try (RasterWriter writer = Gdal.createRaster(source, spec)) {
+            byte[] values = new byte[64 * 64];
+            for (int band = 1; band <= 3; band++) {
+                Arrays.fill(values, (byte) (100 * band - 100 + 10));
+                writer.write(band, new RasterWindow(0, 0, 64, 64), values);
+            }
+        }
+
+        TileMatrixSet lv95 = TileMatrixSet.swissLv95();
+        try (TileRenderer renderer = TileRenderer.open(
+                DatasetRef.local(source),
+                lv95,
+                "PNG",
+                RasterResampling.NEAREST,
+                1024 * 1024,
+                GdalConfig.empty()
+        )) {
+            // Zoom 25 is 1 m per pixel; tile (703, 585) spans 2599968..2600224 / 1199984..1200240.
+            ByteBuffer tileBytes = renderer.tile(25, 703, 585);
+            assertTrue(tileBytes.isReadOnly());
+            byte[] png = new byte[tileBytes.remaining()];
+            tileBytes.duplicate().get(png);
+            assertArrayEquals(new byte[] {(byte) 0x89, 'P', 'N', 'G'}, Arrays.copyOf(png, 4));
+            assertEquals(1, renderer.cachedTiles());
+            assertEquals(tileBytes, renderer.tile(25, 703, 585));
+            assertEquals(1, renderer.cachedTiles());
+
+            try (InMemoryDataset decoded = InMemoryDataset.wrap(MemorySegment.ofArray(png), "tile.png");
+                 RasterDataset tile = Gdal.openRaster(decoded.ref())) {
+                assertEquals(4, tile.bandCount());
+                byte[] pixel = new byte[1];
+                tile.band(1).readWindow(new RasterWindow(64, 200, 1, 1), pixel);
+                assertEquals(10, pixel[0]);
+                tile.band(3).readWindow(new RasterWindow(64, 200, 1, 1), pixel);
+                assertEquals((byte) 210, pixel[0]);
+                tile.band(4).readWindow(new RasterWindow(64, 200, 1, 1), pixel);
+                assertEquals((byte) 255, pixel[0]);
+                tile.band(4).readWindow(new RasterWindow(0, 0, 1, 1), pixel);
+                assertEquals(0, pixel[0]);
+            }
+        }
+
+        try (TileRenderer renderer = TileRenderer.open(
+                DatasetRef.local(source),
+                lv95,
+                "jpg",
+                RasterResampling.NEAREST,
+                1024 * 1024,
+                GdalConfig.empty()
+        )) {
+            ByteBuffer jpeg = renderer.tile(25, 703, 585);
+            assertEquals((byte) 0xFF, jpeg.get(0));
+            assertEquals((byte) 0xD8, jpeg.get(1));
+        }
+    }
+
+    @Test
+    void tileRendererRejectsNonByteSources() throws Exception {
+        Path source = outputFile("tile-source-float.tif");
+        RasterWriteSpec spec = new RasterWriteSpec("GTiff", 16, 16, 1, RasterDataType.FLOAT32)
+                .withGeoreference(new double[] {2600000, 1, 0, 1200016, 0, -1}, "EPSG:2056");
+        try (RasterWriter writer = Gdal.createRaster(source, spec)) {
+            writer.write(1, new RasterWindow(0, 0, 16, 16), new float[16 * 16]);
+        }
+
+        IllegalArgumentException error = assertThrows(
+                IllegalArgumentException.class,
+                () -> TileRenderer.open(DatasetRef.local(source), TileMatrixSet.swissLv95())
+        );
+        assertTrue(error.getMessage().contains("FLOAT32"), error.getMessage());
+    }
+
+    @Test
+    void warpSessionReprojectsManyWindowsWithOneTransformer() throws Exception {
+        Path source = outputFile("warp-session-source.tif");
+        RasterWriteSpec spec = new RasterWriteSpec("GTiff", 64, 64, 1, RasterDataType.BYTE)
+                .withGeoreference(new double[] {2600000, 1, 0, 1200064, 0, -1}, "EPSG:2056")
+                .withNoDataValue(0);
+        try (RasterWriter writer = Gdal.createRaster(source, spec)) {
+            byte[] values = new byte[64 * 64];
+            Arrays.fill(values, (byte) 42);
+            writer.write(1, new RasterWindow(0, 0, 64, 64), values);
+        }
+
+        try (WarpSession session = Gdal.openWarpSession(
+                DatasetRef.local(source),
+                "EPSG:2056",
+                2,
+                RasterResampling.NEAREST,
+                GdalConfig.empty()
+        )) {
+            for (int step = 0; step < 3; step++) {
+                double minX = 2599968 + step * 8;
+                try (RasterDataset window = session.warp(new BoundingBox(minX, 1200000, minX + 64, 1200064))) {
+                    assertEquals(32, window.width());
+                    assertEquals(32, window.height());
+                    assertEquals("EPSG:2056", window.metadata().crs());
+                    byte[] row = new byte[32];
+                    window.band(1).readWindow(new RasterWindow(0, 16, 32, 1), row);
+                    int outside = (int) ((2600000 - minX) / 2);
+                    assertEquals(0, row[outside - 1]);
+                    assertEquals(42, row[outside]);
+                    assertEquals(42, row[31]);
+                }
+            }
+        }
+
+        try (WarpSession geographic = Gdal.openWarpSession(DatasetRef.local(source), "EPSG:4326", 0.0001);
+             RasterDataset window = geographic.warp(new BoundingBox(7.43, 46.94, 7.44, 46.95))) {
+            assertEquals(100, window.width());
+            assertEquals("EPSG:4326", window.metadata().crs());
+        }
+    }
+
     @Test
     void rasterMosaicCreatesVirtualMosaic() throws Exception {
         Path input = bundledRaster();
@@ -192,6 +825,14 @@ class GdalIntegrationTest {
         return directory.resolve(fileName);
     }
 
+    private static double sum(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
     private static Path bundledRaster() throws URISyntaxException {
         return Path.of(Objects.requireNonNull(
                 GdalIntegrationTest.class.getResource("/smoke/reclass.tif"),
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
@@ -13,8 +14,10 @@ import java.nio.ByteOrder;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 
 class OgrIntegrationTest {
@@ -66,6 +69,68 @@ class OgrIntegrationTest {
         }
     }
 
+    @Test
+    void reusesPooledHandleWithFreshReaderState() throws Exception {
+        Path geoJson = createTempGeoJson();
+        try {
+            Map<String, String> pooled = Map.of(OgrOpenOptions.POOLED, "true");
+            try (OgrDataSource dataSource = Ogr.open(geoJson, pooled)) {
+                String layerName = dataSource.listLayers().getFirst().name();
+                try (OgrLayerReader reader = dataSource.openReader(layerName, Map.of(
+                        OgrReaderOptions.ATTRIBUTE_FILTER, "value >= 2"
+                ))) {
+                    assertEquals(2, collect(reader).size());
+                }
+            }
+
+            try (OgrDataSource dataSource = Ogr.open(geoJson, pooled)) {
+                String layerName = dataSource.listLayers().getFirst().name();
+                try (OgrLayerReader reader = dataSource.openReader(layerName, Map.of())) {
+                    assertEquals(3, collect(reader).size());
+                }
+            }
+        } finally {
+            Gdal.clearDatasetPool();
+            Files.deleteIfExists(geoJson);
+        }
+    }
+
+    @Test
+    void cachesLayerDefinitionsAndResolvesLayersLazily() throws Exception {
+        Path geoJson = createTempGeoJson();
+        try {
+            List<OgrLayerDefinition> layers;
+            try (OgrDataSource dataSource = Ogr.open(geoJson)) {
+                List<String> names = dataSource.layerNames();
+                assertEquals(1, names.size());
+                OgrLayerDefinition first = dataSource.layer(0);
+                assertEquals(names.getFirst(), first.name());
+                assertSame(first, dataSource.layer(0));
+                layers = dataSource.listLayers();
+                assertSame(first, layers.getFirst());
+                assertThrows(IndexOutOfBoundsException.class, () -> dataSource.layer(1));
+            }
+            // listLayers() is an eager snapshot that stays usable after close.
+            assertEquals(1, layers.size());
+            assertNotNull(layers.getFirst());
+            assertThrows(UnsupportedOperationException.class, () -> layers.add(layers.getFirst()));
+        } finally {
+            Files.deleteIfExists(geoJson);
+        }
+    }
+
+    @Test
+    void identifiesVectorDriverWithoutOpening() throws Exception {
+        Path geoJson = createTempGeoJson();
+        try {
+            DatasetFormat format = Ogr.identify(geoJson).orElseThrow();
+            assertEquals("GeoJSON", format.driverShortName());
+            assertTrue(format.vector());
+        } finally {
+            Files.deleteIfExists(geoJson);
+        }
+    }
+
     @Test
     void rejectsUnknownSelectedField() throws Exception {
         Path geoJson = createTempGeoJson();
@@ -337,6 +402,420 @@ class OgrIntegrationTest {
         }
     }
 
+    @Test
+    void buildsDeferredIndexesOnWriterClose() throws Exception {
+        assumeGpkgDriver();
+
+        Path output = createTempOutputPath("gpkg");
+        try {
+            OgrLayerWriteSpec spec = new OgrLayerWriteSpec("features", GEOMETRY_TYPE_POINT, defaultSchema())
+                    .withDeferredIndexes(List.of("name"));
+            try (OgrDataSource dataSource = Ogr.create(output, DRIVER_GPKG, OgrWriteMode.FAIL_IF_EXISTS);
+                 OgrLayerWriter writer = dataSource.openWriter(spec)) {
+                writer.write(feature(1L, Map.of("id", 1L, "name", "A"), 5, 5));
+                writer.write(feature(2L, Map.of("id", 2L, "name", "B"), 15, 15));
+            }
+
+            try (OgrDataSource readDataSource = Ogr.open(output);
+                 OgrLayerReader reader = readDataSource.openReader("features", Map.of(
+                         OgrReaderOptions.BBOX, "10,10,20,20"
+                 ))) {
+                List<OgrFeature> features = collect(reader);
+                assertEquals(1, features.size());
+                assertEquals("B", features.getFirst().attributes().get("name"));
+            }
+        } finally {
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    void readsRequestedFidsByLookupOrFilteredScan() throws Exception {
+        assumeGpkgDriver();
+
+        Path output = createTempOutputPath("gpkg");
+        try {
+            OgrLayerWriteSpec spec = new OgrLayerWriteSpec("features", GEOMETRY_TYPE_POINT, defaultSchema());
+            try (OgrDataSource dataSource = Ogr.create(output, DRIVER_GPKG, OgrWriteMode.FAIL_IF_EXISTS);
+                 OgrLayerWriter writer = dataSource.openWriter(spec)) {
+                writer.write(feature(1L, Map.of("id", 1L, "name", "A"), 5, 5));
+                writer.write(feature(2L, Map.of("id", 2L, "name", "B"), 15, 15));
+                writer.write(feature(3L, Map.of("id", 3L, "name", "C"), 25, 25));
+            }
+
+            try (OgrDataSource dataSource = Ogr.open(output)) {
+                try (OgrLayerReader reader = dataSource.openReader("features", Map.of(
+                        OgrReaderOptions.FIDS, "3,99,1"
+                ))) {
+                    List<OgrFeature> features = collect(reader);
+                    assertEquals(2, features.size());
+                    assertEquals(Set.of(1L, 3L), Set.of(features.get(0).fid(), features.get(1).fid()));
+                }
+                try (OgrLayerReader reader = dataSource.openReader("features", Map.of(
+                        OgrReaderOptions.FIDS, "1,2",
+                        OgrReaderOptions.ATTRIBUTE_FILTER, "name <> 'A'"
+                ))) {
+                    List<OgrFeature> features = collect(reader);
+                    assertEquals(1, features.size());
+                    assertEquals(2L, features.getFirst().fid());
+                }
+            }
+        } finally {
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    void buildsDeferredShapefileSpatialIndexOnlyWhenRequested() throws Exception {
+        assumeShapefileDriver();
+
+        Path plain = createTempOutputPath("shp");
+        Path indexed = createTempOutputPath("shp");
+        try {
+            OgrLayerWriteSpec spec = new OgrLayerWriteSpec("features", GEOMETRY_TYPE_POINT, defaultSchema())
+                    .withDeferredIndexes(List.of());
+            try (OgrDataSource dataSource = Ogr.create(plain, DRIVER_SHAPEFILE, OgrWriteMode.FAIL_IF_EXISTS);
+                 OgrLayerWriter writer = dataSource.openWriter(spec)) {
+                writer.write(feature(1L, Map.of("id", 1L, "name", "A"), 5, 5));
+            }
+            assertFalse(Files.exists(plain.resolveSibling(shapefileLayerName(plain) + ".qix")));
+
+            OgrLayerWriteSpec requested = new OgrLayerWriteSpec(
+                    "features",
+                    GEOMETRY_TYPE_POINT,
+                    defaultSchema(),
+                    OgrWriteMode.FAIL_IF_EXISTS,
+                    Map.of(),
+                    Map.of("SPATIAL_INDEX", "YES"),
+                    null,
+                    null
+            ).withDeferredIndexes(List.of());
+            try (OgrDataSource dataSource = Ogr.create(indexed, DRIVER_SHAPEFILE, OgrWriteMode.FAIL_IF_EXISTS);
+                 OgrLayerWriter writer = dataSource.openWriter(requested)) {
+                writer.write(feature(1L, Map.of("id", 1L, "name", "A"), 5, 5));
+            }
+            assertTrue(Files.exists(indexed.resolveSibling(shapefileLayerName(indexed) + ".qix")));
+        } finally {
+            deleteShapefileDataset(plain);
+            deleteShapefileDataset(indexed);
+        }
+    }
+
+    @Test
+    void buildsDeferredIndexesWhenDataSourceClosesBeforeWriter() throws Exception {
+        assumeShapefileDriver();
+
+        Path output = createTempOutputPath("shp");
+        try {
+            OgrLayerWriteSpec spec = new OgrLayerWriteSpec(
+                    "features",
+                    GEOMETRY_TYPE_POINT,
+                    defaultSchema(),
+                    OgrWriteMode.FAIL_IF_EXISTS,
+                    Map.of(),
+                    Map.of("SPATIAL_INDEX", "YES"),
+                    null,
+                    null
+            ).withDeferredIndexes(List.of("name"));
+            OgrDataSource dataSource = Ogr.create(output, DRIVER_SHAPEFILE, OgrWriteMode.FAIL_IF_EXISTS);
+            OgrLayerWriter writer = dataSource.openWriter(spec);
+            writer.write(feature(1L, Map.of("id", 1L, "name", "A"), 5, 5));
+            dataSource.close();
+            writer.close();
+
+            String layerName = shapefileLayerName(output);
+            assertTrue(Files.exists(output.resolveSibling(layerName + ".qix")));
+            assertTrue(Files.exists(output.resolveSibling(layerName + ".idm")));
+        } finally {
+            deleteShapefileDataset(output);
+        }
+    }
+
+    @Test
+    void upsertsAndUpdatesFeaturesByFid() throws Exception {
+        assumeGpkgDriver();
+
+        Path output = createTempOutputPath("gpkg");
+        try {
+            OgrLayerWriteSpec spec = new OgrLayerWriteSpec("features", GEOMETRY_TYPE_POINT, defaultSchema())
+                    .withTransactionBatchSize(1);
+            try (OgrDataSource dataSource = Ogr.create(output, DRIVER_GPKG, OgrWriteMode.FAIL_IF_EXISTS);
+                 OgrLayerWriter writer = dataSource.openWriter(spec)) {
+                writer.write(feature(1L, Map.of("id", 1L, "name", "A"), 5, 5));
+                writer.write(feature(2L, Map.of("id", 2L, "name", "B"), 15, 15));
+            }
+
+            try (OgrDataSource dataSource = Ogr.create(output, DRIVER_GPKG, OgrWriteMode.APPEND);
+                 OgrLayerWriter writer = dataSource.openWriter(spec.withWriteMode(OgrWriteMode.APPEND))) {
+                writer.upsert(feature(2L, Map.of("id", 2L, "name", "B2"), 16, 16));
+                writer.upsert(feature(3L, Map.of("id", 3L, "name", "C"), 25, 25));
+                writer.update(new OgrFeature(1L, Map.of("name", "A2"), null));
+            }
+
+            try (OgrDataSource readDataSource = Ogr.open(output);
+                 OgrLayerReader reader = readDataSource.openReader("features", Map.of())) {
+                List<OgrFeature> features = collect(reader);
+                assertEquals(3, features.size());
+                assertEquals("A2", features.get(0).attributes().get("name"));
+                assertEquals(1L, features.get(0).attributes().get("id"));
+                assertNotNull(features.get(0).geometry());
+                assertEquals("B2", features.get(1).attributes().get("name"));
+                assertEquals("C", features.get(2).attributes().get("name"));
+            }
+        } finally {
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    void failedWriteRollsBackTheOpenTransactionBatch() throws Exception {
+        assumeGpkgDriver();
+
+        Path output = createTempOutputPath("gpkg");
+        try {
+            OgrLayerWriteSpec spec = new OgrLayerWriteSpec("features", GEOMETRY_TYPE_POINT, defaultSchema())
+                    .withTransactionBatchSize(10);
+            try (OgrDataSource dataSource = Ogr.create(output, DRIVER_GPKG, OgrWriteMode.FAIL_IF_EXISTS)) {
+                OgrLayerWriter writer = dataSource.openWriter(spec);
+                writer.write(feature(1L, Map.of("id", 1L, "name", "A"), 5, 5));
+                assertThrows(IllegalArgumentException.class, () ->
+                        writer.write(feature(2L, Map.of("missing", "B"), 15, 15)));
+                assertThrows(IllegalStateException.class, () ->
+                        writer.write(feature(3L, Map.of("id", 3L, "name", "C"), 25, 25)));
+                assertThrows(IllegalStateException.class, writer::close);
+            }
+
+            try (OgrDataSource readDataSource = Ogr.open(output);
+                 OgrLayerReader reader = readDataSource.openReader("features", Map.of())) {
+                assertEquals(0, collect(reader).size());
+            }
+        } finally {
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    void batchesTransactionsAutomaticallyOnTransactionalDatasources() throws Exception {
+        assumeGpkgDriver();
+
+        Path output = createTempOutputPath("gpkg");
+        try {
+            OgrLayerWriteSpec spec = new OgrLayerWriteSpec("features", GEOMETRY_TYPE_POINT, defaultSchema());
+            try (OgrDataSource dataSource = Ogr.create(output, DRIVER_GPKG, OgrWriteMode.FAIL_IF_EXISTS)) {
+                OgrLayerWriter writer = dataSource.openWriter(spec);
+                writer.write(feature(1L, Map.of("id", 1L, "name", "A"), 5, 5));
+                assertThrows(IllegalArgumentException.class, () ->
+                        writer.write(feature(2L, Map.of("missing", "B"), 15, 15)));
+                // Only a write inside an open transaction batch fails the writer.
+                assertThrows(IllegalStateException.class, writer::close);
+            }
+        } finally {
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    void failedWriteFailsEveryWriterSharingTheRolledBackBatch() throws Exception {
+        assumeGpkgDriver();
+
+        Path output = createTempOutputPath("gpkg");
+        try {
+            OgrLayerWriteSpec first = new OgrLayerWriteSpec("first", GEOMETRY_TYPE_POINT, defaultSchema())
+                    .withTransactionBatchSize(10);
+            OgrLayerWriteSpec second = new OgrLayerWriteSpec("second", GEOMETRY_TYPE_POINT, defaultSchema())
+                    .withTransactionBatchSize(10);
+            OgrDataSource dataSource = Ogr.create(output, DRIVER_GPKG, OgrWriteMode.FAIL_IF_EXISTS);
+            OgrLayerWriter firstWriter = dataSource.openWriter(first);
+            OgrLayerWriter secondWriter = dataSource.openWriter(second);
+            firstWriter.write(feature(1L, Map.of("id", 1L, "name", "A"), 5, 5));
+            secondWriter.write(feature(1L, Map.of("id", 1L, "name", "B"), 15, 15));
+
+            assertThrows(IllegalArgumentException.class, () ->
+                    secondWriter.write(feature(2L, Map.of("missing", "C"), 25, 25)));
+            // The rolled back batch also held the first writer's feature, so it must not carry on silently.
+            assertThrows(IllegalStateException.class, () ->
+                    firstWriter.write(feature(2L, Map.of("id", 2L, "name", "D"), 35, 35)));
+            assertThrows(IllegalStateException.class, secondWriter::close);
+            assertThrows(IllegalStateException.class, dataSource::close);
+
+            try (OgrDataSource readDataSource = Ogr.open(output)) {
+                for (String layerName : List.of("first", "second")) {
+                    try (OgrLayerReader reader = readDataSource.openReader(layerName, Map.of())) {
+                        assertEquals(0, collect(reader).size());
+                    }
+                }
+            }
+        } finally {
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    void updateRequiresFid() throws Exception {
+        assumeGpkgDriver();
+
+        Path output = createTempOutputPath("gpkg");
+        try {
+            try (OgrDataSource dataSource = Ogr.create(output, DRIVER_GPKG, OgrWriteMode.FAIL_IF_EXISTS);
+                 OgrLayerWriter writer = dataSource.openWriter(
+                         new OgrLayerWriteSpec("features", GEOMETRY_TYPE_POINT, defaultSchema()))) {
+                assertThrows(IllegalArgumentException.class, () ->
+                        writer.update(new OgrFeature(-1L, Map.of("name", "A"), null)));
+            }
+        } finally {
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    void writesPartitionsIntoSeparateDatasetsInParallel() throws Exception {
+        assumeGpkgDriver();
+
+        Path outputDirectory = Files.createTempDirectory("ogr-integration-partitions-");
+        try {
+            OgrLayerWriteSpec spec = new OgrLayerWriteSpec("features", GEOMETRY_TYPE_POINT, defaultSchema());
+            try (PartitionedOgrWriter writer = PartitionedOgrWriter.open(
+                    outputDirectory,
+                    "gpkg",
+                    DRIVER_GPKG,
+                    spec,
+                    PartitionedOgrWriter.byAttribute("name"),
+                    2
+            )) {
+                for (int i = 0; i < 100; i++) {
+                    String name = i % 3 == 0 ? "A" : "B";
+                    writer.write(feature(-1L, Map.of("id", (long) i, "name", name), i, i));
+                }
+            }
+
+            for (String partition : List.of("A", "B")) {
+                try (OgrDataSource readDataSource = Ogr.open(outputDirectory.resolve(partition + ".gpkg"));
+                     OgrLayerReader reader = readDataSource.openReader("features", Map.of())) {
+                    List<OgrFeature> features = collect(reader);
+                    assertEquals(partition.equals("A") ? 34 : 66, features.size());
+                    assertTrue(features.stream().allMatch(f -> partition.equals(f.attributes().get("name"))));
+                }
+            }
+        } finally {
+            try (var files = Files.list(outputDirectory)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(outputDirectory);
+        }
+    }
+
+    @Test
+    void truncatesExistingLayerInPlace() throws Exception {
+        assumeGpkgDriver();
+
+        Path output = createTempOutputPath("gpkg");
+        Path indexes = createTempOutputPath("csv");
+        try {
+            List<OgrFieldDefinition> schema = new ArrayList<>(defaultSchema());
+            schema.add(new OgrFieldDefinition("score", OgrFieldType.REAL));
+            OgrLayerDefinition created;
+            try (OgrDataSource dataSource = Ogr.create(output, DRIVER_GPKG, OgrWriteMode.FAIL_IF_EXISTS)) {
+                try (OgrLayerWriter writer = dataSource.openWriter(
+                        new OgrLayerWriteSpec("features", GEOMETRY_TYPE_POINT, schema)
+                                .withDeferredIndexes(List.of("name")))) {
+                    writer.write(feature(1L, "A", 1L, 5, 5));
+                    writer.write(feature(2L, "B", 2L, 15, 15));
+                }
+                try (OgrLayerWriter writer = dataSource.openWriter(
+                        new OgrLayerWriteSpec("other", GEOMETRY_TYPE_POINT, defaultSchema()))) {
+                    writer.write(feature(1L, "X", 1L, 5, 5));
+                }
+                created = layerNamed(dataSource, "features");
+            }
+
+            OgrLayerWriteSpec truncateSpec = new OgrLayerWriteSpec("features", GEOMETRY_TYPE_POINT, schema)
+                    .withWriteMode(OgrWriteMode.TRUNCATE);
+            try (OgrDataSource dataSource = Ogr.create(output, DRIVER_GPKG, OgrWriteMode.TRUNCATE);
+                 OgrLayerWriter writer = dataSource.openWriter(truncateSpec)) {
+                writer.write(feature(-1L, "C", 3L, 25, 25));
+            }
+
+            try (OgrDataSource readDataSource = Ogr.open(output)) {
+                assertEquals(2, readDataSource.listLayers().size());
+                assertEquals(created, layerNamed(readDataSource, "features"));
+                try (OgrLayerReader reader = readDataSource.openReader("features", Map.of())) {
+                    List<OgrFeature> features = collect(reader);
+                    assertEquals(1, features.size());
+                    assertEquals("C", features.getFirst().attributes().get("name"));
+                }
+                try (OgrLayerReader reader = readDataSource.openReader("features", Map.of(
+                        OgrReaderOptions.BBOX, "20,20,30,30"
+                ))) {
+                    assertEquals(1, collect(reader).size());
+                }
+                try (OgrLayerReader reader = readDataSource.openReader("other", Map.of())) {
+                    assertEquals(1, collect(reader).size());
+                }
+            }
+
+            // The attribute index and the R-tree must survive the in-place DELETE.
+            Gdal.vectorTranslate(indexes, output, "-f", "CSV", "-sql",
+                    "SELECT name FROM sqlite_master WHERE name = 'idx_features_name'"
+                            + " OR (name LIKE 'rtree_features_%' AND type = 'table')");
+            try (OgrDataSource indexDataSource = Ogr.open(indexes);
+                 OgrLayerReader reader = indexDataSource.openReader(
+                         indexDataSource.listLayers().getFirst().name(),
+                         Map.of()
+                 )) {
+                Set<Object> names = new HashSet<>();
+                for (OgrFeature row : reader) {
+                    names.add(row.attributes().get("name"));
+                }
+                assertTrue(names.contains("idx_features_name"));
+                assertTrue(names.stream().anyMatch(name -> String.valueOf(name).startsWith("rtree_features_")));
+            }
+        } finally {
+            Files.deleteIfExists(output);
+            Files.deleteIfExists(indexes);
+        }
+    }
+
+    @Test
+    void truncatesShapefileByRecreatingLayer() throws Exception {
+        assumeShapefileDriver();
+
+        Path output = createTempOutputPath("shp");
+        String layerName = shapefileLayerName(output);
+        try {
+            try (OgrDataSource dataSource = Ogr.create(output, DRIVER_SHAPEFILE, OgrWriteMode.FAIL_IF_EXISTS);
+                 OgrLayerWriter writer = dataSource.openWriter(
+                         new OgrLayerWriteSpec(layerName, GEOMETRY_TYPE_POINT, defaultSchema()))) {
+                writer.write(feature(1L, "A", 1L, 5, 5));
+                writer.write(feature(2L, "B", 2L, 15, 15));
+            }
+
+            try (OgrDataSource dataSource = Ogr.create(output, DRIVER_SHAPEFILE, OgrWriteMode.TRUNCATE);
+                 OgrLayerWriter writer = dataSource.openWriter(
+                         new OgrLayerWriteSpec(layerName, GEOMETRY_TYPE_POINT, defaultSchema())
+                                 .withWriteMode(OgrWriteMode.TRUNCATE))) {
+                writer.write(feature(-1L, "C", 3L, 25, 25));
+            }
+
+            try (OgrDataSource readDataSource = Ogr.open(output);
+                 OgrLayerReader reader = readDataSource.openReader(layerName, Map.of())) {
+                List<OgrFeature> features = collect(reader);
+                assertEquals(1, features.size());
+                assertEquals("C", features.getFirst().attributes().get("name"));
+            }
+        } finally {
+            deleteShapefileDataset(output);
+        }
+    }
+
+    private static OgrLayerDefinition layerNamed(OgrDataSource dataSource, String name) {
+        return dataSource.listLayers().stream()
+                .filter(layer -> layer.name().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
     private static void assumeGpkgDriver() {
         boolean gpkgPresent = Ogr.listWritableVectorDrivers().stream()
                 .map(OgrDriverInfo::shortName)
@@ -397,7 +876,9 @@ class OgrIntegrationTest {
         String fileName = shapefilePath.getFileName().toString();
         String basename = fileName.endsWith(".shp") ? fileName.substring(0, fileName.length() - 4) : fileName;
         Path directory = shapefilePath.getParent();
-        for (String suffix : List.of(".shp", ".dbf", ".shx", ".prj", ".cpg", ".qix", ".sbn", ".sbx", ".shp.xml")) {
+        List<String> suffixes =
+                List.of(".shp", ".dbf", ".shx", ".prj", ".cpg", ".qix", ".sbn", ".sbx", ".ind", ".idm", ".shp.xml");
+        for (String suffix : suffixes) {
             Files.deleteIfExists(directory.resolve(basename + suffix));
         }
     }
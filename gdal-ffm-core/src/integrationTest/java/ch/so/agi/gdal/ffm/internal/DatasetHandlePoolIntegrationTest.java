@@ -0,0 +1,47 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import ch.so.agi.gdal.ffm.DatasetRef;
+import ch.so.agi.gdal.ffm.GdalConfig;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+class DatasetHandlePoolIntegrationTest {
+    @Test
+    void secondReadOnlyRasterOpenReusesPooledHandle() throws Exception {
+        Path grid = Files.createTempFile("pooled-raster-", ".asc");
+        try {
+            Files.writeString(grid, """
+                    ncols 2
+                    nrows 2
+                    xllcorner 0
+                    yllcorner 0
+                    cellsize 1
+                    1 2
+                    3 4
+                    """);
+            DatasetHandlePool.shared().clear();
+            DatasetRef ref = DatasetRef.local(grid);
+
+            long firstHandle;
+            try (RasterRuntime.NativeRasterDataset first =
+                         (RasterRuntime.NativeRasterDataset) RasterRuntime.open(ref, false, GdalConfig.empty())) {
+                firstHandle = first.handle().address();
+            }
+            int openAfterFirst = DatasetHandlePool.shared().openHandleCount();
+            assertEquals(1, DatasetHandlePool.shared().idleHandleCount());
+
+            try (RasterRuntime.NativeRasterDataset second =
+                         (RasterRuntime.NativeRasterDataset) RasterRuntime.open(ref, false, GdalConfig.empty())) {
+                assertEquals(firstHandle, second.handle().address());
+                assertEquals(openAfterFirst, DatasetHandlePool.shared().openHandleCount());
+                assertEquals(0, DatasetHandlePool.shared().idleHandleCount());
+            }
+        } finally {
+            DatasetHandlePool.shared().clear();
+            Files.deleteIfExists(grid);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import ch.so.agi.gdal.ffm.Ogr;
+import ch.so.agi.gdal.ffm.OgrDataSource;
+import ch.so.agi.gdal.ffm.OgrDriverInfo;
+import ch.so.agi.gdal.ffm.OgrFeature;
+import ch.so.agi.gdal.ffm.OgrFieldDefinition;
+import ch.so.agi.gdal.ffm.OgrFieldType;
+import ch.so.agi.gdal.ffm.OgrLayerReader;
+import ch.so.agi.gdal.ffm.OgrLayerWriteSpec;
+import ch.so.agi.gdal.ffm.OgrLayerWriter;
+import ch.so.agi.gdal.ffm.OgrWriteMode;
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class OgrArrowBatchIntegrationTest {
+    private static final String DRIVER_GPKG = "GPKG";
+    private static final int GEOMETRY_TYPE_POINT = 1;
+    private static final long ARROW_FLAG_NULLABLE = 2;
+
+    @Test
+    void writesArrowBatchIntoGpkgLayer() throws Exception {
+        assumeGpkgDriver();
+
+        Path output = createTempOutputPath();
+        try {
+            try (OgrDataSource dataSource = Ogr.create(output, DRIVER_GPKG, OgrWriteMode.FAIL_IF_EXISTS);
+                 OgrLayerWriter writer = dataSource.openWriter(spec());
+                 Arena arena = Arena.ofConfined()) {
+                MemorySegment schema = arrowSchema(arena);
+                MemorySegment array = arrowArray(arena, new long[] {100L, 200L}, new String[] {"A", "B"});
+                writer.writeArrowBatch(schema, array);
+            }
+
+            try (OgrDataSource readDataSource = Ogr.open(output);
+                 OgrLayerReader reader = readDataSource.openReader("features", Map.of())) {
+                List<OgrFeature> features = new ArrayList<>();
+                reader.forEach(features::add);
+                assertEquals(2, features.size());
+                assertEquals(200L, features.get(1).attributes().get("id"));
+                assertEquals("B", features.get(1).attributes().get("name"));
+            }
+        } finally {
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    void rejectsReleasedArrowArray() throws Exception {
+        assumeGpkgDriver();
+
+        Path output = createTempOutputPath();
+        try {
+            try (OgrDataSource dataSource = Ogr.create(output, DRIVER_GPKG, OgrWriteMode.FAIL_IF_EXISTS);
+                 OgrLayerWriter writer = dataSource.openWriter(spec());
+                 Arena arena = Arena.ofConfined()) {
+                MemorySegment schema = arrowSchema(arena);
+                MemorySegment array = arrowArray(arena, new long[] {1L}, new String[] {"A"});
+                releaseArrowArray(array);
+
+                assertThrows(IllegalArgumentException.class, () -> writer.writeArrowBatch(schema, array));
+            }
+        } finally {
+            Files.deleteIfExists(output);
+        }
+    }
+
+    private static OgrLayerWriteSpec spec() {
+        return new OgrLayerWriteSpec("features", GEOMETRY_TYPE_POINT, List.of(
+                new OgrFieldDefinition("id", OgrFieldType.INTEGER64),
+                new OgrFieldDefinition("name", OgrFieldType.STRING)
+        ));
+    }
+
+    private static MemorySegment arrowSchema(Arena arena) {
+        MemorySegment id = arrowSchemaNode(arena, "l", "id", MemorySegment.NULL, 0);
+        MemorySegment name = arrowSchemaNode(arena, "u", "name", MemorySegment.NULL, 0);
+        MemorySegment children = arena.allocate(ValueLayout.ADDRESS, 2);
+        children.setAtIndex(ValueLayout.ADDRESS, 0, id);
+        children.setAtIndex(ValueLayout.ADDRESS, 1, name);
+        return arrowSchemaNode(arena, "+s", "", children, 2);
+    }
+
+    private static MemorySegment arrowSchemaNode(
+            Arena arena,
+            String format,
+            String name,
+            MemorySegment children,
+            long childCount
+    ) {
+        MemorySegment schema = arena.allocate(OgrNative.ARROW_SCHEMA);
+        schema.set(ValueLayout.ADDRESS, offset(OgrNative.ARROW_SCHEMA, "format"), arena.allocateFrom(format));
+        schema.set(ValueLayout.ADDRESS, offset(OgrNative.ARROW_SCHEMA, "name"), arena.allocateFrom(name));
+        schema.set(ValueLayout.JAVA_LONG, offset(OgrNative.ARROW_SCHEMA, "flags"), ARROW_FLAG_NULLABLE);
+        schema.set(ValueLayout.JAVA_LONG, offset(OgrNative.ARROW_SCHEMA, "n_children"), childCount);
+        schema.set(ValueLayout.ADDRESS, offset(OgrNative.ARROW_SCHEMA, "children"), children);
+        schema.set(
+                ValueLayout.ADDRESS,
+                offset(OgrNative.ARROW_SCHEMA, "release"),
+                releaseStub(arena, "releaseArrowSchema")
+        );
+        return schema;
+    }
+
+    private static MemorySegment arrowArray(Arena arena, long[] ids, String[] names) {
+        int length = ids.length;
+        MemorySegment idValues = arena.allocateFrom(ValueLayout.JAVA_LONG, ids);
+        MemorySegment id = arrowArrayNode(
+                arena,
+                length,
+                new MemorySegment[] {MemorySegment.NULL, idValues},
+                MemorySegment.NULL,
+                0
+        );
+
+        MemorySegment offsets = arena.allocate(ValueLayout.JAVA_INT, length + 1L);
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            offsets.setAtIndex(ValueLayout.JAVA_INT, i, joined.length());
+            joined.append(names[i]);
+        }
+        offsets.setAtIndex(ValueLayout.JAVA_INT, length, joined.length());
+        byte[] utf8 = joined.toString().getBytes(StandardCharsets.UTF_8);
+        MemorySegment data = arena.allocate(Math.max(utf8.length, 1));
+        MemorySegment.copy(MemorySegment.ofArray(utf8), 0, data, 0, utf8.length);
+        MemorySegment name = arrowArrayNode(
+                arena,
+                length,
+                new MemorySegment[] {MemorySegment.NULL, offsets, data},
+                MemorySegment.NULL,
+                0
+        );
+
+        MemorySegment children = arena.allocate(ValueLayout.ADDRESS, 2);
+        children.setAtIndex(ValueLayout.ADDRESS, 0, id);
+        children.setAtIndex(ValueLayout.ADDRESS, 1, name);
+        return arrowArrayNode(arena, length, new MemorySegment[] {MemorySegment.NULL}, children, 2);
+    }
+
+    private static MemorySegment arrowArrayNode(
+            Arena arena,
+            long length,
+            MemorySegment[] buffers,
+            MemorySegment children,
+            long childCount
+    ) {
+        MemorySegment bufferPointers = arena.allocate(ValueLayout.ADDRESS, buffers.length);
+        for (int i = 0; i < buffers.length; i++) {
+            bufferPointers.setAtIndex(ValueLayout.ADDRESS, i, buffers[i]);
+        }
+        MemorySegment array = arena.allocate(OgrNative.ARROW_ARRAY);
+        array.set(ValueLayout.JAVA_LONG, offset(OgrNative.ARROW_ARRAY, "length"), length);
+        array.set(ValueLayout.JAVA_LONG, offset(OgrNative.ARROW_ARRAY, "n_buffers"), buffers.length);
+        array.set(ValueLayout.JAVA_LONG, offset(OgrNative.ARROW_ARRAY, "n_children"), childCount);
+        array.set(ValueLayout.ADDRESS, offset(OgrNative.ARROW_ARRAY, "buffers"), bufferPointers);
+        array.set(ValueLayout.ADDRESS, offset(OgrNative.ARROW_ARRAY, "children"), children);
+        array.set(ValueLayout.ADDRESS, OgrNative.ARROW_ARRAY_RELEASE_OFFSET, releaseStub(arena, "releaseArrowArray"));
+        return array;
+    }
+
+    private static long offset(StructLayout layout, String field) {
+        return layout.byteOffset(MemoryLayout.PathElement.groupElement(field));
+    }
+
+    private static MemorySegment releaseStub(Arena arena, String releaseMethod) {
+        try {
+            MethodHandle release = MethodHandles.lookup().findStatic(
+                    OgrArrowBatchIntegrationTest.class,
+                    releaseMethod,
+                    MethodType.methodType(void.class, MemorySegment.class)
+            );
+            return Linker.nativeLinker().upcallStub(release, FunctionDescriptor.ofVoid(ValueLayout.ADDRESS), arena);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Buffers are arena-owned; release callbacks only mark the structure as released.
+    @SuppressWarnings("unused")
+    private static void releaseArrowSchema(MemorySegment schema) {
+        schema.reinterpret(OgrNative.ARROW_SCHEMA.byteSize())
+                .set(ValueLayout.ADDRESS, offset(OgrNative.ARROW_SCHEMA, "release"), MemorySegment.NULL);
+    }
+
+    private static void releaseArrowArray(MemorySegment array) {
+        array.reinterpret(OgrNative.ARROW_ARRAY.byteSize())
+                .set(ValueLayout.ADDRESS, OgrNative.ARROW_ARRAY_RELEASE_OFFSET, MemorySegment.NULL);
+    }
+
+    private static void assumeGpkgDriver() {
+        boolean gpkgPresent = Ogr.listWritableVectorDrivers().stream()
+                .map(OgrDriverInfo::shortName)
+                .anyMatch(DRIVER_GPKG::equals);
+        assumeTrue(gpkgPresent, "GPKG writable driver is required for Arrow batch integration tests");
+    }
+
+    private static Path createTempOutputPath() throws Exception {
+        Path temp = Files.createTempFile("ogr-arrow-batch-", ".gpkg");
+        Files.deleteIfExists(temp);
+        return temp;
+    }
+}
@@ -0,0 +1,59 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import ch.so.agi.gdal.ffm.RasterBand;
+import ch.so.agi.gdal.ffm.RasterDataType;
+import ch.so.agi.gdal.ffm.RasterTile;
+import ch.so.agi.gdal.ffm.RasterTileProcessor;
+import ch.so.agi.gdal.ffm.RasterWindow;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RasterBlockGridIntegrationTest {
+    private static final String DRIVER_MEM = "MEM";
+
+    @Test
+    void memBandBlockGridFollowsScanlines() {
+        try (RasterRuntime.NativeRasterDataset dataset = createMem(10, 7)) {
+            RasterBand band = dataset.band(1);
+            // MEM stores one scanline per block.
+            assertEquals(10, band.blockWidth());
+            assertEquals(1, band.blockHeight());
+            assertEquals(1, band.blockCountX());
+            assertEquals(7, band.blockCountY());
+            assertEquals(new RasterWindow(0, 6, 10, 1), band.blockWindow(0, 6));
+            assertThrows(IllegalArgumentException.class, () -> band.blockWindow(0, 7));
+
+            List<RasterTile> tiles = new ArrayList<>();
+            RasterTileProcessor.tiles(band).forEach(tiles::add);
+            assertEquals(7, tiles.size());
+            for (int row = 0; row < tiles.size(); row++) {
+                assertEquals(new RasterTile(1, 0, row, band.blockWindow(0, row)), tiles.get(row));
+            }
+        }
+    }
+
+    private static RasterRuntime.NativeRasterDataset createMem(int width, int height) {
+        GdalRuntime.initialize();
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment handle = RasterNative.GDALCreate(
+                    GdalRuntime.resolveRasterDriver(DRIVER_MEM, arena),
+                    arena.allocateFrom(""),
+                    width,
+                    height,
+                    1,
+                    RasterDataType.BYTE.nativeCode(),
+                    MemorySegment.NULL
+            );
+            if (CStrings.isNull(handle)) {
+                throw GdalErrors.lastError("Failed to create MEM test raster");
+            }
+            return RasterRuntime.wrap(DRIVER_MEM, handle, true);
+        }
+    }
+}
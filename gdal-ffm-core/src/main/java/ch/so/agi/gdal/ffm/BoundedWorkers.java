@@ -0,0 +1,94 @@
+package ch.so.agi.gdal.ffm;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed pool of daemon worker threads fed by one producer thread that keeps at most {@link #capacity()} tasks
+ * in flight and consumes their results in completion order.
+ * <p>
+ * The producer tracks its own in-flight count, so it can also hold back results (for example to deliver them in
+ * submission order) without letting the backlog grow. {@link #close()} stops the workers and waits until no task
+ * runs anymore, so resources used by tasks may be released right after it.
+ */
+final class BoundedWorkers<T> implements AutoCloseable {
+    static final int IN_FLIGHT_PER_THREAD = 4;
+
+    private final String activity;
+    private final int capacity;
+    private final ExecutorService executor;
+    private final CompletionService<T> completion;
+
+    /**
+     * @param threadNamePrefix worker thread name prefix, for example {@code gdal-ffm-batch}
+     * @param activity         what the workers do, used in error messages, for example {@code running batch jobs}
+     */
+    BoundedWorkers(String threadNamePrefix, String activity, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be > 0");
+        }
+        this.activity = activity;
+        this.capacity = threads * IN_FLIGHT_PER_THREAD;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + "-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.completion = new ExecutorCompletionService<>(executor);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    void submit(Callable<T> task) {
+        completion.submit(task);
+    }
+
+    /**
+     * Waits for the next completed task and returns its result. A task failure is rethrown unchanged when it is
+     * unchecked and wrapped in an {@link IllegalStateException} otherwise.
+     */
+    T take() {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while " + activity, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Worker failed while " + activity, cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
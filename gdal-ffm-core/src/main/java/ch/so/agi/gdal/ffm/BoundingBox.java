@@ -0,0 +1,27 @@
+package ch.so.agi.gdal.ffm;
+
+/**
+ * Axis-aligned 2D extent in the coordinates of the owning dataset or layer.
+ */
+public record BoundingBox(double minX, double minY, double maxX, double maxY) {
+    public BoundingBox {
+        if (Double.isNaN(minX) || Double.isNaN(minY) || Double.isNaN(maxX) || Double.isNaN(maxY)) {
+            throw new IllegalArgumentException("Bounding box coordinates must not be NaN");
+        }
+        if (minX > maxX || minY > maxY) {
+            throw new IllegalArgumentException("Bounding box minimum must not exceed maximum");
+        }
+    }
+
+    public double width() {
+        return maxX - minX;
+    }
+
+    public double height() {
+        return maxY - minY;
+    }
+
+    public boolean intersects(BoundingBox other) {
+        return minX <= other.maxX && other.minX <= maxX && minY <= other.maxY && other.minY <= maxY;
+    }
+}
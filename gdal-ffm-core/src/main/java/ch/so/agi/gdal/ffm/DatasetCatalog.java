@@ -0,0 +1,258 @@
+package ch.so.agi.gdal.ffm;
+
+import ch.so.agi.gdal.ffm.internal.CatalogRuntime;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Parallel metadata crawler for raster and vector datasets.
+ * <p>
+ * Each dataset is opened once, read-only, on one of a bounded number of worker threads and described with
+ * direct GDAL/OGR metadata calls: driver, layers with geometry type, feature count, extent and CRS, and raster
+ * size, band types, block sizes and overviews. Directory scans first identify candidates with
+ * {@link Gdal#identify(DatasetRef, GdalConfig)} and skip known sidecar files, so unsupported files are never
+ * opened. A dataset that fails to open produces an entry with {@link DatasetCatalogEntry#failure()} instead
+ * of aborting the scan.
+ * <p>
+ * Without exact statistics drivers that cannot report feature counts and extents cheaply return {@code -1}
+ * and no extent instead of scanning every feature.
+ */
+public final class DatasetCatalog {
+    private static final Set<String> SIDECAR_SUFFIXES = Set.of(
+            ".aux.xml", ".ovr", ".msk", ".tfw", ".tifw", ".wld", ".jgw", ".pgw", ".prj", ".cpg",
+            ".shx", ".qix", ".sbn", ".sbx", "-wal", "-shm", "-journal"
+    );
+
+    private DatasetCatalog() {
+    }
+
+    /**
+     * Scans {@code directory} recursively and returns entries in walk order: depth first, with the entries of
+     * every directory sorted by name.
+     */
+    public static List<DatasetCatalogEntry> scan(Path directory, int threads) {
+        List<Sequenced> entries = new ArrayList<>();
+        scanDirectory(directory, threads, false, GdalConfig.empty(), entries::add);
+        return ordered(entries);
+    }
+
+    /**
+     * Scans {@code directory} recursively and hands every entry to {@code sink} on the calling thread, in
+     * completion order. Suitable for archives too large to collect in memory.
+     */
+    public static void scan(
+            Path directory,
+            int threads,
+            boolean exactStatistics,
+            GdalConfig config,
+            Consumer<DatasetCatalogEntry> sink
+    ) {
+        Objects.requireNonNull(sink, "sink must not be null");
+        scanDirectory(directory, threads, exactStatistics, config, sequenced -> sink.accept(sequenced.entry()));
+    }
+
+    /**
+     * Describes the given datasets and returns entries in input order.
+     */
+    public static List<DatasetCatalogEntry> scan(List<DatasetRef> datasets, int threads) {
+        Objects.requireNonNull(datasets, "datasets must not be null");
+        List<Sequenced> entries = new ArrayList<>(datasets.size());
+        run(datasets.iterator(), threads, false, GdalConfig.empty(), false, entries::add);
+        return ordered(entries);
+    }
+
+    public static void scan(
+            Iterable<DatasetRef> datasets,
+            int threads,
+            boolean exactStatistics,
+            GdalConfig config,
+            Consumer<DatasetCatalogEntry> sink
+    ) {
+        Objects.requireNonNull(datasets, "datasets must not be null");
+        Objects.requireNonNull(sink, "sink must not be null");
+        run(datasets.iterator(), threads, exactStatistics, config, false, sequenced -> sink.accept(sequenced.entry()));
+    }
+
+    private static void scanDirectory(
+            Path directory,
+            int threads,
+            boolean exactStatistics,
+            GdalConfig config,
+            Consumer<Sequenced> sink
+    ) {
+        Objects.requireNonNull(directory, "directory must not be null");
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("Not a directory: " + directory);
+        }
+        Iterator<Path> files = walk(directory);
+        Iterator<DatasetRef> candidates = new Iterator<>() {
+            private DatasetRef next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && files.hasNext()) {
+                    Path path = files.next();
+                    if (Files.isRegularFile(path) && !isSidecar(path)) {
+                        next = DatasetRef.local(path);
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public DatasetRef next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                DatasetRef current = next;
+                next = null;
+                return current;
+            }
+        };
+        try {
+            run(candidates, threads, exactStatistics, config, true, sink);
+        } catch (UncheckedIOException e) {
+            throw new IllegalStateException("Failed to walk directory: " + directory, e.getCause());
+        }
+    }
+
+    /**
+     * Walks {@code directory} depth first without following links. Only the listing of the directories on the
+     * current path is held in memory, each sorted by name, so huge trees are streamed in a stable order.
+     */
+    static Iterator<Path> walk(Path directory) {
+        Deque<Iterator<Path>> pending = new ArrayDeque<>();
+        pending.push(sortedEntries(directory));
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                while (!pending.isEmpty() && !pending.peek().hasNext()) {
+                    pending.pop();
+                }
+                return !pending.isEmpty();
+            }
+
+            @Override
+            public Path next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Path path = pending.peek().next();
+                if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                    pending.push(sortedEntries(path));
+                }
+                return path;
+            }
+        };
+    }
+
+    private static Iterator<Path> sortedEntries(Path directory) {
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries.sorted().toList().iterator();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void run(
+            Iterator<DatasetRef> datasets,
+            int threads,
+            boolean exactStatistics,
+            GdalConfig config,
+            boolean identifyFirst,
+            Consumer<Sequenced> sink
+    ) {
+        Objects.requireNonNull(config, "config must not be null");
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be > 0");
+        }
+
+        try (BoundedWorkers<Sequenced> workers =
+                     new BoundedWorkers<>("gdal-ffm-catalog", "scanning datasets", threads)) {
+            long sequence = 0;
+            int inFlight = 0;
+            while (datasets.hasNext() || inFlight > 0) {
+                while (inFlight < workers.capacity() && datasets.hasNext()) {
+                    DatasetRef dataset = Objects.requireNonNull(datasets.next(), "datasets must not contain null");
+                    long taskSequence = sequence++;
+                    workers.submit(() -> new Sequenced(
+                            taskSequence,
+                            describe(dataset, exactStatistics, config, identifyFirst)
+                    ));
+                    inFlight++;
+                }
+                Sequenced result = workers.take();
+                inFlight--;
+                if (result.entry() != null) {
+                    sink.accept(result);
+                }
+            }
+        }
+    }
+
+    private static DatasetCatalogEntry describe(
+            DatasetRef dataset,
+            boolean exactStatistics,
+            GdalConfig config,
+            boolean identifyFirst
+    ) {
+        try {
+            if (identifyFirst && Gdal.identify(dataset, config).isEmpty()) {
+                return null;
+            }
+            return CatalogRuntime.describe(dataset, exactStatistics, config);
+        } catch (RuntimeException e) {
+            String message = e.getMessage();
+            return DatasetCatalogEntry.failed(dataset, message == null ? e.getClass().getName() : message);
+        }
+    }
+
+    /**
+     * Returns whether {@code path} is an auxiliary file of another dataset rather than a dataset itself.
+     */
+    static boolean isSidecar(Path path) {
+        Path fileName = path.getFileName();
+        if (fileName == null) {
+            return false;
+        }
+        String name = fileName.toString().toLowerCase(Locale.ROOT);
+        for (String suffix : SIDECAR_SUFFIXES) {
+            if (name.endsWith(suffix)) {
+                return true;
+            }
+        }
+        if (name.endsWith(".dbf")) {
+            String baseName = fileName.toString().substring(0, fileName.toString().length() - 4);
+            return Files.exists(path.resolveSibling(baseName + ".shp"))
+                    || Files.exists(path.resolveSibling(baseName + ".SHP"));
+        }
+        return false;
+    }
+
+    private static List<DatasetCatalogEntry> ordered(List<Sequenced> entries) {
+        entries.sort(Comparator.comparingLong(Sequenced::sequence));
+        List<DatasetCatalogEntry> result = new ArrayList<>(entries.size());
+        for (Sequenced sequenced : entries) {
+            result.add(sequenced.entry());
+        }
+        return List.copyOf(result);
+    }
+
+    private record Sequenced(long sequence, DatasetCatalogEntry entry) {
+    }
+}
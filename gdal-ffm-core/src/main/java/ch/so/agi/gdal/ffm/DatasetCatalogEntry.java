@@ -0,0 +1,41 @@
+package ch.so.agi.gdal.ffm;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Metadata collected for one dataset by {@link DatasetCatalog}.
+ * <p>
+ * {@code raster} is {@code null} for vector-only datasets. When the dataset could not be opened or
+ * described, {@code failure} holds the error message and the other components are empty.
+ */
+public record DatasetCatalogEntry(
+        DatasetRef dataset,
+        String driverShortName,
+        List<OgrLayerMetadata> layers,
+        RasterMetadata raster,
+        String failure
+) {
+    public DatasetCatalogEntry {
+        Objects.requireNonNull(dataset, "dataset must not be null");
+        Objects.requireNonNull(layers, "layers must not be null");
+        layers = List.copyOf(layers);
+    }
+
+    public static DatasetCatalogEntry failed(DatasetRef dataset, String failure) {
+        Objects.requireNonNull(failure, "failure must not be null");
+        return new DatasetCatalogEntry(dataset, null, List.of(), null, failure);
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    public boolean isVector() {
+        return !layers.isEmpty();
+    }
+
+    public boolean isRaster() {
+        return raster != null;
+    }
+}
@@ -0,0 +1,19 @@
+package ch.so.agi.gdal.ffm;
+
+import java.util.Objects;
+
+/**
+ * Driver identified for a dataset without opening it. {@code vector} and {@code raster} reflect the
+ * capabilities of the driver, not the content of the dataset.
+ */
+public record DatasetFormat(
+        String driverShortName,
+        String driverLongName,
+        boolean vector,
+        boolean raster
+) {
+    public DatasetFormat {
+        Objects.requireNonNull(driverShortName, "driverShortName must not be null");
+        Objects.requireNonNull(driverLongName, "driverLongName must not be null");
+    }
+}
@@ -0,0 +1,44 @@
+package ch.so.agi.gdal.ffm;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Capability matrix of a registered GDAL driver, read once from driver metadata ({@code DCAP_*}, {@code DMD_*}).
+ * <p>
+ * Capabilities that GDAL reports per dataset or layer, such as transactions, random read, fast feature count
+ * or Arrow streams, are not part of the driver metadata and are probed on the open handle instead.
+ */
+public record DriverCapabilities(
+        String shortName,
+        String longName,
+        List<String> extensions,
+        boolean vector,
+        boolean raster,
+        boolean create,
+        boolean createCopy,
+        boolean update,
+        boolean upsert,
+        boolean multipleVectorLayers,
+        boolean virtualIo,
+        List<String> sqlDialects
+) {
+    public DriverCapabilities {
+        Objects.requireNonNull(shortName, "shortName must not be null");
+        Objects.requireNonNull(longName, "longName must not be null");
+        Objects.requireNonNull(extensions, "extensions must not be null");
+        Objects.requireNonNull(sqlDialects, "sqlDialects must not be null");
+        extensions = List.copyOf(extensions);
+        sqlDialects = List.copyOf(sqlDialects);
+    }
+
+    public boolean supportsSqlDialect(String dialect) {
+        Objects.requireNonNull(dialect, "dialect must not be null");
+        for (String supported : sqlDialects) {
+            if (supported.equalsIgnoreCase(dialect)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,9 +1,15 @@
 package ch.so.agi.gdal.ffm;
 
+import ch.so.agi.gdal.ffm.internal.CpuBudget;
 import ch.so.agi.gdal.ffm.internal.GdalRuntime;
+import ch.so.agi.gdal.ffm.internal.RasterRuntime;
+import ch.so.agi.gdal.ffm.internal.WarpRuntime;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 public final class Gdal {
     private Gdal() {
@@ -65,6 +71,24 @@ public final class Gdal {
         return GdalRuntime.rasterInfo(src, config, args);
     }
 
+    /**
+     * Reads size, bands, data types, geotransform, CRS, nodata, block sizes and overview counts with direct
+     * GDAL calls. Much cheaper than {@link #rasterInfo(DatasetRef, String...)} for per-dataset lookups.
+     */
+    public static RasterMetadata rasterMetadata(Path src) {
+        return rasterMetadata(DatasetRef.local(src), GdalConfig.empty());
+    }
+
+    public static RasterMetadata rasterMetadata(DatasetRef src) {
+        return rasterMetadata(src, GdalConfig.empty());
+    }
+
+    public static RasterMetadata rasterMetadata(DatasetRef src, GdalConfig config) {
+        Objects.requireNonNull(src, "src must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        return RasterRuntime.metadata(src, config);
+    }
+
     public static void rasterConvert(DatasetRef dest, DatasetRef src, String... args) {
         rasterConvert(dest, src, GdalConfig.empty(), null, args);
     }
@@ -186,6 +210,145 @@ public final class Gdal {
         GdalRuntime.rasterMosaic(dest, sources, config, progress, args);
     }
 
+    /**
+     * Builds a mosaic as a VRT in a library-managed {@code /vsimem/} dataset, for chaining into further raster
+     * operations without temporary files. Close the returned dataset once downstream outputs are written.
+     */
+    public static InMemoryDataset rasterMosaicInMemory(List<DatasetRef> sources, String... args) {
+        return rasterMosaicInMemory(sources, GdalConfig.empty(), null, args);
+    }
+
+    public static InMemoryDataset rasterMosaicInMemory(
+            List<DatasetRef> sources,
+            GdalConfig config,
+            ProgressCallback progress,
+            String... args
+    ) {
+        Objects.requireNonNull(sources, "sources must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        return GdalRuntime.runInMemory(
+                "mosaic.vrt",
+                args,
+                (dest, effectiveArgs) -> GdalRuntime.rasterMosaic(dest, sources, config, progress, effectiveArgs)
+        );
+    }
+
+    /**
+     * Clips {@code src} into an in-memory VRT; see {@link #rasterMosaicInMemory(List, String...)}.
+     */
+    public static InMemoryDataset rasterClipInMemory(DatasetRef src, String... args) {
+        return rasterClipInMemory(src, GdalConfig.empty(), null, args);
+    }
+
+    public static InMemoryDataset rasterClipInMemory(
+            DatasetRef src,
+            GdalConfig config,
+            ProgressCallback progress,
+            String... args
+    ) {
+        Objects.requireNonNull(src, "src must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        return GdalRuntime.runInMemory(
+                "clip.vrt",
+                args,
+                (dest, effectiveArgs) -> GdalRuntime.rasterClip(dest, src, config, progress, effectiveArgs)
+        );
+    }
+
+    /**
+     * Reprojects {@code src} into an in-memory warped VRT; see {@link #rasterMosaicInMemory(List, String...)}.
+     */
+    public static InMemoryDataset rasterReprojectInMemory(DatasetRef src, String... args) {
+        return rasterReprojectInMemory(src, GdalConfig.empty(), null, args);
+    }
+
+    public static InMemoryDataset rasterReprojectInMemory(
+            DatasetRef src,
+            GdalConfig config,
+            ProgressCallback progress,
+            String... args
+    ) {
+        Objects.requireNonNull(src, "src must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        return GdalRuntime.runInMemory(
+                "reproject.vrt",
+                args,
+                (dest, effectiveArgs) -> GdalRuntime.rasterReproject(dest, src, config, progress, effectiveArgs)
+        );
+    }
+
+    /**
+     * Resizes {@code src} into an in-memory VRT; see {@link #rasterMosaicInMemory(List, String...)}.
+     */
+    public static InMemoryDataset rasterResizeInMemory(DatasetRef src, String... args) {
+        return rasterResizeInMemory(src, GdalConfig.empty(), null, args);
+    }
+
+    public static InMemoryDataset rasterResizeInMemory(
+            DatasetRef src,
+            GdalConfig config,
+            ProgressCallback progress,
+            String... args
+    ) {
+        Objects.requireNonNull(src, "src must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        return GdalRuntime.runInMemory(
+                "resize.vrt",
+                args,
+                (dest, effectiveArgs) -> GdalRuntime.rasterResize(dest, src, config, progress, effectiveArgs)
+        );
+    }
+
+    /**
+     * Converts {@code src} to {@code outputFormat} (for example {@code PNG}, {@code WEBP} or {@code COG}) in a
+     * library-managed {@code /vsimem/} file and returns the encoded bytes. Nothing is written to disk; close the
+     * returned buffer to free the native memory. {@code args} must not select an output format themselves.
+     */
+    public static GdalMemoryBuffer rasterConvertToBuffer(DatasetRef src, String outputFormat, String... args) {
+        return rasterConvertToBuffer(src, outputFormat, GdalConfig.empty(), null, args);
+    }
+
+    public static GdalMemoryBuffer rasterConvertToBuffer(
+            DatasetRef src,
+            String outputFormat,
+            GdalConfig config,
+            ProgressCallback progress,
+            String... args
+    ) {
+        Objects.requireNonNull(src, "src must not be null");
+        Objects.requireNonNull(outputFormat, "outputFormat must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        List<String> convertArgs = new ArrayList<>();
+        if (args != null) {
+            for (String arg : args) {
+                if (GdalRuntime.isOutputFormatArg(arg)) {
+                    throw new IllegalArgumentException(
+                            "args must not select an output format, pass it as outputFormat instead: " + arg
+                    );
+                }
+                convertArgs.add(arg);
+            }
+        }
+        convertArgs.add("--output-format");
+        convertArgs.add(outputFormat);
+        try (InMemoryDataset target = InMemoryDataset.create("output")) {
+            GdalRuntime.rasterConvert(target.ref(), src, config, progress, convertArgs.toArray(String[]::new));
+            return target.takeBuffer();
+        }
+    }
+
+    /**
+     * Runs {@code operation} over many input/output pairs; see {@link GdalBatch}.
+     */
+    public static GdalBatchReport batch(
+            GdalBatchOperation operation,
+            List<GdalBatchJob> jobs,
+            int threads,
+            String... args
+    ) {
+        return GdalBatch.run(operation, jobs, threads, args);
+    }
+
     public static void rasterZonalStats(Path dest, Path src, Path zones, String... args) {
         rasterZonalStats(DatasetRef.local(dest), DatasetRef.local(src), DatasetRef.local(zones), GdalConfig.empty(), null, args);
     }
@@ -249,10 +412,125 @@ public final class Gdal {
         GdalRuntime.vectorRasterize(dest, src, config, progress, args);
     }
 
+    /**
+     * Configures the shared dataset handle pool used by read-only raster opens and pooled OGR opens (see
+     * {@link OgrOpenOptions#POOLED}).
+     * Idle handles beyond {@code maxOpenHandles} or idle for longer than {@code idleTimeout} are closed; a
+     * background daemon thread closes expired handles even when the pool is not used again.
+     */
+    public static void configureDatasetPool(int maxOpenHandles, Duration idleTimeout) {
+        Objects.requireNonNull(idleTimeout, "idleTimeout must not be null");
+        GdalRuntime.configureDatasetPool(maxOpenHandles, idleTimeout);
+    }
+
+    /**
+     * Closes all idle pooled dataset handles, for example before deleting or replacing pooled files.
+     */
+    public static void clearDatasetPool() {
+        GdalRuntime.clearDatasetPool();
+    }
+
+    /**
+     * Identifies the raster or vector driver of a dataset from its name and header bytes without opening it.
+     * Returns an empty result when no registered driver recognizes the dataset.
+     */
+    public static Optional<DatasetFormat> identify(DatasetRef datasetRef) {
+        return identify(datasetRef, GdalConfig.empty());
+    }
+
+    public static Optional<DatasetFormat> identify(DatasetRef datasetRef, GdalConfig config) {
+        Objects.requireNonNull(datasetRef, "datasetRef must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        return GdalRuntime.identify(datasetRef, config);
+    }
+
+    /**
+     * Limits the CPU threads shared by all concurrent GDAL algorithm runs, {@link WarpSession#warp} calls and raster
+     * window/block reads and writes of this process (default: available processors). Each call takes at least one
+     * thread and blocks while none is free; {@code GDAL_NUM_THREADS} is set to what the call was granted, and
+     * {@code NUM_THREADS=} options and {@code --num-threads} are capped at it.
+     * <p>
+     * Streaming OGR readers and writers are not leased: they run on the caller's thread and never start GDAL
+     * worker threads, so their concurrency is bounded by the caller.
+     */
+    public static void setCpuBudget(int threads) {
+        CpuBudget.configure(threads);
+    }
+
+    public static int cpuBudget() {
+        return CpuBudget.total();
+    }
+
+    /**
+     * Opens a raster dataset read-only for block and window pixel access. Read-only handles come from the shared
+     * dataset handle pool (see {@link #configureDatasetPool}); closing the dataset returns the handle for reuse.
+     */
+    public static RasterDataset openRaster(Path path) {
+        return openRaster(DatasetRef.local(path));
+    }
+
+    public static RasterDataset openRaster(DatasetRef datasetRef) {
+        return openRaster(datasetRef, false, GdalConfig.empty());
+    }
+
+    public static RasterDataset openRaster(DatasetRef datasetRef, boolean writable, GdalConfig config) {
+        Objects.requireNonNull(datasetRef, "datasetRef must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        return RasterRuntime.open(datasetRef, writable, config);
+    }
+
+    /**
+     * Opens a {@link WarpSession} that reprojects windows of {@code source} into {@code targetCrs} at
+     * {@code resolution} target units per pixel without rebuilding the transformer per window.
+     */
+    public static WarpSession openWarpSession(DatasetRef source, String targetCrs, double resolution) {
+        return openWarpSession(source, targetCrs, resolution, RasterResampling.BILINEAR, GdalConfig.empty());
+    }
+
+    public static WarpSession openWarpSession(
+            DatasetRef source,
+            String targetCrs,
+            double resolution,
+            RasterResampling resampling,
+            GdalConfig config
+    ) {
+        Objects.requireNonNull(source, "source must not be null");
+        Objects.requireNonNull(targetCrs, "targetCrs must not be null");
+        Objects.requireNonNull(resampling, "resampling must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        return WarpRuntime.open(source, targetCrs, resolution, resampling, config);
+    }
+
+    /**
+     * Creates a raster with {@code GDALCreate} and returns a writer for block-aligned windows.
+     */
+    public static RasterWriter createRaster(Path path, RasterWriteSpec spec) {
+        return createRaster(DatasetRef.local(path), spec, GdalConfig.empty());
+    }
+
+    public static RasterWriter createRaster(DatasetRef target, RasterWriteSpec spec, GdalConfig config) {
+        Objects.requireNonNull(target, "target must not be null");
+        Objects.requireNonNull(spec, "spec must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        return RasterRuntime.create(target, spec, config);
+    }
+
     public static List<RasterDriverInfo> listWritableRasterDrivers() {
         return GdalRuntime.listWritableRasterDrivers();
     }
 
+    /**
+     * Returns the capability matrix of all registered drivers from a snapshot taken once after registration.
+     */
+    public static List<DriverCapabilities> listDrivers() {
+        return GdalRuntime.listDrivers();
+    }
+
+    public static Optional<DriverCapabilities> driverCapabilities(String driverShortName) {
+        Objects.requireNonNull(driverShortName, "driverShortName must not be null");
+        return GdalRuntime.driverCapabilities(driverShortName);
+    }
+
     public static String driverCreationOptionListXml(String driverShortName) {
         Objects.requireNonNull(driverShortName, "driverShortName must not be null");
         return GdalRuntime.driverCreationOptionListXml(driverShortName);
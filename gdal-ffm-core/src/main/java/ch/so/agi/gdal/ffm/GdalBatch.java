@@ -0,0 +1,124 @@
+package ch.so.agi.gdal.ffm;
+
+import ch.so.agi.gdal.ffm.internal.GdalRuntime;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Runs one raster algorithm over many input/output pairs with bounded parallelism.
+ * <p>
+ * Jobs are dispatched to a fixed number of worker threads; each job is one algorithm execution with the shared
+ * {@code args}, so a batch is equivalent to calling for example {@link Gdal#rasterConvert} once per pair. A
+ * failing job is recorded in its {@link GdalBatchResult} and does not stop the batch. Results are handed to the
+ * optional sink on the calling thread as jobs complete; the returned {@link GdalBatchReport} lists them in
+ * submission order together with throughput metrics.
+ */
+public final class GdalBatch {
+    private GdalBatch() {
+    }
+
+    public static GdalBatchReport run(
+            GdalBatchOperation operation,
+            List<GdalBatchJob> jobs,
+            int threads,
+            String... args
+    ) {
+        return run(operation, jobs, threads, GdalConfig.empty(), null, null, args);
+    }
+
+    /**
+     * Runs all {@code jobs}. {@code progress} (optional) receives per-job progress on worker threads and can abort
+     * individual jobs; {@code sink} (optional) receives every result on the calling thread in completion order.
+     */
+    public static GdalBatchReport run(
+            GdalBatchOperation operation,
+            List<GdalBatchJob> jobs,
+            int threads,
+            GdalConfig config,
+            GdalBatchProgress progress,
+            Consumer<GdalBatchResult> sink,
+            String... args
+    ) {
+        Objects.requireNonNull(operation, "operation must not be null");
+        Objects.requireNonNull(jobs, "jobs must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be > 0");
+        }
+        List<GdalBatchJob> pending = List.copyOf(jobs);
+        String[] jobArgs = args == null ? new String[0] : args.clone();
+
+        long started = System.nanoTime();
+        GdalBatchResult[] results = new GdalBatchResult[pending.size()];
+        try (BoundedWorkers<GdalBatchResult> workers =
+                     new BoundedWorkers<>("gdal-ffm-batch", "running batch jobs", threads)) {
+            int next = 0;
+            int inFlight = 0;
+            while (next < pending.size() || inFlight > 0) {
+                while (inFlight < workers.capacity() && next < pending.size()) {
+                    int index = next++;
+                    GdalBatchJob job = pending.get(index);
+                    workers.submit(() -> execute(operation, index, job, config, progress, jobArgs));
+                    inFlight++;
+                }
+                GdalBatchResult result = workers.take();
+                inFlight--;
+                results[result.index()] = result;
+                if (sink != null) {
+                    sink.accept(result);
+                }
+            }
+        }
+        return new GdalBatchReport(
+                Arrays.asList(results),
+                Duration.ofNanos(System.nanoTime() - started),
+                inputBytes(pending)
+        );
+    }
+
+    private static GdalBatchResult execute(
+            GdalBatchOperation operation,
+            int index,
+            GdalBatchJob job,
+            GdalConfig config,
+            GdalBatchProgress progress,
+            String[] args
+    ) {
+        ProgressCallback callback = progress == null
+                ? null
+                : (complete, message) -> progress.onProgress(index, job, complete, message);
+        long started = System.nanoTime();
+        RuntimeException failure = null;
+        try {
+            switch (operation) {
+                case CONVERT -> GdalRuntime.rasterConvert(job.target(), job.source(), config, callback, args);
+                case REPROJECT -> GdalRuntime.rasterReproject(job.target(), job.source(), config, callback, args);
+                case RESIZE -> GdalRuntime.rasterResize(job.target(), job.source(), config, callback, args);
+                case CLIP -> GdalRuntime.rasterClip(job.target(), job.source(), config, callback, args);
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        return new GdalBatchResult(index, job, Duration.ofNanos(System.nanoTime() - started), failure);
+    }
+
+    private static long inputBytes(List<GdalBatchJob> jobs) {
+        long total = 0;
+        for (GdalBatchJob job : jobs) {
+            if (!job.source().isLocalPath()) {
+                continue;
+            }
+            try {
+                total += Files.size(job.source().localPath());
+            } catch (IOException e) {
+                // Missing inputs fail their job; they just do not count towards throughput.
+            }
+        }
+        return total;
+    }
+}
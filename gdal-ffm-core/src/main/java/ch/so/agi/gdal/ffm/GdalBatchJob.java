@@ -0,0 +1,18 @@
+package ch.so.agi.gdal.ffm;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * One input/output pair of a {@link GdalBatch}.
+ */
+public record GdalBatchJob(DatasetRef source, DatasetRef target) {
+    public GdalBatchJob {
+        Objects.requireNonNull(source, "source must not be null");
+        Objects.requireNonNull(target, "target must not be null");
+    }
+
+    public static GdalBatchJob of(Path source, Path target) {
+        return new GdalBatchJob(DatasetRef.local(source), DatasetRef.local(target));
+    }
+}
@@ -0,0 +1,11 @@
+package ch.so.agi.gdal.ffm;
+
+/**
+ * Raster algorithm applied to every job of a {@link GdalBatch}.
+ */
+public enum GdalBatchOperation {
+    CONVERT,
+    REPROJECT,
+    RESIZE,
+    CLIP
+}
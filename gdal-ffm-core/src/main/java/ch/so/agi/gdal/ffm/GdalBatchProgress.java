@@ -0,0 +1,16 @@
+package ch.so.agi.gdal.ffm;
+
+/**
+ * Per-job progress of a {@link GdalBatch}. Called on worker threads, so implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface GdalBatchProgress {
+    /**
+     * @param index position of the job in the submitted list
+     * @param job job reporting progress
+     * @param complete progress of this job in range {@code [0.0, 1.0]}
+     * @param message informational text from GDAL, can be empty
+     * @return {@code true} to continue, {@code false} to abort this job, which is then reported as failed
+     */
+    boolean onProgress(int index, GdalBatchJob job, double complete, String message);
+}
@@ -0,0 +1,59 @@
+package ch.so.agi.gdal.ffm;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Aggregate outcome of a {@link GdalBatch} run.
+ *
+ * @param results one result per job, in submission order
+ * @param elapsed wall-clock time of the whole batch
+ * @param inputBytes total size of local input files; other inputs are not counted
+ */
+public record GdalBatchReport(List<GdalBatchResult> results, Duration elapsed, long inputBytes) {
+    public GdalBatchReport {
+        Objects.requireNonNull(results, "results must not be null");
+        Objects.requireNonNull(elapsed, "elapsed must not be null");
+        results = List.copyOf(results);
+        if (inputBytes < 0) {
+            throw new IllegalArgumentException("inputBytes must be >= 0");
+        }
+    }
+
+    public int jobCount() {
+        return results.size();
+    }
+
+    public int failedCount() {
+        return (int) results.stream().filter(GdalBatchResult::isFailed).count();
+    }
+
+    public int succeededCount() {
+        return jobCount() - failedCount();
+    }
+
+    public List<GdalBatchResult> failures() {
+        return results.stream().filter(GdalBatchResult::isFailed).toList();
+    }
+
+    /**
+     * Sum of the per-job durations; compared with {@link #elapsed()} it shows the effective parallelism.
+     */
+    public Duration busyTime() {
+        return results.stream().map(GdalBatchResult::elapsed).reduce(Duration.ZERO, Duration::plus);
+    }
+
+    public double jobsPerSecond() {
+        return perSecond(jobCount());
+    }
+
+    public double inputBytesPerSecond() {
+        return perSecond(inputBytes);
+    }
+
+    private double perSecond(double amount) {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0.0 : amount * 1_000_000_000.0 / nanos;
+    }
+}
@@ -0,0 +1,33 @@
+package ch.so.agi.gdal.ffm;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Outcome of one {@link GdalBatchJob}. {@code failure} holds the exception of a failed job (usually a
+ * {@link GdalException} with the GDAL error number and message) and is {@code null} on success.
+ */
+public record GdalBatchResult(int index, GdalBatchJob job, Duration elapsed, RuntimeException failure) {
+    public GdalBatchResult {
+        if (index < 0) {
+            throw new IllegalArgumentException("index must be >= 0");
+        }
+        Objects.requireNonNull(job, "job must not be null");
+        Objects.requireNonNull(elapsed, "elapsed must not be null");
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * Returns the message of {@link #failure()}, or its class name when it has none; {@code null} on success.
+     */
+    public String failureMessage() {
+        if (failure == null) {
+            return null;
+        }
+        String message = failure.getMessage();
+        return message == null ? failure.getClass().getName() : message;
+    }
+}
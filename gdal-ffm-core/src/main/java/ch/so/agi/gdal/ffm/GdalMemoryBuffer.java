@@ -0,0 +1,55 @@
+package ch.so.agi.gdal.ffm;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+
+/**
+ * File contents taken over from GDAL's {@code /vsimem/} file system without copying.
+ * <p>
+ * The bytes live in native memory owned by this buffer until {@link #close()} frees them; the segment and byte
+ * buffer views become inaccessible at that point. {@link #toByteArray()} copies the contents to the Java heap.
+ */
+public final class GdalMemoryBuffer implements AutoCloseable {
+    private final Arena arena;
+    private final MemorySegment segment;
+    private boolean closed;
+
+    GdalMemoryBuffer(Arena arena, MemorySegment segment) {
+        this.arena = arena;
+        this.segment = segment.asReadOnly();
+    }
+
+    public long byteSize() {
+        return segment.byteSize();
+    }
+
+    /**
+     * Returns a read-only view of the native bytes, valid until {@link #close()}.
+     */
+    public MemorySegment segment() {
+        return segment;
+    }
+
+    /**
+     * Returns a read-only direct byte buffer over the native bytes, valid until {@link #close()}. Fails for
+     * contents larger than {@link Integer#MAX_VALUE} bytes.
+     */
+    public ByteBuffer asByteBuffer() {
+        return segment.asByteBuffer();
+    }
+
+    public byte[] toByteArray() {
+        return segment.toArray(ValueLayout.JAVA_BYTE);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        arena.close();
+    }
+}
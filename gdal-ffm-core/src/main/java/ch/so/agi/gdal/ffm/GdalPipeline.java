@@ -0,0 +1,208 @@
+package ch.so.agi.gdal.ffm;
+
+import ch.so.agi.gdal.ffm.internal.GdalRuntime;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Immutable builder for GDAL's {@code raster pipeline} and {@code vector pipeline} algorithms.
+ * <p>
+ * A pipeline starts with a read step, adds processing steps and runs once with {@link #write}. The whole chain
+ * is a single native algorithm execution: intermediate results stream between steps inside GDAL instead of being
+ * written and reopened, and one {@link GdalConfig} scope and one {@link ProgressCallback} cover all steps.
+ * Typed methods cover common steps; {@link #step(String, String...)} appends any other step of the GDAL
+ * pipeline syntax, for example {@code step("edit", "--metadata", "KEY=VALUE")}.
+ */
+public final class GdalPipeline {
+    private static final String SEPARATOR = "!";
+
+    private final Kind kind;
+    private final List<List<String>> steps;
+
+    private GdalPipeline(Kind kind, List<List<String>> steps) {
+        this.kind = kind;
+        this.steps = steps;
+    }
+
+    public static GdalPipeline readRaster(Path src) {
+        return readRaster(DatasetRef.local(src));
+    }
+
+    public static GdalPipeline readRaster(DatasetRef src, String... args) {
+        return read(Kind.RASTER, src, args);
+    }
+
+    public static GdalPipeline readVector(Path src) {
+        return readVector(DatasetRef.local(src));
+    }
+
+    public static GdalPipeline readVector(DatasetRef src, String... args) {
+        return read(Kind.VECTOR, src, args);
+    }
+
+    private static GdalPipeline read(Kind kind, DatasetRef src, String... args) {
+        Objects.requireNonNull(src, "src must not be null");
+        List<String> read = new ArrayList<>();
+        read.add("read");
+        read.add(src.toGdalIdentifier());
+        read.addAll(checkedArgs(args));
+        return new GdalPipeline(kind, List.of(List.copyOf(read)));
+    }
+
+    public boolean isRaster() {
+        return kind == Kind.RASTER;
+    }
+
+    /**
+     * Appends a pipeline step by its GDAL name, for example {@code "resize"} or {@code "filter"}.
+     */
+    public GdalPipeline step(String name, String... args) {
+        Objects.requireNonNull(name, "name must not be null");
+        String trimmed = name.trim();
+        if (trimmed.isEmpty() || trimmed.contains(" ")) {
+            throw new IllegalArgumentException("Pipeline step name must be a single word: " + name);
+        }
+        if (trimmed.equals("read") || trimmed.equals("write")) {
+            throw new IllegalArgumentException("Use readRaster/readVector and write instead of step: " + trimmed);
+        }
+        List<String> step = new ArrayList<>();
+        step.add(trimmed);
+        step.addAll(checkedArgs(args));
+        List<List<String>> extended = new ArrayList<>(steps);
+        extended.add(List.copyOf(step));
+        return new GdalPipeline(kind, List.copyOf(extended));
+    }
+
+    /**
+     * Reprojects to {@code dstCrs} (any CRS definition GDAL accepts, such as {@code EPSG:2056}).
+     */
+    public GdalPipeline reproject(String dstCrs, String... args) {
+        Objects.requireNonNull(dstCrs, "dstCrs must not be null");
+        return step("reproject", prepend(args, "--dst-crs", dstCrs));
+    }
+
+    /**
+     * Clips to {@code bbox}, given in the CRS of the data at this point of the pipeline.
+     */
+    public GdalPipeline clip(BoundingBox bbox, String... args) {
+        Objects.requireNonNull(bbox, "bbox must not be null");
+        String value = String.format(Locale.ROOT, "%s,%s,%s,%s", bbox.minX(), bbox.minY(), bbox.maxX(), bbox.maxY());
+        return step("clip", prepend(args, "--bbox", value));
+    }
+
+    /**
+     * Resizes a raster to {@code width} x {@code height} pixels.
+     */
+    public GdalPipeline resize(int width, int height, String... args) {
+        requireKind(Kind.RASTER, "resize");
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("width and height must be > 0");
+        }
+        return step("resize", prepend(args, "--size", width + "," + height));
+    }
+
+    /**
+     * Keeps the features matching an OGR SQL {@code WHERE} clause.
+     */
+    public GdalPipeline filter(String where, String... args) {
+        requireKind(Kind.VECTOR, "filter");
+        Objects.requireNonNull(where, "where must not be null");
+        return step("filter", prepend(args, "--where", where));
+    }
+
+    /**
+     * Keeps only the listed attribute fields.
+     */
+    public GdalPipeline select(List<String> fields, String... args) {
+        requireKind(Kind.VECTOR, "select");
+        Objects.requireNonNull(fields, "fields must not be null");
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("fields must not be empty");
+        }
+        return step("select", prepend(args, "--fields", String.join(",", fields)));
+    }
+
+    public void write(Path dest, String... args) {
+        write(DatasetRef.local(dest), GdalConfig.empty(), null, args);
+    }
+
+    public void write(DatasetRef dest, String... args) {
+        write(dest, GdalConfig.empty(), null, args);
+    }
+
+    /**
+     * Runs the pipeline with a final write step to {@code dest}. {@code args} are options of the write step, for
+     * example {@code --output-format}, {@code --creation-option} or {@code --overwrite}.
+     */
+    public void write(DatasetRef dest, GdalConfig config, ProgressCallback progress, String... args) {
+        Objects.requireNonNull(dest, "dest must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        GdalRuntime.runPipeline(kind.algorithm, arguments(dest, args), config, progress);
+    }
+
+    /**
+     * Returns the pipeline arguments up to and including the write step, as passed to GDAL.
+     */
+    List<String> arguments(DatasetRef dest, String... args) {
+        List<String> arguments = new ArrayList<>();
+        for (List<String> step : steps) {
+            if (!arguments.isEmpty()) {
+                arguments.add(SEPARATOR);
+            }
+            arguments.addAll(step);
+        }
+        arguments.add(SEPARATOR);
+        arguments.add("write");
+        arguments.add(dest.toGdalIdentifier());
+        arguments.addAll(checkedArgs(args));
+        return List.copyOf(arguments);
+    }
+
+    @Override
+    public String toString() {
+        List<String> parts = new ArrayList<>();
+        for (List<String> step : steps) {
+            parts.add(String.join(" ", step));
+        }
+        return kind.algorithm + " pipeline " + String.join(" " + SEPARATOR + " ", parts);
+    }
+
+    private void requireKind(Kind expected, String step) {
+        if (kind != expected) {
+            throw new IllegalStateException(step + " is not available in a " + kind.algorithm + " pipeline");
+        }
+    }
+
+    private static String[] prepend(String[] args, String... leading) {
+        List<String> combined = new ArrayList<>(List.of(leading));
+        combined.addAll(checkedArgs(args));
+        return combined.toArray(String[]::new);
+    }
+
+    private static List<String> checkedArgs(String[] args) {
+        if (args == null) {
+            return List.of();
+        }
+        for (String arg : args) {
+            Objects.requireNonNull(arg, "args must not contain null");
+            if (arg.equals(SEPARATOR)) {
+                throw new IllegalArgumentException("Pipeline step arguments must not contain '" + SEPARATOR + "'");
+            }
+        }
+        return List.of(args);
+    }
+
+    private enum Kind {
+        RASTER("raster"),
+        VECTOR("vector");
+
+        private final String algorithm;
+
+        Kind(String algorithm) {
+            this.algorithm = algorithm;
+        }
+    }
+}
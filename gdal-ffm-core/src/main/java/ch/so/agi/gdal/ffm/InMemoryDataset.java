@@ -0,0 +1,146 @@
+package ch.so.agi.gdal.ffm;
+
+import ch.so.agi.gdal.ffm.internal.VsiMemFiles;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Dataset stored in GDAL's {@code /vsimem/} file system under a unique, library-managed directory.
+ * <p>
+ * Use {@link #ref()} as the output of one raster operation and the input of the next, so chained steps such as
+ * mosaic, clip and reproject exchange lightweight VRT descriptions instead of materialized files. A VRT refers to
+ * its sources by name: keep every upstream dataset open until the final output has been written. {@link #close()}
+ * deletes the dataset together with sidecar files such as {@code .aux.xml} or {@code .ovr}.
+ * <p>
+ * {@link #wrap(MemorySegment, String)} exposes bytes that already are in memory, such as an upload, as a read-only
+ * file to any API that takes a {@link DatasetRef}, without writing a temporary file.
+ */
+public final class InMemoryDataset implements AutoCloseable {
+    private final String directory;
+    private final DatasetRef ref;
+    // Keeps a wrapped buffer reachable while GDAL reads from it; the arena owns copies of heap buffers.
+    private final MemorySegment wrapped;
+    private final Arena wrappedArena;
+    private volatile boolean closed;
+
+    private InMemoryDataset(String directory, String fileName, MemorySegment wrapped, Arena wrappedArena) {
+        this.directory = directory;
+        this.ref = DatasetRef.gdalVsi(directory + fileName);
+        this.wrapped = wrapped;
+        this.wrappedArena = wrappedArena;
+    }
+
+    /**
+     * Reserves an in-memory dataset path ending in {@code fileName}, whose extension selects the format where
+     * GDAL infers it (for example {@code mosaic.vrt}). The file itself is written by the operation using it.
+     */
+    public static InMemoryDataset create(String fileName) {
+        return new InMemoryDataset(VsiMemFiles.newDirectory(), checkedFileName(fileName), null, null);
+    }
+
+    /**
+     * Exposes caller-owned native memory as the {@code /vsimem/} file {@code nameHint} (for example
+     * {@code upload.gpkg}; the extension helps driver detection) with {@code VSIFileFromMemBuffer}, without
+     * copying. The memory must stay valid and unchanged until this dataset and every dataset opened from
+     * {@link #ref()} are closed. Heap segments have no stable address and are copied to native memory once.
+     */
+    public static InMemoryDataset wrap(MemorySegment buffer, String nameHint) {
+        Objects.requireNonNull(buffer, "buffer must not be null");
+        String fileName = checkedFileName(nameHint);
+        Arena arena = null;
+        MemorySegment nativeBuffer = buffer;
+        if (!buffer.isNative()) {
+            arena = Arena.ofShared();
+            nativeBuffer = arena.allocate(Math.max(1, buffer.byteSize())).asSlice(0, buffer.byteSize());
+            nativeBuffer.copyFrom(buffer);
+        }
+        InMemoryDataset dataset = new InMemoryDataset(VsiMemFiles.newDirectory(), fileName, nativeBuffer, arena);
+        try {
+            VsiMemFiles.map(dataset.ref.identifier(), nativeBuffer);
+            return dataset;
+        } catch (RuntimeException e) {
+            dataset.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Exposes the remaining bytes of {@code buffer} like {@link #wrap(MemorySegment, String)}. Direct buffers are
+     * used in place; heap buffers are copied once.
+     */
+    public static InMemoryDataset wrap(ByteBuffer buffer, String nameHint) {
+        Objects.requireNonNull(buffer, "buffer must not be null");
+        return wrap(MemorySegment.ofBuffer(buffer), nameHint);
+    }
+
+    private static String checkedFileName(String fileName) {
+        Objects.requireNonNull(fileName, "fileName must not be null");
+        String trimmed = fileName.trim();
+        if (trimmed.isEmpty() || trimmed.contains("/") || trimmed.contains("\\")) {
+            throw new IllegalArgumentException("fileName must be a plain, non-blank file name: " + fileName);
+        }
+        return trimmed;
+    }
+
+    public DatasetRef ref() {
+        if (closed) {
+            throw new IllegalStateException("In-memory dataset is closed: " + ref.identifier());
+        }
+        return ref;
+    }
+
+    /**
+     * Removes the dataset file from {@code /vsimem/} and returns its bytes without copying, for example an encoded
+     * PNG or COG for an HTTP response. Sidecar files stay until {@link #close()}.
+     */
+    public GdalMemoryBuffer takeBuffer() {
+        DatasetRef current = ref();
+        if (wrapped != null) {
+            throw new IllegalStateException("Wrapped datasets are backed by caller memory: " + current.identifier());
+        }
+        Arena arena = Arena.ofShared();
+        try {
+            return new GdalMemoryBuffer(arena, VsiMemFiles.seize(current.identifier(), arena));
+        } catch (RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the files GDAL has written for this dataset, relative to its directory.
+     */
+    public List<String> files() {
+        if (closed) {
+            return List.of();
+        }
+        return VsiMemFiles.list(directory);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            VsiMemFiles.delete(directory);
+        } finally {
+            if (wrappedArena != null) {
+                wrappedArena.close();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ref.identifier();
+    }
+}
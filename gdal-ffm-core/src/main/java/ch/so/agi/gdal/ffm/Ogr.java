@@ -5,6 +5,7 @@ import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * OGR vector streaming entrypoints.
@@ -88,6 +89,26 @@ public final class Ogr {
         return OgrRuntime.create(datasetRef, driverShortName, writeMode, datasetCreationOptions, config);
     }
 
+    /**
+     * Identifies the vector driver of a dataset from its name and header bytes without opening it.
+     * Much cheaper than {@link #open(DatasetRef)} for classifying many files; returns an empty result when
+     * no vector driver recognizes the dataset.
+     */
+    public static Optional<DatasetFormat> identify(Path path) {
+        Objects.requireNonNull(path, "path must not be null");
+        return identify(DatasetRef.local(path), GdalConfig.empty());
+    }
+
+    public static Optional<DatasetFormat> identify(DatasetRef datasetRef) {
+        return identify(datasetRef, GdalConfig.empty());
+    }
+
+    public static Optional<DatasetFormat> identify(DatasetRef datasetRef, GdalConfig config) {
+        Objects.requireNonNull(datasetRef, "datasetRef must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        return OgrRuntime.identify(datasetRef, config);
+    }
+
     public static List<OgrDriverInfo> listWritableVectorDrivers() {
         return OgrRuntime.listWritableVectorDrivers();
     }
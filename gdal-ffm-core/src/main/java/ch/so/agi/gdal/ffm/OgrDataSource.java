@@ -2,13 +2,36 @@ package ch.so.agi.gdal.ffm;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Open OGR datasource handle.
  */
 public interface OgrDataSource extends AutoCloseable {
+    /**
+     * Returns an immutable snapshot of all layer definitions present at call time.
+     */
     List<OgrLayerDefinition> listLayers();
 
+    /**
+     * Returns the names of the layers present at call time. The native datasource lists them without describing
+     * their fields, which is cheap even for datasources with many layers; the default derives them from
+     * {@link #listLayers()}.
+     */
+    default List<String> layerNames() {
+        return listLayers().stream().map(OgrLayerDefinition::name).toList();
+    }
+
+    /**
+     * Describes the layer at {@code index} (in {@link #layerNames()} order). The native datasource describes it on
+     * first access and caches definitions per datasource, so repeated calls and a later {@link #listLayers()} reuse
+     * them; the default looks it up in {@link #listLayers()}.
+     */
+    default OgrLayerDefinition layer(int index) {
+        List<OgrLayerDefinition> layers = listLayers();
+        return layers.get(Objects.checkIndex(index, layers.size()));
+    }
+
     OgrLayerReader openReader(String layerName, Map<String, String> options);
 
     OgrLayerWriter openWriter(OgrLayerWriteSpec spec);
@@ -0,0 +1,20 @@
+package ch.so.agi.gdal.ffm;
+
+import java.util.Objects;
+
+/**
+ * OGR layer schema plus statistics collected by {@link DatasetCatalog}.
+ * <p>
+ * {@code featureCount} is {@code -1} when the driver cannot count cheaply and exact statistics were not
+ * requested. {@code extent} and {@code crs} are {@code null} when unknown; {@code crs} is an
+ * {@code AUTHORITY:CODE} string such as {@code EPSG:2056}.
+ */
+public record OgrLayerMetadata(OgrLayerDefinition definition, long featureCount, BoundingBox extent, String crs) {
+    public OgrLayerMetadata {
+        Objects.requireNonNull(definition, "definition must not be null");
+    }
+
+    public String name() {
+        return definition.name();
+    }
+}
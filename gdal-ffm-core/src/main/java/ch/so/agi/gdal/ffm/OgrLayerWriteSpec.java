@@ -6,6 +6,19 @@ import java.util.Objects;
 
 /**
  * Layer creation/write specification for OGR streaming exports.
+ * <p>
+ * With {@code deferIndexCreation} a newly created layer is written without an incrementally maintained
+ * spatial index; the spatial index and the {@code attributeIndexFields} indexes are built once when the
+ * writer (or, if it is still open, its datasource) is closed. Only spatial indexes the layer would get anyway
+ * are deferred: the GPKG R-tree unless {@code SPATIAL_INDEX=NO} is given, and the ESRI Shapefile {@code .qix}
+ * only with {@code SPATIAL_INDEX=YES}. Attribute indexes are supported for GPKG, SQLite and ESRI Shapefile.
+ * <p>
+ * Writes, upserts and updates are grouped into dataset transactions of {@code transactionBatchSize} features on
+ * datasources that report transaction support. The default {@code 0} picks
+ * {@link #AUTOMATIC_TRANSACTION_BATCH_SIZE} there and writes without explicit transactions elsewhere; a size of
+ * {@code 1} commits every feature on its own. The transaction belongs to the datasource and is shared by all of
+ * its open writers. A failed write rolls back the open batch; every writer with features in it then refuses
+ * further features and throws {@link IllegalStateException} when it (or its datasource) is closed.
  */
 public record OgrLayerWriteSpec(
         String layerName,
@@ -15,8 +28,17 @@ public record OgrLayerWriteSpec(
         Map<String, String> datasetCreationOptions,
         Map<String, String> layerCreationOptions,
         String fidFieldName,
-        String geometryFieldName
+        String geometryFieldName,
+        boolean deferIndexCreation,
+        List<String> attributeIndexFields,
+        int transactionBatchSize
 ) {
+    public static final int DEFAULT_TRANSACTION_BATCH_SIZE = 0;
+    /**
+     * Batch size used when none is set and the datasource supports transactions, the same as ogr2ogr's {@code -gt}.
+     */
+    public static final int AUTOMATIC_TRANSACTION_BATCH_SIZE = 100_000;
+
     public OgrLayerWriteSpec {
         Objects.requireNonNull(layerName, "layerName must not be null");
         Objects.requireNonNull(fields, "fields must not be null");
@@ -36,6 +58,16 @@ public record OgrLayerWriteSpec(
         fields = List.copyOf(fields);
         datasetCreationOptions = Map.copyOf(datasetCreationOptions);
         layerCreationOptions = Map.copyOf(layerCreationOptions);
+        attributeIndexFields = attributeIndexFields == null ? List.of() : List.copyOf(attributeIndexFields);
+        for (String attributeIndexField : attributeIndexFields) {
+            if (attributeIndexField.isBlank()) {
+                throw new IllegalArgumentException("attributeIndexFields must not contain blank names");
+            }
+        }
+
+        if (transactionBatchSize < 0) {
+            throw new IllegalArgumentException("transactionBatchSize must be >= 0");
+        }
 
         if (fidFieldName != null && fidFieldName.isBlank()) {
             fidFieldName = null;
@@ -45,6 +77,31 @@ public record OgrLayerWriteSpec(
         }
     }
 
+    public OgrLayerWriteSpec(
+            String layerName,
+            Integer geometryTypeCode,
+            List<OgrFieldDefinition> fields,
+            OgrWriteMode writeMode,
+            Map<String, String> datasetCreationOptions,
+            Map<String, String> layerCreationOptions,
+            String fidFieldName,
+            String geometryFieldName
+    ) {
+        this(
+                layerName,
+                geometryTypeCode,
+                fields,
+                writeMode,
+                datasetCreationOptions,
+                layerCreationOptions,
+                fidFieldName,
+                geometryFieldName,
+                false,
+                List.of(),
+                DEFAULT_TRANSACTION_BATCH_SIZE
+        );
+    }
+
     public OgrLayerWriteSpec(String layerName, Integer geometryTypeCode, List<OgrFieldDefinition> fields) {
         this(
                 layerName,
@@ -67,7 +124,49 @@ public record OgrLayerWriteSpec(
                 datasetCreationOptions,
                 layerCreationOptions,
                 fidFieldName,
-                geometryFieldName
+                geometryFieldName,
+                deferIndexCreation,
+                attributeIndexFields,
+                transactionBatchSize
+        );
+    }
+
+    /**
+     * Returns a copy that defers spatial index creation and builds the given attribute indexes on close.
+     */
+    public OgrLayerWriteSpec withDeferredIndexes(List<String> indexFields) {
+        return new OgrLayerWriteSpec(
+                layerName,
+                geometryTypeCode,
+                fields,
+                writeMode,
+                datasetCreationOptions,
+                layerCreationOptions,
+                fidFieldName,
+                geometryFieldName,
+                true,
+                indexFields,
+                transactionBatchSize
+        );
+    }
+
+    /**
+     * Returns a copy that commits a dataset transaction every {@code batchSize} features ({@code 0} picks
+     * {@link #AUTOMATIC_TRANSACTION_BATCH_SIZE} on datasources that support transactions).
+     */
+    public OgrLayerWriteSpec withTransactionBatchSize(int batchSize) {
+        return new OgrLayerWriteSpec(
+                layerName,
+                geometryTypeCode,
+                fields,
+                writeMode,
+                datasetCreationOptions,
+                layerCreationOptions,
+                fidFieldName,
+                geometryFieldName,
+                deferIndexCreation,
+                attributeIndexFields,
+                batchSize
         );
     }
 }
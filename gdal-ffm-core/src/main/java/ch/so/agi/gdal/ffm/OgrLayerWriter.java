@@ -1,11 +1,58 @@
 package ch.so.agi.gdal.ffm;
 
+import java.lang.foreign.MemorySegment;
+import java.util.Map;
+
 /**
  * Feature writer for an OGR layer.
  */
 public interface OgrLayerWriter extends AutoCloseable {
     void write(OgrFeature feature);
 
+    /**
+     * Inserts the feature or replaces the existing feature with the same FID (or unique key, where the driver
+     * supports it). Writers that cannot upsert throw {@link UnsupportedOperationException}, which is the default.
+     */
+    default void upsert(OgrFeature feature) {
+        throw new UnsupportedOperationException("Upserts are not supported by " + getClass().getName());
+    }
+
+    /**
+     * Updates the existing feature identified by {@link OgrFeature#fid()}.
+     * <p>
+     * Only the attributes present in the feature are updated; a {@code null} geometry keeps the stored geometry.
+     * Writers that cannot update throw {@link UnsupportedOperationException}, which is the default.
+     */
+    default void update(OgrFeature feature) {
+        throw new UnsupportedOperationException("Updates are not supported by " + getClass().getName());
+    }
+
+    /**
+     * Writes one columnar batch given as Arrow C Data Interface structures.
+     *
+     * @see #writeArrowBatch(MemorySegment, MemorySegment, Map)
+     */
+    default void writeArrowBatch(MemorySegment arrowSchema, MemorySegment arrowArray) {
+        writeArrowBatch(arrowSchema, arrowArray, Map.of());
+    }
+
+    /**
+     * Writes one columnar batch given as Arrow C Data Interface structures.
+     * <p>
+     * {@code arrowSchema} points to a {@code struct ArrowSchema} and {@code arrowArray} to a
+     * {@code struct ArrowArray} of struct type whose children map to the layer fields by name.
+     * Drivers with native Arrow write support consume the batch directly; all other drivers fall back
+     * to GDAL's generic row conversion. The caller keeps ownership of both structures and releases them
+     * afterwards, unless GDAL moved the array (its {@code release} callback is then {@code NULL}).
+     * Writers that cannot write Arrow batches throw {@link UnsupportedOperationException}, which is the default.
+     *
+     * @param options GDAL {@code OGR_L_WriteArrowBatch} options, for example {@code FID} or
+     *                {@code IF_FID_NOT_PRESERVED}
+     */
+    default void writeArrowBatch(MemorySegment arrowSchema, MemorySegment arrowArray, Map<String, String> options) {
+        throw new UnsupportedOperationException("Arrow batch writes are not supported by " + getClass().getName());
+    }
+
     @Override
     void close();
 }
@@ -9,6 +9,13 @@ public final class OgrOpenOptions {
      */
     public static final String ALLOWED_DRIVERS = "allowedDrivers";
 
+    /**
+     * {@code true} to reuse an already opened read-only handle for the same dataset, open options and config
+     * from the shared dataset handle pool (see {@link Gdal#configureDatasetPool}). Closing the datasource
+     * returns the handle to the pool.
+     */
+    public static final String POOLED = "pooled";
+
     private OgrOpenOptions() {
     }
 }
@@ -29,6 +29,12 @@ public final class OgrReaderOptions {
      */
     public static final String LIMIT = "limit";
 
+    /**
+     * Comma/semicolon-separated feature IDs to read. Layers with random read support fetch them directly;
+     * other layers scan with an equivalent {@code FID IN (...)} filter. The order of the features is not specified.
+     */
+    public static final String FIDS = "fids";
+
     private OgrReaderOptions() {
     }
 }
@@ -6,7 +6,12 @@ package ch.so.agi.gdal.ffm;
 public enum OgrWriteMode {
     FAIL_IF_EXISTS,
     OVERWRITE,
-    APPEND;
+    APPEND,
+    /**
+     * Opens an existing dataset like {@link #APPEND} and empties an existing layer in place, keeping its
+     * field definitions and indexes where the driver supports native SQL {@code DELETE}.
+     */
+    TRUNCATE;
 
     public static OgrWriteMode fromString(String raw) {
         if (raw == null || raw.isBlank()) {
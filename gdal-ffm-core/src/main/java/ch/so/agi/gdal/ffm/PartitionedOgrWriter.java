@@ -0,0 +1,432 @@
+package ch.so.agi.gdal.ffm;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Feature writer that shards features by a partition key into independent output datasources.
+ * <p>
+ * Partitions are distributed over a fixed number of writer threads ("lanes"). Each lane owns the
+ * datasources and native layer writers of its partitions, so GDAL handles are never shared between
+ * threads. Datasources are created lazily with {@link Ogr#create} on the first feature of a partition and
+ * use the transaction batching of the layer spec, which batches automatically on transactional drivers such
+ * as GPKG. The first failure in any lane is rethrown from {@link #write(OgrFeature)},
+ * {@link #upsert(OgrFeature)}, {@link #update(OgrFeature)} or {@link #close()}.
+ * <p>
+ * Several threads may write concurrently. A feature whose write call returned normally is queued ahead of
+ * the end marker of {@link #close()}, so it is written before close returns.
+ */
+public final class PartitionedOgrWriter implements OgrLayerWriter {
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private static final String NULL_PARTITION_KEY = "_null";
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final Lane[] lanes;
+    private final Function<OgrFeature, String> partitionKey;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final Map<String, String> claimedTargets = new ConcurrentHashMap<>();
+    // Producers hold the read lock while queueing, so close() cannot slip its end markers in between.
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile boolean closed;
+
+    private PartitionedOgrWriter(
+            Function<String, DatasetRef> targetForPartition,
+            String driverShortName,
+            OgrLayerWriteSpec layerSpec,
+            Function<OgrFeature, String> partitionKey,
+            int threads,
+            int queueCapacity,
+            GdalConfig config
+    ) {
+        this.partitionKey = partitionKey;
+        this.lanes = new Lane[threads];
+        for (int i = 0; i < threads; i++) {
+            lanes[i] = new Lane(i, targetForPartition, driverShortName, layerSpec, queueCapacity, config);
+        }
+        for (Lane lane : lanes) {
+            lane.thread.start();
+        }
+    }
+
+    /**
+     * Opens a partitioned writer that writes one file per partition key into {@code outputDirectory}.
+     * File names are {@code <sanitized key>.<extension>}; keys that had to be sanitized get a hash suffix.
+     */
+    public static PartitionedOgrWriter open(
+            Path outputDirectory,
+            String extension,
+            String driverShortName,
+            OgrLayerWriteSpec layerSpec,
+            Function<OgrFeature, String> partitionKey,
+            int threads
+    ) {
+        Objects.requireNonNull(outputDirectory, "outputDirectory must not be null");
+        Objects.requireNonNull(extension, "extension must not be null");
+        String suffix = extension.startsWith(".") ? extension : "." + extension;
+        return open(
+                key -> DatasetRef.local(outputDirectory.resolve(sanitizeFileName(key) + suffix)),
+                driverShortName,
+                layerSpec,
+                partitionKey,
+                threads,
+                DEFAULT_QUEUE_CAPACITY,
+                GdalConfig.empty()
+        );
+    }
+
+    public static PartitionedOgrWriter open(
+            Function<String, DatasetRef> targetForPartition,
+            String driverShortName,
+            OgrLayerWriteSpec layerSpec,
+            Function<OgrFeature, String> partitionKey,
+            int threads,
+            int queueCapacity,
+            GdalConfig config
+    ) {
+        Objects.requireNonNull(targetForPartition, "targetForPartition must not be null");
+        Objects.requireNonNull(driverShortName, "driverShortName must not be null");
+        Objects.requireNonNull(layerSpec, "layerSpec must not be null");
+        Objects.requireNonNull(partitionKey, "partitionKey must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be > 0");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be > 0");
+        }
+        return new PartitionedOgrWriter(
+                targetForPartition,
+                driverShortName,
+                layerSpec,
+                partitionKey,
+                threads,
+                queueCapacity,
+                config
+        );
+    }
+
+    /**
+     * Partitions by the string value of an attribute; missing and {@code null} values map to {@code _null}.
+     */
+    public static Function<OgrFeature, String> byAttribute(String attributeName) {
+        Objects.requireNonNull(attributeName, "attributeName must not be null");
+        return feature -> {
+            Object value = feature.attributes().get(attributeName);
+            return value == null ? NULL_PARTITION_KEY : value.toString();
+        };
+    }
+
+    /**
+     * Partitions by the grid cell containing the center of the feature envelope, as {@code <column>_<row>}.
+     * Features without geometry map to {@code _null}.
+     */
+    public static Function<OgrFeature, String> byGridCell(double originX, double originY, double cellSize) {
+        if (!(cellSize > 0) || Double.isInfinite(cellSize)) {
+            throw new IllegalArgumentException("cellSize must be a positive finite number");
+        }
+        return feature -> {
+            if (feature.geometry() == null) {
+                return NULL_PARTITION_KEY;
+            }
+            double[] envelope = WkbEnvelope.of(feature.geometry().ewkb());
+            if (envelope == null) {
+                return NULL_PARTITION_KEY;
+            }
+            double centerX = (envelope[0] + envelope[2]) / 2.0;
+            double centerY = (envelope[1] + envelope[3]) / 2.0;
+            long column = (long) Math.floor((centerX - originX) / cellSize);
+            long row = (long) Math.floor((centerY - originY) / cellSize);
+            return column + "_" + row;
+        };
+    }
+
+    @Override
+    public void write(OgrFeature feature) {
+        enqueue(feature, Operation.WRITE);
+    }
+
+    /**
+     * Upserts the feature into its partition; FIDs are only unique within one partition datasource.
+     */
+    @Override
+    public void upsert(OgrFeature feature) {
+        enqueue(feature, Operation.UPSERT);
+    }
+
+    /**
+     * Updates the feature in its partition, which must already contain it; the feature's partition key must not
+     * change between the original write and the update.
+     */
+    @Override
+    public void update(OgrFeature feature) {
+        Objects.requireNonNull(feature, "feature must not be null");
+        if (feature.fid() < 0) {
+            throw new IllegalArgumentException("update requires a feature FID >= 0");
+        }
+        enqueue(feature, Operation.UPDATE);
+    }
+
+    /**
+     * Not supported: partitioning needs the key of every feature, which an Arrow batch does not expose row by row.
+     */
+    @Override
+    public void writeArrowBatch(MemorySegment arrowSchema, MemorySegment arrowArray) {
+        writeArrowBatch(arrowSchema, arrowArray, Map.of());
+    }
+
+    /**
+     * Not supported: partitioning needs the key of every feature, which an Arrow batch does not expose row by row.
+     */
+    @Override
+    public void writeArrowBatch(MemorySegment arrowSchema, MemorySegment arrowArray, Map<String, String> options) {
+        throw new UnsupportedOperationException("Arrow batches cannot be partitioned; write features instead");
+    }
+
+    private void enqueue(OgrFeature feature, Operation operation) {
+        Objects.requireNonNull(feature, "feature must not be null");
+        rethrowFailure();
+
+        String key = partitionKey.apply(feature);
+        String effectiveKey = key == null ? NULL_PARTITION_KEY : key;
+        Lane lane = lanes[Math.floorMod(effectiveKey.hashCode(), lanes.length)];
+        Task task = new Task(effectiveKey, operation, feature);
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Partitioned writer is closed");
+            }
+            while (!lane.queue.offer(task, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                rethrowFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing feature for partition: " + effectiveKey, e);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stops all lanes after their queued features were written and closes every partition datasource.
+     */
+    @Override
+    public void close() {
+        // Waits for producers that are still queueing; lanes keep draining, so they cannot block forever.
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+
+        boolean interrupted = false;
+        for (Lane lane : lanes) {
+            while (true) {
+                try {
+                    lane.queue.put(Task.END);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        for (Lane lane : lanes) {
+            while (true) {
+                try {
+                    lane.thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        rethrowFailure();
+    }
+
+    /**
+     * Returns the partition keys that received at least one feature, ordered by first appearance per lane.
+     */
+    public List<String> partitionKeys() {
+        if (!closed) {
+            throw new IllegalStateException("Partition keys are available after close()");
+        }
+        List<String> keys = new ArrayList<>();
+        for (Lane lane : lanes) {
+            keys.addAll(lane.partitions.keySet());
+        }
+        return List.copyOf(keys);
+    }
+
+    private void rethrowFailure() {
+        Throwable first = failure.get();
+        if (first == null) {
+            return;
+        }
+        if (first instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (first instanceof Error error) {
+            throw error;
+        }
+        throw new IllegalStateException("Partition writer failed", first);
+    }
+
+    /**
+     * Keeps file-name-safe keys unchanged; rewritten keys get a hash of the raw key appended, so that for example
+     * {@code Biel/Bienne} and {@code Biel_Bienne} do not share a file.
+     */
+    static String sanitizeFileName(String key) {
+        String sanitized = key.replaceAll("[^A-Za-z0-9._-]", "_");
+        if (sanitized.isEmpty() || sanitized.startsWith(".")) {
+            sanitized = "_" + sanitized;
+        }
+        return sanitized.equals(key) ? sanitized : sanitized + "-" + String.format("%08x", key.hashCode());
+    }
+
+    /**
+     * Records which partition key owns a target; a second key resolving to the same target (compared
+     * case-insensitively for case-insensitive file systems) is rejected before its datasource is created.
+     */
+    static void claimTarget(Map<String, String> claimedTargets, String key, DatasetRef target) {
+        String identifier = target.identifier().toLowerCase(Locale.ROOT);
+        String owner = claimedTargets.putIfAbsent(identifier, key);
+        if (owner != null && !owner.equals(key)) {
+            throw new IllegalStateException(
+                    "Partitions '" + owner + "' and '" + key + "' resolve to the same target: " + target.identifier()
+            );
+        }
+    }
+
+    private enum Operation {
+        WRITE,
+        UPSERT,
+        UPDATE
+    }
+
+    private record Task(String key, Operation operation, OgrFeature feature) {
+        private static final Task END = new Task(null, null, null);
+    }
+
+    private record Partition(OgrDataSource dataSource, OgrLayerWriter writer) {
+    }
+
+    private final class Lane implements Runnable {
+        private final Function<String, DatasetRef> targetForPartition;
+        private final String driverShortName;
+        private final OgrLayerWriteSpec layerSpec;
+        private final GdalConfig config;
+        private final BlockingQueue<Task> queue;
+        private final Map<String, Partition> partitions = new LinkedHashMap<>();
+        private final Thread thread;
+
+        private Lane(
+                int index,
+                Function<String, DatasetRef> targetForPartition,
+                String driverShortName,
+                OgrLayerWriteSpec layerSpec,
+                int queueCapacity,
+                GdalConfig config
+        ) {
+            this.targetForPartition = targetForPartition;
+            this.driverShortName = driverShortName;
+            this.layerSpec = layerSpec;
+            this.config = config;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this, "gdal-ffm-partition-writer-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Task task = queue.take();
+                    if (task == Task.END) {
+                        break;
+                    }
+                    // After a failure keep draining so producers never block on a full queue.
+                    if (failure.get() != null) {
+                        continue;
+                    }
+                    try {
+                        OgrLayerWriter writer = partition(task.key()).writer();
+                        switch (task.operation()) {
+                            case WRITE -> writer.write(task.feature());
+                            case UPSERT -> writer.upsert(task.feature());
+                            case UPDATE -> writer.update(task.feature());
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            } catch (InterruptedException e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                closePartitions();
+            }
+        }
+
+        private Partition partition(String key) {
+            Partition partition = partitions.get(key);
+            if (partition != null) {
+                return partition;
+            }
+            DatasetRef target = Objects.requireNonNull(
+                    targetForPartition.apply(key),
+                    "targetForPartition returned null for partition: " + key
+            );
+            claimTarget(claimedTargets, key, target);
+            OgrDataSource dataSource = Ogr.create(
+                    target,
+                    driverShortName,
+                    layerSpec.writeMode(),
+                    layerSpec.datasetCreationOptions(),
+                    config
+            );
+            try {
+                partition = new Partition(dataSource, dataSource.openWriter(layerSpec));
+            } catch (RuntimeException e) {
+                dataSource.close();
+                throw e;
+            }
+            partitions.put(key, partition);
+            return partition;
+        }
+
+        private void closePartitions() {
+            for (Partition partition : partitions.values()) {
+                try {
+                    partition.writer().close();
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+                try {
+                    partition.dataSource().close();
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        }
+    }
+}
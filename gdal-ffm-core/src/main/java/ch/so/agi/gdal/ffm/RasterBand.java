@@ -0,0 +1,219 @@
+package ch.so.agi.gdal.ffm;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Pixel access to one band of a {@link RasterDataset}.
+ * <p>
+ * {@code MemorySegment} variants read into or write from caller-provided native memory without copying;
+ * GDAL converts between the band data type and the requested buffer data type. Buffers are packed
+ * row-major in native byte order. Array variants use a temporary native buffer and copy. Java arrays
+ * are signed, so {@code byte[]} carries unsigned {@link RasterDataType#BYTE} values as two's complement.
+ */
+public interface RasterBand {
+    /**
+     * 1-based GDAL band number.
+     */
+    int index();
+
+    int width();
+
+    int height();
+
+    RasterDataType dataType();
+
+    int blockWidth();
+
+    int blockHeight();
+
+    /**
+     * Number of reduced-resolution overview levels stored for this band.
+     */
+    int overviewCount();
+
+    /**
+     * Returns the overview band for a 0-based level; level {@code 0} is the largest overview.
+     */
+    RasterBand overview(int level);
+
+    default int blockCountX() {
+        return RasterWindow.blockCount(width(), blockWidth());
+    }
+
+    default int blockCountY() {
+        return RasterWindow.blockCount(height(), blockHeight());
+    }
+
+    /**
+     * Returns the pixel window covered by a block, clipped to the band size at the right and bottom edges.
+     */
+    default RasterWindow blockWindow(int blockX, int blockY) {
+        if (blockX < 0 || blockY < 0 || blockX >= blockCountX() || blockY >= blockCountY()) {
+            throw new IllegalArgumentException("Block (" + blockX + ", " + blockY + ") is outside the band");
+        }
+        return RasterWindow.ofBlock(width(), height(), blockWidth(), blockHeight(), blockX, blockY);
+    }
+
+    /**
+     * Computes minimum, maximum, mean and standard deviation with {@code GDALComputeRasterStatistics}.
+     * GDAL stores the result as band metadata, which may be persisted to a {@code .aux.xml} sidecar.
+     */
+    default RasterBandStatistics statistics(boolean approxOk) {
+        return statistics(approxOk, null);
+    }
+
+    /**
+     * Computes statistics reporting to {@code progress}; returning {@code false} from the callback cancels the
+     * computation with a {@link GdalException}.
+     */
+    RasterBandStatistics statistics(boolean approxOk, ProgressCallback progress);
+
+    default RasterHistogram histogram(double min, double max, int bucketCount) {
+        return histogram(min, max, bucketCount, false, false, null);
+    }
+
+    /**
+     * Counts pixel values into {@code bucketCount} buckets between {@code min} and {@code max} with
+     * {@code GDALGetRasterHistogramEx}, ignoring nodata pixels.
+     */
+    RasterHistogram histogram(
+            double min,
+            double max,
+            int bucketCount,
+            boolean includeOutOfRange,
+            boolean approxOk,
+            ProgressCallback progress
+    );
+
+    /**
+     * Reads one natural block in the band data type. {@code target} must hold a full block of
+     * {@code blockWidth * blockHeight} values even at the edges; pixels outside the band are undefined.
+     */
+    void readBlock(int blockX, int blockY, MemorySegment target);
+
+    /**
+     * Writes one natural block in the band data type; see {@link #readBlock(int, int, MemorySegment)}.
+     */
+    void writeBlock(int blockX, int blockY, MemorySegment source);
+
+    default void readWindow(RasterWindow window, RasterDataType bufferType, MemorySegment target) {
+        readWindow(window, window.width(), window.height(), bufferType, target);
+    }
+
+    /**
+     * Reads a window scaled to {@code bufferWidth x bufferHeight} pixels of {@code bufferType} with nearest
+     * neighbour resampling.
+     */
+    default void readWindow(
+            RasterWindow window,
+            int bufferWidth,
+            int bufferHeight,
+            RasterDataType bufferType,
+            MemorySegment target
+    ) {
+        readWindow(window, bufferWidth, bufferHeight, bufferType, RasterResampling.NEAREST, target);
+    }
+
+    /**
+     * Reads a window scaled to {@code bufferWidth x bufferHeight} pixels of {@code bufferType}.
+     * <p>
+     * When the buffer is smaller than the window GDAL reads from the overview level closest to the requested
+     * resolution instead of decoding full-resolution pixels, then applies {@code resampling}.
+     */
+    void readWindow(
+            RasterWindow window,
+            int bufferWidth,
+            int bufferHeight,
+            RasterDataType bufferType,
+            RasterResampling resampling,
+            MemorySegment target
+    );
+
+    /**
+     * Reads a scaled window into a {@code bufferWidth * bufferHeight} array; see
+     * {@link #readWindow(RasterWindow, int, int, RasterDataType, RasterResampling, MemorySegment)}.
+     */
+    void readWindow(
+            RasterWindow window,
+            int bufferWidth,
+            int bufferHeight,
+            RasterResampling resampling,
+            byte[] target
+    );
+
+    void readWindow(
+            RasterWindow window,
+            int bufferWidth,
+            int bufferHeight,
+            RasterResampling resampling,
+            short[] target
+    );
+
+    void readWindow(
+            RasterWindow window,
+            int bufferWidth,
+            int bufferHeight,
+            RasterResampling resampling,
+            int[] target
+    );
+
+    void readWindow(
+            RasterWindow window,
+            int bufferWidth,
+            int bufferHeight,
+            RasterResampling resampling,
+            long[] target
+    );
+
+    void readWindow(
+            RasterWindow window,
+            int bufferWidth,
+            int bufferHeight,
+            RasterResampling resampling,
+            float[] target
+    );
+
+    void readWindow(
+            RasterWindow window,
+            int bufferWidth,
+            int bufferHeight,
+            RasterResampling resampling,
+            double[] target
+    );
+
+    default void writeWindow(RasterWindow window, RasterDataType bufferType, MemorySegment source) {
+        writeWindow(window, window.width(), window.height(), bufferType, source);
+    }
+
+    void writeWindow(
+            RasterWindow window,
+            int bufferWidth,
+            int bufferHeight,
+            RasterDataType bufferType,
+            MemorySegment source
+    );
+
+    void readWindow(RasterWindow window, byte[] target);
+
+    void readWindow(RasterWindow window, short[] target);
+
+    void readWindow(RasterWindow window, int[] target);
+
+    void readWindow(RasterWindow window, long[] target);
+
+    void readWindow(RasterWindow window, float[] target);
+
+    void readWindow(RasterWindow window, double[] target);
+
+    void writeWindow(RasterWindow window, byte[] source);
+
+    void writeWindow(RasterWindow window, short[] source);
+
+    void writeWindow(RasterWindow window, int[] source);
+
+    void writeWindow(RasterWindow window, long[] source);
+
+    void writeWindow(RasterWindow window, float[] source);
+
+    void writeWindow(RasterWindow window, double[] source);
+}
@@ -0,0 +1,24 @@
+package ch.so.agi.gdal.ffm;
+
+import java.util.Objects;
+import java.util.OptionalDouble;
+
+/**
+ * Raster band metadata. {@code index} is 1-based like GDAL band numbers.
+ */
+public record RasterBandMetadata(
+        int index,
+        RasterDataType dataType,
+        int blockWidth,
+        int blockHeight,
+        int overviewCount,
+        OptionalDouble noDataValue
+) {
+    public RasterBandMetadata {
+        Objects.requireNonNull(dataType, "dataType must not be null");
+        Objects.requireNonNull(noDataValue, "noDataValue must not be null");
+        if (index <= 0) {
+            throw new IllegalArgumentException("index must be > 0");
+        }
+    }
+}
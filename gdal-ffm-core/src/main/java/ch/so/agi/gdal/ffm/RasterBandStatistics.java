@@ -0,0 +1,8 @@
+package ch.so.agi.gdal.ffm;
+
+/**
+ * Band statistics computed by GDAL, ignoring nodata pixels. With {@code approximate} the values may come from
+ * an overview or a subsample of blocks.
+ */
+public record RasterBandStatistics(double min, double max, double mean, double stdDev, boolean approximate) {
+}
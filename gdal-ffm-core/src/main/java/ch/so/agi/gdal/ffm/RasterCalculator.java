@@ -0,0 +1,176 @@
+package ch.so.agi.gdal.ffm;
+
+import ch.so.agi.gdal.ffm.internal.BandMathKernels;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Raster band math over block buffers, for example {@code (A - B) / (A + B)}.
+ * <p>
+ * The output is created with {@link Gdal#createRaster(DatasetRef, RasterWriteSpec, GdalConfig)} and computed
+ * tile by tile along its block grid with {@link RasterTileProcessor}. Workers read the input windows as
+ * {@code float} buffers, turn input nodata into {@code NaN}, evaluate the {@link RasterExpression} with
+ * (where available) SIMD kernels and write {@code NaN} results as the nodata value of the output spec. Every
+ * worker opens its own input datasets; only the calling thread writes the output.
+ */
+public final class RasterCalculator {
+    private RasterCalculator() {
+    }
+
+    public static void calculate(
+            String expression,
+            List<RasterCalculatorInput> inputs,
+            Path target,
+            RasterWriteSpec spec
+    ) {
+        calculate(
+                RasterExpression.parse(expression),
+                inputs,
+                DatasetRef.local(target),
+                spec,
+                Runtime.getRuntime().availableProcessors(),
+                GdalConfig.empty(),
+                null
+        );
+    }
+
+    /**
+     * Evaluates {@code expression} into a single-band raster described by {@code spec}. Inputs must cover every
+     * expression variable and match the output size. {@code progress} receives overview and COG copy progress.
+     */
+    public static void calculate(
+            RasterExpression expression,
+            List<RasterCalculatorInput> inputs,
+            DatasetRef target,
+            RasterWriteSpec spec,
+            int threads,
+            GdalConfig config,
+            ProgressCallback progress
+    ) {
+        Objects.requireNonNull(expression, "expression must not be null");
+        Objects.requireNonNull(inputs, "inputs must not be null");
+        Objects.requireNonNull(target, "target must not be null");
+        Objects.requireNonNull(spec, "spec must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be > 0");
+        }
+        if (spec.bandCount() != 1) {
+            throw new IllegalArgumentException("Raster calculator output must have exactly one band");
+        }
+        List<RasterCalculatorInput> used = usedInputs(expression, inputs);
+        validateInputs(used, spec, config);
+
+        BandMathKernels kernels = BandMathKernels.best();
+        DatasetRef source = used.getFirst().dataset();
+        Double outputNoData = spec.noDataValue();
+        Queue<RasterDataset> opened = new ConcurrentLinkedQueue<>();
+        ThreadLocal<Map<DatasetRef, RasterDataset>> workerDatasets = ThreadLocal.withInitial(HashMap::new);
+
+        try (RasterWriter writer = Gdal.createRaster(target, spec, config)) {
+            Iterable<RasterTile> tiles = RasterTileProcessor.tiles(
+                    1,
+                    writer.width(),
+                    writer.height(),
+                    writer.blockWidth(),
+                    writer.blockHeight()
+            );
+            try {
+                RasterTileProcessor.process(
+                        source,
+                        tiles,
+                        threads,
+                        false,
+                        config,
+                        (sourceDataset, tile) -> {
+                            int length = tile.window().width() * tile.window().height();
+                            Map<String, float[]> values = new HashMap<>();
+                            for (RasterCalculatorInput input : used) {
+                                RasterDataset dataset = input.dataset().equals(source)
+                                        ? sourceDataset
+                                        : workerDatasets.get().computeIfAbsent(input.dataset(), ref -> {
+                                            RasterDataset other = Gdal.openRaster(ref, false, config);
+                                            opened.add(other);
+                                            return other;
+                                        });
+                                float[] buffer = new float[length];
+                                dataset.band(input.bandNumber()).readWindow(tile.window(), buffer);
+                                if (input.noDataValue() != null) {
+                                    kernels.maskNoData(buffer, input.noDataValue().floatValue(), length);
+                                }
+                                values.put(input.name(), buffer);
+                            }
+                            float[] result = expression.evaluate(values, length);
+                            if (outputNoData != null) {
+                                float noData = outputNoData.floatValue();
+                                for (int i = 0; i < length; i++) {
+                                    if (Float.isNaN(result[i])) {
+                                        result[i] = noData;
+                                    }
+                                }
+                            }
+                            return result;
+                        },
+                        result -> writer.write(1, result.tile().window(), result.value())
+                );
+            } finally {
+                for (RasterDataset dataset : opened) {
+                    dataset.close();
+                }
+            }
+            writer.finish(progress);
+        }
+    }
+
+    private static List<RasterCalculatorInput> usedInputs(
+            RasterExpression expression,
+            List<RasterCalculatorInput> inputs
+    ) {
+        Map<String, RasterCalculatorInput> byName = new LinkedHashMap<>();
+        for (RasterCalculatorInput input : inputs) {
+            Objects.requireNonNull(input, "inputs must not contain null");
+            if (byName.putIfAbsent(input.name(), input) != null) {
+                throw new IllegalArgumentException("Duplicate raster calculator input: " + input.name());
+            }
+        }
+        if (expression.variables().isEmpty()) {
+            throw new IllegalArgumentException("Expression must reference at least one input: " + expression);
+        }
+        List<RasterCalculatorInput> used = new ArrayList<>();
+        for (String variable : expression.variables()) {
+            RasterCalculatorInput input = byName.get(variable);
+            if (input == null) {
+                throw new IllegalArgumentException("No raster calculator input for expression variable: " + variable);
+            }
+            used.add(input);
+        }
+        return List.copyOf(used);
+    }
+
+    private static void validateInputs(List<RasterCalculatorInput> inputs, RasterWriteSpec spec, GdalConfig config) {
+        Map<DatasetRef, List<RasterCalculatorInput>> byDataset = new LinkedHashMap<>();
+        for (RasterCalculatorInput input : inputs) {
+            byDataset.computeIfAbsent(input.dataset(), ignored -> new ArrayList<>()).add(input);
+        }
+        for (Map.Entry<DatasetRef, List<RasterCalculatorInput>> entry : byDataset.entrySet()) {
+            try (RasterDataset dataset = Gdal.openRaster(entry.getKey(), false, config)) {
+                if (dataset.width() != spec.width() || dataset.height() != spec.height()) {
+                    throw new IllegalArgumentException(
+                            "Input raster " + entry.getKey().identifier() + " is " + dataset.width() + "x"
+                                    + dataset.height() + " but the output is " + spec.width() + "x" + spec.height()
+                    );
+                }
+                for (RasterCalculatorInput input : entry.getValue()) {
+                    dataset.band(input.bandNumber());
+                }
+            }
+        }
+    }
+}
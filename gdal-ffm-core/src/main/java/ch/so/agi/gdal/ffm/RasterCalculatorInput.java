@@ -0,0 +1,33 @@
+package ch.so.agi.gdal.ffm;
+
+import java.util.Objects;
+
+/**
+ * Binds a {@link RasterExpression} variable to a band of a raster dataset.
+ *
+ * @param name variable name used in the expression
+ * @param dataset raster dataset to read from
+ * @param bandNumber 1-based GDAL band number
+ * @param noDataValue input value treated as nodata ({@code NaN} in the expression), or {@code null} for none
+ */
+public record RasterCalculatorInput(String name, DatasetRef dataset, int bandNumber, Double noDataValue) {
+    public RasterCalculatorInput {
+        Objects.requireNonNull(name, "name must not be null");
+        Objects.requireNonNull(dataset, "dataset must not be null");
+        name = name.trim();
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("name must not be blank");
+        }
+        if (bandNumber < 1) {
+            throw new IllegalArgumentException("bandNumber must be >= 1");
+        }
+    }
+
+    public RasterCalculatorInput(String name, DatasetRef dataset, int bandNumber) {
+        this(name, dataset, bandNumber, null);
+    }
+
+    public RasterCalculatorInput withNoDataValue(Double value) {
+        return new RasterCalculatorInput(name, dataset, bandNumber, value);
+    }
+}
@@ -0,0 +1,56 @@
+package ch.so.agi.gdal.ffm;
+
+/**
+ * GDAL raster pixel data type codes ({@code GDALDataType}).
+ */
+public enum RasterDataType {
+    BYTE(1, 1),
+    UINT16(2, 2),
+    INT16(3, 2),
+    UINT32(4, 4),
+    INT32(5, 4),
+    FLOAT32(6, 4),
+    FLOAT64(7, 8),
+    CINT16(8, 4),
+    CINT32(9, 8),
+    CFLOAT32(10, 8),
+    CFLOAT64(11, 16),
+    UINT64(12, 8),
+    INT64(13, 8),
+    INT8(14, 1),
+    FLOAT16(15, 2),
+    CFLOAT16(16, 4),
+    UNKNOWN(0, 0);
+
+    private final int nativeCode;
+    private final int sizeBytes;
+
+    RasterDataType(int nativeCode, int sizeBytes) {
+        this.nativeCode = nativeCode;
+        this.sizeBytes = sizeBytes;
+    }
+
+    public int nativeCode() {
+        return nativeCode;
+    }
+
+    /**
+     * Size of one pixel value in bytes, {@code 0} for {@link #UNKNOWN}.
+     */
+    public int sizeBytes() {
+        return sizeBytes;
+    }
+
+    public boolean isComplex() {
+        return this == CINT16 || this == CINT32 || this == CFLOAT16 || this == CFLOAT32 || this == CFLOAT64;
+    }
+
+    public static RasterDataType fromNativeCode(int nativeCode) {
+        for (RasterDataType value : values()) {
+            if (value.nativeCode == nativeCode) {
+                return value;
+            }
+        }
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,32 @@
+package ch.so.agi.gdal.ffm;
+
+/**
+ * Open GDAL raster dataset handle.
+ * <p>
+ * The handle and its bands are bound to the dataset lifetime and are not meant to be shared between
+ * threads for concurrent pixel access; open one dataset per worker thread instead.
+ */
+public interface RasterDataset extends AutoCloseable {
+    int width();
+
+    int height();
+
+    int bandCount();
+
+    /**
+     * Returns the band with the given 1-based GDAL band number.
+     */
+    RasterBand band(int bandNumber);
+
+    RasterMetadata metadata();
+
+    boolean isWritable();
+
+    /**
+     * Flushes cached writes to the underlying file.
+     */
+    void flush();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,391 @@
+package ch.so.agi.gdal.ffm;
+
+import ch.so.agi.gdal.ffm.internal.BandMathKernels;
+import ch.so.agi.gdal.ffm.internal.BandMathKernels.BinaryOp;
+import ch.so.agi.gdal.ffm.internal.BandMathKernels.UnaryOp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Parsed raster calculator expression, evaluated element-wise over float block buffers.
+ * <p>
+ * Supported are numbers, input names ({@code A}, {@code nir}, ...), {@code + - * /}, comparisons
+ * ({@code < <= > >= == !=}, yielding {@code 1} or {@code 0}), parentheses and the functions {@code min(a, b)},
+ * {@code max(a, b)}, {@code abs(a)}, {@code sqrt(a)}, {@code where(condition, a, b)} and
+ * {@code reclass(a, min1, max1, value1, ...)}, which maps {@code [min, max)} ranges to values and everything
+ * else to {@code NaN}. NaN marks nodata and propagates through arithmetic, e.g. {@code (A - B) / (A + B)}.
+ * <p>
+ * Each operator runs over the whole buffer at once; with {@code --add-modules jdk.incubator.vector} the
+ * kernels use SIMD instructions, otherwise scalar loops.
+ */
+public final class RasterExpression {
+    private final String expression;
+    private final Node root;
+    private final Set<String> variables;
+
+    private RasterExpression(String expression, Node root, Set<String> variables) {
+        this.expression = expression;
+        this.root = root;
+        this.variables = variables;
+    }
+
+    public static RasterExpression parse(String expression) {
+        Objects.requireNonNull(expression, "expression must not be null");
+        Parser parser = new Parser(expression);
+        Node root = parser.parseExpression();
+        parser.skipWhitespace();
+        if (parser.position < expression.length()) {
+            throw parser.error("Unexpected '" + expression.charAt(parser.position) + "'");
+        }
+        return new RasterExpression(expression, root, Collections.unmodifiableSet(parser.variables));
+    }
+
+    public String expression() {
+        return expression;
+    }
+
+    /**
+     * Input names referenced by the expression, in order of first appearance.
+     */
+    public Set<String> variables() {
+        return variables;
+    }
+
+    /**
+     * Evaluates the expression over the first {@code length} values of every input.
+     */
+    public float[] evaluate(Map<String, float[]> inputs, int length) {
+        return evaluate(inputs, length, BandMathKernels.best());
+    }
+
+    float[] evaluate(Map<String, float[]> inputs, int length, BandMathKernels kernels) {
+        Objects.requireNonNull(inputs, "inputs must not be null");
+        if (length < 0) {
+            throw new IllegalArgumentException("length must be >= 0");
+        }
+        for (String variable : variables) {
+            float[] values = inputs.get(variable);
+            if (values == null) {
+                throw new IllegalArgumentException("Missing input for expression variable: " + variable);
+            }
+            if (values.length < length) {
+                throw new IllegalArgumentException("Input " + variable + " holds fewer than " + length + " values");
+            }
+        }
+        float[] result = root.evaluate(inputs, length, kernels);
+        // Variables evaluate to the caller's array; never hand that back as the result.
+        return root instanceof Variable ? Arrays.copyOf(result, length) : result;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private sealed interface Node permits Constant, Variable, Binary, Unary, Select, Reclass {
+        float[] evaluate(Map<String, float[]> inputs, int length, BandMathKernels kernels);
+    }
+
+    private record Constant(float value) implements Node {
+        @Override
+        public float[] evaluate(Map<String, float[]> inputs, int length, BandMathKernels kernels) {
+            float[] values = new float[length];
+            Arrays.fill(values, value);
+            return values;
+        }
+    }
+
+    private record Variable(String name) implements Node {
+        @Override
+        public float[] evaluate(Map<String, float[]> inputs, int length, BandMathKernels kernels) {
+            return inputs.get(name);
+        }
+    }
+
+    private record Binary(BinaryOp op, Node left, Node right) implements Node {
+        @Override
+        public float[] evaluate(Map<String, float[]> inputs, int length, BandMathKernels kernels) {
+            float[] leftValues = left.evaluate(inputs, length, kernels);
+            float[] rightValues = right.evaluate(inputs, length, kernels);
+            float[] out = output(left, leftValues, right, rightValues, length);
+            kernels.binary(op, leftValues, rightValues, out, length);
+            return out;
+        }
+    }
+
+    private record Unary(UnaryOp op, Node operand) implements Node {
+        @Override
+        public float[] evaluate(Map<String, float[]> inputs, int length, BandMathKernels kernels) {
+            float[] values = operand.evaluate(inputs, length, kernels);
+            float[] out = operand instanceof Variable ? new float[length] : values;
+            kernels.unary(op, values, out, length);
+            return out;
+        }
+    }
+
+    private record Select(Node condition, Node whenTrue, Node whenFalse) implements Node {
+        @Override
+        public float[] evaluate(Map<String, float[]> inputs, int length, BandMathKernels kernels) {
+            float[] conditionValues = condition.evaluate(inputs, length, kernels);
+            float[] trueValues = whenTrue.evaluate(inputs, length, kernels);
+            float[] falseValues = whenFalse.evaluate(inputs, length, kernels);
+            float[] out = condition instanceof Variable ? new float[length] : conditionValues;
+            kernels.select(conditionValues, trueValues, falseValues, out, length);
+            return out;
+        }
+    }
+
+    private record Reclass(Node operand, float[] mins, float[] maxs, float[] values) implements Node {
+        @Override
+        public float[] evaluate(Map<String, float[]> inputs, int length, BandMathKernels kernels) {
+            float[] operandValues = operand.evaluate(inputs, length, kernels);
+            float[] out = operand instanceof Variable ? new float[length] : operandValues;
+            kernels.reclass(operandValues, mins, maxs, values, out, length);
+            return out;
+        }
+    }
+
+    /**
+     * Reuses an intermediate buffer as output; input arrays owned by the caller are never overwritten.
+     */
+    private static float[] output(Node left, float[] leftValues, Node right, float[] rightValues, int length) {
+        if (!(left instanceof Variable)) {
+            return leftValues;
+        }
+        if (!(right instanceof Variable)) {
+            return rightValues;
+        }
+        return new float[length];
+    }
+
+    private static final class Parser {
+        private final String text;
+        private final Set<String> variables = new LinkedHashSet<>();
+        private int position;
+
+        private Parser(String text) {
+            this.text = text;
+        }
+
+        private Node parseExpression() {
+            Node left = parseAdditive();
+            skipWhitespace();
+            BinaryOp comparison = null;
+            if (consume("<=")) {
+                comparison = BinaryOp.LESS_OR_EQUAL;
+            } else if (consume(">=")) {
+                comparison = BinaryOp.GREATER_OR_EQUAL;
+            } else if (consume("==")) {
+                comparison = BinaryOp.EQUAL;
+            } else if (consume("!=")) {
+                comparison = BinaryOp.NOT_EQUAL;
+            } else if (consume("<")) {
+                comparison = BinaryOp.LESS;
+            } else if (consume(">")) {
+                comparison = BinaryOp.GREATER;
+            }
+            return comparison == null ? left : binary(comparison, left, parseAdditive());
+        }
+
+        private Node parseAdditive() {
+            Node node = parseTerm();
+            while (true) {
+                skipWhitespace();
+                if (consume("+")) {
+                    node = binary(BinaryOp.ADD, node, parseTerm());
+                } else if (consume("-")) {
+                    node = binary(BinaryOp.SUBTRACT, node, parseTerm());
+                } else {
+                    return node;
+                }
+            }
+        }
+
+        private Node parseTerm() {
+            Node node = parseUnary();
+            while (true) {
+                skipWhitespace();
+                if (consume("*")) {
+                    node = binary(BinaryOp.MULTIPLY, node, parseUnary());
+                } else if (consume("/")) {
+                    node = binary(BinaryOp.DIVIDE, node, parseUnary());
+                } else {
+                    return node;
+                }
+            }
+        }
+
+        private Node parseUnary() {
+            skipWhitespace();
+            if (consume("-")) {
+                Node operand = parseUnary();
+                return operand instanceof Constant constant ? new Constant(-constant.value()) : new Unary(
+                        UnaryOp.NEGATE,
+                        operand
+                );
+            }
+            if (consume("+")) {
+                return parseUnary();
+            }
+            return parsePrimary();
+        }
+
+        private Node parsePrimary() {
+            skipWhitespace();
+            if (position >= text.length()) {
+                throw error("Unexpected end of expression");
+            }
+            char current = text.charAt(position);
+            if (consume("(")) {
+                Node node = parseExpression();
+                expect(")");
+                return node;
+            }
+            if (Character.isDigit(current) || current == '.') {
+                return parseNumber();
+            }
+            if (Character.isLetter(current) || current == '_') {
+                String name = parseIdentifier();
+                skipWhitespace();
+                if (consume("(")) {
+                    return parseFunction(name);
+                }
+                variables.add(name);
+                return new Variable(name);
+            }
+            throw error("Unexpected '" + current + "'");
+        }
+
+        private Node parseFunction(String name) {
+            int start = position;
+            List<Node> arguments = new ArrayList<>();
+            skipWhitespace();
+            if (!consume(")")) {
+                do {
+                    arguments.add(parseExpression());
+                    skipWhitespace();
+                } while (consume(","));
+                expect(")");
+            }
+            return switch (name) {
+                case "min" -> binary(BinaryOp.MIN, argument(name, arguments, 2, 0), arguments.get(1));
+                case "max" -> binary(BinaryOp.MAX, argument(name, arguments, 2, 0), arguments.get(1));
+                case "abs" -> new Unary(UnaryOp.ABS, argument(name, arguments, 1, 0));
+                case "sqrt" -> new Unary(UnaryOp.SQRT, argument(name, arguments, 1, 0));
+                case "where" -> new Select(argument(name, arguments, 3, 0), arguments.get(1), arguments.get(2));
+                case "reclass" -> reclass(arguments, start);
+                default -> throw error("Unknown function '" + name + "'");
+            };
+        }
+
+        private Node reclass(List<Node> arguments, int start) {
+            if (arguments.size() < 4 || (arguments.size() - 1) % 3 != 0) {
+                throw new IllegalArgumentException(
+                        "reclass expects an input followed by (min, max, value) triples at position " + start
+                );
+            }
+            int rules = (arguments.size() - 1) / 3;
+            float[] mins = new float[rules];
+            float[] maxs = new float[rules];
+            float[] values = new float[rules];
+            for (int rule = 0; rule < rules; rule++) {
+                mins[rule] = constant(arguments.get(1 + rule * 3), start);
+                maxs[rule] = constant(arguments.get(2 + rule * 3), start);
+                values[rule] = constant(arguments.get(3 + rule * 3), start);
+            }
+            return new Reclass(arguments.getFirst(), mins, maxs, values);
+        }
+
+        private float constant(Node node, int start) {
+            if (node instanceof Constant constant) {
+                return constant.value();
+            }
+            throw new IllegalArgumentException("reclass ranges and values must be numbers at position " + start);
+        }
+
+        private Node argument(String function, List<Node> arguments, int expected, int index) {
+            if (arguments.size() != expected) {
+                throw error(function + " expects " + expected + " argument(s) but got " + arguments.size());
+            }
+            return arguments.get(index);
+        }
+
+        private Node binary(BinaryOp op, Node left, Node right) {
+            if (left instanceof Constant leftConstant && right instanceof Constant rightConstant) {
+                float[] out = new float[1];
+                BandMathKernels.scalar().binary(
+                        op,
+                        new float[] {leftConstant.value()},
+                        new float[] {rightConstant.value()},
+                        out,
+                        1
+                );
+                return new Constant(out[0]);
+            }
+            return new Binary(op, left, right);
+        }
+
+        private Node parseNumber() {
+            int start = position;
+            while (position < text.length()
+                    && (Character.isDigit(text.charAt(position)) || text.charAt(position) == '.')) {
+                position++;
+            }
+            if (position < text.length() && (text.charAt(position) == 'e' || text.charAt(position) == 'E')) {
+                position++;
+                if (position < text.length() && (text.charAt(position) == '+' || text.charAt(position) == '-')) {
+                    position++;
+                }
+                while (position < text.length() && Character.isDigit(text.charAt(position))) {
+                    position++;
+                }
+            }
+            String literal = text.substring(start, position);
+            try {
+                return new Constant(Float.parseFloat(literal));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number '" + literal + "' at position " + start, e);
+            }
+        }
+
+        private String parseIdentifier() {
+            int start = position;
+            while (position < text.length()
+                    && (Character.isLetterOrDigit(text.charAt(position)) || text.charAt(position) == '_')) {
+                position++;
+            }
+            return text.substring(start, position);
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private boolean consume(String token) {
+            if (text.startsWith(token, position)) {
+                position += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            skipWhitespace();
+            if (!consume(token)) {
+                throw error("Expected '" + token + "'");
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + position + " in: " + text);
+        }
+    }
+}
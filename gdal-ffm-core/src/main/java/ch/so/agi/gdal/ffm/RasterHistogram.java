@@ -0,0 +1,64 @@
+package ch.so.agi.gdal.ffm;
+
+import java.util.Arrays;
+
+/**
+ * Band histogram with equally sized buckets between {@code min} and {@code max}. With
+ * {@code includeOutOfRange} values below {@code min} are counted in the first and values above {@code max} in
+ * the last bucket.
+ */
+public record RasterHistogram(double min, double max, long[] counts, boolean includeOutOfRange) {
+    public RasterHistogram {
+        if (counts == null || counts.length == 0) {
+            throw new IllegalArgumentException("counts must not be empty");
+        }
+        if (!(min < max)) {
+            throw new IllegalArgumentException("min must be less than max");
+        }
+        counts = counts.clone();
+    }
+
+    @Override
+    public long[] counts() {
+        return counts.clone();
+    }
+
+    public int bucketCount() {
+        return counts.length;
+    }
+
+    public double bucketWidth() {
+        return (max - min) / counts.length;
+    }
+
+    public long totalCount() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof RasterHistogram histogram
+                && Double.compare(min, histogram.min) == 0
+                && Double.compare(max, histogram.max) == 0
+                && Arrays.equals(counts, histogram.counts)
+                && includeOutOfRange == histogram.includeOutOfRange;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(min);
+        result = 31 * result + Double.hashCode(max);
+        result = 31 * result + Arrays.hashCode(counts);
+        return 31 * result + Boolean.hashCode(includeOutOfRange);
+    }
+
+    @Override
+    public String toString() {
+        return "RasterHistogram[min=" + min + ", max=" + max + ", counts=" + Arrays.toString(counts)
+                + ", includeOutOfRange=" + includeOutOfRange + "]";
+    }
+}
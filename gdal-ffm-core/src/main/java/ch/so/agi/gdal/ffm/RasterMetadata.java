@@ -0,0 +1,103 @@
+package ch.so.agi.gdal.ffm;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Raster dataset metadata.
+ * <p>
+ * {@code geoTransform} is the six-element GDAL affine transform, or {@code null} when the dataset is not
+ * georeferenced; {@code extent} is derived from it and is also {@code null} when the transform is degenerate.
+ * {@code crs} is an {@code AUTHORITY:CODE} string or {@code null}; {@code crsWkt} is the dataset CRS as WKT or
+ * {@code null} when the dataset has no CRS.
+ */
+public record RasterMetadata(
+        int width,
+        int height,
+        List<RasterBandMetadata> bands,
+        double[] geoTransform,
+        BoundingBox extent,
+        String crs,
+        String crsWkt
+) {
+    public RasterMetadata {
+        Objects.requireNonNull(bands, "bands must not be null");
+        bands = List.copyOf(bands);
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("width and height must not be negative");
+        }
+        if (geoTransform != null) {
+            if (geoTransform.length != 6) {
+                throw new IllegalArgumentException("geoTransform must have 6 elements");
+            }
+            geoTransform = geoTransform.clone();
+        }
+        if (crsWkt != null && crsWkt.isBlank()) {
+            crsWkt = null;
+        }
+    }
+
+    @Override
+    public double[] geoTransform() {
+        return geoTransform == null ? null : geoTransform.clone();
+    }
+
+    public int bandCount() {
+        return bands.size();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof RasterMetadata metadata
+                && width == metadata.width
+                && height == metadata.height
+                && bands.equals(metadata.bands)
+                && Arrays.equals(geoTransform, metadata.geoTransform)
+                && Objects.equals(extent, metadata.extent)
+                && Objects.equals(crs, metadata.crs)
+                && Objects.equals(crsWkt, metadata.crsWkt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(width, height, bands, Arrays.hashCode(geoTransform), extent, crs, crsWkt);
+    }
+
+    @Override
+    public String toString() {
+        return "RasterMetadata[width=" + width + ", height=" + height + ", bands=" + bands
+                + ", geoTransform=" + Arrays.toString(geoTransform) + ", extent=" + extent + ", crs=" + crs
+                + ", crsWkt=" + crsWkt + "]";
+    }
+
+    /**
+     * Computes the extent of a north-up or rotated raster from its geotransform. Returns {@code null} when the
+     * transform has non-finite coefficients or cannot be inverted, for example because of a zero pixel size.
+     */
+    public static BoundingBox extentOf(double[] geoTransform, int width, int height) {
+        Objects.requireNonNull(geoTransform, "geoTransform must not be null");
+        for (double coefficient : geoTransform) {
+            if (!Double.isFinite(coefficient)) {
+                return null;
+            }
+        }
+        if (geoTransform[1] * geoTransform[5] - geoTransform[2] * geoTransform[4] == 0) {
+            return null;
+        }
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        int[][] corners = {{0, 0}, {width, 0}, {0, height}, {width, height}};
+        for (int[] corner : corners) {
+            double x = geoTransform[0] + corner[0] * geoTransform[1] + corner[1] * geoTransform[2];
+            double y = geoTransform[3] + corner[0] * geoTransform[4] + corner[1] * geoTransform[5];
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+        }
+        return new BoundingBox(minX, minY, maxX, maxY);
+    }
+}
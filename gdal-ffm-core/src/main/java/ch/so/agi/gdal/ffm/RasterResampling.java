@@ -0,0 +1,26 @@
+package ch.so.agi.gdal.ffm;
+
+/**
+ * Resampling used when a window read is scaled to a different buffer size ({@code GDALRIOResampleAlg}).
+ */
+public enum RasterResampling {
+    NEAREST(0),
+    BILINEAR(1),
+    CUBIC(2),
+    CUBIC_SPLINE(3),
+    LANCZOS(4),
+    AVERAGE(5),
+    MODE(6),
+    GAUSS(7),
+    RMS(14);
+
+    private final int nativeCode;
+
+    RasterResampling(int nativeCode) {
+        this.nativeCode = nativeCode;
+    }
+
+    public int nativeCode() {
+        return nativeCode;
+    }
+}
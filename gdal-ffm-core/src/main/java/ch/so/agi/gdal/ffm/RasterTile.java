@@ -0,0 +1,23 @@
+package ch.so.agi.gdal.ffm;
+
+import java.util.Objects;
+
+/**
+ * One natural block of a raster band as dispatched by {@link RasterTileProcessor}.
+ *
+ * @param bandNumber 1-based GDAL band number whose block grid defines the tile
+ * @param blockX block column
+ * @param blockY block row
+ * @param window pixel window of the block, clipped at the right and bottom edges
+ */
+public record RasterTile(int bandNumber, int blockX, int blockY, RasterWindow window) {
+    public RasterTile {
+        if (bandNumber < 1) {
+            throw new IllegalArgumentException("bandNumber must be >= 1");
+        }
+        if (blockX < 0 || blockY < 0) {
+            throw new IllegalArgumentException("blockX and blockY must not be negative");
+        }
+        Objects.requireNonNull(window, "window must not be null");
+    }
+}
@@ -0,0 +1,189 @@
+package ch.so.agi.gdal.ffm;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Parallel per-tile processing of one raster band.
+ * <p>
+ * Tiles follow the natural block grid of the band ({@link RasterBand#blockWindow(int, int)}), so every tile
+ * read touches exactly one block and no block is decoded twice. Tiles are dispatched to a bounded worker pool
+ * where every worker opens its own read-only {@link RasterDataset}; GDAL dataset handles are never shared
+ * between threads. Results are handed to the sink on the calling thread, either in row-major tile order or in
+ * completion order. Workers should only read from their dataset; write results from the sink, for example with
+ * a {@link RasterDataset} opened for update on the calling thread.
+ */
+public final class RasterTileProcessor {
+    private RasterTileProcessor() {
+    }
+
+    /**
+     * Processes all tiles of {@code bandNumber} and returns the results in row-major tile order.
+     */
+    public static <R> List<R> process(
+            DatasetRef source,
+            int bandNumber,
+            int threads,
+            BiFunction<RasterDataset, RasterTile, R> function
+    ) {
+        List<R> results = new ArrayList<>();
+        process(source, bandNumber, threads, true, GdalConfig.empty(), function, result -> results.add(result.value()));
+        return results;
+    }
+
+    /**
+     * Processes all tiles of {@code bandNumber} with {@code threads} workers. {@code function} runs on a worker
+     * thread with that worker's dataset; {@code sink} runs on the calling thread. With {@code ordered} the sink
+     * sees tiles in row-major order, otherwise in completion order.
+     */
+    public static <R> void process(
+            DatasetRef source,
+            int bandNumber,
+            int threads,
+            boolean ordered,
+            GdalConfig config,
+            BiFunction<RasterDataset, RasterTile, R> function,
+            Consumer<RasterTileResult<R>> sink
+    ) {
+        Objects.requireNonNull(source, "source must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        Objects.requireNonNull(function, "function must not be null");
+        Objects.requireNonNull(sink, "sink must not be null");
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be > 0");
+        }
+
+        Iterable<RasterTile> tiles;
+        try (RasterDataset probe = Gdal.openRaster(source, false, config)) {
+            tiles = tiles(probe.band(bandNumber));
+        }
+        process(source, tiles, threads, ordered, config, function, sink);
+    }
+
+    /**
+     * Processes an explicit tile sequence, for example the block grid of an output raster. Tiles should still be
+     * block-aligned in the source so that blocks are not decoded more than once.
+     */
+    public static <R> void process(
+            DatasetRef source,
+            Iterable<RasterTile> tileSequence,
+            int threads,
+            boolean ordered,
+            GdalConfig config,
+            BiFunction<RasterDataset, RasterTile, R> function,
+            Consumer<RasterTileResult<R>> sink
+    ) {
+        Objects.requireNonNull(source, "source must not be null");
+        Objects.requireNonNull(tileSequence, "tileSequence must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        Objects.requireNonNull(function, "function must not be null");
+        Objects.requireNonNull(sink, "sink must not be null");
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be > 0");
+        }
+
+        Iterator<RasterTile> tiles = tileSequence.iterator();
+        Queue<RasterDataset> opened = new ConcurrentLinkedQueue<>();
+        ThreadLocal<RasterDataset> workerDataset = ThreadLocal.withInitial(() -> {
+            RasterDataset dataset = Gdal.openRaster(source, false, config);
+            opened.add(dataset);
+            return dataset;
+        });
+
+        Map<Long, RasterTileResult<R>> pending = new HashMap<>();
+        BoundedWorkers<Sequenced<R>> workers =
+                new BoundedWorkers<>("gdal-ffm-raster-tiles", "processing raster tiles", threads);
+        try {
+            long sequence = 0;
+            long nextToDeliver = 0;
+            // Counts tiles submitted but not yet delivered, which also bounds the reorder buffer.
+            int inFlight = 0;
+            while (tiles.hasNext() || inFlight > 0) {
+                while (inFlight < workers.capacity() && tiles.hasNext()) {
+                    RasterTile tile = tiles.next();
+                    long taskSequence = sequence++;
+                    workers.submit(() -> new Sequenced<>(
+                            taskSequence,
+                            new RasterTileResult<>(tile, function.apply(workerDataset.get(), tile))
+                    ));
+                    inFlight++;
+                }
+                Sequenced<R> done = workers.take();
+                if (!ordered) {
+                    inFlight--;
+                    sink.accept(done.result());
+                    continue;
+                }
+                pending.put(done.sequence(), done.result());
+                RasterTileResult<R> next;
+                while ((next = pending.remove(nextToDeliver)) != null) {
+                    nextToDeliver++;
+                    inFlight--;
+                    sink.accept(next);
+                }
+            }
+        } finally {
+            // Worker datasets may only be closed once no task uses them anymore.
+            workers.close();
+            for (RasterDataset dataset : opened) {
+                dataset.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the natural block grid of {@code band} in row-major order.
+     */
+    public static Iterable<RasterTile> tiles(RasterBand band) {
+        Objects.requireNonNull(band, "band must not be null");
+        return tiles(band.index(), band.width(), band.height(), band.blockWidth(), band.blockHeight());
+    }
+
+    /**
+     * Returns the block grid of a {@code width x height} raster in row-major order, with edge tiles clipped to
+     * the raster size.
+     */
+    static Iterable<RasterTile> tiles(int bandNumber, int width, int height, int blockWidth, int blockHeight) {
+        int columns = RasterWindow.blockCount(width, blockWidth);
+        int rows = RasterWindow.blockCount(height, blockHeight);
+        return () -> new Iterator<>() {
+            private int blockX;
+            private int blockY;
+
+            @Override
+            public boolean hasNext() {
+                return blockY < rows;
+            }
+
+            @Override
+            public RasterTile next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                RasterTile tile = new RasterTile(
+                        bandNumber,
+                        blockX,
+                        blockY,
+                        RasterWindow.ofBlock(width, height, blockWidth, blockHeight, blockX, blockY)
+                );
+                if (++blockX == columns) {
+                    blockX = 0;
+                    blockY++;
+                }
+                return tile;
+            }
+        };
+    }
+
+    private record Sequenced<R>(long sequence, RasterTileResult<R> result) {
+    }
+}
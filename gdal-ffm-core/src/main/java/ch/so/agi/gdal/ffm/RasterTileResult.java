@@ -0,0 +1,12 @@
+package ch.so.agi.gdal.ffm;
+
+import java.util.Objects;
+
+/**
+ * Result computed by a {@link RasterTileProcessor} worker for one tile.
+ */
+public record RasterTileResult<R>(RasterTile tile, R value) {
+    public RasterTileResult {
+        Objects.requireNonNull(tile, "tile must not be null");
+    }
+}
@@ -0,0 +1,47 @@
+package ch.so.agi.gdal.ffm;
+
+/**
+ * Pixel window of a raster band: offset and size in pixels of the full-resolution band.
+ */
+public record RasterWindow(int x, int y, int width, int height) {
+    public RasterWindow {
+        if (x < 0 || y < 0) {
+            throw new IllegalArgumentException("x and y must not be negative");
+        }
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("width and height must be > 0");
+        }
+    }
+
+    public long pixelCount() {
+        return (long) width * height;
+    }
+
+    public boolean fitsWithin(int rasterWidth, int rasterHeight) {
+        return (long) x + width <= rasterWidth && (long) y + height <= rasterHeight;
+    }
+
+    /**
+     * Number of blocks of {@code blockSize} pixels needed to cover {@code size} pixels.
+     */
+    static int blockCount(int size, int blockSize) {
+        return (size + blockSize - 1) / blockSize;
+    }
+
+    /**
+     * Returns the window of block ({@code blockX}, {@code blockY}) in the block grid of a
+     * {@code rasterWidth x rasterHeight} raster, clipped to the raster size at the right and bottom edges.
+     */
+    static RasterWindow ofBlock(
+            int rasterWidth,
+            int rasterHeight,
+            int blockWidth,
+            int blockHeight,
+            int blockX,
+            int blockY
+    ) {
+        int x = blockX * blockWidth;
+        int y = blockY * blockHeight;
+        return new RasterWindow(x, y, Math.min(blockWidth, rasterWidth - x), Math.min(blockHeight, rasterHeight - y));
+    }
+}
@@ -0,0 +1,323 @@
+package ch.so.agi.gdal.ffm;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Creation and finalization specification for {@link RasterWriter}.
+ * <p>
+ * {@code blockWidth}/{@code blockHeight} request a tiled layout on drivers that support it ({@code 0} keeps the
+ * driver default). {@code compressionThreads} sets {@code NUM_THREADS} on drivers that compress blocks in worker
+ * threads ({@code 0} leaves it unset). When the writer is finished, overviews are built with
+ * {@code overviewResampling} for every factor in {@code overviewFactors}, and with a {@code cogTarget} the
+ * result is copied to a Cloud Optimized GeoTIFF using {@code cogCreationOptions}.
+ */
+public record RasterWriteSpec(
+        String driverShortName,
+        int width,
+        int height,
+        int bandCount,
+        RasterDataType dataType,
+        int blockWidth,
+        int blockHeight,
+        double[] geoTransform,
+        String crs,
+        Double noDataValue,
+        Map<String, String> creationOptions,
+        int compressionThreads,
+        List<Integer> overviewFactors,
+        String overviewResampling,
+        DatasetRef cogTarget,
+        Map<String, String> cogCreationOptions
+) {
+    public static final String DEFAULT_OVERVIEW_RESAMPLING = "AVERAGE";
+
+    public RasterWriteSpec {
+        Objects.requireNonNull(driverShortName, "driverShortName must not be null");
+        Objects.requireNonNull(dataType, "dataType must not be null");
+        Objects.requireNonNull(creationOptions, "creationOptions must not be null");
+        Objects.requireNonNull(overviewFactors, "overviewFactors must not be null");
+        Objects.requireNonNull(cogCreationOptions, "cogCreationOptions must not be null");
+
+        driverShortName = driverShortName.trim();
+        if (driverShortName.isEmpty()) {
+            throw new IllegalArgumentException("driverShortName must not be blank");
+        }
+        if (width <= 0 || height <= 0 || bandCount <= 0) {
+            throw new IllegalArgumentException("width, height and bandCount must be > 0");
+        }
+        if (dataType == RasterDataType.UNKNOWN) {
+            throw new IllegalArgumentException("dataType must not be UNKNOWN");
+        }
+        if (blockWidth < 0 || blockHeight < 0) {
+            throw new IllegalArgumentException("blockWidth and blockHeight must be >= 0");
+        }
+        if (geoTransform != null) {
+            if (geoTransform.length != 6) {
+                throw new IllegalArgumentException("geoTransform must have 6 coefficients");
+            }
+            geoTransform = geoTransform.clone();
+        }
+        if (crs != null && crs.isBlank()) {
+            crs = null;
+        }
+        if (compressionThreads < 0) {
+            throw new IllegalArgumentException("compressionThreads must be >= 0");
+        }
+        creationOptions = Map.copyOf(creationOptions);
+        overviewFactors = List.copyOf(overviewFactors);
+        for (int factor : overviewFactors) {
+            if (factor < 2) {
+                throw new IllegalArgumentException("overviewFactors must be >= 2");
+            }
+        }
+        if (overviewResampling == null || overviewResampling.isBlank()) {
+            overviewResampling = DEFAULT_OVERVIEW_RESAMPLING;
+        }
+        cogCreationOptions = Map.copyOf(cogCreationOptions);
+    }
+
+    public RasterWriteSpec(String driverShortName, int width, int height, int bandCount, RasterDataType dataType) {
+        this(
+                driverShortName,
+                width,
+                height,
+                bandCount,
+                dataType,
+                0,
+                0,
+                null,
+                null,
+                null,
+                Map.of(),
+                0,
+                List.of(),
+                DEFAULT_OVERVIEW_RESAMPLING,
+                null,
+                Map.of()
+        );
+    }
+
+    @Override
+    public double[] geoTransform() {
+        return geoTransform == null ? null : geoTransform.clone();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof RasterWriteSpec spec
+                && driverShortName.equals(spec.driverShortName)
+                && width == spec.width
+                && height == spec.height
+                && bandCount == spec.bandCount
+                && dataType == spec.dataType
+                && blockWidth == spec.blockWidth
+                && blockHeight == spec.blockHeight
+                && Arrays.equals(geoTransform, spec.geoTransform)
+                && Objects.equals(crs, spec.crs)
+                && Objects.equals(noDataValue, spec.noDataValue)
+                && creationOptions.equals(spec.creationOptions)
+                && compressionThreads == spec.compressionThreads
+                && overviewFactors.equals(spec.overviewFactors)
+                && overviewResampling.equals(spec.overviewResampling)
+                && Objects.equals(cogTarget, spec.cogTarget)
+                && cogCreationOptions.equals(spec.cogCreationOptions);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+                driverShortName,
+                width,
+                height,
+                bandCount,
+                dataType,
+                blockWidth,
+                blockHeight,
+                Arrays.hashCode(geoTransform),
+                crs,
+                noDataValue,
+                creationOptions,
+                compressionThreads,
+                overviewFactors,
+                overviewResampling,
+                cogTarget,
+                cogCreationOptions
+        );
+    }
+
+    @Override
+    public String toString() {
+        return "RasterWriteSpec[driverShortName=" + driverShortName + ", width=" + width + ", height=" + height
+                + ", bandCount=" + bandCount + ", dataType=" + dataType + ", blockWidth=" + blockWidth
+                + ", blockHeight=" + blockHeight + ", geoTransform=" + Arrays.toString(geoTransform)
+                + ", crs=" + crs + ", noDataValue=" + noDataValue + ", creationOptions=" + creationOptions
+                + ", compressionThreads=" + compressionThreads + ", overviewFactors=" + overviewFactors
+                + ", overviewResampling=" + overviewResampling + ", cogTarget=" + cogTarget
+                + ", cogCreationOptions=" + cogCreationOptions + "]";
+    }
+
+    /**
+     * Returns a copy with a tiled block layout of {@code width x height} pixels.
+     */
+    public RasterWriteSpec withBlockSize(int width, int height) {
+        return new RasterWriteSpec(
+                driverShortName,
+                this.width,
+                this.height,
+                bandCount,
+                dataType,
+                width,
+                height,
+                geoTransform,
+                crs,
+                noDataValue,
+                creationOptions,
+                compressionThreads,
+                overviewFactors,
+                overviewResampling,
+                cogTarget,
+                cogCreationOptions
+        );
+    }
+
+    /**
+     * Returns a copy with the given geotransform and CRS (any definition accepted by GDAL, e.g. {@code EPSG:2056}).
+     */
+    public RasterWriteSpec withGeoreference(double[] transform, String crsDefinition) {
+        return new RasterWriteSpec(
+                driverShortName,
+                width,
+                height,
+                bandCount,
+                dataType,
+                blockWidth,
+                blockHeight,
+                transform,
+                crsDefinition,
+                noDataValue,
+                creationOptions,
+                compressionThreads,
+                overviewFactors,
+                overviewResampling,
+                cogTarget,
+                cogCreationOptions
+        );
+    }
+
+    public RasterWriteSpec withNoDataValue(double value) {
+        return new RasterWriteSpec(
+                driverShortName,
+                width,
+                height,
+                bandCount,
+                dataType,
+                blockWidth,
+                blockHeight,
+                geoTransform,
+                crs,
+                value,
+                creationOptions,
+                compressionThreads,
+                overviewFactors,
+                overviewResampling,
+                cogTarget,
+                cogCreationOptions
+        );
+    }
+
+    public RasterWriteSpec withCreationOptions(Map<String, String> options) {
+        return new RasterWriteSpec(
+                driverShortName,
+                width,
+                height,
+                bandCount,
+                dataType,
+                blockWidth,
+                blockHeight,
+                geoTransform,
+                crs,
+                noDataValue,
+                options,
+                compressionThreads,
+                overviewFactors,
+                overviewResampling,
+                cogTarget,
+                cogCreationOptions
+        );
+    }
+
+    /**
+     * Returns a copy that compresses blocks with {@code threads} GDAL worker threads ({@code NUM_THREADS}).
+     */
+    public RasterWriteSpec withCompressionThreads(int threads) {
+        return new RasterWriteSpec(
+                driverShortName,
+                width,
+                height,
+                bandCount,
+                dataType,
+                blockWidth,
+                blockHeight,
+                geoTransform,
+                crs,
+                noDataValue,
+                creationOptions,
+                threads,
+                overviewFactors,
+                overviewResampling,
+                cogTarget,
+                cogCreationOptions
+        );
+    }
+
+    /**
+     * Returns a copy that builds overviews with the given factors (e.g. 2, 4, 8) when the writer is finished.
+     */
+    public RasterWriteSpec withOverviews(String resampling, List<Integer> factors) {
+        return new RasterWriteSpec(
+                driverShortName,
+                width,
+                height,
+                bandCount,
+                dataType,
+                blockWidth,
+                blockHeight,
+                geoTransform,
+                crs,
+                noDataValue,
+                creationOptions,
+                compressionThreads,
+                factors,
+                resampling,
+                cogTarget,
+                cogCreationOptions
+        );
+    }
+
+    /**
+     * Returns a copy that finishes by copying the written raster to a Cloud Optimized GeoTIFF at {@code target}.
+     */
+    public RasterWriteSpec withCogCopy(DatasetRef target, Map<String, String> options) {
+        return new RasterWriteSpec(
+                driverShortName,
+                width,
+                height,
+                bandCount,
+                dataType,
+                blockWidth,
+                blockHeight,
+                geoTransform,
+                crs,
+                noDataValue,
+                creationOptions,
+                compressionThreads,
+                overviewFactors,
+                overviewResampling,
+                Objects.requireNonNull(target, "target must not be null"),
+                options
+        );
+    }
+}
@@ -0,0 +1,70 @@
+package ch.so.agi.gdal.ffm;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Streaming writer for a raster created from Java data.
+ * <p>
+ * Windows may be written in any order but must be aligned to the block grid: they start on a block boundary
+ * and end on a block boundary or at the raster edge, so every block is written exactly once in full and never
+ * read back and recompressed. {@link #finish(ProgressCallback)} flushes the dataset, builds overviews and
+ * performs the optional COG copy; {@link #close()} finishes implicitly when that has not been attempted yet. A
+ * failed {@code finish} leaves the writer unfinished, so it can be retried.
+ */
+public interface RasterWriter extends AutoCloseable {
+    int width();
+
+    int height();
+
+    int bandCount();
+
+    RasterDataType dataType();
+
+    int blockWidth();
+
+    int blockHeight();
+
+    default int blockCountX() {
+        return RasterWindow.blockCount(width(), blockWidth());
+    }
+
+    default int blockCountY() {
+        return RasterWindow.blockCount(height(), blockHeight());
+    }
+
+    /**
+     * Returns the pixel window of a block, clipped to the raster size at the right and bottom edges.
+     */
+    default RasterWindow blockWindow(int blockX, int blockY) {
+        if (blockX < 0 || blockY < 0 || blockX >= blockCountX() || blockY >= blockCountY()) {
+            throw new IllegalArgumentException("Block (" + blockX + ", " + blockY + ") is outside the raster");
+        }
+        return RasterWindow.ofBlock(width(), height(), blockWidth(), blockHeight(), blockX, blockY);
+    }
+
+    /**
+     * Writes a block-aligned window of {@code bandNumber} from packed native memory of {@code bufferType}.
+     */
+    void write(int bandNumber, RasterWindow window, RasterDataType bufferType, MemorySegment source);
+
+    void write(int bandNumber, RasterWindow window, byte[] source);
+
+    void write(int bandNumber, RasterWindow window, short[] source);
+
+    void write(int bandNumber, RasterWindow window, int[] source);
+
+    void write(int bandNumber, RasterWindow window, long[] source);
+
+    void write(int bandNumber, RasterWindow window, float[] source);
+
+    void write(int bandNumber, RasterWindow window, double[] source);
+
+    /**
+     * Flushes pending blocks, builds the requested overviews and writes the COG copy. The same callback
+     * receives progress of the overview and copy steps in turn. Further writes are rejected afterwards.
+     */
+    void finish(ProgressCallback progress);
+
+    @Override
+    void close();
+}
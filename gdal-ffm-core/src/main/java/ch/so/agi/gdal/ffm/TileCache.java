@@ -0,0 +1,77 @@
+package ch.so.agi.gdal.ffm;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Least-recently-used cache of encoded tiles bounded by total byte size. Tile bytes live off-heap in segments of
+ * automatic arenas: evicting an entry only drops the cache's reference, and the memory is freed once no view
+ * returned by {@link #get} is reachable any more, so callers never observe a freed tile.
+ */
+final class TileCache {
+    record Key(int zoom, int x, int y) {
+    }
+
+    private final long capacityBytes;
+    private final LinkedHashMap<Key, MemorySegment> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeBytes;
+
+    TileCache(long capacityBytes) {
+        if (capacityBytes < 0) {
+            throw new IllegalArgumentException("capacityBytes must be >= 0");
+        }
+        this.capacityBytes = capacityBytes;
+    }
+
+    /**
+     * Returns a read-only view of the cached tile without copying, or {@code null} when it is not cached.
+     */
+    synchronized ByteBuffer get(Key key) {
+        MemorySegment bytes = entries.get(key);
+        return bytes == null ? null : view(bytes);
+    }
+
+    /**
+     * Caches {@code bytes}, which must belong to an automatic arena; tiles larger than the capacity are not cached.
+     */
+    synchronized void put(Key key, MemorySegment bytes) {
+        Objects.requireNonNull(key, "key must not be null");
+        Objects.requireNonNull(bytes, "bytes must not be null");
+        if (bytes.byteSize() > capacityBytes) {
+            return;
+        }
+        MemorySegment previous = entries.put(key, bytes);
+        if (previous != null) {
+            sizeBytes -= previous.byteSize();
+        }
+        sizeBytes += bytes.byteSize();
+
+        Iterator<Map.Entry<Key, MemorySegment>> eldest = entries.entrySet().iterator();
+        while (sizeBytes > capacityBytes && eldest.hasNext()) {
+            MemorySegment evicted = eldest.next().getValue();
+            eldest.remove();
+            sizeBytes -= evicted.byteSize();
+        }
+    }
+
+    synchronized long sizeBytes() {
+        return sizeBytes;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        sizeBytes = 0;
+    }
+
+    static ByteBuffer view(MemorySegment bytes) {
+        return bytes.asReadOnly().asByteBuffer();
+    }
+}
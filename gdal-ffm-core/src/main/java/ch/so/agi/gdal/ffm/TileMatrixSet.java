@@ -0,0 +1,112 @@
+package ch.so.agi.gdal.ffm;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Tile grid of a {@link TileRenderer}: a CRS, the top-left origin of tile {@code (0, 0)}, the tile size in pixels
+ * and the ground resolution of each zoom level. Rows count downwards from the origin as in XYZ and WMTS.
+ */
+public record TileMatrixSet(
+        String identifier,
+        String crs,
+        double originX,
+        double originY,
+        int tileWidth,
+        int tileHeight,
+        List<Double> resolutions
+) {
+    private static final double WEB_MERCATOR_HALF_EXTENT = 20037508.342789244;
+    private static final int WEB_MERCATOR_MAX_ZOOM = 24;
+    private static final double[] SWISS_LV95_RESOLUTIONS = {
+            4000, 3750, 3500, 3250, 3000, 2750, 2500, 2250, 2000, 1750, 1500, 1250, 1000, 750, 650, 500, 250, 100,
+            50, 20, 10, 5, 2.5, 2, 1.5, 1, 0.5, 0.25, 0.1
+    };
+
+    public TileMatrixSet {
+        Objects.requireNonNull(identifier, "identifier must not be null");
+        Objects.requireNonNull(crs, "crs must not be null");
+        Objects.requireNonNull(resolutions, "resolutions must not be null");
+        resolutions = List.copyOf(resolutions);
+        if (crs.isBlank()) {
+            throw new IllegalArgumentException("crs must not be blank");
+        }
+        if (Double.isNaN(originX) || Double.isNaN(originY)) {
+            throw new IllegalArgumentException("origin must not be NaN");
+        }
+        if (tileWidth <= 0 || tileHeight <= 0) {
+            throw new IllegalArgumentException("tileWidth and tileHeight must be > 0");
+        }
+        if (resolutions.isEmpty()) {
+            throw new IllegalArgumentException("resolutions must not be empty");
+        }
+        for (double resolution : resolutions) {
+            if (!(resolution > 0) || Double.isInfinite(resolution)) {
+                throw new IllegalArgumentException("resolutions must be finite and > 0: " + resolution);
+            }
+        }
+    }
+
+    /**
+     * Google/OSM XYZ grid in {@code EPSG:3857} with 256 pixel tiles and zoom levels 0 to 24.
+     */
+    public static TileMatrixSet webMercatorQuad() {
+        Double[] resolutions = new Double[WEB_MERCATOR_MAX_ZOOM + 1];
+        for (int zoom = 0; zoom <= WEB_MERCATOR_MAX_ZOOM; zoom++) {
+            resolutions[zoom] = 2 * WEB_MERCATOR_HALF_EXTENT / 256 / (1L << zoom);
+        }
+        return new TileMatrixSet(
+                "WebMercatorQuad",
+                "EPSG:3857",
+                -WEB_MERCATOR_HALF_EXTENT,
+                WEB_MERCATOR_HALF_EXTENT,
+                256,
+                256,
+                List.of(resolutions)
+        );
+    }
+
+    /**
+     * Swiss federal WMTS grid in {@code EPSG:2056} (LV95) with 256 pixel tiles and 29 zoom levels
+     * from 4000 m down to 0.1 m per pixel.
+     */
+    public static TileMatrixSet swissLv95() {
+        Double[] resolutions = new Double[SWISS_LV95_RESOLUTIONS.length];
+        for (int i = 0; i < resolutions.length; i++) {
+            resolutions[i] = SWISS_LV95_RESOLUTIONS[i];
+        }
+        return new TileMatrixSet("SwissLV95", "EPSG:2056", 2420000, 1350000, 256, 256, List.of(resolutions));
+    }
+
+    public int zoomLevels() {
+        return resolutions.size();
+    }
+
+    public double resolution(int zoom) {
+        checkZoom(zoom);
+        return resolutions.get(zoom);
+    }
+
+    /**
+     * Returns the extent of tile {@code (x, y)} at {@code zoom} in {@link #crs()} coordinates.
+     */
+    public BoundingBox tileBounds(int zoom, int x, int y) {
+        double resolution = resolution(zoom);
+        if (x < 0 || y < 0) {
+            throw new IllegalArgumentException("Tile column and row must be >= 0");
+        }
+        double spanX = resolution * tileWidth;
+        double spanY = resolution * tileHeight;
+        double minX = originX + x * spanX;
+        double maxY = originY - y * spanY;
+        return new BoundingBox(minX, maxY - spanY, minX + spanX, maxY);
+    }
+
+    private void checkZoom(int zoom) {
+        if (zoom < 0 || zoom >= resolutions.size()) {
+            throw new IllegalArgumentException(
+                    "Zoom level " + zoom + " is out of range 0.." + (resolutions.size() - 1) + " for " + identifier
+            );
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package ch.so.agi.gdal.ffm;
+
+import ch.so.agi.gdal.ffm.internal.RasterRuntime;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Renders XYZ/WMTS tiles of a {@link TileMatrixSet} from one raster source, for example as the backend of a tile
+ * endpoint.
+ * <p>
+ * The source is reprojected once into an in-memory warped VRT in the tile matrix CRS, with an alpha band that
+ * marks the source footprint. Tiles are read from that VRT with scaled window reads, so GDAL serves low zoom
+ * levels from the source overviews, as 8-bit gray or RGB plus alpha encoded with {@code outputFormat}. Encoded
+ * tiles are kept off-heap in a least-recently-used cache bounded by {@code cacheCapacityBytes}.
+ * <p>
+ * Sample values are not rescaled: every color band of the source must be {@link RasterDataType#BYTE}, and
+ * {@link #open(DatasetRef, TileMatrixSet, String, RasterResampling, long, GdalConfig) open} rejects other data
+ * types because reading them as bytes would clamp them. Scale such sources to Byte first, for example with
+ * {@code gdal raster scale --ot Byte}.
+ * <p>
+ * {@link #tile(int, int, int)} may be called from many threads; every concurrent caller checks out its own
+ * read-only handle of the VRT from the shared dataset handle pool.
+ */
+public final class TileRenderer implements AutoCloseable {
+    private static final String DEFAULT_FORMAT = "PNG";
+    private static final long DEFAULT_CACHE_CAPACITY = 64L * 1024 * 1024;
+    private static final String DRIVER_JPEG = "JPEG";
+    private static final String JFIF = "JFIF";
+
+    private final TileMatrixSet tileMatrixSet;
+    private final String driverShortName;
+    private final RasterResampling resampling;
+    private final GdalConfig config;
+    private final InMemoryDataset warped;
+    private final double[] geoTransform;
+    private final int width;
+    private final int height;
+    private final int colorBands;
+    private final boolean warpedAlpha;
+    private final boolean alpha;
+    private final TileCache cache;
+    private final ReadWriteLock lifecycle = new ReentrantReadWriteLock();
+    private boolean closed;
+
+    private TileRenderer(
+            TileMatrixSet tileMatrixSet,
+            DriverCapabilities driver,
+            RasterResampling resampling,
+            GdalConfig config,
+            InMemoryDataset warped,
+            RasterMetadata metadata,
+            boolean warpedAlpha,
+            long cacheCapacityBytes
+    ) {
+        this.tileMatrixSet = tileMatrixSet;
+        this.driverShortName = driver.shortName();
+        this.resampling = resampling;
+        this.config = config;
+        this.warped = warped;
+        double[] transform = metadata.geoTransform();
+        if (transform == null || transform[2] != 0 || transform[4] != 0 || transform[5] >= 0) {
+            throw new IllegalArgumentException("Warped source must be north-up georeferenced: " + warped);
+        }
+        int sourceColorBands = metadata.bandCount() - (warpedAlpha ? 1 : 0);
+        if (sourceColorBands <= 0) {
+            throw new IllegalArgumentException("Source has no raster bands");
+        }
+        this.geoTransform = transform;
+        this.width = metadata.width();
+        this.height = metadata.height();
+        this.colorBands = sourceColorBands >= 3 ? 3 : 1;
+        this.warpedAlpha = warpedAlpha;
+        this.alpha = supportsAlpha(driver);
+        this.cache = new TileCache(cacheCapacityBytes);
+    }
+
+    public static TileRenderer open(DatasetRef source, TileMatrixSet tileMatrixSet) {
+        return open(
+                source,
+                tileMatrixSet,
+                DEFAULT_FORMAT,
+                RasterResampling.BILINEAR,
+                DEFAULT_CACHE_CAPACITY,
+                GdalConfig.empty()
+        );
+    }
+
+    /**
+     * Prepares the warped VRT of {@code source} in the CRS of {@code tileMatrixSet}. {@code outputFormat} names a
+     * GDAL raster driver with {@code CreateCopy} support by short name or file extension, such as {@code PNG},
+     * {@code WEBP} or {@code JPEG}/{@code JPG}/{@code JFIF} (which drop the alpha band); {@code resampling} is
+     * used both for warping and for overview reads.
+     */
+    public static TileRenderer open(
+            DatasetRef source,
+            TileMatrixSet tileMatrixSet,
+            String outputFormat,
+            RasterResampling resampling,
+            long cacheCapacityBytes,
+            GdalConfig config
+    ) {
+        Objects.requireNonNull(source, "source must not be null");
+        Objects.requireNonNull(tileMatrixSet, "tileMatrixSet must not be null");
+        Objects.requireNonNull(outputFormat, "outputFormat must not be null");
+        Objects.requireNonNull(resampling, "resampling must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        if (outputFormat.isBlank()) {
+            throw new IllegalArgumentException("outputFormat must not be blank");
+        }
+        if (cacheCapacityBytes < 0) {
+            throw new IllegalArgumentException("cacheCapacityBytes must be >= 0");
+        }
+
+        DriverCapabilities driver = resolveDriver(outputFormat, Gdal.listDrivers()).orElseThrow(() ->
+                new IllegalArgumentException("No raster driver found for output format: " + outputFormat));
+        if (!driver.createCopy()) {
+            throw new IllegalArgumentException("Raster driver does not support CreateCopy: " + driver.shortName());
+        }
+
+        boolean sourceAlpha;
+        try (RasterDataset dataset = Gdal.openRaster(source, false, config)) {
+            sourceAlpha = RasterRuntime.lastBandIsAlpha(dataset);
+            int sourceColorBands = dataset.bandCount() - (sourceAlpha ? 1 : 0);
+            for (int band = 1; band <= sourceColorBands; band++) {
+                RasterDataType dataType = dataset.band(band).dataType();
+                if (dataType != RasterDataType.BYTE) {
+                    throw new IllegalArgumentException("TileRenderer renders Byte sources only, band " + band
+                            + " is " + dataType + "; scale the source to Byte first: " + source);
+                }
+            }
+        }
+        List<String> args = new ArrayList<>(List.of(
+                "--dst-crs", tileMatrixSet.crs(),
+                "-r", warpResampling(resampling)
+        ));
+        if (!sourceAlpha) {
+            // Without a destination alpha, areas outside the source footprint would render as opaque black.
+            args.add("--add-alpha");
+        }
+        InMemoryDataset warped = Gdal.rasterReprojectInMemory(source, config, null, args.toArray(String[]::new));
+        try (RasterDataset first = Gdal.openRaster(warped.ref(), false, config)) {
+            return new TileRenderer(
+                    tileMatrixSet,
+                    driver,
+                    resampling,
+                    config,
+                    warped,
+                    first.metadata(),
+                    RasterRuntime.lastBandIsAlpha(first),
+                    cacheCapacityBytes
+            );
+        } catch (RuntimeException e) {
+            warped.close();
+            throw e;
+        }
+    }
+
+    public TileMatrixSet tileMatrixSet() {
+        return tileMatrixSet;
+    }
+
+    /**
+     * Returns the encoded tile {@code (x, y)} at {@code zoom} as a read-only view of the off-heap tile bytes.
+     * Areas outside the source footprint are fully transparent (black for formats without alpha).
+     */
+    public ByteBuffer tile(int zoom, int x, int y) {
+        BoundingBox bounds = tileMatrixSet.tileBounds(zoom, x, y);
+        TileCache.Key key = new TileCache.Key(zoom, x, y);
+
+        lifecycle.readLock().lock();
+        try {
+            ensureOpen();
+            ByteBuffer cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+
+            byte[][] bands = render(bounds);
+            // Automatic arena: evicted tiles stay valid for callers still holding their view.
+            MemorySegment encoded = RasterRuntime.encode(
+                    driverShortName,
+                    tileMatrixSet.tileWidth(),
+                    tileMatrixSet.tileHeight(),
+                    bands,
+                    Map.of(),
+                    Arena.ofAuto()
+            );
+            cache.put(key, encoded);
+            return TileCache.view(encoded);
+        } finally {
+            lifecycle.readLock().unlock();
+        }
+    }
+
+    public long cachedBytes() {
+        return cache.sizeBytes();
+    }
+
+    public int cachedTiles() {
+        return cache.size();
+    }
+
+    @Override
+    public void close() {
+        lifecycle.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            cache.clear();
+            warped.close();
+        } finally {
+            lifecycle.writeLock().unlock();
+        }
+    }
+
+    private byte[][] render(BoundingBox bounds) {
+        int tileWidth = tileMatrixSet.tileWidth();
+        int tileHeight = tileMatrixSet.tileHeight();
+        int outputBands = colorBands + (alpha ? 1 : 0);
+        byte[][] bands = new byte[outputBands][tileWidth * tileHeight];
+
+        double pixelX0 = (bounds.minX() - geoTransform[0]) / geoTransform[1];
+        double pixelX1 = (bounds.maxX() - geoTransform[0]) / geoTransform[1];
+        double pixelY0 = (bounds.maxY() - geoTransform[3]) / geoTransform[5];
+        double pixelY1 = (bounds.minY() - geoTransform[3]) / geoTransform[5];
+        int sourceX0 = (int) Math.max(0, Math.floor(pixelX0));
+        int sourceX1 = (int) Math.min(width, Math.ceil(pixelX1));
+        int sourceY0 = (int) Math.max(0, Math.floor(pixelY0));
+        int sourceY1 = (int) Math.min(height, Math.ceil(pixelY1));
+        if (sourceX0 >= sourceX1 || sourceY0 >= sourceY1) {
+            return bands;
+        }
+
+        // Source windows snap to whole pixels; map them back to the tile so the data lands where it belongs.
+        int targetX0 = clamp(Math.round((sourceX0 - pixelX0) / (pixelX1 - pixelX0) * tileWidth), tileWidth);
+        int targetX1 = clamp(Math.round((sourceX1 - pixelX0) / (pixelX1 - pixelX0) * tileWidth), tileWidth);
+        int targetY0 = clamp(Math.round((sourceY0 - pixelY0) / (pixelY1 - pixelY0) * tileHeight), tileHeight);
+        int targetY1 = clamp(Math.round((sourceY1 - pixelY0) / (pixelY1 - pixelY0) * tileHeight), tileHeight);
+        int bufferWidth = targetX1 - targetX0;
+        int bufferHeight = targetY1 - targetY0;
+        if (bufferWidth <= 0 || bufferHeight <= 0) {
+            return bands;
+        }
+
+        RasterWindow window = new RasterWindow(sourceX0, sourceY0, sourceX1 - sourceX0, sourceY1 - sourceY0);
+        byte[] buffer = new byte[bufferWidth * bufferHeight];
+
+        try (RasterDataset handle = Gdal.openRaster(warped.ref(), false, config)) {
+            for (int band = 0; band < outputBands; band++) {
+                boolean alphaBand = alpha && band == colorBands;
+                if (alphaBand && !warpedAlpha) {
+                    Arrays.fill(buffer, (byte) 0xFF);
+                } else {
+                    int sourceBand = alphaBand ? handle.bandCount() : band + 1;
+                    handle.band(sourceBand).readWindow(window, bufferWidth, bufferHeight, resampling, buffer);
+                }
+                for (int row = 0; row < bufferHeight; row++) {
+                    System.arraycopy(
+                            buffer,
+                            row * bufferWidth,
+                            bands[band],
+                            (targetY0 + row) * tileWidth + targetX0,
+                            bufferWidth
+                    );
+                }
+            }
+        }
+        return bands;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Tile renderer is closed");
+        }
+    }
+
+    private static int clamp(long value, int max) {
+        return (int) Math.max(0, Math.min(max, value));
+    }
+
+    /**
+     * Resolves {@code outputFormat} to a raster driver by short name, then by file extension ({@code JFIF} is
+     * treated as {@code jpg}).
+     */
+    static Optional<DriverCapabilities> resolveDriver(String outputFormat, List<DriverCapabilities> drivers) {
+        String name = outputFormat.trim();
+        String extension = name.equalsIgnoreCase(JFIF) ? "jpg" : name.startsWith(".") ? name.substring(1) : name;
+        for (DriverCapabilities driver : drivers) {
+            if (driver.raster() && driver.shortName().equalsIgnoreCase(name)) {
+                return Optional.of(driver);
+            }
+        }
+        for (DriverCapabilities driver : drivers) {
+            if (driver.raster() && driver.extensions().stream().anyMatch(extension::equalsIgnoreCase)) {
+                return Optional.of(driver);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * JPEG cannot store an alpha channel; its 4-band output would be written as CMYK.
+     */
+    static boolean supportsAlpha(DriverCapabilities driver) {
+        return !driver.shortName().equalsIgnoreCase(DRIVER_JPEG);
+    }
+
+    static String warpResampling(RasterResampling resampling) {
+        return switch (resampling) {
+            case NEAREST -> "near";
+            case CUBIC_SPLINE -> "cubicspline";
+            case BILINEAR, CUBIC, LANCZOS, AVERAGE, MODE, RMS -> resampling.name().toLowerCase(Locale.ROOT);
+            case GAUSS -> throw new IllegalArgumentException("GAUSS resampling is not supported for warping");
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package ch.so.agi.gdal.ffm;
+
+/**
+ * Reusable reprojection of one source raster into a fixed target CRS and resolution.
+ * <p>
+ * The session builds the GDAL image-to-image transformer (and its PROJ pipeline) and the warp options once;
+ * each {@link #warp(BoundingBox)} call only moves the destination geotransform and runs
+ * {@code GDALChunkAndWarpImage} into a new in-memory raster. This avoids rebuilding the transformer from
+ * command-line arguments for every small window. Calls are serialized per session; open one session per worker
+ * thread to warp windows in parallel.
+ */
+public interface WarpSession extends AutoCloseable {
+    String targetCrs();
+
+    /**
+     * Returns the target pixel size in {@link #targetCrs()} units.
+     */
+    double resolution();
+
+    RasterResampling resampling();
+
+    /**
+     * Warps the source into a north-up {@code MEM} raster covering {@code bounds} (in target CRS coordinates)
+     * with the band count and data type of the source. Pixels outside the source are set to the source nodata
+     * value, or {@code 0} when the source has none. The caller closes the returned dataset.
+     */
+    RasterDataset warp(BoundingBox bounds);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,91 @@
+package ch.so.agi.gdal.ffm;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Minimal WKB/EWKB walker computing the 2D envelope of a geometry without native calls.
+ */
+final class WkbEnvelope {
+    private static final int EWKB_Z_FLAG = 0x8000_0000;
+    private static final int EWKB_M_FLAG = 0x4000_0000;
+    private static final int EWKB_SRID_FLAG = 0x2000_0000;
+    private static final int EWKB_FLAGS = EWKB_Z_FLAG | EWKB_M_FLAG | EWKB_SRID_FLAG;
+
+    private double minX = Double.POSITIVE_INFINITY;
+    private double minY = Double.POSITIVE_INFINITY;
+    private double maxX = Double.NEGATIVE_INFINITY;
+    private double maxY = Double.NEGATIVE_INFINITY;
+
+    private WkbEnvelope() {
+    }
+
+    /**
+     * Returns {@code [minX, minY, maxX, maxY]} or {@code null} for empty geometries.
+     */
+    static double[] of(byte[] wkbOrEwkb) {
+        WkbEnvelope envelope = new WkbEnvelope();
+        ByteBuffer buffer = ByteBuffer.wrap(wkbOrEwkb);
+        envelope.readGeometry(buffer);
+        if (envelope.minX > envelope.maxX) {
+            return null;
+        }
+        return new double[] {envelope.minX, envelope.minY, envelope.maxX, envelope.maxY};
+    }
+
+    private void readGeometry(ByteBuffer buffer) {
+        byte marker = buffer.get();
+        buffer.order(switch (marker) {
+            case 0 -> ByteOrder.BIG_ENDIAN;
+            case 1 -> ByteOrder.LITTLE_ENDIAN;
+            default -> throw new IllegalArgumentException("Unsupported WKB byte order marker: " + marker);
+        });
+
+        int rawType = buffer.getInt();
+        boolean hasZ = (rawType & EWKB_Z_FLAG) != 0;
+        boolean hasM = (rawType & EWKB_M_FLAG) != 0;
+        if ((rawType & EWKB_SRID_FLAG) != 0) {
+            buffer.getInt();
+        }
+        int isoType = rawType & ~EWKB_FLAGS;
+        int dimensionCode = isoType / 1000;
+        hasZ |= dimensionCode == 1 || dimensionCode == 3;
+        hasM |= dimensionCode == 2 || dimensionCode == 3;
+        int dimensions = 2 + (hasZ ? 1 : 0) + (hasM ? 1 : 0);
+
+        switch (isoType % 1000) {
+            case 1 -> readPoints(buffer, 1, dimensions);
+            case 2, 8 -> readPoints(buffer, buffer.getInt(), dimensions);
+            case 3, 17 -> {
+                int ringCount = buffer.getInt();
+                for (int i = 0; i < ringCount; i++) {
+                    readPoints(buffer, buffer.getInt(), dimensions);
+                }
+            }
+            case 4, 5, 6, 7, 9, 10, 11, 12, 15, 16 -> {
+                int partCount = buffer.getInt();
+                for (int i = 0; i < partCount; i++) {
+                    readGeometry(buffer);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unsupported WKB geometry type: " + rawType);
+        }
+    }
+
+    private void readPoints(ByteBuffer buffer, int pointCount, int dimensions) {
+        for (int i = 0; i < pointCount; i++) {
+            double x = buffer.getDouble();
+            double y = buffer.getDouble();
+            for (int extra = 2; extra < dimensions; extra++) {
+                buffer.getDouble();
+            }
+            if (Double.isNaN(x) || Double.isNaN(y)) {
+                continue;
+            }
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ch.so.agi.gdal.ffm.internal;
+
+/**
+ * Element-wise float kernels used by the raster calculator. Every operation reads the first {@code length}
+ * elements of its inputs and writes {@code out}, which may alias an input.
+ * <p>
+ * {@link #best()} returns an implementation based on the incubating Vector API when the
+ * {@code jdk.incubator.vector} module is available at runtime ({@code --add-modules jdk.incubator.vector}) and a
+ * scalar implementation otherwise. Both produce identical results.
+ */
+public interface BandMathKernels {
+    enum BinaryOp {
+        ADD,
+        SUBTRACT,
+        MULTIPLY,
+        DIVIDE,
+        MIN,
+        MAX,
+        LESS,
+        LESS_OR_EQUAL,
+        GREATER,
+        GREATER_OR_EQUAL,
+        EQUAL,
+        NOT_EQUAL
+    }
+
+    enum UnaryOp {
+        NEGATE,
+        ABS,
+        SQRT
+    }
+
+    String name();
+
+    void binary(BinaryOp op, float[] left, float[] right, float[] out, int length);
+
+    void unary(UnaryOp op, float[] operand, float[] out, int length);
+
+    /**
+     * {@code out[i] = condition[i] != 0 ? whenTrue[i] : whenFalse[i]}; {@code NaN} conditions select
+     * {@code whenFalse}.
+     */
+    void select(float[] condition, float[] whenTrue, float[] whenFalse, float[] out, int length);
+
+    /**
+     * Maps values in {@code [mins[r], maxs[r])} to {@code values[r]}; the first matching rule wins and values
+     * matching no rule become {@code NaN}.
+     */
+    void reclass(float[] operand, float[] mins, float[] maxs, float[] values, float[] out, int length);
+
+    /**
+     * Replaces {@code noData} with {@code NaN} in place.
+     */
+    void maskNoData(float[] values, float noData, int length);
+
+    static BandMathKernels best() {
+        return Holder.BEST;
+    }
+
+    static BandMathKernels scalar() {
+        return ScalarBandMathKernels.INSTANCE;
+    }
+
+    final class Holder {
+        private static final BandMathKernels BEST = detect();
+
+        private Holder() {
+        }
+
+        private static BandMathKernels detect() {
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+                return ScalarBandMathKernels.INSTANCE;
+            }
+            try {
+                return new VectorBandMathKernels();
+            } catch (LinkageError e) {
+                return ScalarBandMathKernels.INSTANCE;
+            }
+        }
+    }
+}
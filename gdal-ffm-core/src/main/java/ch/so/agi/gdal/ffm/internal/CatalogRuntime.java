@@ -0,0 +1,68 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import ch.so.agi.gdal.ffm.DatasetCatalogEntry;
+import ch.so.agi.gdal.ffm.DatasetRef;
+import ch.so.agi.gdal.ffm.GdalConfig;
+import ch.so.agi.gdal.ffm.OgrLayerMetadata;
+import ch.so.agi.gdal.ffm.RasterMetadata;
+import ch.so.agi.gdal.ffm.generated.GdalGenerated;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public final class CatalogRuntime {
+    private static final int GDAL_OF_RASTER = 0x02;
+    private static final int GDAL_OF_VECTOR = 0x04;
+    private static final int GDAL_OF_VERBOSE_ERROR = 0x40;
+
+    private CatalogRuntime() {
+    }
+
+    /**
+     * Opens a dataset read-only for raster and vector access and collects its catalog metadata.
+     * Must not share the returned handles with other threads; every call opens its own dataset.
+     */
+    public static DatasetCatalogEntry describe(DatasetRef datasetRef, boolean exactStatistics, GdalConfig config) {
+        Objects.requireNonNull(datasetRef, "datasetRef must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        GdalRuntime.initialize();
+
+        MemorySegment dataset = MemorySegment.NULL;
+        GdalGenerated.CPLErrorReset();
+        try (GdalConfigScope.ScopedConfigHandle ignored = GdalConfigScope.applyScoped(config);
+             Arena arena = Arena.ofConfined()) {
+            MemorySegment identifier = arena.allocateFrom(datasetRef.toGdalIdentifier());
+            dataset = GdalGenerated.GDALOpenEx(
+                    identifier,
+                    GDAL_OF_RASTER | GDAL_OF_VECTOR | GDAL_OF_VERBOSE_ERROR,
+                    MemorySegment.NULL,
+                    MemorySegment.NULL,
+                    MemorySegment.NULL
+            );
+            if (CStrings.isNull(dataset)) {
+                throw GdalErrors.lastError("Failed to open dataset: " + datasetRef.identifier());
+            }
+
+            MemorySegment driver = OgrNative.GDALGetDatasetDriver(dataset);
+            String driverShortName = CStrings.isNull(driver)
+                    ? null
+                    : CStrings.fromCString(GdalGenerated.GDALGetDriverShortName(driver)).trim();
+
+            int layerCount = GdalGenerated.GDALDatasetGetLayerCount(dataset);
+            List<OgrLayerMetadata> layers = new ArrayList<>(Math.max(layerCount, 0));
+            for (int i = 0; i < layerCount; i++) {
+                MemorySegment layer = GdalGenerated.GDALDatasetGetLayer(dataset, i);
+                if (!CStrings.isNull(layer)) {
+                    layers.add(OgrRuntime.describeLayerMetadata(layer, exactStatistics));
+                }
+            }
+
+            RasterMetadata raster = RasterRuntime.describeRaster(dataset);
+            return new DatasetCatalogEntry(datasetRef, driverShortName, layers, raster, null);
+        } finally {
+            GdalRuntime.closeDatasetQuietly(dataset);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import ch.so.agi.gdal.ffm.GdalConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Process-wide budget of CPU threads shared by all Java threads that run GDAL algorithms, warp sessions and raster
+ * window/block I/O.
+ * <p>
+ * Every such call leases at least one thread; calls block while the budget is exhausted. Runs that ask GDAL
+ * for internal worker threads ({@code GDAL_NUM_THREADS}, {@code NUM_THREADS=} creation/warp options or
+ * {@code --num-threads}) get at most what is still free, and those settings are rewritten to the granted count;
+ * {@code GDAL_NUM_THREADS} is always set to the granted count while the lease is held.
+ * Sixteen concurrent callers with {@code NUM_THREADS=ALL_CPUS} therefore share the cores instead of starting
+ * sixteen times as many native threads. Nested runs on a thread that already holds a lease reuse it.
+ */
+public final class CpuBudget {
+    static final String GDAL_NUM_THREADS = "GDAL_NUM_THREADS";
+    private static final String NUM_THREADS_OPTION = "NUM_THREADS=";
+    private static final String NUM_THREADS_ARG = "--num-threads";
+    private static final String ALL_CPUS = "ALL_CPUS";
+
+    private static final Object LOCK = new Object();
+    private static final ThreadLocal<Lease> CURRENT = new ThreadLocal<>();
+    private static int total = Runtime.getRuntime().availableProcessors();
+    private static int inUse;
+
+    private CpuBudget() {
+    }
+
+    /**
+     * Sets the number of threads shared by concurrent GDAL algorithm runs. Running leases are not revoked.
+     */
+    public static void configure(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be > 0");
+        }
+        synchronized (LOCK) {
+            total = threads;
+            LOCK.notifyAll();
+        }
+    }
+
+    public static int total() {
+        synchronized (LOCK) {
+            return total;
+        }
+    }
+
+    public static int inUse() {
+        synchronized (LOCK) {
+            return inUse;
+        }
+    }
+
+    /**
+     * Leases one thread plus up to {@code requested - 1} currently free threads, waiting while none is free.
+     */
+    static Lease acquire(int requested) {
+        Lease current = CURRENT.get();
+        if (current != null) {
+            return new Lease(current.threads, false);
+        }
+        int granted;
+        synchronized (LOCK) {
+            while (inUse >= total) {
+                try {
+                    LOCK.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a GDAL CPU budget lease", e);
+                }
+            }
+            granted = Math.max(1, Math.min(requested, total - inUse));
+            inUse += granted;
+        }
+        Lease lease = new Lease(granted, true);
+        CURRENT.set(lease);
+        return lease;
+    }
+
+    /**
+     * Returns the largest thread count requested through {@code config} or {@code args}, or {@code 1}.
+     */
+    static int requestedThreads(Map<String, String> config, List<String> args, int cores) {
+        Objects.requireNonNull(config, "config must not be null");
+        Objects.requireNonNull(args, "args must not be null");
+        int requested = 1;
+        String configured = config.get(GDAL_NUM_THREADS);
+        if (configured != null) {
+            requested = Math.max(requested, parseThreads(configured, cores));
+        }
+        for (int i = 0; i < args.size(); i++) {
+            String arg = args.get(i);
+            int option = numThreadsOptionIndex(arg);
+            if (option >= 0) {
+                String value = arg.substring(option + NUM_THREADS_OPTION.length());
+                requested = Math.max(requested, parseThreads(value, cores));
+            } else if (arg.equals(NUM_THREADS_ARG) && i + 1 < args.size()) {
+                requested = Math.max(requested, parseThreads(args.get(i + 1), cores));
+            } else if (arg.startsWith(NUM_THREADS_ARG + "=")) {
+                requested = Math.max(requested, parseThreads(arg.substring(NUM_THREADS_ARG.length() + 1), cores));
+            }
+        }
+        return requested;
+    }
+
+    /**
+     * Rewrites every thread count setting in {@code args} to {@code threads}.
+     */
+    static List<String> limitArgs(List<String> args, int threads) {
+        List<String> limited = new ArrayList<>(args.size());
+        for (int i = 0; i < args.size(); i++) {
+            String arg = args.get(i);
+            int option = numThreadsOptionIndex(arg);
+            if (option >= 0) {
+                limited.add(arg.substring(0, option) + NUM_THREADS_OPTION + threads);
+            } else if (arg.equals(NUM_THREADS_ARG) && i + 1 < args.size()) {
+                limited.add(arg);
+                limited.add(Integer.toString(threads));
+                i++;
+            } else if (arg.startsWith(NUM_THREADS_ARG + "=")) {
+                limited.add(NUM_THREADS_ARG + "=" + threads);
+            } else {
+                limited.add(arg);
+            }
+        }
+        return limited;
+    }
+
+    /**
+     * Sets {@code GDAL_NUM_THREADS} to {@code threads}, so a process-wide or environment default cannot make GDAL
+     * start more worker threads than the lease granted.
+     */
+    static GdalConfig limitConfig(GdalConfig config, int threads) {
+        return config.withConfigOption(GDAL_NUM_THREADS, Integer.toString(threads));
+    }
+
+    private static int numThreadsOptionIndex(String arg) {
+        int index = arg.toUpperCase(Locale.ROOT).indexOf(NUM_THREADS_OPTION);
+        if (index < 0) {
+            return -1;
+        }
+        // Whole option names only: "NUM_THREADS=4", "--co=NUM_THREADS=4" and "--config GDAL_NUM_THREADS=4".
+        String prefix = arg.substring(0, index);
+        return prefix.isEmpty() || prefix.endsWith("=") || prefix.equalsIgnoreCase("GDAL_") ? index : -1;
+    }
+
+    private static int parseThreads(String value, int cores) {
+        String trimmed = value.trim();
+        if (trimmed.equalsIgnoreCase(ALL_CPUS)) {
+            return cores;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(trimmed));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    static final class Lease implements AutoCloseable {
+        private final int threads;
+        private final boolean owner;
+        private boolean closed;
+
+        private Lease(int threads, boolean owner) {
+            this.threads = threads;
+            this.owner = owner;
+        }
+
+        int threads() {
+            return threads;
+        }
+
+        @Override
+        public void close() {
+            if (closed || !owner) {
+                return;
+            }
+            closed = true;
+            CURRENT.remove();
+            synchronized (LOCK) {
+                inUse -= threads;
+                LOCK.notifyAll();
+            }
+        }
+    }
+}
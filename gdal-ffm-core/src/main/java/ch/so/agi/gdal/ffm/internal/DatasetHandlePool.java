@@ -0,0 +1,412 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import ch.so.agi.gdal.ffm.generated.GdalGenerated;
+import java.lang.foreign.MemorySegment;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Pool of opened GDAL dataset handles keyed by identifier, open flags, drivers, open options and config.
+ * <p>
+ * A handle is checked out exclusively by one {@link Lease} at a time and returns to the idle list on
+ * {@link Lease#release()}. Idle handles are closed least-recently-used first when the open-handle bound is
+ * reached and after the idle timeout; a shared daemon thread sweeps expired handles while any are idle, so they
+ * are closed even when the pool is not used again. Opening and closing native handles happens outside the pool lock.
+ */
+final class DatasetHandlePool {
+    static final int DEFAULT_MAX_OPEN_HANDLES = 64;
+    static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+    static final Duration DEFAULT_CHECKOUT_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final DatasetHandlePool SHARED = new DatasetHandlePool(
+            DEFAULT_MAX_OPEN_HANDLES,
+            DEFAULT_IDLE_TIMEOUT,
+            DEFAULT_CHECKOUT_TIMEOUT,
+            System::nanoTime,
+            DatasetHandlePool::closeDatasetQuietly
+    );
+
+    private final LongSupplier nanoClock;
+    private final Consumer<MemorySegment> closer;
+    private final Duration checkoutTimeout;
+    // Access-ordered so iteration starts with the least recently used key.
+    private final LinkedHashMap<Key, Deque<IdleHandle>> idleByKey = new LinkedHashMap<>(16, 0.75f, true);
+
+    private int maxOpenHandles;
+    private long idleTimeoutNanos;
+    private int openHandles;
+    private int idleHandles;
+    private ScheduledFuture<?> sweep;
+
+    DatasetHandlePool(
+            int maxOpenHandles,
+            Duration idleTimeout,
+            Duration checkoutTimeout,
+            LongSupplier nanoClock,
+            Consumer<MemorySegment> closer
+    ) {
+        this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock must not be null");
+        this.closer = Objects.requireNonNull(closer, "closer must not be null");
+        this.checkoutTimeout = Objects.requireNonNull(checkoutTimeout, "checkoutTimeout must not be null");
+        configure(maxOpenHandles, idleTimeout);
+    }
+
+    static DatasetHandlePool shared() {
+        return SHARED;
+    }
+
+    void configure(int maxOpenHandles, Duration idleTimeout) {
+        if (maxOpenHandles <= 0) {
+            throw new IllegalArgumentException("maxOpenHandles must be > 0");
+        }
+        Objects.requireNonNull(idleTimeout, "idleTimeout must not be null");
+        if (idleTimeout.isNegative()) {
+            throw new IllegalArgumentException("idleTimeout must not be negative");
+        }
+        List<MemorySegment> evicted;
+        synchronized (this) {
+            this.maxOpenHandles = maxOpenHandles;
+            this.idleTimeoutNanos = idleTimeout.toNanos();
+            long now = nanoClock.getAsLong();
+            evicted = evictExpired(now);
+            while (openHandles > maxOpenHandles && idleHandles > 0) {
+                evicted.add(evictLeastRecentlyUsed());
+            }
+            // The idle timeout may have changed, so the pending sweep may be due earlier or later.
+            if (sweep != null) {
+                sweep.cancel(false);
+                sweep = null;
+            }
+            scheduleSweep(now);
+            notifyAll();
+        }
+        closeAll(evicted);
+    }
+
+    Lease checkout(Key key, Supplier<MemorySegment> opener) {
+        Objects.requireNonNull(key, "key must not be null");
+        Objects.requireNonNull(opener, "opener must not be null");
+
+        List<MemorySegment> evicted = new ArrayList<>();
+        Lease reused = null;
+        RuntimeException failure = null;
+        synchronized (this) {
+            long now = nanoClock.getAsLong();
+            evicted.addAll(evictExpired(now));
+
+            Deque<IdleHandle> idle = idleByKey.get(key);
+            if (idle != null && !idle.isEmpty()) {
+                IdleHandle handle = idle.pollLast();
+                idleHandles--;
+                if (idle.isEmpty()) {
+                    idleByKey.remove(key);
+                }
+                reused = new Lease(key, handle.handle(), handle.attachment());
+            } else {
+                failure = reserveSlot(now + checkoutTimeout.toNanos(), evicted);
+            }
+        }
+        closeAll(evicted);
+        if (failure != null) {
+            throw failure;
+        }
+        if (reused != null) {
+            return reused;
+        }
+
+        MemorySegment handle;
+        try {
+            handle = opener.get();
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                openHandles--;
+                notifyAll();
+            }
+            throw e;
+        }
+        return new Lease(key, handle, null);
+    }
+
+    private RuntimeException reserveSlot(long deadlineNanos, List<MemorySegment> evicted) {
+        while (openHandles >= maxOpenHandles) {
+            if (idleHandles > 0) {
+                evicted.add(evictLeastRecentlyUsed());
+                continue;
+            }
+            long remaining = deadlineNanos - nanoClock.getAsLong();
+            if (remaining <= 0) {
+                return new IllegalStateException(
+                        "Dataset handle pool exhausted: all " + maxOpenHandles + " handles are checked out"
+                );
+            }
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new IllegalStateException("Interrupted while waiting for a pooled dataset handle", e);
+            }
+        }
+        openHandles++;
+        return null;
+    }
+
+    /**
+     * Closes all idle handles. Checked-out handles stay valid and return to the pool on release.
+     */
+    void clear() {
+        clear("");
+    }
+
+    /**
+     * Closes the idle handles whose identifier starts with {@code identifierPrefix}, for example before the
+     * files behind them are deleted.
+     */
+    void clear(String identifierPrefix) {
+        Objects.requireNonNull(identifierPrefix, "identifierPrefix must not be null");
+        List<MemorySegment> evicted = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<Key, Deque<IdleHandle>>> byKey = idleByKey.entrySet().iterator();
+            while (byKey.hasNext()) {
+                Map.Entry<Key, Deque<IdleHandle>> entry = byKey.next();
+                if (!entry.getKey().identifier().startsWith(identifierPrefix)) {
+                    continue;
+                }
+                for (IdleHandle handle : entry.getValue()) {
+                    evicted.add(handle.handle());
+                }
+                byKey.remove();
+            }
+            openHandles -= evicted.size();
+            idleHandles -= evicted.size();
+            notifyAll();
+        }
+        closeAll(evicted);
+    }
+
+    synchronized int openHandleCount() {
+        return openHandles;
+    }
+
+    synchronized int idleHandleCount() {
+        return idleHandles;
+    }
+
+    private void release(Key key, MemorySegment handle, Object attachment, boolean reusable) {
+        List<MemorySegment> evicted;
+        synchronized (this) {
+            long now = nanoClock.getAsLong();
+            if (reusable) {
+                idleByKey.computeIfAbsent(key, ignored -> new ArrayDeque<>())
+                        .addLast(new IdleHandle(handle, now, attachment));
+                idleHandles++;
+            } else {
+                openHandles--;
+            }
+            evicted = evictExpired(now);
+            while (openHandles > maxOpenHandles && idleHandles > 0) {
+                evicted.add(evictLeastRecentlyUsed());
+            }
+            scheduleSweep(now);
+            notifyAll();
+        }
+        if (!reusable) {
+            closer.accept(handle);
+        }
+        closeAll(evicted);
+    }
+
+    private List<MemorySegment> evictExpired(long now) {
+        List<MemorySegment> evicted = new ArrayList<>();
+        Iterator<Deque<IdleHandle>> byKey = idleByKey.values().iterator();
+        while (byKey.hasNext()) {
+            Deque<IdleHandle> idle = byKey.next();
+            Iterator<IdleHandle> handles = idle.iterator();
+            while (handles.hasNext()) {
+                IdleHandle handle = handles.next();
+                if (now - handle.releasedAtNanos() >= idleTimeoutNanos) {
+                    handles.remove();
+                    evicted.add(handle.handle());
+                }
+            }
+            if (idle.isEmpty()) {
+                byKey.remove();
+            }
+        }
+        openHandles -= evicted.size();
+        idleHandles -= evicted.size();
+        return evicted;
+    }
+
+    /**
+     * Schedules a sweep for when the oldest idle handle expires, unless one is pending or no handle is idle.
+     * Called with the pool lock held.
+     */
+    private void scheduleSweep(long now) {
+        if (sweep != null || idleHandles == 0) {
+            return;
+        }
+        long nextExpiry = Long.MAX_VALUE;
+        for (Deque<IdleHandle> idle : idleByKey.values()) {
+            // Handles are appended on release, so the first one of each key was idle the longest.
+            nextExpiry = Math.min(nextExpiry, idle.peekFirst().releasedAtNanos() + idleTimeoutNanos - now);
+        }
+        sweep = Sweeper.EXECUTOR.schedule(this::sweep, Math.max(nextExpiry, 0), TimeUnit.NANOSECONDS);
+    }
+
+    private void sweep() {
+        List<MemorySegment> evicted;
+        synchronized (this) {
+            sweep = null;
+            long now = nanoClock.getAsLong();
+            evicted = evictExpired(now);
+            scheduleSweep(now);
+            if (!evicted.isEmpty()) {
+                notifyAll();
+            }
+        }
+        closeAll(evicted);
+    }
+
+    private MemorySegment evictLeastRecentlyUsed() {
+        Iterator<Map.Entry<Key, Deque<IdleHandle>>> iterator = idleByKey.entrySet().iterator();
+        Map.Entry<Key, Deque<IdleHandle>> eldest = iterator.next();
+        IdleHandle handle = eldest.getValue().pollFirst();
+        if (eldest.getValue().isEmpty()) {
+            iterator.remove();
+        }
+        openHandles--;
+        idleHandles--;
+        return handle.handle();
+    }
+
+    private static void closeDatasetQuietly(MemorySegment dataset) {
+        if (CStrings.isNull(dataset)) {
+            return;
+        }
+        try {
+            GdalGenerated.GDALClose(dataset);
+        } catch (RuntimeException ignored) {
+            // Keep cleanup best-effort; eviction must not fail the caller.
+        }
+    }
+
+    private void closeAll(List<MemorySegment> handles) {
+        for (MemorySegment handle : handles) {
+            closer.accept(handle);
+        }
+    }
+
+    /**
+     * Pool key. {@code localModifiedMillis} makes local files that changed on disk open a fresh handle.
+     */
+    record Key(
+            String identifier,
+            int openFlags,
+            List<String> allowedDrivers,
+            Map<String, String> openOptions,
+            Map<String, String> config,
+            long localModifiedMillis
+    ) {
+        Key {
+            Objects.requireNonNull(identifier, "identifier must not be null");
+            allowedDrivers = List.copyOf(allowedDrivers);
+            openOptions = Map.copyOf(openOptions);
+            config = Map.copyOf(config);
+        }
+    }
+
+    private record IdleHandle(MemorySegment handle, long releasedAtNanos, Object attachment) {
+    }
+
+    /**
+     * Single daemon thread shared by all pools, started with the first idle handle.
+     */
+    private static final class Sweeper {
+        private static final ScheduledExecutorService EXECUTOR = create();
+
+        private static ScheduledExecutorService create() {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "gdal-ffm-handle-pool-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Rescheduling after configure() cancels sweeps; drop them instead of keeping them queued.
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        }
+    }
+
+    /**
+     * Exclusive checkout of one pooled handle.
+     */
+    final class Lease {
+        private final Key key;
+        private final MemorySegment handle;
+        private Object attachment;
+        private boolean returned;
+
+        private Lease(Key key, MemorySegment handle, Object attachment) {
+            this.key = key;
+            this.handle = handle;
+            this.attachment = attachment;
+        }
+
+        MemorySegment handle() {
+            return handle;
+        }
+
+        /**
+         * Returns handle-scoped state stored by a previous lease of the same handle, or {@code null}.
+         */
+        synchronized Object attachment() {
+            return attachment;
+        }
+
+        /**
+         * Stores handle-scoped state (for example cached metadata) that travels with the pooled handle.
+         */
+        synchronized void attach(Object value) {
+            this.attachment = value;
+        }
+
+        /**
+         * Returns the handle to the pool for reuse.
+         */
+        void release() {
+            giveBack(true);
+        }
+
+        /**
+         * Closes the handle instead of reusing it, for example after a native failure left it in doubt.
+         */
+        void invalidate() {
+            giveBack(false);
+        }
+
+        private void giveBack(boolean reusable) {
+            Object currentAttachment;
+            synchronized (this) {
+                if (returned) {
+                    return;
+                }
+                returned = true;
+                currentAttachment = attachment;
+            }
+            DatasetHandlePool.this.release(key, handle, currentAttachment, reusable);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import ch.so.agi.gdal.ffm.DriverCapabilities;
+import ch.so.agi.gdal.ffm.OgrDriverInfo;
+import ch.so.agi.gdal.ffm.RasterDriverInfo;
+import ch.so.agi.gdal.ffm.generated.GdalGenerated;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Snapshot of the capability matrix of all registered drivers, built once after driver registration.
+ * <p>
+ * Lookups and the writable-driver listings are served from the snapshot, so callers no longer rescan the
+ * driver manager and reallocate metadata strings per call.
+ */
+final class DriverRegistry {
+    static final String MD_DCAP_VECTOR = "DCAP_VECTOR";
+    static final String MD_DCAP_RASTER = "DCAP_RASTER";
+    static final String MD_DCAP_CREATE = "DCAP_CREATE";
+    static final String MD_DCAP_CREATECOPY = "DCAP_CREATECOPY";
+    static final String MD_DCAP_UPDATE = "DCAP_UPDATE";
+    static final String MD_DCAP_UPSERT = "DCAP_UPSERT";
+    static final String MD_DCAP_MULTIPLE_VECTOR_LAYERS = "DCAP_MULTIPLE_VECTOR_LAYERS";
+    static final String MD_DCAP_VIRTUALIO = "DCAP_VIRTUALIO";
+    static final String MD_DMD_EXTENSIONS = "DMD_EXTENSIONS";
+    static final String MD_DMD_EXTENSION = "DMD_EXTENSION";
+    static final String MD_DMD_SUPPORTED_SQL_DIALECTS = "DMD_SUPPORTED_SQL_DIALECTS";
+
+    private static final List<String> METADATA_KEYS = List.of(
+            MD_DCAP_VECTOR,
+            MD_DCAP_RASTER,
+            MD_DCAP_CREATE,
+            MD_DCAP_CREATECOPY,
+            MD_DCAP_UPDATE,
+            MD_DCAP_UPSERT,
+            MD_DCAP_MULTIPLE_VECTOR_LAYERS,
+            MD_DCAP_VIRTUALIO,
+            MD_DMD_EXTENSIONS,
+            MD_DMD_EXTENSION,
+            MD_DMD_SUPPORTED_SQL_DIALECTS
+    );
+
+    private static volatile DriverRegistry shared;
+
+    private final List<DriverCapabilities> drivers;
+    private final Map<String, DriverCapabilities> byShortName;
+    private final List<OgrDriverInfo> writableVectorDrivers;
+    private final List<RasterDriverInfo> writableRasterDrivers;
+
+    DriverRegistry(List<DriverCapabilities> drivers) {
+        List<DriverCapabilities> sorted = new ArrayList<>(drivers);
+        sorted.sort((left, right) -> left.shortName().compareToIgnoreCase(right.shortName()));
+        this.drivers = List.copyOf(sorted);
+
+        Map<String, DriverCapabilities> index = new LinkedHashMap<>();
+        List<OgrDriverInfo> vectorDrivers = new ArrayList<>();
+        List<RasterDriverInfo> rasterDrivers = new ArrayList<>();
+        for (DriverCapabilities driver : this.drivers) {
+            index.putIfAbsent(driver.shortName().toLowerCase(Locale.ROOT), driver);
+            if (driver.vector() && driver.create()) {
+                vectorDrivers.add(
+                        new OgrDriverInfo(driver.shortName(), driver.longName(), driver.extensions(), true, true)
+                );
+            }
+            if (driver.raster() && (driver.create() || driver.createCopy())) {
+                rasterDrivers.add(new RasterDriverInfo(
+                        driver.shortName(),
+                        driver.longName(),
+                        driver.extensions(),
+                        driver.create(),
+                        driver.createCopy()
+                ));
+            }
+        }
+        this.byShortName = Map.copyOf(index);
+        this.writableVectorDrivers = List.copyOf(vectorDrivers);
+        this.writableRasterDrivers = List.copyOf(rasterDrivers);
+    }
+
+    /**
+     * Returns the shared snapshot, loading it on first use after GDAL driver registration.
+     */
+    static DriverRegistry shared() {
+        DriverRegistry registry = shared;
+        if (registry != null) {
+            return registry;
+        }
+        synchronized (DriverRegistry.class) {
+            if (shared == null) {
+                GdalRuntime.initialize();
+                shared = load();
+            }
+            return shared;
+        }
+    }
+
+    List<DriverCapabilities> drivers() {
+        return drivers;
+    }
+
+    Optional<DriverCapabilities> find(String shortName) {
+        if (shortName == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(byShortName.get(shortName.trim().toLowerCase(Locale.ROOT)));
+    }
+
+    List<OgrDriverInfo> writableVectorDrivers() {
+        return writableVectorDrivers;
+    }
+
+    List<RasterDriverInfo> writableRasterDrivers() {
+        return writableRasterDrivers;
+    }
+
+    private static DriverRegistry load() {
+        int driverCount = GdalGenerated.GDALGetDriverCount();
+        List<DriverCapabilities> drivers = new ArrayList<>(Math.max(driverCount, 0));
+        try (Arena arena = Arena.ofConfined()) {
+            Map<String, MemorySegment> keys = new LinkedHashMap<>();
+            for (String key : METADATA_KEYS) {
+                keys.put(key, arena.allocateFrom(key));
+            }
+            for (int i = 0; i < driverCount; i++) {
+                MemorySegment driver = GdalGenerated.GDALGetDriver(i);
+                if (CStrings.isNull(driver)) {
+                    continue;
+                }
+                String shortName = CStrings.fromCString(GdalGenerated.GDALGetDriverShortName(driver)).trim();
+                if (shortName.isEmpty()) {
+                    continue;
+                }
+                String longName = CStrings.fromCString(GdalGenerated.GDALGetDriverLongName(driver)).trim();
+
+                Map<String, String> metadata = new LinkedHashMap<>();
+                for (Map.Entry<String, MemorySegment> key : keys.entrySet()) {
+                    MemorySegment value = GdalGenerated.GDALGetMetadataItem(driver, key.getValue(), MemorySegment.NULL);
+                    if (!CStrings.isNull(value)) {
+                        metadata.put(key.getKey(), CStrings.fromCString(value).trim());
+                    }
+                }
+                drivers.add(fromMetadata(shortName, longName, metadata));
+            }
+        }
+        return new DriverRegistry(drivers);
+    }
+
+    static DriverCapabilities fromMetadata(String shortName, String longName, Map<String, String> metadata) {
+        String extensions = metadata.getOrDefault(MD_DMD_EXTENSIONS, "");
+        if (extensions.isBlank()) {
+            extensions = metadata.getOrDefault(MD_DMD_EXTENSION, "");
+        }
+        return new DriverCapabilities(
+                shortName,
+                longName == null || longName.isBlank() ? shortName : longName,
+                splitList(extensions),
+                isTrue(metadata, MD_DCAP_VECTOR),
+                isTrue(metadata, MD_DCAP_RASTER),
+                isTrue(metadata, MD_DCAP_CREATE),
+                isTrue(metadata, MD_DCAP_CREATECOPY),
+                isTrue(metadata, MD_DCAP_UPDATE),
+                isTrue(metadata, MD_DCAP_UPSERT),
+                isTrue(metadata, MD_DCAP_MULTIPLE_VECTOR_LAYERS),
+                isTrue(metadata, MD_DCAP_VIRTUALIO),
+                splitList(metadata.getOrDefault(MD_DMD_SUPPORTED_SQL_DIALECTS, ""))
+        );
+    }
+
+    private static boolean isTrue(Map<String, String> metadata, String key) {
+        String value = metadata.get(key);
+        return "YES".equalsIgnoreCase(value) || "TRUE".equalsIgnoreCase(value) || "1".equals(value);
+    }
+
+    private static List<String> splitList(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return List.of();
+        }
+        LinkedHashSet<String> values = new LinkedHashSet<>();
+        for (String value : raw.split("[,;\\s]+")) {
+            String trimmed = value.trim();
+            if (!trimmed.isEmpty()) {
+                values.add(trimmed);
+            }
+        }
+        return List.copyOf(values);
+    }
+}
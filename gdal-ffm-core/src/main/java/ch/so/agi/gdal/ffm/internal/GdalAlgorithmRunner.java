@@ -14,6 +14,9 @@ final class GdalAlgorithmRunner {
     private static final int GAAT_STRING = 1;
     private static final int MAX_ARG_NAMES = 512;
 
+    // The handle only wraps GDAL's process-wide registry singleton, so it is fetched once and never released.
+    private static volatile MemorySegment registry;
+
     private GdalAlgorithmRunner() {
     }
 
@@ -44,7 +47,26 @@ final class GdalAlgorithmRunner {
             throw new IllegalArgumentException("algorithmPath must not be empty");
         }
 
-        MemorySegment registry = MemorySegment.NULL;
+        try (CpuBudget.Lease lease = CpuBudget.acquire(
+                CpuBudget.requestedThreads(config.options(), args, Runtime.getRuntime().availableProcessors())
+        )) {
+            return executeLeased(
+                    algorithmPath,
+                    CpuBudget.limitConfig(config, lease.threads()),
+                    progress,
+                    CpuBudget.limitArgs(args, lease.threads()),
+                    expectStringOutput
+            );
+        }
+    }
+
+    private static String executeLeased(
+            List<String> algorithmPath,
+            GdalConfig config,
+            ProgressCallback progress,
+            List<String> args,
+            boolean expectStringOutput
+    ) {
         MemorySegment algorithm = MemorySegment.NULL;
         String stringOutput = "";
 
@@ -52,13 +74,8 @@ final class GdalAlgorithmRunner {
         try (GdalConfigScope.ScopedConfigHandle ignored = GdalConfigScope.applyScoped(config);
              Arena arena = Arena.ofConfined();
              ProgressBridge.ProgressHandle progressHandle = ProgressBridge.create(progress, arena)) {
-            registry = GdalNative.GDALGetGlobalAlgorithmRegistry();
-            if (CStrings.isNull(registry)) {
-                throw GdalErrors.lastError("Failed to obtain GDAL algorithm registry");
-            }
-
             MemorySegment algorithmPathArray = CArgv.toCStringArray(algorithmPath.toArray(String[]::new), arena);
-            algorithm = GdalNative.GDALAlgorithmRegistryInstantiateAlgFromPath(registry, algorithmPathArray);
+            algorithm = GdalNative.GDALAlgorithmRegistryInstantiateAlgFromPath(registry(), algorithmPathArray);
             if (CStrings.isNull(algorithm)) {
                 throw GdalErrors.lastError("Failed to instantiate GDAL algorithm: " + String.join(" ", algorithmPath));
             }
@@ -90,9 +107,23 @@ final class GdalAlgorithmRunner {
             if (!CStrings.isNull(algorithm)) {
                 GdalNative.GDALAlgorithmRelease(algorithm);
             }
-            if (!CStrings.isNull(registry)) {
-                GdalNative.GDALAlgorithmRegistryRelease(registry);
+        }
+    }
+
+    private static MemorySegment registry() {
+        MemorySegment current = registry;
+        if (current != null) {
+            return current;
+        }
+        synchronized (GdalAlgorithmRunner.class) {
+            if (registry == null) {
+                MemorySegment handle = GdalNative.GDALGetGlobalAlgorithmRegistry();
+                if (CStrings.isNull(handle)) {
+                    throw GdalErrors.lastError("Failed to obtain GDAL algorithm registry");
+                }
+                registry = handle;
             }
+            return registry;
         }
     }
 
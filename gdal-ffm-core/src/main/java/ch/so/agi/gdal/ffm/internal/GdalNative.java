@@ -81,6 +81,17 @@ final class GdalNative {
             FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
     );
 
+    private static final MethodHandle GDAL_IDENTIFY_DRIVER_EX = downcall(
+            "GDALIdentifyDriverEx",
+            FunctionDescriptor.of(
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS
+            )
+    );
+
     private GdalNative() {
     }
 
@@ -160,13 +171,28 @@ final class GdalNative {
         return invokeAddress(GDAL_ALGORITHM_ARG_GET_AS_STRING, arg);
     }
 
-    private static MethodHandle downcall(String symbolName, FunctionDescriptor descriptor) {
-        MemorySegment symbol = SYMBOL_LOOKUP.find(symbolName)
+    static MemorySegment GDALIdentifyDriverEx(
+            MemorySegment filename,
+            int identifyFlags,
+            MemorySegment allowedDrivers,
+            MemorySegment fileList
+    ) {
+        return invokeAddress(GDAL_IDENTIFY_DRIVER_EX, filename, identifyFlags, allowedDrivers, fileList);
+    }
+
+    static MethodHandle downcall(String symbolName, FunctionDescriptor descriptor) {
+        return LINKER.downcallHandle(symbol(symbolName), descriptor);
+    }
+
+    /**
+     * Returns the address of a GDAL function, for APIs that take C function pointers such as transformers.
+     */
+    static MemorySegment symbol(String symbolName) {
+        return SYMBOL_LOOKUP.find(symbolName)
                 .orElseThrow(() -> new IllegalStateException("Required GDAL symbol not found: " + symbolName));
-        return LINKER.downcallHandle(symbol, descriptor);
     }
 
-    private static MemorySegment invokeAddress(MethodHandle handle, Object... args) {
+    static MemorySegment invokeAddress(MethodHandle handle, Object... args) {
         try {
             return (MemorySegment) handle.invokeWithArguments(args);
         } catch (RuntimeException | Error e) {
@@ -176,7 +202,7 @@ final class GdalNative {
         }
     }
 
-    private static boolean invokeBoolean(MethodHandle handle, Object... args) {
+    static boolean invokeBoolean(MethodHandle handle, Object... args) {
         try {
             return (boolean) handle.invokeWithArguments(args);
         } catch (RuntimeException | Error e) {
@@ -186,7 +212,7 @@ final class GdalNative {
         }
     }
 
-    private static int invokeInt(MethodHandle handle, Object... args) {
+    static int invokeInt(MethodHandle handle, Object... args) {
         try {
             return (int) handle.invokeWithArguments(args);
         } catch (RuntimeException | Error e) {
@@ -196,7 +222,27 @@ final class GdalNative {
         }
     }
 
-    private static void invokeVoid(MethodHandle handle, Object... args) {
+    static long invokeLong(MethodHandle handle, Object... args) {
+        try {
+            return (long) handle.invokeWithArguments(args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Native GDAL invocation failed", e);
+        }
+    }
+
+    static double invokeDouble(MethodHandle handle, Object... args) {
+        try {
+            return (double) handle.invokeWithArguments(args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Native GDAL invocation failed", e);
+        }
+    }
+
+    static void invokeVoid(MethodHandle handle, Object... args) {
         try {
             handle.invokeWithArguments(args);
         } catch (RuntimeException | Error e) {
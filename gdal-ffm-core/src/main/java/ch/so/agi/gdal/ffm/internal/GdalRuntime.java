@@ -1,7 +1,10 @@
 package ch.so.agi.gdal.ffm.internal;
 
+import ch.so.agi.gdal.ffm.DatasetFormat;
 import ch.so.agi.gdal.ffm.DatasetRef;
+import ch.so.agi.gdal.ffm.DriverCapabilities;
 import ch.so.agi.gdal.ffm.GdalConfig;
+import ch.so.agi.gdal.ffm.InMemoryDataset;
 import ch.so.agi.gdal.ffm.ProgressCallback;
 import ch.so.agi.gdal.ffm.RasterDriverInfo;
 import ch.so.agi.gdal.ffm.generated.GdalGenerated;
@@ -9,12 +12,15 @@ import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
 
 public final class GdalRuntime {
     private static final AtomicBoolean INITIALIZED = new AtomicBoolean(false);
@@ -23,12 +29,8 @@ public final class GdalRuntime {
     private static final int GDAL_OF_RASTER = 0x02;
     private static final int GDAL_OF_VECTOR = 0x04;
     private static final int GDAL_OF_VERBOSE_ERROR = 0x40;
-    private static final String MD_DCAP_RASTER = "DCAP_RASTER";
-    private static final String MD_DCAP_CREATE = "DCAP_CREATE";
-    private static final String MD_DCAP_CREATECOPY = "DCAP_CREATECOPY";
-    private static final String MD_DMD_EXTENSIONS = "DMD_EXTENSIONS";
-    private static final String MD_DMD_EXTENSION = "DMD_EXTENSION";
     private static final String MD_DMD_CREATIONOPTIONLIST = "DMD_CREATIONOPTIONLIST";
+    private static final Set<String> OUTPUT_FORMAT_OPTIONS = Set.of("-f", "--of", "--format", "--output-format");
 
     private GdalRuntime() {
     }
@@ -180,6 +182,67 @@ public final class GdalRuntime {
         );
     }
 
+    /**
+     * Runs {@code <algorithm> pipeline} with pre-built step arguments as one algorithm execution.
+     */
+    public static void runPipeline(
+            String algorithm,
+            List<String> args,
+            GdalConfig config,
+            ProgressCallback progress
+    ) {
+        Objects.requireNonNull(algorithm, "algorithm must not be null");
+        Objects.requireNonNull(args, "args must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        initialize();
+        GdalAlgorithmRunner.run(List.of(algorithm, "pipeline"), config, progress, args);
+    }
+
+    /**
+     * Runs a raster operation into a new {@link InMemoryDataset}. The output format defaults to VRT so the result
+     * only describes how to derive pixels from its inputs; the dataset is deleted again if the operation fails.
+     */
+    public static InMemoryDataset runInMemory(
+            String fileName,
+            String[] args,
+            BiConsumer<DatasetRef, String[]> operation
+    ) {
+        Objects.requireNonNull(operation, "operation must not be null");
+        InMemoryDataset dataset = InMemoryDataset.create(fileName);
+        try {
+            operation.accept(dataset.ref(), withDefaultOutputFormat(args, "VRT"));
+            return dataset;
+        } catch (RuntimeException | Error e) {
+            dataset.close();
+            throw e;
+        }
+    }
+
+    static String[] withDefaultOutputFormat(String[] args, String format) {
+        List<String> values = args == null ? new ArrayList<>() : new ArrayList<>(List.of(args));
+        for (String arg : values) {
+            if (isOutputFormatArg(arg)) {
+                return values.toArray(String[]::new);
+            }
+        }
+        values.add("--output-format");
+        values.add(format);
+        return values.toArray(String[]::new);
+    }
+
+    /**
+     * Returns whether {@code arg} selects the output format, in any of the spellings the GDAL CLI accepts, either
+     * as a separate option or in {@code --option=value} form.
+     */
+    public static boolean isOutputFormatArg(String arg) {
+        if (arg == null) {
+            return false;
+        }
+        int equals = arg.indexOf('=');
+        String option = equals < 0 ? arg : arg.substring(0, equals);
+        return OUTPUT_FORMAT_OPTIONS.contains(option);
+    }
+
     public static void rasterZonalStats(
             DatasetRef dest,
             DatasetRef src,
@@ -216,50 +279,16 @@ public final class GdalRuntime {
     }
 
     public static List<RasterDriverInfo> listWritableRasterDrivers() {
-        initialize();
-
-        int driverCount = GdalGenerated.GDALGetDriverCount();
-        if (driverCount <= 0) {
-            return List.of();
-        }
+        return DriverRegistry.shared().writableRasterDrivers();
+    }
 
-        List<RasterDriverInfo> writableDrivers = new ArrayList<>();
-        try (Arena arena = Arena.ofConfined()) {
-            for (int i = 0; i < driverCount; i++) {
-                MemorySegment driver = GdalGenerated.GDALGetDriver(i);
-                if (CStrings.isNull(driver) || !isMetadataTrue(driver, MD_DCAP_RASTER, arena)) {
-                    continue;
-                }
-
-                boolean canCreate = isMetadataTrue(driver, MD_DCAP_CREATE, arena);
-                boolean canCreateCopy = isMetadataTrue(driver, MD_DCAP_CREATECOPY, arena);
-                if (!canCreate && !canCreateCopy) {
-                    continue;
-                }
-
-                String shortName = CStrings.fromCString(GdalGenerated.GDALGetDriverShortName(driver)).trim();
-                if (shortName.isEmpty()) {
-                    continue;
-                }
-                String longName = CStrings.fromCString(GdalGenerated.GDALGetDriverLongName(driver)).trim();
-                if (longName.isEmpty()) {
-                    longName = shortName;
-                }
-
-                String extensionMetadata = readMetadataItem(driver, MD_DMD_EXTENSIONS, arena);
-                if (extensionMetadata.isBlank()) {
-                    extensionMetadata = readMetadataItem(driver, MD_DMD_EXTENSION, arena);
-                }
-                List<String> extensions = parseExtensions(extensionMetadata);
-
-                writableDrivers.add(
-                        new RasterDriverInfo(shortName, longName, extensions, canCreate, canCreateCopy)
-                );
-            }
-        }
+    public static List<DriverCapabilities> listDrivers() {
+        return DriverRegistry.shared().drivers();
+    }
 
-        writableDrivers.sort((left, right) -> left.shortName().compareToIgnoreCase(right.shortName()));
-        return List.copyOf(writableDrivers);
+    public static Optional<DriverCapabilities> driverCapabilities(String driverShortName) {
+        Objects.requireNonNull(driverShortName, "driverShortName must not be null");
+        return DriverRegistry.shared().find(driverShortName);
     }
 
     public static String driverCreationOptionListXml(String driverShortName) {
@@ -318,7 +347,75 @@ public final class GdalRuntime {
         return dataset;
     }
 
-    private static MemorySegment resolveRasterDriver(String driverShortName, Arena arena) {
+    /**
+     * Checks out a shared pooled handle for read-only raster access. Release the lease instead of closing
+     * the handle.
+     */
+    static DatasetHandlePool.Lease openPooledDataset(DatasetRef src, int flags, GdalConfig config) {
+        Objects.requireNonNull(src, "src must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        DatasetHandlePool.Key key = new DatasetHandlePool.Key(
+                src.toGdalIdentifier(),
+                flags,
+                List.of(),
+                Map.of(),
+                config.options(),
+                OgrRuntime.localModifiedMillis(src)
+        );
+        return DatasetHandlePool.shared().checkout(key, () -> {
+            GdalGenerated.CPLErrorReset();
+            try (GdalConfigScope.ScopedConfigHandle ignored = GdalConfigScope.applyScoped(config);
+                 Arena arena = Arena.ofConfined()) {
+                return openDataset(src, flags, arena);
+            }
+        });
+    }
+
+    public static Optional<DatasetFormat> identify(DatasetRef src, GdalConfig config) {
+        return identify(src, GDAL_OF_RASTER | GDAL_OF_VECTOR, config);
+    }
+
+    /**
+     * Asks the registered drivers whether they recognize {@code src}, using only the file name and header
+     * bytes. The dataset is not opened.
+     */
+    static Optional<DatasetFormat> identify(DatasetRef src, int identifyFlags, GdalConfig config) {
+        Objects.requireNonNull(src, "src must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        initialize();
+
+        GdalGenerated.CPLErrorReset();
+        try (GdalConfigScope.ScopedConfigHandle ignored = GdalConfigScope.applyScoped(config);
+             Arena arena = Arena.ofConfined()) {
+            MemorySegment identifier = arena.allocateFrom(src.toGdalIdentifier());
+            MemorySegment driver = GdalNative.GDALIdentifyDriverEx(
+                    identifier,
+                    identifyFlags,
+                    MemorySegment.NULL,
+                    MemorySegment.NULL
+            );
+            if (CStrings.isNull(driver)) {
+                return Optional.empty();
+            }
+            String shortName = CStrings.fromCString(GdalGenerated.GDALGetDriverShortName(driver)).trim();
+            return DriverRegistry.shared().find(shortName).map(capabilities -> new DatasetFormat(
+                    capabilities.shortName(),
+                    capabilities.longName(),
+                    capabilities.vector(),
+                    capabilities.raster()
+            ));
+        }
+    }
+
+    public static void configureDatasetPool(int maxOpenHandles, Duration idleTimeout) {
+        DatasetHandlePool.shared().configure(maxOpenHandles, idleTimeout);
+    }
+
+    public static void clearDatasetPool() {
+        DatasetHandlePool.shared().clear();
+    }
+
+    static MemorySegment resolveRasterDriver(String driverShortName, Arena arena) {
         MemorySegment driverName = arena.allocateFrom(driverShortName);
         MemorySegment driver = GdalGenerated.GDALGetDriverByName(driverName);
         if (!CStrings.isNull(driver)) {
@@ -335,30 +432,6 @@ public final class GdalRuntime {
         return CStrings.fromCString(GdalGenerated.GDALGetMetadataItem(majorObject, keyCString, MemorySegment.NULL)).trim();
     }
 
-    private static boolean isMetadataTrue(MemorySegment majorObject, String key, Arena arena) {
-        String value = readMetadataItem(majorObject, key, arena);
-        return "YES".equalsIgnoreCase(value) || "TRUE".equalsIgnoreCase(value) || "1".equals(value);
-    }
-
-    private static List<String> parseExtensions(String raw) {
-        if (raw == null || raw.isBlank()) {
-            return List.of();
-        }
-
-        LinkedHashSet<String> extensions = new LinkedHashSet<>();
-        String[] split = raw.split("[,;\\s]+");
-        for (String extension : split) {
-            if (extension == null) {
-                continue;
-            }
-            String trimmed = extension.trim();
-            if (!trimmed.isEmpty()) {
-                extensions.add(trimmed);
-            }
-        }
-        return List.copyOf(extensions);
-    }
-
     private static void applyConfig(NativeBundleInfo bundleInfo) {
         try (Arena arena = Arena.ofConfined()) {
             for (Map.Entry<String, Path> entry : NativeBundleRuntimeConfig.globalConfigOptions(bundleInfo).entrySet()) {
@@ -451,7 +524,7 @@ public final class GdalRuntime {
         return commandLineArgs;
     }
 
-    private static void closeDatasetQuietly(MemorySegment dataset) {
+    static void closeDatasetQuietly(MemorySegment dataset) {
         if (CStrings.isNull(dataset)) {
             return;
         }
@@ -0,0 +1,118 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Builds the SQL statements used to create spatial and attribute indexes after a bulk load.
+ */
+final class OgrDeferredIndexes {
+    static final String DRIVER_GPKG = "GPKG";
+    static final String DRIVER_SQLITE = "SQLite";
+    static final String DRIVER_SHAPEFILE = "ESRI Shapefile";
+
+    private static final String LCO_SPATIAL_INDEX = "SPATIAL_INDEX";
+
+    private OgrDeferredIndexes() {
+    }
+
+    static boolean supportsDeferredSpatialIndex(String driverShortName) {
+        return DRIVER_GPKG.equalsIgnoreCase(driverShortName) || DRIVER_SHAPEFILE.equalsIgnoreCase(driverShortName);
+    }
+
+    static boolean supportsAttributeIndexes(String driverShortName) {
+        return DRIVER_GPKG.equalsIgnoreCase(driverShortName)
+                || DRIVER_SQLITE.equalsIgnoreCase(driverShortName)
+                || DRIVER_SHAPEFILE.equalsIgnoreCase(driverShortName);
+    }
+
+    /**
+     * Returns whether a new layer gets a spatial index that can be built after the load instead: GPKG creates one
+     * unless {@code SPATIAL_INDEX=NO} is given, ESRI Shapefile only when {@code SPATIAL_INDEX=YES} is requested.
+     */
+    static boolean defersSpatialIndex(String driverShortName, Map<String, String> layerCreationOptions) {
+        String requested = spatialIndexOption(layerCreationOptions);
+        if (DRIVER_GPKG.equalsIgnoreCase(driverShortName)) {
+            return requested == null || isTrue(requested);
+        }
+        if (DRIVER_SHAPEFILE.equalsIgnoreCase(driverShortName)) {
+            return requested != null && isTrue(requested);
+        }
+        return false;
+    }
+
+    /**
+     * Disables incremental spatial index maintenance when {@link #defersSpatialIndex} builds the index later.
+     */
+    static Map<String, String> layerCreationOptions(String driverShortName, Map<String, String> layerCreationOptions) {
+        if (!defersSpatialIndex(driverShortName, layerCreationOptions)) {
+            return layerCreationOptions;
+        }
+        Map<String, String> adjusted = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : layerCreationOptions.entrySet()) {
+            if (!LCO_SPATIAL_INDEX.equalsIgnoreCase(entry.getKey().trim())) {
+                adjusted.put(entry.getKey(), entry.getValue());
+            }
+        }
+        adjusted.put(LCO_SPATIAL_INDEX, "NO");
+        return Map.copyOf(adjusted);
+    }
+
+    private static String spatialIndexOption(Map<String, String> layerCreationOptions) {
+        for (Map.Entry<String, String> entry : layerCreationOptions.entrySet()) {
+            if (LCO_SPATIAL_INDEX.equalsIgnoreCase(entry.getKey().trim())) {
+                return entry.getValue() == null ? "" : entry.getValue().trim();
+            }
+        }
+        return null;
+    }
+
+    // Same spelling rules as GDAL's CPLTestBool.
+    private static boolean isTrue(String value) {
+        return !(value.equalsIgnoreCase("NO") || value.equalsIgnoreCase("FALSE") || value.equalsIgnoreCase("OFF")
+                || value.equals("0"));
+    }
+
+    static List<String> statements(
+            String driverShortName,
+            String layerName,
+            String geometryColumn,
+            boolean spatialIndex,
+            List<String> attributeIndexFields
+    ) {
+        List<String> statements = new ArrayList<>();
+        String driver = driverShortName == null ? "" : driverShortName;
+
+        if (spatialIndex && supportsDeferredSpatialIndex(driver)) {
+            if (DRIVER_GPKG.equalsIgnoreCase(driver)) {
+                if (geometryColumn != null && !geometryColumn.isBlank()) {
+                    statements.add("SELECT CreateSpatialIndex(" + OgrSql.quoteLiteral(layerName) + ", "
+                            + OgrSql.quoteLiteral(geometryColumn) + ")");
+                }
+            } else {
+                statements.add("CREATE SPATIAL INDEX ON " + OgrSql.quoteIdentifier(layerName));
+            }
+        }
+
+        if (attributeIndexFields.isEmpty()) {
+            return List.copyOf(statements);
+        }
+        if (!supportsAttributeIndexes(driver)) {
+            throw new IllegalArgumentException("Attribute indexes are not supported for driver: " + driverShortName);
+        }
+        String table = OgrSql.quoteIdentifier(layerName);
+        for (String field : attributeIndexFields) {
+            String column = OgrSql.quoteIdentifier(field);
+            if (DRIVER_SHAPEFILE.equalsIgnoreCase(driver)) {
+                statements.add("CREATE INDEX ON " + table + " USING " + column);
+            } else {
+                String indexName = OgrSql.quoteIdentifier(("idx_" + layerName + "_" + field).toLowerCase(Locale.ROOT));
+                statements.add("CREATE INDEX IF NOT EXISTS " + indexName + " ON " + table + " (" + column + ")");
+            }
+        }
+        return List.copyOf(statements);
+    }
+}
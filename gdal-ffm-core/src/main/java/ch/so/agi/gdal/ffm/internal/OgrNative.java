@@ -0,0 +1,267 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+
+final class OgrNative {
+    // struct ArrowSchema and struct ArrowArray of the Arrow C data interface (arrow/c/abi.h).
+    static final StructLayout ARROW_SCHEMA = MemoryLayout.structLayout(
+            ValueLayout.ADDRESS.withName("format"),
+            ValueLayout.ADDRESS.withName("name"),
+            ValueLayout.ADDRESS.withName("metadata"),
+            ValueLayout.JAVA_LONG.withName("flags"),
+            ValueLayout.JAVA_LONG.withName("n_children"),
+            ValueLayout.ADDRESS.withName("children"),
+            ValueLayout.ADDRESS.withName("dictionary"),
+            ValueLayout.ADDRESS.withName("release"),
+            ValueLayout.ADDRESS.withName("private_data")
+    );
+    static final StructLayout ARROW_ARRAY = MemoryLayout.structLayout(
+            ValueLayout.JAVA_LONG.withName("length"),
+            ValueLayout.JAVA_LONG.withName("null_count"),
+            ValueLayout.JAVA_LONG.withName("offset"),
+            ValueLayout.JAVA_LONG.withName("n_buffers"),
+            ValueLayout.JAVA_LONG.withName("n_children"),
+            ValueLayout.ADDRESS.withName("buffers"),
+            ValueLayout.ADDRESS.withName("children"),
+            ValueLayout.ADDRESS.withName("dictionary"),
+            ValueLayout.ADDRESS.withName("release"),
+            ValueLayout.ADDRESS.withName("private_data")
+    );
+    static final long ARROW_ARRAY_RELEASE_OFFSET =
+            ARROW_ARRAY.byteOffset(MemoryLayout.PathElement.groupElement("release"));
+
+    private static final MethodHandle OGR_L_TEST_CAPABILITY = GdalNative.downcall(
+            "OGR_L_TestCapability",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_DATASET_TEST_CAPABILITY = GdalNative.downcall(
+            "GDALDatasetTestCapability",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle OGR_L_WRITE_ARROW_BATCH = GdalNative.downcall(
+            "OGR_L_WriteArrowBatch",
+            FunctionDescriptor.of(
+                    ValueLayout.JAVA_BOOLEAN,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS
+            )
+    );
+    private static final MethodHandle OGR_L_GET_GEOMETRY_COLUMN = GdalNative.downcall(
+            "OGR_L_GetGeometryColumn",
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_GET_DATASET_DRIVER = GdalNative.downcall(
+            "GDALGetDatasetDriver",
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_DATASET_EXECUTE_SQL = GdalNative.downcall(
+            "GDALDatasetExecuteSQL",
+            FunctionDescriptor.of(
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS
+            )
+    );
+    private static final MethodHandle GDAL_DATASET_RELEASE_RESULT_SET = GdalNative.downcall(
+            "GDALDatasetReleaseResultSet",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle OGR_L_GET_FEATURE = GdalNative.downcall(
+            "OGR_L_GetFeature",
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.JAVA_LONG)
+    );
+    private static final MethodHandle OGR_L_SET_FEATURE = GdalNative.downcall(
+            "OGR_L_SetFeature",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle OGR_L_UPSERT_FEATURE = GdalNative.downcall(
+            "OGR_L_UpsertFeature",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle OGR_L_UPDATE_FEATURE = GdalNative.downcall(
+            "OGR_L_UpdateFeature",
+            FunctionDescriptor.of(
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_BOOLEAN
+            )
+    );
+    private static final MethodHandle GDAL_DATASET_START_TRANSACTION = GdalNative.downcall(
+            "GDALDatasetStartTransaction",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.JAVA_INT)
+    );
+    private static final MethodHandle GDAL_DATASET_COMMIT_TRANSACTION = GdalNative.downcall(
+            "GDALDatasetCommitTransaction",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_DATASET_ROLLBACK_TRANSACTION = GdalNative.downcall(
+            "GDALDatasetRollbackTransaction",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle OGR_L_GET_FEATURE_COUNT = GdalNative.downcall(
+            "OGR_L_GetFeatureCount",
+            FunctionDescriptor.of(ValueLayout.JAVA_LONG, ValueLayout.ADDRESS, ValueLayout.JAVA_INT)
+    );
+    private static final MethodHandle OGR_L_GET_EXTENT = GdalNative.downcall(
+            "OGR_L_GetExtent",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.JAVA_INT)
+    );
+    private static final MethodHandle OGR_L_GET_SPATIAL_REF = GdalNative.downcall(
+            "OGR_L_GetSpatialRef",
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle OSR_GET_AUTHORITY_NAME = GdalNative.downcall(
+            "OSRGetAuthorityName",
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle OSR_NEW_SPATIAL_REFERENCE = GdalNative.downcall(
+            "OSRNewSpatialReference",
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle OSR_SET_FROM_USER_INPUT = GdalNative.downcall(
+            "OSRSetFromUserInput",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle OSR_RELEASE = GdalNative.downcall(
+            "OSRRelease",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS)
+    );
+
+    private OgrNative() {
+    }
+
+    static boolean testLayerCapability(MemorySegment layer, String capability) {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment capabilityCString = arena.allocateFrom(capability);
+            return GdalNative.invokeInt(OGR_L_TEST_CAPABILITY, layer, capabilityCString) != 0;
+        }
+    }
+
+    static boolean testDatasetCapability(MemorySegment dataset, String capability) {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment capabilityCString = arena.allocateFrom(capability);
+            return GdalNative.invokeInt(GDAL_DATASET_TEST_CAPABILITY, dataset, capabilityCString) != 0;
+        }
+    }
+
+    static boolean OGR_L_WriteArrowBatch(
+            MemorySegment layer,
+            MemorySegment schema,
+            MemorySegment array,
+            MemorySegment options
+    ) {
+        return GdalNative.invokeBoolean(OGR_L_WRITE_ARROW_BATCH, layer, schema, array, options);
+    }
+
+    static MemorySegment OGR_L_GetGeometryColumn(MemorySegment layer) {
+        return GdalNative.invokeAddress(OGR_L_GET_GEOMETRY_COLUMN, layer);
+    }
+
+    static MemorySegment GDALGetDatasetDriver(MemorySegment dataset) {
+        return GdalNative.invokeAddress(GDAL_GET_DATASET_DRIVER, dataset);
+    }
+
+    static MemorySegment GDALDatasetExecuteSQL(
+            MemorySegment dataset,
+            MemorySegment statement,
+            MemorySegment spatialFilter,
+            MemorySegment dialect
+    ) {
+        return GdalNative.invokeAddress(GDAL_DATASET_EXECUTE_SQL, dataset, statement, spatialFilter, dialect);
+    }
+
+    static void GDALDatasetReleaseResultSet(MemorySegment dataset, MemorySegment resultSet) {
+        GdalNative.invokeVoid(GDAL_DATASET_RELEASE_RESULT_SET, dataset, resultSet);
+    }
+
+    static MemorySegment OGR_L_GetFeature(MemorySegment layer, long fid) {
+        return GdalNative.invokeAddress(OGR_L_GET_FEATURE, layer, fid);
+    }
+
+    static int OGR_L_SetFeature(MemorySegment layer, MemorySegment feature) {
+        return GdalNative.invokeInt(OGR_L_SET_FEATURE, layer, feature);
+    }
+
+    static int OGR_L_UpsertFeature(MemorySegment layer, MemorySegment feature) {
+        return GdalNative.invokeInt(OGR_L_UPSERT_FEATURE, layer, feature);
+    }
+
+    static int OGR_L_UpdateFeature(
+            MemorySegment layer,
+            MemorySegment feature,
+            int updatedFieldCount,
+            MemorySegment updatedFieldIndexes,
+            int updatedGeometryFieldCount,
+            MemorySegment updatedGeometryFieldIndexes,
+            boolean updateStyleString
+    ) {
+        return GdalNative.invokeInt(
+                OGR_L_UPDATE_FEATURE,
+                layer,
+                feature,
+                updatedFieldCount,
+                updatedFieldIndexes,
+                updatedGeometryFieldCount,
+                updatedGeometryFieldIndexes,
+                updateStyleString
+        );
+    }
+
+    static int GDALDatasetStartTransaction(MemorySegment dataset, boolean force) {
+        return GdalNative.invokeInt(GDAL_DATASET_START_TRANSACTION, dataset, force ? 1 : 0);
+    }
+
+    static int GDALDatasetCommitTransaction(MemorySegment dataset) {
+        return GdalNative.invokeInt(GDAL_DATASET_COMMIT_TRANSACTION, dataset);
+    }
+
+    static int GDALDatasetRollbackTransaction(MemorySegment dataset) {
+        return GdalNative.invokeInt(GDAL_DATASET_ROLLBACK_TRANSACTION, dataset);
+    }
+
+    static long OGR_L_GetFeatureCount(MemorySegment layer, boolean force) {
+        return GdalNative.invokeLong(OGR_L_GET_FEATURE_COUNT, layer, force ? 1 : 0);
+    }
+
+    /**
+     * Fills {@code envelope} with an {@code OGREnvelope} (MinX, MaxX, MinY, MaxY).
+     */
+    static int OGR_L_GetExtent(MemorySegment layer, MemorySegment envelope, boolean force) {
+        return GdalNative.invokeInt(OGR_L_GET_EXTENT, layer, envelope, force ? 1 : 0);
+    }
+
+    static MemorySegment OGR_L_GetSpatialRef(MemorySegment layer) {
+        return GdalNative.invokeAddress(OGR_L_GET_SPATIAL_REF, layer);
+    }
+
+    static MemorySegment OSRGetAuthorityName(MemorySegment spatialReference, MemorySegment targetKey) {
+        return GdalNative.invokeAddress(OSR_GET_AUTHORITY_NAME, spatialReference, targetKey);
+    }
+
+    static MemorySegment OSRNewSpatialReference(MemorySegment wkt) {
+        return GdalNative.invokeAddress(OSR_NEW_SPATIAL_REFERENCE, wkt);
+    }
+
+    static int OSRSetFromUserInput(MemorySegment spatialReference, MemorySegment definition) {
+        return GdalNative.invokeInt(OSR_SET_FROM_USER_INPUT, spatialReference, definition);
+    }
+
+    static void OSRRelease(MemorySegment spatialReference) {
+        GdalNative.invokeVoid(OSR_RELEASE, spatialReference);
+    }
+}
@@ -19,15 +19,19 @@ final class OgrOptions {
         Objects.requireNonNull(raw, "raw must not be null");
 
         List<String> allowedDrivers = splitCsvOrSemicolon(raw.get(OgrOpenOptions.ALLOWED_DRIVERS));
+        boolean pooled = parseBoolean(trimToNull(raw.get(OgrOpenOptions.POOLED)), OgrOpenOptions.POOLED);
         Map<String, String> datasetOptions = new LinkedHashMap<>();
         for (Map.Entry<String, String> entry : raw.entrySet()) {
             String key = entry.getKey();
-            if (key == null || key.isBlank() || OgrOpenOptions.ALLOWED_DRIVERS.equals(key)) {
+            if (key == null
+                    || key.isBlank()
+                    || OgrOpenOptions.ALLOWED_DRIVERS.equals(key)
+                    || OgrOpenOptions.POOLED.equals(key)) {
                 continue;
             }
             datasetOptions.put(key.trim(), entry.getValue() == null ? "" : entry.getValue().trim());
         }
-        return new OpenOptions(List.copyOf(allowedDrivers), Map.copyOf(datasetOptions));
+        return new OpenOptions(List.copyOf(allowedDrivers), Map.copyOf(datasetOptions), pooled);
     }
 
     static ReaderOptions parseReaderOptions(Map<String, String> raw) {
@@ -38,6 +42,7 @@ final class OgrOptions {
         String spatialFilterWkt = trimToNull(raw.get(OgrReaderOptions.SPATIAL_FILTER_WKT));
         List<String> selectedFields = splitCsvOrSemicolon(raw.get(OgrReaderOptions.SELECTED_FIELDS));
         Long limit = parseLimit(trimToNull(raw.get(OgrReaderOptions.LIMIT)));
+        List<Long> fids = parseFids(raw.get(OgrReaderOptions.FIDS));
 
         if (bbox != null && spatialFilterWkt != null) {
             throw new IllegalArgumentException(
@@ -57,10 +62,29 @@ final class OgrOptions {
                 spatialFilterWkt,
                 List.copyOf(selectedFields),
                 Set.copyOf(selectedFieldsLowercase),
-                limit
+                limit,
+                fids
         );
     }
 
+    /**
+     * Returns the attribute filter of a sequential scan that only yields the requested FIDs.
+     */
+    static String attributeFilterWithFids(String attributeFilter, List<Long> fids) {
+        if (fids.isEmpty()) {
+            return attributeFilter;
+        }
+        StringBuilder filter = new StringBuilder("FID IN (");
+        for (int i = 0; i < fids.size(); i++) {
+            if (i > 0) {
+                filter.append(',');
+            }
+            filter.append(fids.get(i));
+        }
+        filter.append(')');
+        return attributeFilter == null ? filter.toString() : "(" + attributeFilter + ") AND " + filter;
+    }
+
     private static BoundingBox parseBoundingBox(String raw) {
         if (raw == null) {
             return null;
@@ -100,6 +124,33 @@ final class OgrOptions {
         }
     }
 
+    private static List<Long> parseFids(String raw) {
+        Set<Long> fids = new LinkedHashSet<>();
+        for (String value : splitCsvOrSemicolon(raw)) {
+            try {
+                long fid = Long.parseLong(value);
+                if (fid < 0) {
+                    throw new IllegalArgumentException("FIDs must be >= 0: " + value);
+                }
+                fids.add(fid);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid FID: " + value, e);
+            }
+        }
+        return List.copyOf(fids);
+    }
+
+    private static boolean parseBoolean(String raw, String optionName) {
+        if (raw == null) {
+            return false;
+        }
+        return switch (raw.toUpperCase(Locale.ROOT)) {
+            case "TRUE", "YES", "1", "ON" -> true;
+            case "FALSE", "NO", "0", "OFF" -> false;
+            default -> throw new IllegalArgumentException("Invalid boolean value for '" + optionName + "': " + raw);
+        };
+    }
+
     private static List<String> splitCsvOrSemicolon(String raw) {
         if (raw == null || raw.isBlank()) {
             return List.of();
@@ -123,7 +174,7 @@ final class OgrOptions {
         return trimmed.isEmpty() ? null : trimmed;
     }
 
-    record OpenOptions(List<String> allowedDrivers, Map<String, String> datasetOptions) {
+    record OpenOptions(List<String> allowedDrivers, Map<String, String> datasetOptions, boolean pooled) {
     }
 
     record ReaderOptions(
@@ -132,8 +183,12 @@ final class OgrOptions {
             String spatialFilterWkt,
             List<String> selectedFields,
             Set<String> selectedFieldsLowercase,
-            Long limit
+            Long limit,
+            List<Long> fids
     ) {
+        boolean hasFilter() {
+            return attributeFilter != null || bbox != null || spatialFilterWkt != null;
+        }
     }
 
     record BoundingBox(double minX, double minY, double maxX, double maxY) {
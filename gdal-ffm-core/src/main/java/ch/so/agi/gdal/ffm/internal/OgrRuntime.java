@@ -1,6 +1,9 @@
 package ch.so.agi.gdal.ffm.internal;
 
+import ch.so.agi.gdal.ffm.BoundingBox;
+import ch.so.agi.gdal.ffm.DatasetFormat;
 import ch.so.agi.gdal.ffm.DatasetRef;
+import ch.so.agi.gdal.ffm.DriverCapabilities;
 import ch.so.agi.gdal.ffm.GdalConfig;
 import ch.so.agi.gdal.ffm.OgrDataSource;
 import ch.so.agi.gdal.ffm.OgrDriverInfo;
@@ -9,12 +12,14 @@ import ch.so.agi.gdal.ffm.OgrFieldDefinition;
 import ch.so.agi.gdal.ffm.OgrFieldType;
 import ch.so.agi.gdal.ffm.OgrGeometry;
 import ch.so.agi.gdal.ffm.OgrLayerDefinition;
+import ch.so.agi.gdal.ffm.OgrLayerMetadata;
 import ch.so.agi.gdal.ffm.OgrLayerReader;
 import ch.so.agi.gdal.ffm.OgrLayerWriteSpec;
 import ch.so.agi.gdal.ffm.OgrLayerWriter;
 import ch.so.agi.gdal.ffm.OgrOpenOptions;
 import ch.so.agi.gdal.ffm.OgrWriteMode;
 import ch.so.agi.gdal.ffm.generated.GdalGenerated;
+import java.io.IOException;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
@@ -25,6 +30,7 @@ import java.nio.ByteOrder;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -33,6 +39,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -46,17 +53,19 @@ public final class OgrRuntime {
     private static final int GDAL_OF_VERBOSE_ERROR = 0x40;
 
     private static final int OGRERR_NONE = 0;
+    private static final int OGRERR_UNSUPPORTED_OPERATION = 6;
+    private static final int CPL_ERROR_FAILURE = 3;
     private static final int WKB_BYTE_ORDER_NDR = 1;
     private static final int EWKB_SRID_FLAG = 0x2000_0000;
     private static final int WKB_HEADER_SIZE = 5;
     private static final int EWKB_SRID_SIZE = 4;
+    private static final int WKB_NONE = 100;
 
-    private static final String DRIVER_CAPABILITY_CREATE_DATA_SOURCE = "CreateDataSource";
     private static final String DRIVER_CAPABILITY_DELETE_DATA_SOURCE = "DeleteDataSource";
+    private static final String DATASET_CAPABILITY_TRANSACTIONS = "Transactions";
+    private static final String LAYER_CAPABILITY_RANDOM_READ = "RandomRead";
 
-    private static final String MD_DCAP_VECTOR = "DCAP_VECTOR";
-    private static final String MD_DCAP_CREATE = "DCAP_CREATE";
-    private static final String MD_DMD_EXTENSIONS = "DMD_EXTENSIONS";
+    private static final String SQL_DIALECT_NATIVE = "NATIVE";
 
     private OgrRuntime() {
     }
@@ -111,7 +120,7 @@ public final class OgrRuntime {
                         MemorySegment driver = resolveDriverByName(normalizedDriverShortName);
                         deleteDataSource(driver, datasetIdentifier);
                     }
-                    case APPEND -> {
+                    case APPEND, TRUNCATE -> {
                         return open(
                                 datasetRef,
                                 Map.of(OgrOpenOptions.ALLOWED_DRIVERS, normalizedDriverShortName),
@@ -123,7 +132,9 @@ public final class OgrRuntime {
                 }
             }
 
-            if (!datasetExists && writeMode == OgrWriteMode.APPEND && !datasetRef.isLocalPath()) {
+            if (!datasetExists
+                    && (writeMode == OgrWriteMode.APPEND || writeMode == OgrWriteMode.TRUNCATE)
+                    && !datasetRef.isLocalPath()) {
                 try {
                     return open(
                             datasetRef,
@@ -142,55 +153,13 @@ public final class OgrRuntime {
         }
     }
 
+    public static Optional<DatasetFormat> identify(DatasetRef datasetRef, GdalConfig config) {
+        return GdalRuntime.identify(datasetRef, GDAL_OF_VECTOR, config);
+    }
+
     public static List<OgrDriverInfo> listWritableVectorDrivers() {
         ensureInitialized();
-
-        int driverCount = GdalGenerated.OGRGetDriverCount();
-        if (driverCount <= 0) {
-            return List.of();
-        }
-
-        List<OgrDriverInfo> writableDrivers = new ArrayList<>();
-        for (int i = 0; i < driverCount; i++) {
-            MemorySegment ogrDriver = GdalGenerated.OGRGetDriver(i);
-            if (CStrings.isNull(ogrDriver)) {
-                continue;
-            }
-
-            String shortName = CStrings.fromCString(GdalGenerated.OGR_Dr_GetName(ogrDriver)).trim();
-            if (shortName.isEmpty()) {
-                continue;
-            }
-
-            boolean canCreate = testDriverCapability(ogrDriver, DRIVER_CAPABILITY_CREATE_DATA_SOURCE);
-            if (!canCreate) {
-                continue;
-            }
-
-            String longName = shortName;
-            List<String> extensions = List.of();
-            try (Arena arena = Arena.ofConfined()) {
-                MemorySegment shortNameCString = arena.allocateFrom(shortName);
-                MemorySegment gdalDriver = GdalGenerated.GDALGetDriverByName(shortNameCString);
-                if (!CStrings.isNull(gdalDriver)) {
-                    if (!isMetadataTrue(gdalDriver, MD_DCAP_VECTOR, arena)) {
-                        continue;
-                    }
-                    String candidateLongName = CStrings.fromCString(
-                            GdalGenerated.GDALGetDriverLongName(gdalDriver)
-                    ).trim();
-                    if (!candidateLongName.isEmpty()) {
-                        longName = candidateLongName;
-                    }
-                    extensions = parseExtensions(readMetadataItem(gdalDriver, MD_DMD_EXTENSIONS, arena));
-                }
-            }
-
-            writableDrivers.add(new OgrDriverInfo(shortName, longName, extensions, true, true));
-        }
-
-        writableDrivers.sort((a, b) -> a.shortName().compareToIgnoreCase(b.shortName()));
-        return List.copyOf(writableDrivers);
+        return DriverRegistry.shared().writableVectorDrivers();
     }
 
     private static OgrDataSource open(
@@ -215,6 +184,34 @@ public final class OgrRuntime {
             openFlags |= GDAL_OF_UPDATE;
         }
 
+        if (parsedOpenOptions.pooled() && !writable) {
+            int pooledOpenFlags = openFlags;
+            DatasetHandlePool.Key key = new DatasetHandlePool.Key(
+                    datasetRef.toGdalIdentifier(),
+                    openFlags,
+                    parsedOpenOptions.allowedDrivers(),
+                    parsedOpenOptions.datasetOptions(),
+                    config.options(),
+                    localModifiedMillis(datasetRef)
+            );
+            DatasetHandlePool.Lease lease = DatasetHandlePool.shared().checkout(
+                    key,
+                    () -> openDataset(datasetRef, pooledOpenFlags, allowedDrivers, datasetOptions, config)
+            );
+            return new NativeOgrDataSource(datasetRef.toGdalIdentifier(), lease);
+        }
+
+        MemorySegment dataset = openDataset(datasetRef, openFlags, allowedDrivers, datasetOptions, config);
+        return new NativeOgrDataSource(datasetRef.toGdalIdentifier(), dataset, writable);
+    }
+
+    private static MemorySegment openDataset(
+            DatasetRef datasetRef,
+            int openFlags,
+            String[] allowedDrivers,
+            String[] datasetOptions,
+            GdalConfig config
+    ) {
         GdalGenerated.CPLErrorReset();
         MemorySegment dataset;
         try (GdalConfigScope.ScopedConfigHandle ignored = GdalConfigScope.applyScoped(config);
@@ -238,7 +235,18 @@ public final class OgrRuntime {
         if (CStrings.isNull(dataset)) {
             throw GdalErrors.lastError("Failed to open OGR datasource: " + datasetRef.identifier());
         }
-        return new NativeOgrDataSource(datasetRef.toGdalIdentifier(), dataset, writable);
+        return dataset;
+    }
+
+    static long localModifiedMillis(DatasetRef datasetRef) {
+        if (!datasetRef.isLocalPath()) {
+            return 0L;
+        }
+        try {
+            return Files.getLastModifiedTime(datasetRef.localPath()).toMillis();
+        } catch (IOException | RuntimeException ignored) {
+            return 0L;
+        }
     }
 
     private static MemorySegment resolveDriverByName(String driverShortName) {
@@ -251,7 +259,9 @@ public final class OgrRuntime {
             }
         }
 
-        List<String> available = listWritableVectorDrivers().stream().map(OgrDriverInfo::shortName).toList();
+        List<String> available = DriverRegistry.shared().writableVectorDrivers().stream()
+                .map(OgrDriverInfo::shortName)
+                .toList();
         throw new IllegalArgumentException(
                 "OGR driver not found or not writable: '" + driverShortName + "'. Available drivers: " + available
         );
@@ -297,35 +307,6 @@ public final class OgrRuntime {
         }
     }
 
-    private static String readMetadataItem(MemorySegment driver, String key, Arena arena) {
-        MemorySegment keyCString = arena.allocateFrom(key);
-        return CStrings.fromCString(GdalGenerated.GDALGetMetadataItem(driver, keyCString, MemorySegment.NULL)).trim();
-    }
-
-    private static boolean isMetadataTrue(MemorySegment driver, String key, Arena arena) {
-        String value = readMetadataItem(driver, key, arena);
-        return "YES".equalsIgnoreCase(value) || "TRUE".equalsIgnoreCase(value) || "1".equals(value);
-    }
-
-    private static List<String> parseExtensions(String raw) {
-        if (raw == null || raw.isBlank()) {
-            return List.of();
-        }
-
-        String[] split = raw.split("[,;\\s]+");
-        LinkedHashSet<String> extensions = new LinkedHashSet<>();
-        for (String extension : split) {
-            if (extension == null) {
-                continue;
-            }
-            String trimmed = extension.trim();
-            if (!trimmed.isEmpty()) {
-                extensions.add(trimmed);
-            }
-        }
-        return List.copyOf(extensions);
-    }
-
     private static String[] toKeyValueArray(Map<String, String> options) {
         if (options == null || options.isEmpty()) {
             return new String[0];
@@ -346,12 +327,43 @@ public final class OgrRuntime {
         private final String sourcePath;
         private final MemorySegment dataset;
         private final boolean writable;
+        private final DatasetHandlePool.Lease lease;
+        private final LayerDefinitionCache layerDefinitions;
+        private final List<NativeOgrLayerWriter> openWriters = new ArrayList<>();
+        private final Optional<DriverCapabilities> driverCapabilities;
+        private final boolean supportsTransactions;
         private volatile boolean closed;
+        private boolean transactionActive;
+        private boolean transactionsUnsupported;
+        private long writesInTransaction;
+        // Writers with features in the open transaction; they all lose those features when it is rolled back.
+        private final Set<NativeOgrLayerWriter> transactionWriters = new LinkedHashSet<>();
 
         private NativeOgrDataSource(String sourcePath, MemorySegment dataset, boolean writable) {
             this.sourcePath = sourcePath;
             this.dataset = dataset;
             this.writable = writable;
+            this.lease = null;
+            this.layerDefinitions = new LayerDefinitionCache();
+            this.driverCapabilities = DriverRegistry.shared().find(driverShortName());
+            this.supportsTransactions = writable
+                    && OgrNative.testDatasetCapability(dataset, DATASET_CAPABILITY_TRANSACTIONS);
+        }
+
+        private NativeOgrDataSource(String sourcePath, DatasetHandlePool.Lease lease) {
+            this.sourcePath = sourcePath;
+            this.dataset = lease.handle();
+            this.writable = false;
+            this.lease = lease;
+            // Pooled handles are read-only, so their schema snapshots stay valid across checkouts.
+            if (lease.attachment() instanceof LayerDefinitionCache cached) {
+                this.layerDefinitions = cached;
+            } else {
+                this.layerDefinitions = new LayerDefinitionCache();
+                lease.attach(layerDefinitions);
+            }
+            this.driverCapabilities = DriverRegistry.shared().find(driverShortName());
+            this.supportsTransactions = false;
         }
 
         @Override
@@ -359,19 +371,43 @@ public final class OgrRuntime {
             ensureOpen();
 
             int layerCount = GdalGenerated.GDALDatasetGetLayerCount(dataset);
-            if (layerCount <= 0) {
-                return List.of();
+            List<OgrLayerDefinition> definitions = new ArrayList<>(Math.max(layerCount, 0));
+            for (int i = 0; i < layerCount; i++) {
+                MemorySegment layer = GdalGenerated.GDALDatasetGetLayer(dataset, i);
+                if (CStrings.isNull(layer)) {
+                    continue;
+                }
+                definitions.add(layerDefinition(layer));
             }
+            return List.copyOf(definitions);
+        }
+
+        @Override
+        public synchronized List<String> layerNames() {
+            ensureOpen();
 
-            List<OgrLayerDefinition> definitions = new ArrayList<>(layerCount);
+            int layerCount = GdalGenerated.GDALDatasetGetLayerCount(dataset);
+            List<String> names = new ArrayList<>(Math.max(layerCount, 0));
             for (int i = 0; i < layerCount; i++) {
                 MemorySegment layer = GdalGenerated.GDALDatasetGetLayer(dataset, i);
                 if (CStrings.isNull(layer)) {
                     continue;
                 }
-                definitions.add(describeLayer(layer));
+                names.add(CStrings.fromCString(GdalGenerated.OGR_L_GetName(layer)));
             }
-            return List.copyOf(definitions);
+            return List.copyOf(names);
+        }
+
+        @Override
+        public synchronized OgrLayerDefinition layer(int index) {
+            ensureOpen();
+
+            Objects.checkIndex(index, Math.max(GdalGenerated.GDALDatasetGetLayerCount(dataset), 0));
+            MemorySegment layer = GdalGenerated.GDALDatasetGetLayer(dataset, index);
+            if (CStrings.isNull(layer)) {
+                throw GdalErrors.lastError("Failed to resolve layer #" + index + " in datasource: " + sourcePath);
+            }
+            return layerDefinition(layer);
         }
 
         @Override
@@ -388,15 +424,9 @@ public final class OgrRuntime {
                 );
             }
 
-            OgrLayerDefinition layerDefinition = describeLayer(layer);
+            OgrLayerDefinition layerDefinition = layerDefinition(layer);
             int[] projectedFieldIndices = resolveProjectedFieldIndices(layerDefinition, parsedOptions);
-
-            configureLayer(layer, layerDefinition, parsedOptions);
-            GdalGenerated.OGR_L_ResetReading(layer);
-
-            Long limit = parsedOptions.limit();
-            long rowLimit = limit == null ? Long.MAX_VALUE : limit;
-            return new NativeOgrLayerReader(this, layer, layerDefinition, projectedFieldIndices, rowLimit);
+            return new NativeOgrLayerReader(this, layer, layerDefinition, projectedFieldIndices, parsedOptions);
         }
 
         @Override
@@ -433,29 +463,77 @@ public final class OgrRuntime {
                 case APPEND -> {
                     // Keep existing layer if present.
                 }
+                case TRUNCATE -> {
+                    if (!CStrings.isNull(layer)) {
+                        layer = truncateLayer(spec.layerName(), layer);
+                    }
+                }
                 default -> throw new IllegalStateException("Unhandled write mode: " + spec.writeMode());
             }
 
+            String driverShortName = driverShortName();
+            if (!spec.attributeIndexFields().isEmpty() && !OgrDeferredIndexes.supportsAttributeIndexes(driverShortName)) {
+                throw new IllegalArgumentException(
+                        "Attribute indexes are not supported for driver: " + driverShortName
+                );
+            }
+
             Map<String, Integer> boundFieldIndexesByRequestedName = null;
             if (CStrings.isNull(layer)) {
+                boolean deferSpatialIndex = spec.deferIndexCreation() && spec.geometryTypeCode() != 0
+                        && OgrDeferredIndexes.defersSpatialIndex(driverShortName, effectiveLayerCreationOptions);
+                if (deferSpatialIndex) {
+                    effectiveLayerCreationOptions =
+                            OgrDeferredIndexes.layerCreationOptions(driverShortName, effectiveLayerCreationOptions);
+                }
                 layer = createLayer(spec.layerName(), spec.geometryTypeCode(), effectiveLayerCreationOptions, spec.fields());
-                OgrLayerDefinition layerDefinition = describeLayer(layer);
+                OgrLayerDefinition layerDefinition = layerDefinition(layer);
                 boundFieldIndexesByRequestedName =
                         bindCreatedLayerFields(spec.layerName(), spec.fields(), layerDefinition);
                 int geometryFieldIndex = resolveGeometryFieldIndex(layer, spec.geometryFieldName());
-                return new NativeOgrLayerWriter(
+                // Spatial indexes are only deferred for layers created here; existing layers keep their index.
+                List<String> deferredIndexStatements = OgrDeferredIndexes.statements(
+                        driverShortName,
+                        layerDefinition.name(),
+                        CStrings.fromCString(OgrNative.OGR_L_GetGeometryColumn(layer)),
+                        deferSpatialIndex,
+                        spec.attributeIndexFields()
+                );
+                return openWriter(new NativeOgrLayerWriter(
                         this,
                         layer,
                         layerDefinition,
                         geometryFieldIndex,
-                        boundFieldIndexesByRequestedName
-                );
+                        boundFieldIndexesByRequestedName,
+                        deferredIndexStatements,
+                        spec.transactionBatchSize()
+                ));
             }
 
-            validateExistingLayerSchema(layer, spec.fields());
-            OgrLayerDefinition layerDefinition = describeLayer(layer);
+            OgrLayerDefinition layerDefinition = layerDefinition(layer);
+            validateExistingLayerSchema(layerDefinition, spec.fields());
             int geometryFieldIndex = resolveGeometryFieldIndex(layer, spec.geometryFieldName());
-            return new NativeOgrLayerWriter(this, layer, layerDefinition, geometryFieldIndex, null);
+            List<String> deferredIndexStatements = OgrDeferredIndexes.statements(
+                    driverShortName,
+                    layerDefinition.name(),
+                    null,
+                    false,
+                    spec.attributeIndexFields()
+            );
+            return openWriter(new NativeOgrLayerWriter(
+                    this,
+                    layer,
+                    layerDefinition,
+                    geometryFieldIndex,
+                    null,
+                    deferredIndexStatements,
+                    spec.transactionBatchSize()
+            ));
+        }
+
+        private NativeOgrLayerWriter openWriter(NativeOgrLayerWriter writer) {
+            openWriters.add(writer);
+            return writer;
         }
 
         @Override
@@ -463,8 +541,33 @@ public final class OgrRuntime {
             if (closed) {
                 return;
             }
-            closed = true;
-            closeDatasetQuietly(dataset);
+            RuntimeException writerFailure = null;
+            try {
+                // Writers still open finish first so their batches are committed and deferred indexes built.
+                for (NativeOgrLayerWriter writer : List.copyOf(openWriters)) {
+                    try {
+                        writer.finish();
+                    } catch (RuntimeException e) {
+                        if (writerFailure == null) {
+                            writerFailure = e;
+                        } else {
+                            writerFailure.addSuppressed(e);
+                        }
+                    }
+                }
+                // Failed writers refuse features after their rollback, so the open batch only holds valid ones.
+                commitTransaction();
+            } finally {
+                closed = true;
+                if (lease != null) {
+                    lease.release();
+                } else {
+                    closeDatasetQuietly(dataset);
+                }
+            }
+            if (writerFailure != null) {
+                throw writerFailure;
+            }
         }
 
         private void ensureOpen() {
@@ -473,6 +576,108 @@ public final class OgrRuntime {
             }
         }
 
+        private synchronized void beginWrite(NativeOgrLayerWriter writer, int transactionBatchSize) {
+            if (transactionBatchSize > 0 && !transactionActive && !transactionsUnsupported) {
+                startTransaction();
+            }
+            // The transaction belongs to the datasource, so writes of other writers join a batch that is open.
+            if (transactionActive) {
+                transactionWriters.add(writer);
+            }
+        }
+
+        private void startTransaction() {
+            if (!supportsTransactions) {
+                transactionsUnsupported = true;
+                return;
+            }
+            GdalGenerated.CPLErrorReset();
+            int errorCode = OgrNative.GDALDatasetStartTransaction(dataset, false);
+            if (errorCode == OGRERR_UNSUPPORTED_OPERATION) {
+                transactionsUnsupported = true;
+                return;
+            }
+            throwIfOgrError(errorCode, "Failed to start transaction on datasource '" + sourcePath + "'");
+            transactionActive = true;
+            writesInTransaction = 0;
+        }
+
+        private synchronized void endWrite(int transactionBatchSize) {
+            if (!transactionActive) {
+                return;
+            }
+            writesInTransaction++;
+            if (writesInTransaction >= transactionBatchSize) {
+                commitTransaction();
+            }
+        }
+
+        private synchronized void commitTransaction() {
+            if (!transactionActive) {
+                return;
+            }
+            transactionActive = false;
+            writesInTransaction = 0;
+            transactionWriters.clear();
+            GdalGenerated.CPLErrorReset();
+            int errorCode = OgrNative.GDALDatasetCommitTransaction(dataset);
+            throwIfOgrError(errorCode, "Failed to commit transaction on datasource '" + sourcePath + "'");
+        }
+
+        /**
+         * Rolls back the open transaction after a failed write, if there is one, and marks every writer with features
+         * in it as failed, since all of them lose those features.
+         */
+        private synchronized void abortWrite() {
+            if (!transactionActive) {
+                return;
+            }
+            for (NativeOgrLayerWriter writer : transactionWriters) {
+                writer.failed = true;
+            }
+            rollbackTransaction();
+        }
+
+        private synchronized void rollbackTransaction() {
+            if (!transactionActive) {
+                return;
+            }
+            transactionActive = false;
+            writesInTransaction = 0;
+            transactionWriters.clear();
+            GdalGenerated.CPLErrorReset();
+            int errorCode = OgrNative.GDALDatasetRollbackTransaction(dataset);
+            throwIfOgrError(errorCode, "Failed to roll back transaction on datasource '" + sourcePath + "'");
+        }
+
+        private OgrLayerDefinition layerDefinition(MemorySegment layer) {
+            return layerDefinitions.get(layer);
+        }
+
+        private String driverShortName() {
+            MemorySegment driver = OgrNative.GDALGetDatasetDriver(dataset);
+            return CStrings.isNull(driver) ? "" : CStrings.fromCString(GdalGenerated.GDALGetDriverShortName(driver));
+        }
+
+        private void executeSql(String statement) {
+            GdalGenerated.CPLErrorReset();
+            try (Arena arena = Arena.ofConfined()) {
+                MemorySegment statementCString = arena.allocateFrom(statement);
+                MemorySegment resultSet = OgrNative.GDALDatasetExecuteSQL(
+                        dataset,
+                        statementCString,
+                        MemorySegment.NULL,
+                        MemorySegment.NULL
+                );
+                if (!CStrings.isNull(resultSet)) {
+                    OgrNative.GDALDatasetReleaseResultSet(dataset, resultSet);
+                }
+            }
+            if (GdalGenerated.CPLGetLastErrorType() >= CPL_ERROR_FAILURE) {
+                throw GdalErrors.lastError("Failed to execute SQL statement: " + statement);
+            }
+        }
+
         private MemorySegment resolveLayer(String layerName) {
             if (layerName == null || layerName.isBlank()) {
                 MemorySegment firstLayer = GdalGenerated.GDALDatasetGetLayer(dataset, 0);
@@ -505,9 +710,30 @@ public final class OgrRuntime {
             }
             GdalGenerated.CPLErrorReset();
             int errorCode = GdalGenerated.OGR_DS_DeleteLayer(dataset, index);
+            layerDefinitions.clear();
             throwIfOgrError(errorCode, "Failed to delete existing layer '" + layerName + "'");
         }
 
+        /**
+         * Empties the layer in place with {@code DELETE FROM} so field definitions, indexes and metadata
+         * tables survive; drivers without a native SQL dialect fall back to deleting the layer, which is
+         * then recreated from the write spec.
+         */
+        private MemorySegment truncateLayer(String layerName, MemorySegment layer) {
+            if (supportsNativeSql()) {
+                String actualLayerName = CStrings.fromCString(GdalGenerated.OGR_L_GetName(layer));
+                executeSql(OgrSql.deleteAllRows(actualLayerName));
+                return resolveLayerOrNull(layerName);
+            }
+            deleteLayer(layerName);
+            return MemorySegment.NULL;
+        }
+
+        private boolean supportsNativeSql() {
+            return driverCapabilities.map(capabilities -> capabilities.supportsSqlDialect(SQL_DIALECT_NATIVE))
+                    .orElse(false);
+        }
+
         private int findLayerIndex(String layerName) {
             int layerCount = GdalGenerated.GDALDatasetGetLayerCount(dataset);
             for (int i = 0; i < layerCount; i++) {
@@ -565,6 +791,7 @@ public final class OgrRuntime {
             if (fields == null || fields.isEmpty()) {
                 return;
             }
+            layerDefinitions.invalidate(layer);
 
             for (OgrFieldDefinition field : fields) {
                 String fieldName = field.name() == null ? "" : field.name().trim();
@@ -596,12 +823,14 @@ public final class OgrRuntime {
             }
         }
 
-        private void validateExistingLayerSchema(MemorySegment layer, List<OgrFieldDefinition> requestedFields) {
+        private void validateExistingLayerSchema(
+                OgrLayerDefinition existing,
+                List<OgrFieldDefinition> requestedFields
+        ) {
             if (requestedFields == null || requestedFields.isEmpty()) {
                 return;
             }
 
-            OgrLayerDefinition existing = describeLayer(layer);
             Map<String, OgrFieldType> byLowercaseName = new LinkedHashMap<>();
             for (OgrFieldDefinition existingField : existing.fields()) {
                 byLowercaseName.put(existingField.name().toLowerCase(Locale.ROOT), existingField.type());
@@ -712,10 +941,11 @@ public final class OgrRuntime {
         private static void configureLayer(
                 MemorySegment layer,
                 OgrLayerDefinition layerDefinition,
-                OgrOptions.ReaderOptions options
+                OgrOptions.ReaderOptions options,
+                String attributeFilter
         ) {
             applyIgnoredFields(layer, layerDefinition, options.selectedFieldsLowercase());
-            applyAttributeFilter(layer, options.attributeFilter());
+            applyAttributeFilter(layer, attributeFilter);
             applySpatialFilter(layer, options);
         }
 
@@ -808,25 +1038,38 @@ public final class OgrRuntime {
         private final OgrLayerDefinition layerDefinition;
         private final int[] projectedFieldIndices;
         private final long rowLimit;
+        // FIDs fetched one by one with OGR_L_GetFeature, or null for a sequential scan.
+        private final long[] fidLookups;
 
         private boolean closed;
         private boolean iteratorCreated;
         private boolean fetched;
         private OgrFeature buffered;
         private long emitted;
+        private int nextFidLookup;
 
         private NativeOgrLayerReader(
                 NativeOgrDataSource dataSource,
                 MemorySegment layer,
                 OgrLayerDefinition layerDefinition,
                 int[] projectedFieldIndices,
-                long rowLimit
+                OgrOptions.ReaderOptions options
         ) {
             this.dataSource = dataSource;
             this.layer = layer;
             this.layerDefinition = layerDefinition;
             this.projectedFieldIndices = projectedFieldIndices;
-            this.rowLimit = rowLimit;
+            this.rowLimit = options.limit() == null ? Long.MAX_VALUE : options.limit();
+            boolean randomRead = OgrNative.testLayerCapability(layer, LAYER_CAPABILITY_RANDOM_READ);
+
+            // Direct FID lookups ignore layer filters, so filtered requests scan with an FID IN (...) filter instead.
+            boolean lookupFids = !options.fids().isEmpty() && randomRead && !options.hasFilter();
+            this.fidLookups = lookupFids ? options.fids().stream().mapToLong(Long::longValue).toArray() : null;
+            String attributeFilter = lookupFids
+                    ? options.attributeFilter()
+                    : OgrOptions.attributeFilterWithFids(options.attributeFilter(), options.fids());
+            NativeOgrDataSource.configureLayer(layer, layerDefinition, options, attributeFilter);
+            GdalGenerated.OGR_L_ResetReading(layer);
         }
 
         @Override
@@ -875,7 +1118,9 @@ public final class OgrRuntime {
                 return null;
             }
 
-            MemorySegment nativeFeature = GdalGenerated.OGR_L_GetNextFeature(layer);
+            MemorySegment nativeFeature = fidLookups == null
+                    ? GdalGenerated.OGR_L_GetNextFeature(layer)
+                    : nextFeatureByFid();
             if (CStrings.isNull(nativeFeature)) {
                 buffered = null;
                 return null;
@@ -890,6 +1135,18 @@ public final class OgrRuntime {
             }
         }
 
+        private MemorySegment nextFeatureByFid() {
+            while (nextFidLookup < fidLookups.length) {
+                MemorySegment nativeFeature = OgrNative.OGR_L_GetFeature(layer, fidLookups[nextFidLookup++]);
+                if (!CStrings.isNull(nativeFeature)) {
+                    return nativeFeature;
+                }
+                // Unknown FIDs are skipped, as a sequential FID IN (...) scan would do.
+                GdalGenerated.CPLErrorReset();
+            }
+            return MemorySegment.NULL;
+        }
+
         private void ensureOpen() {
             if (closed) {
                 throw new IllegalStateException("Layer reader is closed");
@@ -904,21 +1161,35 @@ public final class OgrRuntime {
         private final OgrLayerDefinition layerDefinition;
         private final int geometryFieldIndex;
         private final Map<String, Integer> boundFieldIndexesByRequestedName;
+        private final List<String> deferredIndexStatements;
+        private final int transactionBatchSize;
+        private final boolean nativeUpsert;
 
-        private boolean closed;
+        // Set under the datasource lock on close or rollback and read by the writer's own methods.
+        private volatile boolean closed;
+        private volatile boolean failed;
 
         private NativeOgrLayerWriter(
                 NativeOgrDataSource dataSource,
                 MemorySegment layer,
                 OgrLayerDefinition layerDefinition,
                 int geometryFieldIndex,
-                Map<String, Integer> boundFieldIndexesByRequestedName
+                Map<String, Integer> boundFieldIndexesByRequestedName,
+                List<String> deferredIndexStatements,
+                int transactionBatchSize
         ) {
             this.dataSource = dataSource;
             this.layer = layer;
             this.layerDefinition = layerDefinition;
             this.geometryFieldIndex = geometryFieldIndex;
             this.boundFieldIndexesByRequestedName = boundFieldIndexesByRequestedName;
+            this.deferredIndexStatements = deferredIndexStatements;
+            // Without an explicit size, datasources probed as transactional batch automatically.
+            this.transactionBatchSize = transactionBatchSize > 0 || !dataSource.supportsTransactions
+                    ? transactionBatchSize
+                    : OgrLayerWriteSpec.AUTOMATIC_TRANSACTION_BATCH_SIZE;
+            // Skip the native attempt for drivers known not to implement upsert.
+            this.nativeUpsert = dataSource.driverCapabilities.map(DriverCapabilities::upsert).orElse(true);
         }
 
         @Override
@@ -926,6 +1197,173 @@ public final class OgrRuntime {
             ensureOpen();
             Objects.requireNonNull(feature, "feature must not be null");
 
+            applyFeature(feature, "Failed to write feature", (nativeFeature, updatedFieldIndexes, arena) ->
+                    GdalGenerated.OGR_L_CreateFeature(layer, nativeFeature));
+        }
+
+        @Override
+        public synchronized void upsert(OgrFeature feature) {
+            ensureOpen();
+            Objects.requireNonNull(feature, "feature must not be null");
+
+            applyFeature(feature, "Failed to upsert feature", (nativeFeature, updatedFieldIndexes, arena) -> {
+                if (nativeUpsert) {
+                    int errorCode = OgrNative.OGR_L_UpsertFeature(layer, nativeFeature);
+                    if (errorCode != OGRERR_UNSUPPORTED_OPERATION) {
+                        return errorCode;
+                    }
+                }
+                // Drivers without native upsert: replace by FID when the feature exists, insert otherwise.
+                if (feature.fid() >= 0) {
+                    MemorySegment existing = OgrNative.OGR_L_GetFeature(layer, feature.fid());
+                    if (!CStrings.isNull(existing)) {
+                        GdalGenerated.OGR_F_Destroy(existing);
+                        GdalGenerated.CPLErrorReset();
+                        return OgrNative.OGR_L_SetFeature(layer, nativeFeature);
+                    }
+                }
+                GdalGenerated.CPLErrorReset();
+                return GdalGenerated.OGR_L_CreateFeature(layer, nativeFeature);
+            });
+        }
+
+        @Override
+        public synchronized void update(OgrFeature feature) {
+            ensureOpen();
+            Objects.requireNonNull(feature, "feature must not be null");
+            if (feature.fid() < 0) {
+                throw new IllegalArgumentException("update requires a feature FID >= 0");
+            }
+
+            applyFeature(
+                    feature,
+                    "Failed to update feature with FID " + feature.fid(),
+                    (nativeFeature, updatedFieldIndexes, arena) -> {
+                        boolean replacesAllFields = updatedFieldIndexes.length == layerDefinition.fields().size();
+                        if (feature.geometry() != null && replacesAllFields) {
+                            return OgrNative.OGR_L_SetFeature(layer, nativeFeature);
+                        }
+
+                        MemorySegment fieldIndexes = updatedFieldIndexes.length == 0
+                                ? MemorySegment.NULL
+                                : arena.allocateFrom(ValueLayout.JAVA_INT, updatedFieldIndexes);
+                        // Without a resolved geometry field the geometry is left untouched.
+                        int updatedGeometryFieldCount = feature.geometry() == null || geometryFieldIndex < 0 ? 0 : 1;
+                        MemorySegment geometryFieldIndexes = updatedGeometryFieldCount == 0
+                                ? MemorySegment.NULL
+                                : arena.allocateFrom(ValueLayout.JAVA_INT, geometryFieldIndex);
+                        return OgrNative.OGR_L_UpdateFeature(
+                                layer,
+                                nativeFeature,
+                                updatedFieldIndexes.length,
+                                fieldIndexes,
+                                updatedGeometryFieldCount,
+                                geometryFieldIndexes,
+                                false
+                        );
+                    }
+            );
+        }
+
+        @Override
+        public void writeArrowBatch(MemorySegment arrowSchema, MemorySegment arrowArray) {
+            writeArrowBatch(arrowSchema, arrowArray, Map.of());
+        }
+
+        @Override
+        public synchronized void writeArrowBatch(
+                MemorySegment arrowSchema,
+                MemorySegment arrowArray,
+                Map<String, String> options
+        ) {
+            ensureOpen();
+            Objects.requireNonNull(arrowSchema, "arrowSchema must not be null");
+            Objects.requireNonNull(arrowArray, "arrowArray must not be null");
+            Objects.requireNonNull(options, "options must not be null");
+            if (CStrings.isNull(arrowSchema) || CStrings.isNull(arrowArray)) {
+                throw new IllegalArgumentException("arrowSchema and arrowArray must not be NULL pointers");
+            }
+            if (CStrings.isNull(arrowArray.reinterpret(OgrNative.ARROW_ARRAY.byteSize())
+                    .get(ValueLayout.ADDRESS, OgrNative.ARROW_ARRAY_RELEASE_OFFSET))) {
+                throw new IllegalArgumentException("arrowArray was already released");
+            }
+
+            GdalGenerated.CPLErrorReset();
+            try (Arena arena = Arena.ofConfined()) {
+                String[] batchOptions = toKeyValueArray(options);
+                MemorySegment optionsArgv = batchOptions.length == 0
+                        ? MemorySegment.NULL
+                        : CArgv.toCStringArray(batchOptions, arena);
+
+                // Layers without FastWriteArrowBatch use GDAL's generic per-row conversion inside the same call.
+                if (!OgrNative.OGR_L_WriteArrowBatch(layer, arrowSchema, arrowArray, optionsArgv)) {
+                    throw GdalErrors.lastError("Failed to write Arrow batch to layer '" + layerDefinition.name() + "'");
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            // Only the datasource lock is taken, the same one its close() holds when it finishes open writers.
+            synchronized (dataSource) {
+                if (dataSource.closed) {
+                    closed = true;
+                    return;
+                }
+                finish();
+            }
+        }
+
+        /**
+         * Commits the open batch and builds this writer's deferred indexes. Called with the datasource lock held,
+         * from {@link #close()} or when the datasource is closed first. A failed writer's batch was already rolled
+         * back, so it only reports that its features were discarded.
+         */
+        private void finish() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            dataSource.openWriters.remove(this);
+            if (failed) {
+                throw new IllegalStateException(
+                        "Layer writer failed and its transaction was rolled back: " + layerDefinition.name()
+                );
+            }
+            dataSource.commitTransaction();
+            for (String statement : deferredIndexStatements) {
+                dataSource.executeSql(statement);
+            }
+        }
+
+        private void ensureOpen() {
+            if (closed) {
+                throw new IllegalStateException("Layer writer is closed");
+            }
+            if (failed) {
+                throw new IllegalStateException(
+                        "Layer writer failed and its transaction was rolled back: " + layerDefinition.name()
+                );
+            }
+            dataSource.ensureOpen();
+        }
+
+        private void applyFeature(OgrFeature feature, String failureMessage, FeatureOperation operation) {
+            // The datasource lock keeps a rollback by another writer from landing between begin and end.
+            synchronized (dataSource) {
+                dataSource.beginWrite(this, transactionBatchSize);
+                try {
+                    applyFeatureInTransaction(feature, failureMessage, operation);
+                } catch (RuntimeException e) {
+                    // Rolling back discards the whole open batch, so its writers must not commit later features.
+                    dataSource.abortWrite();
+                    throw e;
+                }
+                dataSource.endWrite(transactionBatchSize);
+            }
+        }
+
+        private void applyFeatureInTransaction(OgrFeature feature, String failureMessage, FeatureOperation operation) {
             GdalGenerated.CPLErrorReset();
 
             MemorySegment layerDefinitionHandle = GdalGenerated.OGR_L_GetLayerDefn(layer);
@@ -944,37 +1382,26 @@ public final class OgrRuntime {
                     throwIfOgrError(setFidError, "Failed to set feature FID");
                 }
 
-                writeAttributes(nativeFeature, feature.attributes(), arena);
+                int[] updatedFieldIndexes = writeAttributes(nativeFeature, feature.attributes(), arena);
                 writeGeometry(nativeFeature, feature.geometry(), arena);
 
-                int createFeatureError = GdalGenerated.OGR_L_CreateFeature(layer, nativeFeature);
-                throwIfOgrError(createFeatureError, "Failed to write feature");
+                int errorCode = operation.apply(nativeFeature, updatedFieldIndexes, arena);
+                throwIfOgrError(errorCode, failureMessage);
             } finally {
                 GdalGenerated.OGR_F_Destroy(nativeFeature);
             }
         }
 
-        @Override
-        public synchronized void close() {
-            closed = true;
-        }
-
-        private void ensureOpen() {
-            if (closed) {
-                throw new IllegalStateException("Layer writer is closed");
-            }
-            dataSource.ensureOpen();
-        }
-
-        private void writeAttributes(
+        private int[] writeAttributes(
                 MemorySegment nativeFeature,
                 Map<String, Object> attributes,
                 Arena arena
         ) {
             if (attributes == null || attributes.isEmpty()) {
-                return;
+                return new int[0];
             }
 
+            Set<Integer> updatedFieldIndexes = new LinkedHashSet<>();
             for (Map.Entry<String, Object> entry : attributes.entrySet()) {
                 String fieldName = entry.getKey();
                 if (fieldName == null || fieldName.isBlank()) {
@@ -982,6 +1409,7 @@ public final class OgrRuntime {
                 }
 
                 int fieldIndex = resolveFieldIndex(nativeFeature, fieldName, arena);
+                updatedFieldIndexes.add(fieldIndex);
 
                 Object value = entry.getValue();
                 if (value == null) {
@@ -1012,6 +1440,7 @@ public final class OgrRuntime {
                 MemorySegment stringValue = arena.allocateFrom(value.toString());
                 GdalGenerated.OGR_F_SetFieldString(nativeFeature, fieldIndex, stringValue);
             }
+            return updatedFieldIndexes.stream().mapToInt(Integer::intValue).toArray();
         }
 
         private int resolveFieldIndex(MemorySegment nativeFeature, String fieldName, Arena arena) {
@@ -1115,7 +1544,55 @@ public final class OgrRuntime {
         }
     }
 
-    private static OgrLayerDefinition describeLayer(MemorySegment layer) {
+    /**
+     * Schema snapshots keyed by native layer handle; invalidated on schema-changing operations.
+     */
+    private static final class LayerDefinitionCache {
+        private final Map<Long, OgrLayerDefinition> byLayerAddress = new HashMap<>();
+
+        synchronized OgrLayerDefinition get(MemorySegment layer) {
+            return byLayerAddress.computeIfAbsent(layer.address(), ignored -> describeLayer(layer));
+        }
+
+        synchronized void invalidate(MemorySegment layer) {
+            byLayerAddress.remove(layer.address());
+        }
+
+        synchronized void clear() {
+            byLayerAddress.clear();
+        }
+    }
+
+    @FunctionalInterface
+    private interface FeatureOperation {
+        int apply(MemorySegment nativeFeature, int[] updatedFieldIndexes, Arena arena);
+    }
+
+    /**
+     * Describes a layer together with its feature count, extent and CRS. Without {@code force} drivers that
+     * cannot answer cheaply report {@code -1} and no extent instead of scanning the layer.
+     */
+    static OgrLayerMetadata describeLayerMetadata(MemorySegment layer, boolean force) {
+        OgrLayerDefinition definition = describeLayer(layer);
+        long featureCount = OgrNative.OGR_L_GetFeatureCount(layer, force);
+        BoundingBox extent = null;
+        if (definition.geometryType() != WKB_NONE) {
+            try (Arena arena = Arena.ofConfined()) {
+                // OGREnvelope is MinX, MaxX, MinY, MaxY.
+                MemorySegment envelope = arena.allocate(ValueLayout.JAVA_DOUBLE, 4);
+                if (OgrNative.OGR_L_GetExtent(layer, envelope, force) == OGRERR_NONE) {
+                    double[] values = envelope.toArray(ValueLayout.JAVA_DOUBLE);
+                    if (values[0] <= values[1] && values[2] <= values[3]) {
+                        extent = new BoundingBox(values[0], values[2], values[1], values[3]);
+                    }
+                }
+            }
+        }
+        String crs = SpatialReferences.authorityCode(OgrNative.OGR_L_GetSpatialRef(layer));
+        return new OgrLayerMetadata(definition, featureCount < 0 ? -1 : featureCount, extent, crs);
+    }
+
+    static OgrLayerDefinition describeLayer(MemorySegment layer) {
         String layerName = CStrings.fromCString(GdalGenerated.OGR_L_GetName(layer));
         int geometryType = GdalGenerated.OGR_L_GetGeomType(layer);
 
@@ -0,0 +1,21 @@
+package ch.so.agi.gdal.ffm.internal;
+
+/**
+ * SQL text helpers for statements passed to {@code GDALDatasetExecuteSQL}.
+ */
+final class OgrSql {
+    private OgrSql() {
+    }
+
+    static String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    static String quoteLiteral(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    static String deleteAllRows(String layerName) {
+        return "DELETE FROM " + quoteIdentifier(layerName);
+    }
+}
@@ -0,0 +1,417 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+
+final class RasterNative {
+    private static final MethodHandle GDAL_GET_RASTER_X_SIZE = GdalNative.downcall(
+            "GDALGetRasterXSize",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_GET_RASTER_Y_SIZE = GdalNative.downcall(
+            "GDALGetRasterYSize",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_GET_RASTER_COUNT = GdalNative.downcall(
+            "GDALGetRasterCount",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_GET_RASTER_BAND = GdalNative.downcall(
+            "GDALGetRasterBand",
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.JAVA_INT)
+    );
+    private static final MethodHandle GDAL_GET_RASTER_COLOR_INTERPRETATION = GdalNative.downcall(
+            "GDALGetRasterColorInterpretation",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_GET_GEO_TRANSFORM = GdalNative.downcall(
+            "GDALGetGeoTransform",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_GET_SPATIAL_REF = GdalNative.downcall(
+            "GDALGetSpatialRef",
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_GET_PROJECTION_REF = GdalNative.downcall(
+            "GDALGetProjectionRef",
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_GET_RASTER_DATA_TYPE = GdalNative.downcall(
+            "GDALGetRasterDataType",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_GET_BLOCK_SIZE = GdalNative.downcall(
+            "GDALGetBlockSize",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_GET_OVERVIEW_COUNT = GdalNative.downcall(
+            "GDALGetOverviewCount",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_GET_OVERVIEW = GdalNative.downcall(
+            "GDALGetOverview",
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.JAVA_INT)
+    );
+    private static final MethodHandle GDAL_GET_RASTER_NO_DATA_VALUE = GdalNative.downcall(
+            "GDALGetRasterNoDataValue",
+            FunctionDescriptor.of(ValueLayout.JAVA_DOUBLE, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_GET_RASTER_BAND_X_SIZE = GdalNative.downcall(
+            "GDALGetRasterBandXSize",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_GET_RASTER_BAND_Y_SIZE = GdalNative.downcall(
+            "GDALGetRasterBandYSize",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_RASTER_IO_EX = GdalNative.downcall(
+            "GDALRasterIOEx",
+            FunctionDescriptor.of(
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.JAVA_LONG,
+                    ValueLayout.JAVA_LONG,
+                    ValueLayout.ADDRESS
+            )
+    );
+    private static final MethodHandle GDAL_READ_BLOCK = GdalNative.downcall(
+            "GDALReadBlock",
+            FunctionDescriptor.of(
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS
+            )
+    );
+    private static final MethodHandle GDAL_WRITE_BLOCK = GdalNative.downcall(
+            "GDALWriteBlock",
+            FunctionDescriptor.of(
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS
+            )
+    );
+    private static final MethodHandle GDAL_FLUSH_CACHE = GdalNative.downcall(
+            "GDALFlushCache",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_COMPUTE_RASTER_STATISTICS = GdalNative.downcall(
+            "GDALComputeRasterStatistics",
+            FunctionDescriptor.of(
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS
+            )
+    );
+    private static final MethodHandle GDAL_GET_RASTER_HISTOGRAM_EX = GdalNative.downcall(
+            "GDALGetRasterHistogramEx",
+            FunctionDescriptor.of(
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_DOUBLE,
+                    ValueLayout.JAVA_DOUBLE,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS
+            )
+    );
+    private static final MethodHandle GDAL_CREATE = GdalNative.downcall(
+            "GDALCreate",
+            FunctionDescriptor.of(
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS
+            )
+    );
+    private static final MethodHandle GDAL_CREATE_COPY = GdalNative.downcall(
+            "GDALCreateCopy",
+            FunctionDescriptor.of(
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS
+            )
+    );
+    private static final MethodHandle GDAL_SET_GEO_TRANSFORM = GdalNative.downcall(
+            "GDALSetGeoTransform",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_SET_SPATIAL_REF = GdalNative.downcall(
+            "GDALSetSpatialRef",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_SET_RASTER_NO_DATA_VALUE = GdalNative.downcall(
+            "GDALSetRasterNoDataValue",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.JAVA_DOUBLE)
+    );
+    private static final MethodHandle GDAL_BUILD_OVERVIEWS = GdalNative.downcall(
+            "GDALBuildOverviews",
+            FunctionDescriptor.of(
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS
+            )
+    );
+
+    private RasterNative() {
+    }
+
+    static int GDALGetRasterXSize(MemorySegment dataset) {
+        return GdalNative.invokeInt(GDAL_GET_RASTER_X_SIZE, dataset);
+    }
+
+    static int GDALGetRasterYSize(MemorySegment dataset) {
+        return GdalNative.invokeInt(GDAL_GET_RASTER_Y_SIZE, dataset);
+    }
+
+    static int GDALGetRasterCount(MemorySegment dataset) {
+        return GdalNative.invokeInt(GDAL_GET_RASTER_COUNT, dataset);
+    }
+
+    static MemorySegment GDALGetRasterBand(MemorySegment dataset, int bandNumber) {
+        return GdalNative.invokeAddress(GDAL_GET_RASTER_BAND, dataset, bandNumber);
+    }
+
+    static int GDALGetRasterColorInterpretation(MemorySegment band) {
+        return GdalNative.invokeInt(GDAL_GET_RASTER_COLOR_INTERPRETATION, band);
+    }
+
+    static int GDALGetGeoTransform(MemorySegment dataset, MemorySegment geoTransform) {
+        return GdalNative.invokeInt(GDAL_GET_GEO_TRANSFORM, dataset, geoTransform);
+    }
+
+    static MemorySegment GDALGetSpatialRef(MemorySegment dataset) {
+        return GdalNative.invokeAddress(GDAL_GET_SPATIAL_REF, dataset);
+    }
+
+    static MemorySegment GDALGetProjectionRef(MemorySegment dataset) {
+        return GdalNative.invokeAddress(GDAL_GET_PROJECTION_REF, dataset);
+    }
+
+    static int GDALGetRasterDataType(MemorySegment band) {
+        return GdalNative.invokeInt(GDAL_GET_RASTER_DATA_TYPE, band);
+    }
+
+    static void GDALGetBlockSize(MemorySegment band, MemorySegment blockXSize, MemorySegment blockYSize) {
+        GdalNative.invokeVoid(GDAL_GET_BLOCK_SIZE, band, blockXSize, blockYSize);
+    }
+
+    static int GDALGetOverviewCount(MemorySegment band) {
+        return GdalNative.invokeInt(GDAL_GET_OVERVIEW_COUNT, band);
+    }
+
+    static MemorySegment GDALGetOverview(MemorySegment band, int level) {
+        return GdalNative.invokeAddress(GDAL_GET_OVERVIEW, band, level);
+    }
+
+    static double GDALGetRasterNoDataValue(MemorySegment band, MemorySegment hasNoData) {
+        return GdalNative.invokeDouble(GDAL_GET_RASTER_NO_DATA_VALUE, band, hasNoData);
+    }
+
+    static int GDALGetRasterBandXSize(MemorySegment band) {
+        return GdalNative.invokeInt(GDAL_GET_RASTER_BAND_X_SIZE, band);
+    }
+
+    static int GDALGetRasterBandYSize(MemorySegment band) {
+        return GdalNative.invokeInt(GDAL_GET_RASTER_BAND_Y_SIZE, band);
+    }
+
+    static int GDALRasterIOEx(
+            MemorySegment band,
+            int readWriteFlag,
+            int xOffset,
+            int yOffset,
+            int xSize,
+            int ySize,
+            MemorySegment buffer,
+            int bufferXSize,
+            int bufferYSize,
+            int bufferDataType,
+            long pixelSpace,
+            long lineSpace,
+            MemorySegment extraArg
+    ) {
+        return GdalNative.invokeInt(
+                GDAL_RASTER_IO_EX,
+                band,
+                readWriteFlag,
+                xOffset,
+                yOffset,
+                xSize,
+                ySize,
+                buffer,
+                bufferXSize,
+                bufferYSize,
+                bufferDataType,
+                pixelSpace,
+                lineSpace,
+                extraArg
+        );
+    }
+
+    static int GDALReadBlock(MemorySegment band, int blockX, int blockY, MemorySegment buffer) {
+        return GdalNative.invokeInt(GDAL_READ_BLOCK, band, blockX, blockY, buffer);
+    }
+
+    static int GDALWriteBlock(MemorySegment band, int blockX, int blockY, MemorySegment buffer) {
+        return GdalNative.invokeInt(GDAL_WRITE_BLOCK, band, blockX, blockY, buffer);
+    }
+
+    static int GDALFlushCache(MemorySegment dataset) {
+        return GdalNative.invokeInt(GDAL_FLUSH_CACHE, dataset);
+    }
+
+    static int GDALComputeRasterStatistics(
+            MemorySegment band,
+            boolean approxOk,
+            MemorySegment min,
+            MemorySegment max,
+            MemorySegment mean,
+            MemorySegment stdDev,
+            MemorySegment progress,
+            MemorySegment progressData
+    ) {
+        return GdalNative.invokeInt(
+                GDAL_COMPUTE_RASTER_STATISTICS,
+                band,
+                approxOk ? 1 : 0,
+                min,
+                max,
+                mean,
+                stdDev,
+                progress,
+                progressData
+        );
+    }
+
+    static int GDALGetRasterHistogramEx(
+            MemorySegment band,
+            double min,
+            double max,
+            int bucketCount,
+            MemorySegment histogram,
+            boolean includeOutOfRange,
+            boolean approxOk,
+            MemorySegment progress,
+            MemorySegment progressData
+    ) {
+        return GdalNative.invokeInt(
+                GDAL_GET_RASTER_HISTOGRAM_EX,
+                band,
+                min,
+                max,
+                bucketCount,
+                histogram,
+                includeOutOfRange ? 1 : 0,
+                approxOk ? 1 : 0,
+                progress,
+                progressData
+        );
+    }
+
+    static MemorySegment GDALCreate(
+            MemorySegment driver,
+            MemorySegment fileName,
+            int xSize,
+            int ySize,
+            int bandCount,
+            int dataType,
+            MemorySegment options
+    ) {
+        return GdalNative.invokeAddress(GDAL_CREATE, driver, fileName, xSize, ySize, bandCount, dataType, options);
+    }
+
+    static MemorySegment GDALCreateCopy(
+            MemorySegment driver,
+            MemorySegment fileName,
+            MemorySegment sourceDataset,
+            boolean strict,
+            MemorySegment options,
+            MemorySegment progress,
+            MemorySegment progressData
+    ) {
+        return GdalNative.invokeAddress(
+                GDAL_CREATE_COPY,
+                driver,
+                fileName,
+                sourceDataset,
+                strict ? 1 : 0,
+                options,
+                progress,
+                progressData
+        );
+    }
+
+    static int GDALSetGeoTransform(MemorySegment dataset, MemorySegment geoTransform) {
+        return GdalNative.invokeInt(GDAL_SET_GEO_TRANSFORM, dataset, geoTransform);
+    }
+
+    static int GDALSetSpatialRef(MemorySegment dataset, MemorySegment spatialReference) {
+        return GdalNative.invokeInt(GDAL_SET_SPATIAL_REF, dataset, spatialReference);
+    }
+
+    static int GDALSetRasterNoDataValue(MemorySegment band, double noDataValue) {
+        return GdalNative.invokeInt(GDAL_SET_RASTER_NO_DATA_VALUE, band, noDataValue);
+    }
+
+    static int GDALBuildOverviews(
+            MemorySegment dataset,
+            MemorySegment resampling,
+            int overviewCount,
+            MemorySegment overviewFactors,
+            int bandCount,
+            MemorySegment bandList,
+            MemorySegment progress,
+            MemorySegment progressData
+    ) {
+        return GdalNative.invokeInt(
+                GDAL_BUILD_OVERVIEWS,
+                dataset,
+                resampling,
+                overviewCount,
+                overviewFactors,
+                bandCount,
+                bandList,
+                progress,
+                progressData
+        );
+    }
+}
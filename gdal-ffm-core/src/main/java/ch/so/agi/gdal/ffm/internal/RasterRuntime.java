@@ -0,0 +1,1270 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import ch.so.agi.gdal.ffm.BoundingBox;
+import ch.so.agi.gdal.ffm.DatasetRef;
+import ch.so.agi.gdal.ffm.GdalConfig;
+import ch.so.agi.gdal.ffm.ProgressCallback;
+import ch.so.agi.gdal.ffm.RasterBand;
+import ch.so.agi.gdal.ffm.RasterBandStatistics;
+import ch.so.agi.gdal.ffm.RasterBandMetadata;
+import ch.so.agi.gdal.ffm.RasterDataType;
+import ch.so.agi.gdal.ffm.RasterDataset;
+import ch.so.agi.gdal.ffm.RasterHistogram;
+import ch.so.agi.gdal.ffm.RasterMetadata;
+import ch.so.agi.gdal.ffm.RasterResampling;
+import ch.so.agi.gdal.ffm.RasterWindow;
+import ch.so.agi.gdal.ffm.RasterWriteSpec;
+import ch.so.agi.gdal.ffm.RasterWriter;
+import ch.so.agi.gdal.ffm.generated.GdalGenerated;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.ValueLayout;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalDouble;
+
+public final class RasterRuntime {
+    private static final int GDAL_OF_UPDATE = 0x01;
+    private static final int GDAL_OF_RASTER = 0x02;
+    private static final int GDAL_OF_VERBOSE_ERROR = 0x40;
+
+    private static final int CE_NONE = 0;
+    private static final int GF_READ = 0;
+    private static final int GF_WRITE = 1;
+
+    // GDALRasterIOExtraArg as of RASTERIO_EXTRA_ARG_CURRENT_VERSION 2, which appended bUseOnlyThisScale; it stays
+    // FALSE so GDAL may still pick an overview.
+    private static final int RASTERIO_EXTRA_ARG_VERSION = 2;
+    private static final StructLayout RASTERIO_EXTRA_ARG = MemoryLayout.structLayout(
+            ValueLayout.JAVA_INT.withName("nVersion"),
+            ValueLayout.JAVA_INT.withName("eResampleAlg"),
+            ValueLayout.ADDRESS.withName("pfnProgress"),
+            ValueLayout.ADDRESS.withName("pProgressData"),
+            ValueLayout.JAVA_INT.withName("bFloatingPointWindowValidity"),
+            MemoryLayout.paddingLayout(4),
+            ValueLayout.JAVA_DOUBLE.withName("dfXOff"),
+            ValueLayout.JAVA_DOUBLE.withName("dfYOff"),
+            ValueLayout.JAVA_DOUBLE.withName("dfXSize"),
+            ValueLayout.JAVA_DOUBLE.withName("dfYSize"),
+            ValueLayout.JAVA_INT.withName("bUseOnlyThisScale"),
+            MemoryLayout.paddingLayout(4)
+    );
+    private static final long EXTRA_ARG_VERSION_OFFSET = RASTERIO_EXTRA_ARG.byteOffset(
+            MemoryLayout.PathElement.groupElement("nVersion")
+    );
+    private static final long EXTRA_ARG_RESAMPLE_OFFSET = RASTERIO_EXTRA_ARG.byteOffset(
+            MemoryLayout.PathElement.groupElement("eResampleAlg")
+    );
+
+    private static final int GCI_ALPHA_BAND = 6;
+
+    private static final String DRIVER_COG = "COG";
+    private static final String DRIVER_MEM = "MEM";
+    private static final String CO_TILED = "TILED";
+    private static final String CO_BLOCK_X_SIZE = "BLOCKXSIZE";
+    private static final String CO_BLOCK_Y_SIZE = "BLOCKYSIZE";
+    private static final String CO_NUM_THREADS = "NUM_THREADS";
+
+    private RasterRuntime() {
+    }
+
+    /**
+     * Opens {@code datasetRef}. Read-only opens check out a handle of the shared dataset handle pool, so repeated
+     * opens of the same source (tile rendering, warp sessions, per-request reads) reuse an already opened handle;
+     * closing the dataset returns the handle to the pool.
+     */
+    public static RasterDataset open(DatasetRef datasetRef, boolean writable, GdalConfig config) {
+        Objects.requireNonNull(datasetRef, "datasetRef must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        GdalRuntime.initialize();
+
+        int openFlags = GDAL_OF_RASTER | GDAL_OF_VERBOSE_ERROR | (writable ? GDAL_OF_UPDATE : 0);
+        if (!writable) {
+            DatasetHandlePool.Lease lease = GdalRuntime.openPooledDataset(datasetRef, openFlags, config);
+            return new NativeRasterDataset(datasetRef.identifier(), lease);
+        }
+
+        MemorySegment dataset;
+        GdalGenerated.CPLErrorReset();
+        try (GdalConfigScope.ScopedConfigHandle ignored = GdalConfigScope.applyScoped(config);
+             Arena arena = Arena.ofConfined()) {
+            MemorySegment identifier = arena.allocateFrom(datasetRef.toGdalIdentifier());
+            dataset = GdalGenerated.GDALOpenEx(
+                    identifier,
+                    openFlags,
+                    MemorySegment.NULL,
+                    MemorySegment.NULL,
+                    MemorySegment.NULL
+            );
+        }
+        if (CStrings.isNull(dataset)) {
+            throw GdalErrors.lastError("Failed to open raster dataset: " + datasetRef.identifier());
+        }
+        return new NativeRasterDataset(datasetRef.identifier(), dataset, writable);
+    }
+
+    /**
+     * Opens {@code datasetRef} read-only, reads its metadata with direct GDAL calls and closes it again.
+     */
+    public static RasterMetadata metadata(DatasetRef datasetRef, GdalConfig config) {
+        Objects.requireNonNull(datasetRef, "datasetRef must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        GdalRuntime.initialize();
+
+        MemorySegment dataset = MemorySegment.NULL;
+        GdalGenerated.CPLErrorReset();
+        try (GdalConfigScope.ScopedConfigHandle ignored = GdalConfigScope.applyScoped(config);
+             Arena arena = Arena.ofConfined()) {
+            dataset = GdalRuntime.openDataset(datasetRef, GDAL_OF_RASTER | GDAL_OF_VERBOSE_ERROR, arena);
+            RasterMetadata metadata = describeRaster(dataset);
+            if (metadata == null) {
+                throw new IllegalArgumentException("Dataset has no raster data: " + datasetRef.identifier());
+            }
+            return metadata;
+        } finally {
+            GdalRuntime.closeDatasetQuietly(dataset);
+        }
+    }
+
+    /**
+     * Wraps an already opened or created dataset handle; closing the result closes the handle.
+     */
+    static NativeRasterDataset wrap(String identifier, MemorySegment dataset, boolean writable) {
+        return new NativeRasterDataset(identifier, dataset, writable);
+    }
+
+    public static RasterWriter create(DatasetRef target, RasterWriteSpec spec, GdalConfig config) {
+        Objects.requireNonNull(target, "target must not be null");
+        Objects.requireNonNull(spec, "spec must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        GdalRuntime.initialize();
+
+        Map<String, String> creationOptions = creationOptions(
+                spec,
+                GdalRuntime.driverCreationOptionListXml(spec.driverShortName())
+        );
+        MemorySegment dataset;
+        GdalGenerated.CPLErrorReset();
+        try (GdalConfigScope.ScopedConfigHandle ignored = GdalConfigScope.applyScoped(config);
+             Arena arena = Arena.ofConfined()) {
+            MemorySegment driver = GdalRuntime.resolveRasterDriver(spec.driverShortName(), arena);
+            String[] options = toKeyValueArray(creationOptions);
+            dataset = RasterNative.GDALCreate(
+                    driver,
+                    arena.allocateFrom(target.toGdalIdentifier()),
+                    spec.width(),
+                    spec.height(),
+                    spec.bandCount(),
+                    spec.dataType().nativeCode(),
+                    options.length == 0 ? MemorySegment.NULL : CArgv.toCStringArray(options, arena)
+            );
+        }
+        if (CStrings.isNull(dataset)) {
+            throw GdalErrors.lastError("Failed to create raster dataset: " + target.identifier());
+        }
+
+        NativeRasterDataset created = new NativeRasterDataset(target.identifier(), dataset, true);
+        try {
+            applyGeoreference(created, spec);
+            return new NativeRasterWriter(created, spec, config);
+        } catch (RuntimeException e) {
+            created.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns whether the last band of {@code dataset} has the {@code GCI_AlphaBand} color interpretation.
+     */
+    public static boolean lastBandIsAlpha(RasterDataset dataset) {
+        Objects.requireNonNull(dataset, "dataset must not be null");
+        if (!(dataset instanceof NativeRasterDataset nativeDataset)) {
+            throw new IllegalArgumentException("Not a natively opened raster dataset: " + dataset);
+        }
+        synchronized (nativeDataset) {
+            nativeDataset.ensureOpen();
+            int bandCount = nativeDataset.bandCount();
+            if (bandCount == 0) {
+                return false;
+            }
+            MemorySegment band = RasterNative.GDALGetRasterBand(nativeDataset.handle(), bandCount);
+            return !CStrings.isNull(band) && RasterNative.GDALGetRasterColorInterpretation(band) == GCI_ALPHA_BAND;
+        }
+    }
+
+    /**
+     * Encodes 8-bit bands with {@code driverShortName} (for example {@code PNG} or {@code WEBP}) via an in-memory
+     * MEM dataset and {@code GDALCreateCopy} into {@code /vsimem/}. The encoded bytes are returned without copying
+     * and are freed when {@code arena} closes.
+     */
+    public static MemorySegment encode(
+            String driverShortName,
+            int width,
+            int height,
+            byte[][] bands,
+            Map<String, String> creationOptions,
+            Arena arena
+    ) {
+        Objects.requireNonNull(driverShortName, "driverShortName must not be null");
+        Objects.requireNonNull(bands, "bands must not be null");
+        Objects.requireNonNull(creationOptions, "creationOptions must not be null");
+        Objects.requireNonNull(arena, "arena must not be null");
+        if (width <= 0 || height <= 0 || bands.length == 0) {
+            throw new IllegalArgumentException("width, height and band count must be > 0");
+        }
+        GdalRuntime.initialize();
+
+        String directory = VsiMemFiles.newDirectory();
+        String path = directory + "encoded";
+        GdalGenerated.CPLErrorReset();
+        try (Arena local = Arena.ofConfined()) {
+            MemorySegment memory = RasterNative.GDALCreate(
+                    GdalRuntime.resolveRasterDriver(DRIVER_MEM, local),
+                    local.allocateFrom(""),
+                    width,
+                    height,
+                    bands.length,
+                    RasterDataType.BYTE.nativeCode(),
+                    MemorySegment.NULL
+            );
+            if (CStrings.isNull(memory)) {
+                throw GdalErrors.lastError("Failed to create in-memory raster for encoding");
+            }
+            try (NativeRasterDataset dataset = new NativeRasterDataset(DRIVER_MEM, memory, true)) {
+                RasterWindow window = new RasterWindow(0, 0, width, height);
+                for (int band = 0; band < bands.length; band++) {
+                    dataset.band(band + 1).writeWindow(window, bands[band]);
+                }
+                String[] options = toKeyValueArray(creationOptions);
+                MemorySegment copy = RasterNative.GDALCreateCopy(
+                        GdalRuntime.resolveRasterDriver(driverShortName, local),
+                        local.allocateFrom(path),
+                        memory,
+                        false,
+                        options.length == 0 ? MemorySegment.NULL : CArgv.toCStringArray(options, local),
+                        MemorySegment.NULL,
+                        MemorySegment.NULL
+                );
+                if (CStrings.isNull(copy)) {
+                    throw GdalErrors.lastError("Failed to encode raster as " + driverShortName);
+                }
+                GdalRuntime.closeDatasetQuietly(copy);
+            }
+            return VsiMemFiles.seize(path, arena);
+        } finally {
+            VsiMemFiles.delete(directory);
+        }
+    }
+
+    /**
+     * Adds block layout and compression thread options for drivers whose creation option list declares them;
+     * options set explicitly in the spec win.
+     */
+    static Map<String, String> creationOptions(RasterWriteSpec spec, String creationOptionListXml) {
+        Map<String, String> options = new LinkedHashMap<>(spec.creationOptions());
+        String xml = creationOptionListXml == null ? "" : creationOptionListXml;
+        if (spec.blockWidth() > 0 && spec.blockHeight() > 0) {
+            putIfDeclared(options, xml, CO_TILED, "YES");
+            putIfDeclared(options, xml, CO_BLOCK_X_SIZE, Integer.toString(spec.blockWidth()));
+            putIfDeclared(options, xml, CO_BLOCK_Y_SIZE, Integer.toString(spec.blockHeight()));
+        }
+        if (spec.compressionThreads() > 0) {
+            putIfDeclared(options, xml, CO_NUM_THREADS, Integer.toString(spec.compressionThreads()));
+        }
+        return options;
+    }
+
+    private static void putIfDeclared(Map<String, String> options, String xml, String key, String value) {
+        if (!xml.contains("name='" + key + "'") && !xml.contains("name=\"" + key + "\"")) {
+            return;
+        }
+        for (String existing : options.keySet()) {
+            if (existing.trim().equalsIgnoreCase(key)) {
+                return;
+            }
+        }
+        options.put(key, value);
+    }
+
+    private static String[] toKeyValueArray(Map<String, String> options) {
+        List<String> keyValues = new ArrayList<>(options.size());
+        for (Map.Entry<String, String> entry : options.entrySet()) {
+            String key = entry.getKey();
+            if (key == null || key.isBlank()) {
+                continue;
+            }
+            String value = entry.getValue() == null ? "" : entry.getValue().trim();
+            keyValues.add(key.trim() + "=" + value);
+        }
+        return keyValues.toArray(String[]::new);
+    }
+
+    private static void applyGeoreference(NativeRasterDataset dataset, RasterWriteSpec spec) {
+        double[] geoTransform = spec.geoTransform();
+        if (geoTransform != null) {
+            try (Arena arena = Arena.ofConfined()) {
+                MemorySegment transform = arena.allocateFrom(ValueLayout.JAVA_DOUBLE, geoTransform);
+                GdalGenerated.CPLErrorReset();
+                if (RasterNative.GDALSetGeoTransform(dataset.handle(), transform) != CE_NONE) {
+                    throw GdalErrors.lastError("Failed to set geotransform on " + dataset.identifier());
+                }
+            }
+        }
+        if (spec.crs() != null) {
+            MemorySegment spatialReference = SpatialReferences.fromUserInput(spec.crs());
+            try {
+                GdalGenerated.CPLErrorReset();
+                if (RasterNative.GDALSetSpatialRef(dataset.handle(), spatialReference) != CE_NONE) {
+                    throw GdalErrors.lastError("Failed to set CRS on " + dataset.identifier());
+                }
+            } finally {
+                SpatialReferences.release(spatialReference);
+            }
+        }
+        if (spec.noDataValue() != null) {
+            for (int bandNumber = 1; bandNumber <= spec.bandCount(); bandNumber++) {
+                NativeRasterBand band = (NativeRasterBand) dataset.band(bandNumber);
+                GdalGenerated.CPLErrorReset();
+                if (RasterNative.GDALSetRasterNoDataValue(band.handle(), spec.noDataValue()) != CE_NONE) {
+                    throw GdalErrors.lastError("Failed to set nodata value on band " + bandNumber);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads size, band layout, georeferencing and CRS directly from an open dataset handle.
+     * Returns {@code null} for datasets without raster bands; vector datasets report GDAL's default 512x512
+     * size, so the size alone does not tell them apart.
+     */
+    static RasterMetadata describeRaster(MemorySegment dataset) {
+        int width = RasterNative.GDALGetRasterXSize(dataset);
+        int height = RasterNative.GDALGetRasterYSize(dataset);
+        int bandCount = RasterNative.GDALGetRasterCount(dataset);
+        if (bandCount <= 0) {
+            return null;
+        }
+
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment blockWidth = arena.allocate(ValueLayout.JAVA_INT);
+            MemorySegment blockHeight = arena.allocate(ValueLayout.JAVA_INT);
+            MemorySegment hasNoData = arena.allocate(ValueLayout.JAVA_INT);
+
+            List<RasterBandMetadata> bands = new ArrayList<>(bandCount);
+            for (int bandNumber = 1; bandNumber <= bandCount; bandNumber++) {
+                MemorySegment band = RasterNative.GDALGetRasterBand(dataset, bandNumber);
+                if (CStrings.isNull(band)) {
+                    continue;
+                }
+                RasterNative.GDALGetBlockSize(band, blockWidth, blockHeight);
+                hasNoData.set(ValueLayout.JAVA_INT, 0, 0);
+                double noData = RasterNative.GDALGetRasterNoDataValue(band, hasNoData);
+                bands.add(new RasterBandMetadata(
+                        bandNumber,
+                        RasterDataType.fromNativeCode(RasterNative.GDALGetRasterDataType(band)),
+                        blockWidth.get(ValueLayout.JAVA_INT, 0),
+                        blockHeight.get(ValueLayout.JAVA_INT, 0),
+                        RasterNative.GDALGetOverviewCount(band),
+                        hasNoData.get(ValueLayout.JAVA_INT, 0) != 0 ? OptionalDouble.of(noData) : OptionalDouble.empty()
+                ));
+            }
+
+            double[] geoTransform = readGeoTransform(dataset, arena);
+            BoundingBox extent = geoTransform == null ? null : RasterMetadata.extentOf(geoTransform, width, height);
+            return new RasterMetadata(
+                    width,
+                    height,
+                    bands,
+                    geoTransform,
+                    extent,
+                    SpatialReferences.authorityCode(RasterNative.GDALGetSpatialRef(dataset)),
+                    CStrings.fromCString(RasterNative.GDALGetProjectionRef(dataset)).trim()
+            );
+        }
+    }
+
+    private static double[] readGeoTransform(MemorySegment dataset, Arena arena) {
+        MemorySegment transform = arena.allocate(ValueLayout.JAVA_DOUBLE, 6);
+        if (RasterNative.GDALGetGeoTransform(dataset, transform) != CE_NONE) {
+            return null;
+        }
+        return transform.toArray(ValueLayout.JAVA_DOUBLE);
+    }
+
+    private static void throwIfCallbackFailed(ProgressBridge.ProgressHandle progressHandle) {
+        RuntimeException callbackFailure = progressHandle.callbackFailure();
+        if (callbackFailure != null) {
+            throw callbackFailure;
+        }
+    }
+
+    static final class NativeRasterDataset implements RasterDataset {
+        private final String identifier;
+        private final MemorySegment dataset;
+        private final boolean writable;
+        private final int width;
+        private final int height;
+        private final NativeRasterBand[] bands;
+        private final DatasetHandlePool.Lease lease;
+        private volatile boolean closed;
+
+        private NativeRasterDataset(String identifier, MemorySegment dataset, boolean writable) {
+            this(identifier, dataset, writable, null);
+        }
+
+        private NativeRasterDataset(String identifier, DatasetHandlePool.Lease lease) {
+            this(identifier, lease.handle(), false, lease);
+        }
+
+        private NativeRasterDataset(
+                String identifier,
+                MemorySegment dataset,
+                boolean writable,
+                DatasetHandlePool.Lease lease
+        ) {
+            this.identifier = identifier;
+            this.dataset = dataset;
+            this.writable = writable;
+            this.lease = lease;
+            this.width = RasterNative.GDALGetRasterXSize(dataset);
+            this.height = RasterNative.GDALGetRasterYSize(dataset);
+            this.bands = new NativeRasterBand[Math.max(RasterNative.GDALGetRasterCount(dataset), 0)];
+        }
+
+        MemorySegment handle() {
+            return dataset;
+        }
+
+        String identifier() {
+            return identifier;
+        }
+
+        @Override
+        public int width() {
+            return width;
+        }
+
+        @Override
+        public int height() {
+            return height;
+        }
+
+        @Override
+        public int bandCount() {
+            return bands.length;
+        }
+
+        @Override
+        public synchronized RasterBand band(int bandNumber) {
+            ensureOpen();
+            if (bandNumber < 1 || bandNumber > bands.length) {
+                throw new IllegalArgumentException(
+                        "Band number " + bandNumber + " is out of range 1.." + bands.length + " for " + identifier
+                );
+            }
+            NativeRasterBand band = bands[bandNumber - 1];
+            if (band == null) {
+                MemorySegment handle = RasterNative.GDALGetRasterBand(dataset, bandNumber);
+                if (CStrings.isNull(handle)) {
+                    throw GdalErrors.lastError("Failed to access band " + bandNumber + " of " + identifier);
+                }
+                band = new NativeRasterBand(this, handle, bandNumber);
+                bands[bandNumber - 1] = band;
+            }
+            return band;
+        }
+
+        @Override
+        public synchronized RasterMetadata metadata() {
+            ensureOpen();
+            RasterMetadata metadata = describeRaster(dataset);
+            if (metadata == null) {
+                throw new IllegalStateException("Dataset has no raster bands: " + identifier);
+            }
+            return metadata;
+        }
+
+        @Override
+        public boolean isWritable() {
+            return writable;
+        }
+
+        @Override
+        public synchronized void flush() {
+            ensureOpen();
+            GdalGenerated.CPLErrorReset();
+            if (RasterNative.GDALFlushCache(dataset) != CE_NONE) {
+                throw GdalErrors.lastError("Failed to flush raster dataset: " + identifier);
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (lease != null) {
+                lease.release();
+            } else {
+                GdalRuntime.closeDatasetQuietly(dataset);
+            }
+        }
+
+        void ensureOpen() {
+            if (closed) {
+                throw new IllegalStateException("Raster dataset is closed: " + identifier);
+            }
+        }
+
+        private void ensureWritable() {
+            if (!writable) {
+                throw new IllegalStateException("Raster dataset is opened read-only: " + identifier);
+            }
+        }
+    }
+
+    static final class NativeRasterBand implements RasterBand {
+        private final NativeRasterDataset owner;
+        private final MemorySegment band;
+        private final int index;
+        private final int width;
+        private final int height;
+        private final RasterDataType dataType;
+        private final int blockWidth;
+        private final int blockHeight;
+        private final int overviewCount;
+        private NativeRasterBand[] overviews;
+
+        private NativeRasterBand(NativeRasterDataset owner, MemorySegment band, int index) {
+            this.owner = owner;
+            this.band = band;
+            this.index = index;
+            this.width = RasterNative.GDALGetRasterBandXSize(band);
+            this.height = RasterNative.GDALGetRasterBandYSize(band);
+            this.overviewCount = Math.max(RasterNative.GDALGetOverviewCount(band), 0);
+            this.dataType = RasterDataType.fromNativeCode(RasterNative.GDALGetRasterDataType(band));
+            try (Arena arena = Arena.ofConfined()) {
+                MemorySegment blockXSize = arena.allocate(ValueLayout.JAVA_INT);
+                MemorySegment blockYSize = arena.allocate(ValueLayout.JAVA_INT);
+                RasterNative.GDALGetBlockSize(band, blockXSize, blockYSize);
+                this.blockWidth = Math.max(blockXSize.get(ValueLayout.JAVA_INT, 0), 1);
+                this.blockHeight = Math.max(blockYSize.get(ValueLayout.JAVA_INT, 0), 1);
+            }
+        }
+
+        MemorySegment handle() {
+            return band;
+        }
+
+        @Override
+        public int index() {
+            return index;
+        }
+
+        @Override
+        public int width() {
+            return width;
+        }
+
+        @Override
+        public int height() {
+            return height;
+        }
+
+        @Override
+        public RasterDataType dataType() {
+            return dataType;
+        }
+
+        @Override
+        public int blockWidth() {
+            return blockWidth;
+        }
+
+        @Override
+        public int blockHeight() {
+            return blockHeight;
+        }
+
+        @Override
+        public int overviewCount() {
+            return overviewCount;
+        }
+
+        @Override
+        public RasterBand overview(int level) {
+            if (level < 0 || level >= overviewCount) {
+                throw new IllegalArgumentException(
+                        "Overview level " + level + " is out of range 0.." + (overviewCount - 1) + " for band " + index
+                );
+            }
+            synchronized (owner) {
+                owner.ensureOpen();
+                if (overviews == null) {
+                    overviews = new NativeRasterBand[overviewCount];
+                }
+                NativeRasterBand overview = overviews[level];
+                if (overview == null) {
+                    MemorySegment handle = RasterNative.GDALGetOverview(band, level);
+                    if (CStrings.isNull(handle)) {
+                        throw GdalErrors.lastError("Failed to access overview " + level + " of band " + index);
+                    }
+                    overview = new NativeRasterBand(owner, handle, index);
+                    overviews[level] = overview;
+                }
+                return overview;
+            }
+        }
+
+        @Override
+        public RasterBandStatistics statistics(boolean approxOk, ProgressCallback progress) {
+            synchronized (owner) {
+                owner.ensureOpen();
+                GdalGenerated.CPLErrorReset();
+                try (Arena arena = Arena.ofConfined();
+                     ProgressBridge.ProgressHandle progressHandle = ProgressBridge.create(progress, arena)) {
+                    MemorySegment values = arena.allocate(ValueLayout.JAVA_DOUBLE, 4);
+                    int errorCode = RasterNative.GDALComputeRasterStatistics(
+                            band,
+                            approxOk,
+                            values,
+                            values.asSlice(Double.BYTES),
+                            values.asSlice(2L * Double.BYTES),
+                            values.asSlice(3L * Double.BYTES),
+                            progressHandle.callbackFn(),
+                            progressHandle.userData()
+                    );
+                    throwIfCallbackFailed(progressHandle);
+                    if (errorCode != CE_NONE) {
+                        throw GdalErrors.lastError("Failed to compute statistics of band " + index
+                                + " in " + owner.identifier());
+                    }
+                    return new RasterBandStatistics(
+                            values.getAtIndex(ValueLayout.JAVA_DOUBLE, 0),
+                            values.getAtIndex(ValueLayout.JAVA_DOUBLE, 1),
+                            values.getAtIndex(ValueLayout.JAVA_DOUBLE, 2),
+                            values.getAtIndex(ValueLayout.JAVA_DOUBLE, 3),
+                            approxOk
+                    );
+                }
+            }
+        }
+
+        @Override
+        public RasterHistogram histogram(
+                double min,
+                double max,
+                int bucketCount,
+                boolean includeOutOfRange,
+                boolean approxOk,
+                ProgressCallback progress
+        ) {
+            if (bucketCount <= 0) {
+                throw new IllegalArgumentException("bucketCount must be > 0");
+            }
+            if (!(min < max)) {
+                throw new IllegalArgumentException("min must be less than max");
+            }
+            synchronized (owner) {
+                owner.ensureOpen();
+                GdalGenerated.CPLErrorReset();
+                try (Arena arena = Arena.ofConfined();
+                     ProgressBridge.ProgressHandle progressHandle = ProgressBridge.create(progress, arena)) {
+                    MemorySegment counts = arena.allocate(ValueLayout.JAVA_LONG, bucketCount);
+                    int errorCode = RasterNative.GDALGetRasterHistogramEx(
+                            band,
+                            min,
+                            max,
+                            bucketCount,
+                            counts,
+                            includeOutOfRange,
+                            approxOk,
+                            progressHandle.callbackFn(),
+                            progressHandle.userData()
+                    );
+                    throwIfCallbackFailed(progressHandle);
+                    if (errorCode != CE_NONE) {
+                        throw GdalErrors.lastError("Failed to compute histogram of band " + index
+                                + " in " + owner.identifier());
+                    }
+                    return new RasterHistogram(min, max, counts.toArray(ValueLayout.JAVA_LONG), includeOutOfRange);
+                }
+            }
+        }
+
+        @Override
+        public void readBlock(int blockX, int blockY, MemorySegment target) {
+            blockIo(false, blockX, blockY, target);
+        }
+
+        @Override
+        public void writeBlock(int blockX, int blockY, MemorySegment source) {
+            blockIo(true, blockX, blockY, source);
+        }
+
+        @Override
+        public void readWindow(
+                RasterWindow window,
+                int bufferWidth,
+                int bufferHeight,
+                RasterDataType bufferType,
+                RasterResampling resampling,
+                MemorySegment target
+        ) {
+            rasterIo(GF_READ, window, bufferWidth, bufferHeight, bufferType, resampling, target);
+        }
+
+        @Override
+        public void readWindow(
+                RasterWindow window,
+                int bufferWidth,
+                int bufferHeight,
+                RasterResampling resampling,
+                byte[] target
+        ) {
+            readArray(window, bufferWidth, bufferHeight, resampling, RasterDataType.BYTE, ValueLayout.JAVA_BYTE,
+                    target, target.length);
+        }
+
+        @Override
+        public void readWindow(
+                RasterWindow window,
+                int bufferWidth,
+                int bufferHeight,
+                RasterResampling resampling,
+                short[] target
+        ) {
+            readArray(window, bufferWidth, bufferHeight, resampling, RasterDataType.INT16, ValueLayout.JAVA_SHORT,
+                    target, target.length);
+        }
+
+        @Override
+        public void readWindow(
+                RasterWindow window,
+                int bufferWidth,
+                int bufferHeight,
+                RasterResampling resampling,
+                int[] target
+        ) {
+            readArray(window, bufferWidth, bufferHeight, resampling, RasterDataType.INT32, ValueLayout.JAVA_INT,
+                    target, target.length);
+        }
+
+        @Override
+        public void readWindow(
+                RasterWindow window,
+                int bufferWidth,
+                int bufferHeight,
+                RasterResampling resampling,
+                long[] target
+        ) {
+            readArray(window, bufferWidth, bufferHeight, resampling, RasterDataType.INT64, ValueLayout.JAVA_LONG,
+                    target, target.length);
+        }
+
+        @Override
+        public void readWindow(
+                RasterWindow window,
+                int bufferWidth,
+                int bufferHeight,
+                RasterResampling resampling,
+                float[] target
+        ) {
+            readArray(window, bufferWidth, bufferHeight, resampling, RasterDataType.FLOAT32, ValueLayout.JAVA_FLOAT,
+                    target, target.length);
+        }
+
+        @Override
+        public void readWindow(
+                RasterWindow window,
+                int bufferWidth,
+                int bufferHeight,
+                RasterResampling resampling,
+                double[] target
+        ) {
+            readArray(window, bufferWidth, bufferHeight, resampling, RasterDataType.FLOAT64, ValueLayout.JAVA_DOUBLE,
+                    target, target.length);
+        }
+
+        @Override
+        public void writeWindow(
+                RasterWindow window,
+                int bufferWidth,
+                int bufferHeight,
+                RasterDataType bufferType,
+                MemorySegment source
+        ) {
+            rasterIo(GF_WRITE, window, bufferWidth, bufferHeight, bufferType, RasterResampling.NEAREST, source);
+        }
+
+        @Override
+        public void readWindow(RasterWindow window, byte[] target) {
+            readArray(window, RasterDataType.BYTE, ValueLayout.JAVA_BYTE, target, target.length);
+        }
+
+        @Override
+        public void readWindow(RasterWindow window, short[] target) {
+            readArray(window, RasterDataType.INT16, ValueLayout.JAVA_SHORT, target, target.length);
+        }
+
+        @Override
+        public void readWindow(RasterWindow window, int[] target) {
+            readArray(window, RasterDataType.INT32, ValueLayout.JAVA_INT, target, target.length);
+        }
+
+        @Override
+        public void readWindow(RasterWindow window, long[] target) {
+            readArray(window, RasterDataType.INT64, ValueLayout.JAVA_LONG, target, target.length);
+        }
+
+        @Override
+        public void readWindow(RasterWindow window, float[] target) {
+            readArray(window, RasterDataType.FLOAT32, ValueLayout.JAVA_FLOAT, target, target.length);
+        }
+
+        @Override
+        public void readWindow(RasterWindow window, double[] target) {
+            readArray(window, RasterDataType.FLOAT64, ValueLayout.JAVA_DOUBLE, target, target.length);
+        }
+
+        @Override
+        public void writeWindow(RasterWindow window, byte[] source) {
+            writeArray(window, RasterDataType.BYTE, ValueLayout.JAVA_BYTE, source, source.length);
+        }
+
+        @Override
+        public void writeWindow(RasterWindow window, short[] source) {
+            writeArray(window, RasterDataType.INT16, ValueLayout.JAVA_SHORT, source, source.length);
+        }
+
+        @Override
+        public void writeWindow(RasterWindow window, int[] source) {
+            writeArray(window, RasterDataType.INT32, ValueLayout.JAVA_INT, source, source.length);
+        }
+
+        @Override
+        public void writeWindow(RasterWindow window, long[] source) {
+            writeArray(window, RasterDataType.INT64, ValueLayout.JAVA_LONG, source, source.length);
+        }
+
+        @Override
+        public void writeWindow(RasterWindow window, float[] source) {
+            writeArray(window, RasterDataType.FLOAT32, ValueLayout.JAVA_FLOAT, source, source.length);
+        }
+
+        @Override
+        public void writeWindow(RasterWindow window, double[] source) {
+            writeArray(window, RasterDataType.FLOAT64, ValueLayout.JAVA_DOUBLE, source, source.length);
+        }
+
+        private void readArray(
+                RasterWindow window,
+                RasterDataType bufferType,
+                ValueLayout layout,
+                Object target,
+                int targetLength
+        ) {
+            Objects.requireNonNull(window, "window must not be null");
+            readArray(window, window.width(), window.height(), RasterResampling.NEAREST, bufferType, layout, target,
+                    targetLength);
+        }
+
+        private void readArray(
+                RasterWindow window,
+                int bufferWidth,
+                int bufferHeight,
+                RasterResampling resampling,
+                RasterDataType bufferType,
+                ValueLayout layout,
+                Object target,
+                int targetLength
+        ) {
+            int count = arrayPixelCount(window, bufferWidth, bufferHeight, targetLength);
+            try (Arena arena = Arena.ofConfined()) {
+                MemorySegment buffer = arena.allocate(layout, count);
+                rasterIo(GF_READ, window, bufferWidth, bufferHeight, bufferType, resampling, buffer);
+                MemorySegment.copy(buffer, layout, 0, target, 0, count);
+            }
+        }
+
+        private void writeArray(
+                RasterWindow window,
+                RasterDataType bufferType,
+                ValueLayout layout,
+                Object source,
+                int sourceLength
+        ) {
+            Objects.requireNonNull(window, "window must not be null");
+            int count = arrayPixelCount(window, window.width(), window.height(), sourceLength);
+            try (Arena arena = Arena.ofConfined()) {
+                MemorySegment buffer = arena.allocate(layout, count);
+                MemorySegment.copy(source, 0, buffer, layout, 0, count);
+                rasterIo(GF_WRITE, window, window.width(), window.height(), bufferType, RasterResampling.NEAREST,
+                        buffer);
+            }
+        }
+
+        private void rasterIo(
+                int readWriteFlag,
+                RasterWindow window,
+                int bufferWidth,
+                int bufferHeight,
+                RasterDataType bufferType,
+                RasterResampling resampling,
+                MemorySegment buffer
+        ) {
+            Objects.requireNonNull(window, "window must not be null");
+            Objects.requireNonNull(bufferType, "bufferType must not be null");
+            Objects.requireNonNull(resampling, "resampling must not be null");
+            Objects.requireNonNull(buffer, "buffer must not be null");
+            if (!window.fitsWithin(width, height)) {
+                throw new IllegalArgumentException(
+                        "Window " + window + " exceeds band size " + width + "x" + height
+                );
+            }
+            if (bufferWidth <= 0 || bufferHeight <= 0) {
+                throw new IllegalArgumentException("bufferWidth and bufferHeight must be > 0");
+            }
+            if (bufferType == RasterDataType.UNKNOWN) {
+                throw new IllegalArgumentException("bufferType must not be UNKNOWN");
+            }
+            long requiredBytes = (long) bufferWidth * bufferHeight * bufferType.sizeBytes();
+            requireNativeBuffer(buffer, requiredBytes);
+
+            boolean write = readWriteFlag == GF_WRITE;
+            // The lease is taken before the dataset lock so a caller never waits for CPU while holding it.
+            try (CpuBudget.Lease ignored = CpuBudget.acquire(1)) {
+                rasterIoLocked(readWriteFlag, write, window, bufferWidth, bufferHeight, bufferType, resampling,
+                        buffer);
+            }
+        }
+
+        private void rasterIoLocked(
+                int readWriteFlag,
+                boolean write,
+                RasterWindow window,
+                int bufferWidth,
+                int bufferHeight,
+                RasterDataType bufferType,
+                RasterResampling resampling,
+                MemorySegment buffer
+        ) {
+            synchronized (owner) {
+                owner.ensureOpen();
+                if (write) {
+                    owner.ensureWritable();
+                }
+                int errorCode;
+                try (Arena arena = Arena.ofConfined()) {
+                    MemorySegment extraArg = extraArg(resampling, arena);
+                    GdalGenerated.CPLErrorReset();
+                    errorCode = RasterNative.GDALRasterIOEx(
+                            band,
+                            readWriteFlag,
+                            window.x(),
+                            window.y(),
+                            window.width(),
+                            window.height(),
+                            buffer,
+                            bufferWidth,
+                            bufferHeight,
+                            bufferType.nativeCode(),
+                            0L,
+                            0L,
+                            extraArg
+                    );
+                }
+                if (errorCode != CE_NONE) {
+                    throw GdalErrors.lastError(
+                            "Failed to " + (write ? "write" : "read") + " window " + window + " of band " + index
+                                    + " in " + owner.identifier()
+                    );
+                }
+            }
+        }
+
+        /**
+         * Returns {@code NULL} for nearest neighbour, which is GDAL's default without extra arguments.
+         */
+        private static MemorySegment extraArg(RasterResampling resampling, Arena arena) {
+            if (resampling == RasterResampling.NEAREST) {
+                return MemorySegment.NULL;
+            }
+            MemorySegment extraArg = arena.allocate(RASTERIO_EXTRA_ARG);
+            extraArg.set(ValueLayout.JAVA_INT, EXTRA_ARG_VERSION_OFFSET, RASTERIO_EXTRA_ARG_VERSION);
+            extraArg.set(ValueLayout.JAVA_INT, EXTRA_ARG_RESAMPLE_OFFSET, resampling.nativeCode());
+            return extraArg;
+        }
+
+        private void blockIo(boolean write, int blockX, int blockY, MemorySegment buffer) {
+            Objects.requireNonNull(buffer, "buffer must not be null");
+            if (blockX < 0 || blockY < 0 || blockX >= blockCountX() || blockY >= blockCountY()) {
+                throw new IllegalArgumentException("Block (" + blockX + ", " + blockY + ") is outside the band");
+            }
+            requireNativeBuffer(buffer, (long) blockWidth * blockHeight * dataType.sizeBytes());
+
+            try (CpuBudget.Lease ignored = CpuBudget.acquire(1)) {
+                blockIoLocked(write, blockX, blockY, buffer);
+            }
+        }
+
+        private void blockIoLocked(boolean write, int blockX, int blockY, MemorySegment buffer) {
+            synchronized (owner) {
+                owner.ensureOpen();
+                if (write) {
+                    owner.ensureWritable();
+                }
+                GdalGenerated.CPLErrorReset();
+                int errorCode = write
+                        ? RasterNative.GDALWriteBlock(band, blockX, blockY, buffer)
+                        : RasterNative.GDALReadBlock(band, blockX, blockY, buffer);
+                if (errorCode != CE_NONE) {
+                    throw GdalErrors.lastError(
+                            "Failed to " + (write ? "write" : "read") + " block (" + blockX + ", " + blockY
+                                    + ") of band " + index + " in " + owner.identifier()
+                    );
+                }
+            }
+        }
+
+        private static int arrayPixelCount(RasterWindow window, int bufferWidth, int bufferHeight, int arrayLength) {
+            if (bufferWidth <= 0 || bufferHeight <= 0) {
+                throw new IllegalArgumentException("bufferWidth and bufferHeight must be > 0");
+            }
+            long pixelCount = (long) bufferWidth * bufferHeight;
+            if (pixelCount > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Window " + window + " is too large for a Java array");
+            }
+            if (arrayLength < pixelCount) {
+                throw new IllegalArgumentException(
+                        "Array holds " + arrayLength + " values but window " + window + " needs " + pixelCount
+                );
+            }
+            return (int) pixelCount;
+        }
+
+        private static void requireNativeBuffer(MemorySegment buffer, long requiredBytes) {
+            if (!buffer.isNative()) {
+                throw new IllegalArgumentException("Raster I/O requires a native memory segment");
+            }
+            if (buffer.byteSize() < requiredBytes) {
+                throw new IllegalArgumentException(
+                        "Buffer holds " + buffer.byteSize() + " bytes but " + requiredBytes + " are required"
+                );
+            }
+        }
+    }
+
+    private static final class NativeRasterWriter implements RasterWriter {
+        private final NativeRasterDataset dataset;
+        private final RasterWriteSpec spec;
+        private final GdalConfig config;
+        private final int blockWidth;
+        private final int blockHeight;
+        private boolean finished;
+        private boolean finishFailed;
+        private boolean closed;
+
+        private NativeRasterWriter(NativeRasterDataset dataset, RasterWriteSpec spec, GdalConfig config) {
+            this.dataset = dataset;
+            this.spec = spec;
+            this.config = config;
+            RasterBand first = dataset.band(1);
+            this.blockWidth = first.blockWidth();
+            this.blockHeight = first.blockHeight();
+        }
+
+        @Override
+        public int width() {
+            return dataset.width();
+        }
+
+        @Override
+        public int height() {
+            return dataset.height();
+        }
+
+        @Override
+        public int bandCount() {
+            return dataset.bandCount();
+        }
+
+        @Override
+        public RasterDataType dataType() {
+            return spec.dataType();
+        }
+
+        @Override
+        public int blockWidth() {
+            return blockWidth;
+        }
+
+        @Override
+        public int blockHeight() {
+            return blockHeight;
+        }
+
+        @Override
+        public synchronized void write(
+                int bandNumber,
+                RasterWindow window,
+                RasterDataType bufferType,
+                MemorySegment source
+        ) {
+            targetBand(bandNumber, window).writeWindow(window, bufferType, source);
+        }
+
+        @Override
+        public synchronized void write(int bandNumber, RasterWindow window, byte[] source) {
+            targetBand(bandNumber, window).writeWindow(window, source);
+        }
+
+        @Override
+        public synchronized void write(int bandNumber, RasterWindow window, short[] source) {
+            targetBand(bandNumber, window).writeWindow(window, source);
+        }
+
+        @Override
+        public synchronized void write(int bandNumber, RasterWindow window, int[] source) {
+            targetBand(bandNumber, window).writeWindow(window, source);
+        }
+
+        @Override
+        public synchronized void write(int bandNumber, RasterWindow window, long[] source) {
+            targetBand(bandNumber, window).writeWindow(window, source);
+        }
+
+        @Override
+        public synchronized void write(int bandNumber, RasterWindow window, float[] source) {
+            targetBand(bandNumber, window).writeWindow(window, source);
+        }
+
+        @Override
+        public synchronized void write(int bandNumber, RasterWindow window, double[] source) {
+            targetBand(bandNumber, window).writeWindow(window, source);
+        }
+
+        @Override
+        public synchronized void finish(ProgressCallback progress) {
+            ensureWritable();
+
+            GdalGenerated.CPLErrorReset();
+            try (GdalConfigScope.ScopedConfigHandle ignored = GdalConfigScope.applyScoped(config);
+                 Arena arena = Arena.ofConfined();
+                 ProgressBridge.ProgressHandle progressHandle = ProgressBridge.create(progress, arena)) {
+                dataset.flush();
+                if (!spec.overviewFactors().isEmpty()) {
+                    buildOverviews(arena, progressHandle);
+                }
+                if (spec.cogTarget() != null) {
+                    copyToCog(arena, progressHandle);
+                }
+            } catch (RuntimeException e) {
+                finishFailed = true;
+                throw e;
+            }
+            // Only a complete finish locks the writer; after a failure the caller may retry finish explicitly.
+            finished = true;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            try {
+                // A failed or cancelled finish is not repeated implicitly.
+                if (!finished && !finishFailed) {
+                    finish(null);
+                }
+            } finally {
+                closed = true;
+                dataset.close();
+            }
+        }
+
+        private NativeRasterBand targetBand(int bandNumber, RasterWindow window) {
+            ensureWritable();
+            Objects.requireNonNull(window, "window must not be null");
+            boolean alignedStart = window.x() % blockWidth == 0 && window.y() % blockHeight == 0;
+            int endX = window.x() + window.width();
+            int endY = window.y() + window.height();
+            boolean alignedEnd = (endX % blockWidth == 0 || endX == width())
+                    && (endY % blockHeight == 0 || endY == height());
+            if (!alignedStart || !alignedEnd) {
+                throw new IllegalArgumentException(
+                        "Window " + window + " is not aligned to the " + blockWidth + "x" + blockHeight + " block grid"
+                );
+            }
+            return (NativeRasterBand) dataset.band(bandNumber);
+        }
+
+        private void buildOverviews(Arena arena, ProgressBridge.ProgressHandle progressHandle) {
+            List<Integer> factors = spec.overviewFactors();
+            MemorySegment factorList = arena.allocate(ValueLayout.JAVA_INT, factors.size());
+            for (int i = 0; i < factors.size(); i++) {
+                factorList.setAtIndex(ValueLayout.JAVA_INT, i, factors.get(i));
+            }
+            String resampling = spec.overviewResampling().toUpperCase(Locale.ROOT);
+            int errorCode = RasterNative.GDALBuildOverviews(
+                    dataset.handle(),
+                    arena.allocateFrom(resampling),
+                    factors.size(),
+                    factorList,
+                    0,
+                    MemorySegment.NULL,
+                    progressHandle.callbackFn(),
+                    progressHandle.userData()
+            );
+            throwIfCallbackFailed(progressHandle);
+            if (errorCode != CE_NONE) {
+                throw GdalErrors.lastError("Failed to build overviews for " + dataset.identifier());
+            }
+        }
+
+        private void copyToCog(Arena arena, ProgressBridge.ProgressHandle progressHandle) {
+            DatasetRef target = spec.cogTarget();
+            Map<String, String> options = new LinkedHashMap<>(spec.cogCreationOptions());
+            if (spec.compressionThreads() > 0) {
+                putIfDeclared(
+                        options,
+                        GdalRuntime.driverCreationOptionListXml(DRIVER_COG),
+                        CO_NUM_THREADS,
+                        Integer.toString(spec.compressionThreads())
+                );
+            }
+            String[] optionArray = toKeyValueArray(options);
+            MemorySegment copy = RasterNative.GDALCreateCopy(
+                    GdalRuntime.resolveRasterDriver(DRIVER_COG, arena),
+                    arena.allocateFrom(target.toGdalIdentifier()),
+                    dataset.handle(),
+                    false,
+                    optionArray.length == 0 ? MemorySegment.NULL : CArgv.toCStringArray(optionArray, arena),
+                    progressHandle.callbackFn(),
+                    progressHandle.userData()
+            );
+            try {
+                throwIfCallbackFailed(progressHandle);
+                if (CStrings.isNull(copy)) {
+                    throw GdalErrors.lastError("Failed to write COG: " + target.identifier());
+                }
+            } finally {
+                GdalRuntime.closeDatasetQuietly(copy);
+            }
+        }
+
+        private void ensureWritable() {
+            dataset.ensureOpen();
+            if (finished) {
+                throw new IllegalStateException("Raster writer is already finished: " + dataset.identifier());
+            }
+        }
+    }
+}
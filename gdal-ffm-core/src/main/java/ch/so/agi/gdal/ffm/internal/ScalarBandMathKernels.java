@@ -0,0 +1,88 @@
+package ch.so.agi.gdal.ffm.internal;
+
+final class ScalarBandMathKernels implements BandMathKernels {
+    static final ScalarBandMathKernels INSTANCE = new ScalarBandMathKernels();
+
+    private ScalarBandMathKernels() {
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public void binary(BinaryOp op, float[] left, float[] right, float[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = apply(op, left[i], right[i]);
+        }
+    }
+
+    @Override
+    public void unary(UnaryOp op, float[] operand, float[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = apply(op, operand[i]);
+        }
+    }
+
+    @Override
+    public void select(float[] condition, float[] whenTrue, float[] whenFalse, float[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = select(condition[i], whenTrue[i], whenFalse[i]);
+        }
+    }
+
+    @Override
+    public void reclass(float[] operand, float[] mins, float[] maxs, float[] values, float[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = reclass(operand[i], mins, maxs, values);
+        }
+    }
+
+    @Override
+    public void maskNoData(float[] values, float noData, int length) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == noData) {
+                values[i] = Float.NaN;
+            }
+        }
+    }
+
+    static float apply(UnaryOp op, float value) {
+        return switch (op) {
+            case NEGATE -> -value;
+            case ABS -> Math.abs(value);
+            case SQRT -> (float) Math.sqrt(value);
+        };
+    }
+
+    static float select(float condition, float whenTrue, float whenFalse) {
+        return condition != 0 && !Float.isNaN(condition) ? whenTrue : whenFalse;
+    }
+
+    static float reclass(float value, float[] mins, float[] maxs, float[] values) {
+        for (int rule = 0; rule < mins.length; rule++) {
+            if (value >= mins[rule] && value < maxs[rule]) {
+                return values[rule];
+            }
+        }
+        return Float.NaN;
+    }
+
+    static float apply(BinaryOp op, float left, float right) {
+        return switch (op) {
+            case ADD -> left + right;
+            case SUBTRACT -> left - right;
+            case MULTIPLY -> left * right;
+            case DIVIDE -> left / right;
+            case MIN -> Math.min(left, right);
+            case MAX -> Math.max(left, right);
+            case LESS -> left < right ? 1f : 0f;
+            case LESS_OR_EQUAL -> left <= right ? 1f : 0f;
+            case GREATER -> left > right ? 1f : 0f;
+            case GREATER_OR_EQUAL -> left >= right ? 1f : 0f;
+            case EQUAL -> left == right ? 1f : 0f;
+            case NOT_EQUAL -> left != right ? 1f : 0f;
+        };
+    }
+}
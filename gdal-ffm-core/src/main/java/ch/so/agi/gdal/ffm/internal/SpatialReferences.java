@@ -0,0 +1,56 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import ch.so.agi.gdal.ffm.generated.GdalGenerated;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Helpers for {@code OGRSpatialReferenceH} handles.
+ */
+final class SpatialReferences {
+    private SpatialReferences() {
+    }
+
+    /**
+     * Returns the root authority of a spatial reference as {@code AUTHORITY:CODE}, or {@code null}.
+     */
+    static String authorityCode(MemorySegment spatialReference) {
+        if (CStrings.isNull(spatialReference)) {
+            return null;
+        }
+        String name = CStrings.fromCString(
+                OgrNative.OSRGetAuthorityName(spatialReference, MemorySegment.NULL)
+        ).trim();
+        String code = CStrings.fromCString(
+                GdalGenerated.OSRGetAuthorityCode(spatialReference, MemorySegment.NULL)
+        ).trim();
+        if (name.isEmpty() || code.isEmpty()) {
+            return null;
+        }
+        return name + ":" + code;
+    }
+
+    /**
+     * Creates a spatial reference from any definition accepted by {@code OSRSetFromUserInput}, such as
+     * {@code EPSG:2056}, WKT or PROJJSON. The caller releases the handle with {@link #release(MemorySegment)}.
+     */
+    static MemorySegment fromUserInput(String definition) {
+        MemorySegment spatialReference = OgrNative.OSRNewSpatialReference(MemorySegment.NULL);
+        if (CStrings.isNull(spatialReference)) {
+            throw GdalErrors.lastError("Failed to create spatial reference");
+        }
+        try (Arena arena = Arena.ofConfined()) {
+            if (OgrNative.OSRSetFromUserInput(spatialReference, arena.allocateFrom(definition)) != 0) {
+                release(spatialReference);
+                throw new IllegalArgumentException("Unsupported CRS definition: " + definition);
+            }
+        }
+        return spatialReference;
+    }
+
+    static void release(MemorySegment spatialReference) {
+        if (!CStrings.isNull(spatialReference)) {
+            OgrNative.OSRRelease(spatialReference);
+        }
+    }
+}
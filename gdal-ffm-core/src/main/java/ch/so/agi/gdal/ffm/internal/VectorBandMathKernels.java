@@ -0,0 +1,124 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link BandMathKernels} on the preferred SIMD width of the CPU. Only loaded when the
+ * {@code jdk.incubator.vector} module is present; tails shorter than one vector run scalar loops.
+ */
+final class VectorBandMathKernels implements BandMathKernels {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public String name() {
+        return "vector-" + SPECIES.vectorBitSize();
+    }
+
+    @Override
+    public void binary(BinaryOp op, float[] left, float[] right, float[] out, int length) {
+        int upper = SPECIES.loopBound(length);
+        FloatVector one = FloatVector.broadcast(SPECIES, 1f);
+        FloatVector zero = FloatVector.zero(SPECIES);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            FloatVector a = FloatVector.fromArray(SPECIES, left, i);
+            FloatVector b = FloatVector.fromArray(SPECIES, right, i);
+            FloatVector result = switch (op) {
+                case ADD -> a.add(b);
+                case SUBTRACT -> a.sub(b);
+                case MULTIPLY -> a.mul(b);
+                case DIVIDE -> a.div(b);
+                case MIN -> a.min(b);
+                case MAX -> a.max(b);
+                case LESS -> zero.blend(one, a.compare(VectorOperators.LT, b));
+                case LESS_OR_EQUAL -> zero.blend(one, a.compare(VectorOperators.LE, b));
+                case GREATER -> zero.blend(one, a.compare(VectorOperators.GT, b));
+                case GREATER_OR_EQUAL -> zero.blend(one, a.compare(VectorOperators.GE, b));
+                case EQUAL -> zero.blend(one, a.compare(VectorOperators.EQ, b));
+                case NOT_EQUAL -> zero.blend(one, a.compare(VectorOperators.NE, b));
+            };
+            result.intoArray(out, i);
+        }
+        for (; i < length; i++) {
+            out[i] = ScalarBandMathKernels.apply(op, left[i], right[i]);
+        }
+    }
+
+    @Override
+    public void unary(UnaryOp op, float[] operand, float[] out, int length) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            FloatVector value = FloatVector.fromArray(SPECIES, operand, i);
+            FloatVector result = switch (op) {
+                case NEGATE -> value.neg();
+                case ABS -> value.abs();
+                case SQRT -> value.sqrt();
+            };
+            result.intoArray(out, i);
+        }
+        for (; i < length; i++) {
+            out[i] = ScalarBandMathKernels.apply(op, operand[i]);
+        }
+    }
+
+    @Override
+    public void select(float[] condition, float[] whenTrue, float[] whenFalse, float[] out, int length) {
+        int upper = SPECIES.loopBound(length);
+        FloatVector zero = FloatVector.zero(SPECIES);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            FloatVector test = FloatVector.fromArray(SPECIES, condition, i);
+            // NE is true for NaN, so NaN conditions are excluded explicitly to match the scalar kernel.
+            VectorMask<Float> selected = test.compare(VectorOperators.NE, zero)
+                    .andNot(test.test(VectorOperators.IS_NAN));
+            FloatVector.fromArray(SPECIES, whenFalse, i)
+                    .blend(FloatVector.fromArray(SPECIES, whenTrue, i), selected)
+                    .intoArray(out, i);
+        }
+        for (; i < length; i++) {
+            out[i] = ScalarBandMathKernels.select(condition[i], whenTrue[i], whenFalse[i]);
+        }
+    }
+
+    @Override
+    public void reclass(float[] operand, float[] mins, float[] maxs, float[] values, float[] out, int length) {
+        int upper = SPECIES.loopBound(length);
+        FloatVector nan = FloatVector.broadcast(SPECIES, Float.NaN);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            FloatVector value = FloatVector.fromArray(SPECIES, operand, i);
+            FloatVector result = nan;
+            VectorMask<Float> unmatched = SPECIES.maskAll(true);
+            for (int rule = 0; rule < mins.length; rule++) {
+                VectorMask<Float> matches = value.compare(VectorOperators.GE, mins[rule])
+                        .and(value.compare(VectorOperators.LT, maxs[rule]))
+                        .and(unmatched);
+                result = result.blend(values[rule], matches);
+                unmatched = unmatched.andNot(matches);
+            }
+            result.intoArray(out, i);
+        }
+        for (; i < length; i++) {
+            out[i] = ScalarBandMathKernels.reclass(operand[i], mins, maxs, values);
+        }
+    }
+
+    @Override
+    public void maskNoData(float[] values, float noData, int length) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            FloatVector value = FloatVector.fromArray(SPECIES, values, i);
+            value.blend(Float.NaN, value.compare(VectorOperators.EQ, noData)).intoArray(values, i);
+        }
+        for (; i < length; i++) {
+            if (values[i] == noData) {
+                values[i] = Float.NaN;
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import ch.so.agi.gdal.ffm.generated.GdalGenerated;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Library-managed directories in GDAL's {@code /vsimem/} in-memory file system.
+ */
+public final class VsiMemFiles {
+    public static final String ROOT = "/vsimem/gdal-ffm/";
+
+    private VsiMemFiles() {
+    }
+
+    /**
+     * Returns a fresh, unique directory path ending in {@code /}. Nothing is allocated until GDAL writes a file.
+     */
+    public static String newDirectory() {
+        return ROOT + UUID.randomUUID() + "/";
+    }
+
+    /**
+     * Lists the files below {@code directory} as paths relative to it.
+     */
+    public static List<String> list(String directory) {
+        Objects.requireNonNull(directory, "directory must not be null");
+        GdalRuntime.initialize();
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment entries = VsiNative.VSIReadDirRecursive(arena.allocateFrom(directory));
+            if (CStrings.isNull(entries)) {
+                return List.of();
+            }
+            try {
+                int count = VsiNative.CSLCount(entries);
+                MemorySegment array = entries.reinterpret((long) count * ValueLayout.ADDRESS.byteSize());
+                List<String> files = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    String entry = CStrings.fromCString(array.getAtIndex(ValueLayout.ADDRESS, i));
+                    // Directory entries carry a trailing slash.
+                    if (!entry.endsWith("/")) {
+                        files.add(entry);
+                    }
+                }
+                return List.copyOf(files);
+            } finally {
+                GdalNative.CSLDestroy(entries);
+            }
+        }
+    }
+
+    /**
+     * Creates the {@code /vsimem/} file {@code path} over the native memory of {@code buffer} without copying.
+     * GDAL does not take ownership; the caller keeps the memory valid until the file is deleted.
+     */
+    public static void map(String path, MemorySegment buffer) {
+        Objects.requireNonNull(path, "path must not be null");
+        Objects.requireNonNull(buffer, "buffer must not be null");
+        if (!buffer.isNative()) {
+            throw new IllegalArgumentException("Only native memory can be mapped into /vsimem/");
+        }
+        GdalRuntime.initialize();
+        GdalGenerated.CPLErrorReset();
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment file = VsiNative.VSIFileFromMemBuffer(arena.allocateFrom(path), buffer, buffer.byteSize(), 0);
+            if (CStrings.isNull(file)) {
+                throw GdalErrors.lastError("Failed to create in-memory file: " + path);
+            }
+            // Closing the handle keeps the file; it stays until it is unlinked.
+            VsiNative.VSIFCloseL(file);
+        }
+    }
+
+    /**
+     * Unlinks the {@code /vsimem/} file at {@code path} and takes ownership of its contents without copying. The
+     * returned segment is bound to {@code arena}; closing the arena frees the native buffer.
+     */
+    public static MemorySegment seize(String path, Arena arena) {
+        Objects.requireNonNull(path, "path must not be null");
+        Objects.requireNonNull(arena, "arena must not be null");
+        GdalRuntime.initialize();
+        DatasetHandlePool.shared().clear(path);
+        GdalGenerated.CPLErrorReset();
+        try (Arena local = Arena.ofConfined()) {
+            MemorySegment length = local.allocate(ValueLayout.JAVA_LONG);
+            MemorySegment buffer = VsiNative.VSIGetMemFileBuffer(local.allocateFrom(path), length, 1);
+            if (CStrings.isNull(buffer)) {
+                throw GdalErrors.lastError("No in-memory file to read: " + path);
+            }
+            return buffer.reinterpret(length.get(ValueLayout.JAVA_LONG, 0), arena, VsiNative::VSIFree);
+        }
+    }
+
+    /**
+     * Closes pooled handles of files below {@code directory} and deletes the directory with all its files.
+     * Handles still open elsewhere keep their file contents alive until they are closed.
+     */
+    public static void delete(String directory) {
+        Objects.requireNonNull(directory, "directory must not be null");
+        if (!directory.startsWith(ROOT)) {
+            throw new IllegalArgumentException("Not a library-managed /vsimem/ directory: " + directory);
+        }
+        GdalRuntime.initialize();
+        DatasetHandlePool.shared().clear(directory);
+        GdalGenerated.CPLErrorReset();
+        try (Arena arena = Arena.ofConfined()) {
+            // Best-effort: a directory GDAL never wrote to does not exist and cannot be removed.
+            VsiNative.VSIRmdirRecursive(arena.allocateFrom(directory));
+        }
+        GdalGenerated.CPLErrorReset();
+    }
+}
@@ -0,0 +1,80 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+
+final class VsiNative {
+    private static final MethodHandle VSI_RMDIR_RECURSIVE = GdalNative.downcall(
+            "VSIRmdirRecursive",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle VSI_READ_DIR_RECURSIVE = GdalNative.downcall(
+            "VSIReadDirRecursive",
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+
+    private static final MethodHandle VSI_GET_MEM_FILE_BUFFER = GdalNative.downcall(
+            "VSIGetMemFileBuffer",
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.JAVA_INT)
+    );
+    private static final MethodHandle VSI_FREE = GdalNative.downcall(
+            "VSIFree",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle VSI_FILE_FROM_MEM_BUFFER = GdalNative.downcall(
+            "VSIFileFromMemBuffer",
+            FunctionDescriptor.of(
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_LONG,
+                    ValueLayout.JAVA_INT
+            )
+    );
+    private static final MethodHandle VSI_FCLOSE_L = GdalNative.downcall(
+            "VSIFCloseL",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle CSL_COUNT = GdalNative.downcall(
+            "CSLCount",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+
+    private VsiNative() {
+    }
+
+    static int VSIRmdirRecursive(MemorySegment path) {
+        return GdalNative.invokeInt(VSI_RMDIR_RECURSIVE, path);
+    }
+
+    static MemorySegment VSIReadDirRecursive(MemorySegment path) {
+        return GdalNative.invokeAddress(VSI_READ_DIR_RECURSIVE, path);
+    }
+
+    static MemorySegment VSIGetMemFileBuffer(MemorySegment path, MemorySegment dataLength, int unlinkAndSeize) {
+        return GdalNative.invokeAddress(VSI_GET_MEM_FILE_BUFFER, path, dataLength, unlinkAndSeize);
+    }
+
+    static void VSIFree(MemorySegment pointer) {
+        GdalNative.invokeVoid(VSI_FREE, pointer);
+    }
+
+    static MemorySegment VSIFileFromMemBuffer(
+            MemorySegment path,
+            MemorySegment buffer,
+            long length,
+            int takeOwnership
+    ) {
+        return GdalNative.invokeAddress(VSI_FILE_FROM_MEM_BUFFER, path, buffer, length, takeOwnership);
+    }
+
+    static int VSIFCloseL(MemorySegment file) {
+        return GdalNative.invokeInt(VSI_FCLOSE_L, file);
+    }
+
+    static int CSLCount(MemorySegment strings) {
+        return GdalNative.invokeInt(CSL_COUNT, strings);
+    }
+}
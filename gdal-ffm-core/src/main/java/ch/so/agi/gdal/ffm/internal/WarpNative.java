@@ -0,0 +1,152 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+
+final class WarpNative {
+    static final MemorySegment GDAL_GEN_IMG_PROJ_TRANSFORM = GdalNative.symbol("GDALGenImgProjTransform");
+    static final MemorySegment GDAL_APPROX_TRANSFORM = GdalNative.symbol("GDALApproxTransform");
+
+    private static final MethodHandle GDAL_CREATE_GEN_IMG_PROJ_TRANSFORMER2 = GdalNative.downcall(
+            "GDALCreateGenImgProjTransformer2",
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_SET_GEN_IMG_PROJ_TRANSFORMER_DST_GEO_TRANSFORM = GdalNative.downcall(
+            "GDALSetGenImgProjTransformerDstGeoTransform",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_CREATE_APPROX_TRANSFORMER = GdalNative.downcall(
+            "GDALCreateApproxTransformer",
+            FunctionDescriptor.of(
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_DOUBLE
+            )
+    );
+    private static final MethodHandle GDAL_APPROX_TRANSFORMER_OWNS_SUBTRANSFORMER = GdalNative.downcall(
+            "GDALApproxTransformerOwnsSubtransformer",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS, ValueLayout.JAVA_INT)
+    );
+    private static final MethodHandle GDAL_DESTROY_TRANSFORMER = GdalNative.downcall(
+            "GDALDestroyTransformer",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_CREATE_WARP_OPTIONS = GdalNative.downcall(
+            "GDALCreateWarpOptions",
+            FunctionDescriptor.of(ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_DESTROY_WARP_OPTIONS = GdalNative.downcall(
+            "GDALDestroyWarpOptions",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_WARP_INIT_DEFAULT_BAND_MAPPING = GdalNative.downcall(
+            "GDALWarpInitDefaultBandMapping",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS, ValueLayout.JAVA_INT)
+    );
+    private static final MethodHandle GDAL_WARP_INIT_SRC_NO_DATA_REAL = GdalNative.downcall(
+            "GDALWarpInitSrcNoDataReal",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS, ValueLayout.JAVA_DOUBLE)
+    );
+    private static final MethodHandle GDAL_WARP_INIT_DST_NO_DATA_REAL = GdalNative.downcall(
+            "GDALWarpInitDstNoDataReal",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS, ValueLayout.JAVA_DOUBLE)
+    );
+    private static final MethodHandle GDAL_CREATE_WARP_OPERATION = GdalNative.downcall(
+            "GDALCreateWarpOperation",
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle GDAL_CHUNK_AND_WARP_IMAGE = GdalNative.downcall(
+            "GDALChunkAndWarpImage",
+            FunctionDescriptor.of(
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.JAVA_INT
+            )
+    );
+    private static final MethodHandle GDAL_DESTROY_WARP_OPERATION = GdalNative.downcall(
+            "GDALDestroyWarpOperation",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS)
+    );
+    private static final MethodHandle CSL_SET_NAME_VALUE = GdalNative.downcall(
+            "CSLSetNameValue",
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+
+    private WarpNative() {
+    }
+
+    static MemorySegment GDALCreateGenImgProjTransformer2(
+            MemorySegment sourceDataset,
+            MemorySegment destinationDataset,
+            MemorySegment options
+    ) {
+        return GdalNative.invokeAddress(
+                GDAL_CREATE_GEN_IMG_PROJ_TRANSFORMER2,
+                sourceDataset,
+                destinationDataset,
+                options
+        );
+    }
+
+    static void GDALSetGenImgProjTransformerDstGeoTransform(MemorySegment transformer, MemorySegment geoTransform) {
+        GdalNative.invokeVoid(GDAL_SET_GEN_IMG_PROJ_TRANSFORMER_DST_GEO_TRANSFORM, transformer, geoTransform);
+    }
+
+    static MemorySegment GDALCreateApproxTransformer(
+            MemorySegment baseTransformer,
+            MemorySegment baseTransformerArg,
+            double maxError
+    ) {
+        return GdalNative.invokeAddress(GDAL_CREATE_APPROX_TRANSFORMER, baseTransformer, baseTransformerArg, maxError);
+    }
+
+    static void GDALApproxTransformerOwnsSubtransformer(MemorySegment transformer, boolean owns) {
+        GdalNative.invokeVoid(GDAL_APPROX_TRANSFORMER_OWNS_SUBTRANSFORMER, transformer, owns ? 1 : 0);
+    }
+
+    static void GDALDestroyTransformer(MemorySegment transformer) {
+        GdalNative.invokeVoid(GDAL_DESTROY_TRANSFORMER, transformer);
+    }
+
+    static MemorySegment GDALCreateWarpOptions() {
+        return GdalNative.invokeAddress(GDAL_CREATE_WARP_OPTIONS);
+    }
+
+    static void GDALDestroyWarpOptions(MemorySegment options) {
+        GdalNative.invokeVoid(GDAL_DESTROY_WARP_OPTIONS, options);
+    }
+
+    static void GDALWarpInitDefaultBandMapping(MemorySegment options, int bandCount) {
+        GdalNative.invokeVoid(GDAL_WARP_INIT_DEFAULT_BAND_MAPPING, options, bandCount);
+    }
+
+    static void GDALWarpInitSrcNoDataReal(MemorySegment options, double noDataValue) {
+        GdalNative.invokeVoid(GDAL_WARP_INIT_SRC_NO_DATA_REAL, options, noDataValue);
+    }
+
+    static void GDALWarpInitDstNoDataReal(MemorySegment options, double noDataValue) {
+        GdalNative.invokeVoid(GDAL_WARP_INIT_DST_NO_DATA_REAL, options, noDataValue);
+    }
+
+    static MemorySegment GDALCreateWarpOperation(MemorySegment options) {
+        return GdalNative.invokeAddress(GDAL_CREATE_WARP_OPERATION, options);
+    }
+
+    static int GDALChunkAndWarpImage(MemorySegment operation, int x, int y, int width, int height) {
+        return GdalNative.invokeInt(GDAL_CHUNK_AND_WARP_IMAGE, operation, x, y, width, height);
+    }
+
+    static void GDALDestroyWarpOperation(MemorySegment operation) {
+        GdalNative.invokeVoid(GDAL_DESTROY_WARP_OPERATION, operation);
+    }
+
+    static MemorySegment CSLSetNameValue(MemorySegment strings, MemorySegment name, MemorySegment value) {
+        return GdalNative.invokeAddress(CSL_SET_NAME_VALUE, strings, name, value);
+    }
+}
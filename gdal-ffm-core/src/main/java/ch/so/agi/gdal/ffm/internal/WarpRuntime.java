@@ -0,0 +1,293 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import ch.so.agi.gdal.ffm.BoundingBox;
+import ch.so.agi.gdal.ffm.DatasetRef;
+import ch.so.agi.gdal.ffm.GdalConfig;
+import ch.so.agi.gdal.ffm.RasterBandMetadata;
+import ch.so.agi.gdal.ffm.RasterDataset;
+import ch.so.agi.gdal.ffm.RasterResampling;
+import ch.so.agi.gdal.ffm.WarpSession;
+import ch.so.agi.gdal.ffm.generated.GdalGenerated;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.ValueLayout;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalDouble;
+
+public final class WarpRuntime {
+    private static final int CE_NONE = 0;
+    private static final String DRIVER_MEM = "MEM";
+    // Maximum error in source pixels of the approximating transformer, as used by gdalwarp.
+    private static final double APPROX_MAX_ERROR = 0.125;
+
+    // Leading fields of GDALWarpOptions (gdalwarper.h); only these are written, the rest keeps GDAL defaults.
+    private static final StructLayout WARP_OPTIONS = MemoryLayout.structLayout(
+            ValueLayout.ADDRESS.withName("papszWarpOptions"),
+            ValueLayout.JAVA_DOUBLE.withName("dfWarpMemoryLimit"),
+            ValueLayout.JAVA_INT.withName("eResampleAlg"),
+            ValueLayout.JAVA_INT.withName("eWorkingDataType"),
+            ValueLayout.ADDRESS.withName("hSrcDS"),
+            ValueLayout.ADDRESS.withName("hDstDS"),
+            ValueLayout.JAVA_INT.withName("nBandCount"),
+            MemoryLayout.paddingLayout(4),
+            ValueLayout.ADDRESS.withName("panSrcBands"),
+            ValueLayout.ADDRESS.withName("panDstBands"),
+            ValueLayout.JAVA_INT.withName("nSrcAlphaBand"),
+            ValueLayout.JAVA_INT.withName("nDstAlphaBand"),
+            ValueLayout.ADDRESS.withName("padfSrcNoDataReal"),
+            ValueLayout.ADDRESS.withName("padfSrcNoDataImag"),
+            ValueLayout.ADDRESS.withName("padfDstNoDataReal"),
+            ValueLayout.ADDRESS.withName("padfDstNoDataImag"),
+            ValueLayout.ADDRESS.withName("pfnProgress"),
+            ValueLayout.ADDRESS.withName("pProgressArg"),
+            ValueLayout.ADDRESS.withName("pfnTransformer"),
+            ValueLayout.ADDRESS.withName("pTransformerArg")
+    );
+    private static final long WARP_OPTIONS_OFFSET = offset("papszWarpOptions");
+    private static final long RESAMPLE_ALG_OFFSET = offset("eResampleAlg");
+    private static final long SRC_DS_OFFSET = offset("hSrcDS");
+    private static final long DST_DS_OFFSET = offset("hDstDS");
+    private static final long TRANSFORMER_OFFSET = offset("pfnTransformer");
+    private static final long TRANSFORMER_ARG_OFFSET = offset("pTransformerArg");
+
+    private WarpRuntime() {
+    }
+
+    public static WarpSession open(
+            DatasetRef source,
+            String targetCrs,
+            double resolution,
+            RasterResampling resampling,
+            GdalConfig config
+    ) {
+        Objects.requireNonNull(source, "source must not be null");
+        Objects.requireNonNull(targetCrs, "targetCrs must not be null");
+        Objects.requireNonNull(resampling, "resampling must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        if (targetCrs.isBlank()) {
+            throw new IllegalArgumentException("targetCrs must not be blank");
+        }
+        if (!(resolution > 0) || Double.isInfinite(resolution)) {
+            throw new IllegalArgumentException("resolution must be finite and > 0");
+        }
+        if (resampling == RasterResampling.GAUSS) {
+            throw new IllegalArgumentException("GAUSS resampling is not supported for warping");
+        }
+
+        RasterRuntime.NativeRasterDataset dataset =
+                (RasterRuntime.NativeRasterDataset) RasterRuntime.open(source, false, config);
+        NativeWarpSession session = new NativeWarpSession(dataset, targetCrs, resolution, resampling, config);
+        try {
+            session.initialize();
+            return session;
+        } catch (RuntimeException e) {
+            session.close();
+            throw e;
+        }
+    }
+
+    private static long offset(String field) {
+        return WARP_OPTIONS.byteOffset(MemoryLayout.PathElement.groupElement(field));
+    }
+
+    static final class NativeWarpSession implements WarpSession {
+        private final RasterRuntime.NativeRasterDataset source;
+        private final String targetCrs;
+        private final double resolution;
+        private final RasterResampling resampling;
+        private final GdalConfig config;
+        private final int bandCount;
+        private final int dataType;
+        private final OptionalDouble noDataValue;
+        private MemorySegment transformer = MemorySegment.NULL;
+        private MemorySegment approxTransformer = MemorySegment.NULL;
+        private MemorySegment warpOptions = MemorySegment.NULL;
+        private MemorySegment spatialReference = MemorySegment.NULL;
+        private boolean closed;
+
+        private NativeWarpSession(
+                RasterRuntime.NativeRasterDataset source,
+                String targetCrs,
+                double resolution,
+                RasterResampling resampling,
+                GdalConfig config
+        ) {
+            this.source = source;
+            this.targetCrs = targetCrs;
+            this.resolution = resolution;
+            this.resampling = resampling;
+            this.config = config;
+            this.bandCount = source.bandCount();
+            if (bandCount == 0) {
+                source.close();
+                throw new IllegalArgumentException("Source has no raster bands: " + source.identifier());
+            }
+            RasterBandMetadata first = source.metadata().bands().getFirst();
+            this.dataType = first.dataType().nativeCode();
+            this.noDataValue = first.noDataValue();
+        }
+
+        private void initialize() {
+            GdalGenerated.CPLErrorReset();
+            try (GdalConfigScope.ScopedConfigHandle ignored = GdalConfigScope.applyScoped(config);
+                 Arena arena = Arena.ofConfined()) {
+                spatialReference = SpatialReferences.fromUserInput(targetCrs);
+
+                MemorySegment options = CArgv.toCStringArray(new String[] {"DST_SRS=" + targetCrs}, arena);
+                transformer = WarpNative.GDALCreateGenImgProjTransformer2(source.handle(), MemorySegment.NULL, options);
+                if (CStrings.isNull(transformer)) {
+                    throw GdalErrors.lastError(
+                            "Failed to create transformer from " + source.identifier() + " to " + targetCrs
+                    );
+                }
+                approxTransformer = WarpNative.GDALCreateApproxTransformer(
+                        WarpNative.GDAL_GEN_IMG_PROJ_TRANSFORM,
+                        transformer,
+                        APPROX_MAX_ERROR
+                );
+                if (CStrings.isNull(approxTransformer)) {
+                    throw GdalErrors.lastError("Failed to create approximate transformer for " + targetCrs);
+                }
+                WarpNative.GDALApproxTransformerOwnsSubtransformer(approxTransformer, true);
+
+                MemorySegment created = WarpNative.GDALCreateWarpOptions();
+                if (CStrings.isNull(created)) {
+                    throw GdalErrors.lastError("Failed to create warp options");
+                }
+                warpOptions = created.reinterpret(WARP_OPTIONS.byteSize());
+                warpOptions.set(ValueLayout.JAVA_INT, RESAMPLE_ALG_OFFSET, resampling.nativeCode());
+                warpOptions.set(ValueLayout.ADDRESS, SRC_DS_OFFSET, source.handle());
+                warpOptions.set(ValueLayout.ADDRESS, TRANSFORMER_OFFSET, WarpNative.GDAL_APPROX_TRANSFORM);
+                warpOptions.set(ValueLayout.ADDRESS, TRANSFORMER_ARG_OFFSET, approxTransformer);
+                WarpNative.GDALWarpInitDefaultBandMapping(warpOptions, bandCount);
+                if (noDataValue.isPresent()) {
+                    WarpNative.GDALWarpInitSrcNoDataReal(warpOptions, noDataValue.getAsDouble());
+                    WarpNative.GDALWarpInitDstNoDataReal(warpOptions, noDataValue.getAsDouble());
+                }
+                MemorySegment warpOptionList = WarpNative.CSLSetNameValue(
+                        warpOptions.get(ValueLayout.ADDRESS, WARP_OPTIONS_OFFSET),
+                        arena.allocateFrom("INIT_DEST"),
+                        arena.allocateFrom(noDataValue.isPresent() ? "NO_DATA" : "0")
+                );
+                warpOptions.set(ValueLayout.ADDRESS, WARP_OPTIONS_OFFSET, warpOptionList);
+            }
+        }
+
+        @Override
+        public String targetCrs() {
+            return targetCrs;
+        }
+
+        @Override
+        public double resolution() {
+            return resolution;
+        }
+
+        @Override
+        public RasterResampling resampling() {
+            return resampling;
+        }
+
+        @Override
+        public synchronized RasterDataset warp(BoundingBox bounds) {
+            Objects.requireNonNull(bounds, "bounds must not be null");
+            if (closed) {
+                throw new IllegalStateException("Warp session is closed: " + source.identifier());
+            }
+            int width = pixels(bounds.width());
+            int height = pixels(bounds.height());
+            double[] geoTransform = {bounds.minX(), resolution, 0, bounds.maxY(), 0, -resolution};
+
+            GdalGenerated.CPLErrorReset();
+            try (CpuBudget.Lease lease = CpuBudget.acquire(CpuBudget.requestedThreads(
+                         config.options(), List.of(), Runtime.getRuntime().availableProcessors()));
+                 GdalConfigScope.ScopedConfigHandle ignored =
+                         GdalConfigScope.applyScoped(CpuBudget.limitConfig(config, lease.threads()));
+                 Arena arena = Arena.ofConfined()) {
+                MemorySegment handle = RasterNative.GDALCreate(
+                        GdalRuntime.resolveRasterDriver(DRIVER_MEM, arena),
+                        arena.allocateFrom(""),
+                        width,
+                        height,
+                        bandCount,
+                        dataType,
+                        MemorySegment.NULL
+                );
+                if (CStrings.isNull(handle)) {
+                    throw GdalErrors.lastError("Failed to create in-memory warp target");
+                }
+                RasterRuntime.NativeRasterDataset target = RasterRuntime.wrap(DRIVER_MEM, handle, true);
+                try {
+                    MemorySegment transform = arena.allocateFrom(ValueLayout.JAVA_DOUBLE, geoTransform);
+                    if (RasterNative.GDALSetGeoTransform(handle, transform) != CE_NONE
+                            || RasterNative.GDALSetSpatialRef(handle, spatialReference) != CE_NONE) {
+                        throw GdalErrors.lastError("Failed to georeference in-memory warp target");
+                    }
+                    if (noDataValue.isPresent()) {
+                        for (int bandNumber = 1; bandNumber <= bandCount; bandNumber++) {
+                            RasterNative.GDALSetRasterNoDataValue(
+                                    RasterNative.GDALGetRasterBand(handle, bandNumber),
+                                    noDataValue.getAsDouble()
+                            );
+                        }
+                    }
+                    run(handle, transform, width, height);
+                    return target;
+                } catch (RuntimeException e) {
+                    target.close();
+                    throw e;
+                }
+            }
+        }
+
+        private void run(MemorySegment target, MemorySegment geoTransform, int width, int height) {
+            WarpNative.GDALSetGenImgProjTransformerDstGeoTransform(transformer, geoTransform);
+            warpOptions.set(ValueLayout.ADDRESS, DST_DS_OFFSET, target);
+            MemorySegment operation = MemorySegment.NULL;
+            try {
+                operation = WarpNative.GDALCreateWarpOperation(warpOptions);
+                if (CStrings.isNull(operation)) {
+                    throw GdalErrors.lastError("Failed to create warp operation for " + source.identifier());
+                }
+                if (WarpNative.GDALChunkAndWarpImage(operation, 0, 0, width, height) != CE_NONE) {
+                    throw GdalErrors.lastError("Failed to warp " + source.identifier() + " to " + targetCrs);
+                }
+            } finally {
+                if (!CStrings.isNull(operation)) {
+                    WarpNative.GDALDestroyWarpOperation(operation);
+                }
+                warpOptions.set(ValueLayout.ADDRESS, DST_DS_OFFSET, MemorySegment.NULL);
+            }
+        }
+
+        private int pixels(double extent) {
+            long pixels = (long) Math.ceil(extent / resolution - 1e-6);
+            if (pixels <= 0 || pixels > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Window must span between 1 and " + Integer.MAX_VALUE + " pixels");
+            }
+            return (int) pixels;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            // Warp options do not own the transformer; the approximate transformer owns the image transformer.
+            if (!CStrings.isNull(warpOptions)) {
+                WarpNative.GDALDestroyWarpOptions(warpOptions);
+            }
+            if (!CStrings.isNull(approxTransformer)) {
+                WarpNative.GDALDestroyTransformer(approxTransformer);
+            } else if (!CStrings.isNull(transformer)) {
+                WarpNative.GDALDestroyTransformer(transformer);
+            }
+            SpatialReferences.release(spatialReference);
+            source.close();
+        }
+    }
+}
@@ -1,4 +1,5 @@
 module ch.so.agi.gdal.ffm {
     requires java.xml;
+    requires static jdk.incubator.vector;
     exports ch.so.agi.gdal.ffm;
 }
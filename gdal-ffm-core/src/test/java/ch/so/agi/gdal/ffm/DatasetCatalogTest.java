@@ -0,0 +1,98 @@
+package ch.so.agi.gdal.ffm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DatasetCatalogTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void skipsSidecarFiles() throws Exception {
+        assertTrue(DatasetCatalog.isSidecar(tempDir.resolve("ortho.tif.aux.xml")));
+        assertTrue(DatasetCatalog.isSidecar(tempDir.resolve("ortho.tif.ovr")));
+        assertTrue(DatasetCatalog.isSidecar(tempDir.resolve("roads.SHX")));
+        assertTrue(DatasetCatalog.isSidecar(tempDir.resolve("data.gpkg-wal")));
+        assertFalse(DatasetCatalog.isSidecar(tempDir.resolve("ortho.tif")));
+        assertFalse(DatasetCatalog.isSidecar(tempDir.resolve("roads.shp")));
+    }
+
+    @Test
+    void treatsDbfAsSidecarOnlyNextToShapefile() throws Exception {
+        Files.createFile(tempDir.resolve("roads.shp"));
+        Files.createFile(tempDir.resolve("roads.dbf"));
+        Files.createFile(tempDir.resolve("table.dbf"));
+
+        assertTrue(DatasetCatalog.isSidecar(tempDir.resolve("roads.dbf")));
+        assertFalse(DatasetCatalog.isSidecar(tempDir.resolve("table.dbf")));
+    }
+
+    @Test
+    void walksDirectoriesDepthFirstInNameOrder() throws Exception {
+        Files.createDirectories(tempDir.resolve("b/inner"));
+        Files.createDirectories(tempDir.resolve("a"));
+        Files.createFile(tempDir.resolve("c.tif"));
+        Files.createFile(tempDir.resolve("b/inner/z.tif"));
+        Files.createFile(tempDir.resolve("b/a.tif"));
+        Files.createFile(tempDir.resolve("a/x.tif"));
+
+        List<Path> walked = new ArrayList<>();
+        DatasetCatalog.walk(tempDir).forEachRemaining(path -> walked.add(tempDir.relativize(path)));
+
+        assertEquals(List.of(
+                Path.of("a"),
+                Path.of("a/x.tif"),
+                Path.of("b"),
+                Path.of("b/a.tif"),
+                Path.of("b/inner"),
+                Path.of("b/inner/z.tif"),
+                Path.of("c.tif")
+        ), walked);
+    }
+
+    @Test
+    void leavesExtentOfDegenerateGeoTransformEmpty() {
+        assertNull(RasterMetadata.extentOf(new double[] {0, 0, 0, 0, 0, -1}, 10, 10));
+        assertNull(RasterMetadata.extentOf(new double[] {0, 1, 0, Double.NaN, 0, -1}, 10, 10));
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> DatasetCatalog.scan(List.of(), 0));
+        assertThrows(IllegalArgumentException.class, () -> DatasetCatalog.scan(tempDir.resolve("missing"), 1));
+    }
+
+    @Test
+    void computesRasterExtentFromGeoTransform() {
+        double[] geoTransform = {2600000.0, 0.5, 0.0, 1200000.0, 0.0, -0.5};
+
+        BoundingBox extent = RasterMetadata.extentOf(geoTransform, 200, 100);
+
+        assertEquals(new BoundingBox(2600000.0, 1199950.0, 2600100.0, 1200000.0), extent);
+    }
+
+    @Test
+    void mapsRasterDataTypeCodes() {
+        assertEquals(RasterDataType.FLOAT32, RasterDataType.fromNativeCode(6));
+        assertEquals(4, RasterDataType.FLOAT32.sizeBytes());
+        assertEquals(RasterDataType.UNKNOWN, RasterDataType.fromNativeCode(99));
+        assertTrue(RasterDataType.CFLOAT64.isComplex());
+    }
+
+    @Test
+    void validatesBoundingBox() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundingBox(1, 0, 0, 1));
+        assertTrue(new BoundingBox(0, 0, 2, 2).intersects(new BoundingBox(1, 1, 3, 3)));
+        assertFalse(new BoundingBox(0, 0, 1, 1).intersects(new BoundingBox(2, 2, 3, 3)));
+    }
+}
@@ -0,0 +1,40 @@
+package ch.so.agi.gdal.ffm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class GdalBatchReportTest {
+    @Test
+    void aggregatesCountsAndThroughput() {
+        GdalBatchJob first = GdalBatchJob.of(Path.of("a.tif"), Path.of("a-cog.tif"));
+        GdalBatchJob second = GdalBatchJob.of(Path.of("b.tif"), Path.of("b-cog.tif"));
+        GdalBatchReport report = new GdalBatchReport(
+                List.of(
+                        new GdalBatchResult(0, first, Duration.ofMillis(1500), null),
+                        new GdalBatchResult(
+                                1,
+                                second,
+                                Duration.ofMillis(500),
+                                new IllegalStateException("Failed to open source dataset")
+                        )
+                ),
+                Duration.ofSeconds(1),
+                4096
+        );
+
+        assertEquals(2, report.jobCount());
+        assertEquals(1, report.succeededCount());
+        assertEquals(1, report.failedCount());
+        assertEquals(List.of(report.results().get(1)), report.failures());
+        assertEquals("Failed to open source dataset", report.failures().getFirst().failureMessage());
+        assertNull(report.results().getFirst().failureMessage());
+        assertEquals(Duration.ofSeconds(2), report.busyTime());
+        assertEquals(2.0, report.jobsPerSecond(), 1e-9);
+        assertEquals(4096.0, report.inputBytesPerSecond(), 1e-9);
+    }
+}
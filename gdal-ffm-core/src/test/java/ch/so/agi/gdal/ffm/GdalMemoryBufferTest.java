@@ -0,0 +1,31 @@
+package ch.so.agi.gdal.ffm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import org.junit.jupiter.api.Test;
+
+class GdalMemoryBufferTest {
+    @Test
+    void exposesReadOnlyViewsUntilClosed() {
+        Arena arena = Arena.ofShared();
+        MemorySegment bytes = arena.allocate(4);
+        bytes.copyFrom(MemorySegment.ofArray(new byte[] {1, 2, 3, 4}));
+        GdalMemoryBuffer buffer = new GdalMemoryBuffer(arena, bytes);
+
+        assertEquals(4, buffer.byteSize());
+        assertArrayEquals(new byte[] {1, 2, 3, 4}, buffer.toByteArray());
+        assertTrue(buffer.asByteBuffer().isReadOnly());
+        assertThrows(UnsupportedOperationException.class, () -> buffer.segment().set(ValueLayout.JAVA_BYTE, 0, (byte) 9));
+
+        buffer.close();
+        buffer.close();
+
+        assertThrows(IllegalStateException.class, buffer::toByteArray);
+    }
+}
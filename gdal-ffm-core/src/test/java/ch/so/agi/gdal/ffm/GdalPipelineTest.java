@@ -0,0 +1,63 @@
+package ch.so.agi.gdal.ffm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class GdalPipelineTest {
+    @Test
+    void buildsRasterPipelineArguments() {
+        GdalPipeline pipeline = GdalPipeline.readRaster(DatasetRef.gdalVsi("/vsimem/in.tif"))
+                .reproject("EPSG:2056", "--resampling", "bilinear")
+                .clip(new BoundingBox(2600000, 1200000, 2601000, 1201000))
+                .resize(256, 256);
+
+        assertEquals(
+                List.of(
+                        "read", "/vsimem/in.tif",
+                        "!", "reproject", "--dst-crs", "EPSG:2056", "--resampling", "bilinear",
+                        "!", "clip", "--bbox", "2600000.0,1200000.0,2601000.0,1201000.0",
+                        "!", "resize", "--size", "256,256",
+                        "!", "write", "/vsimem/out.tif", "--overwrite"
+                ),
+                pipeline.arguments(DatasetRef.gdalVsi("/vsimem/out.tif"), "--overwrite")
+        );
+        assertEquals(
+                "raster pipeline read /vsimem/in.tif ! reproject --dst-crs EPSG:2056 --resampling bilinear"
+                        + " ! clip --bbox 2600000.0,1200000.0,2601000.0,1201000.0 ! resize --size 256,256",
+                pipeline.toString()
+        );
+    }
+
+    @Test
+    void buildersAreImmutable() {
+        GdalPipeline read = GdalPipeline.readVector(DatasetRef.gdalVsi("/vsimem/in.gpkg"));
+        GdalPipeline filtered = read.filter("class = 'road'").select(List.of("id", "name"));
+
+        assertEquals(
+                List.of("read", "/vsimem/in.gpkg", "!", "write", "/vsimem/out.gpkg"),
+                read.arguments(DatasetRef.gdalVsi("/vsimem/out.gpkg"))
+        );
+        assertEquals(
+                List.of(
+                        "read", "/vsimem/in.gpkg",
+                        "!", "filter", "--where", "class = 'road'",
+                        "!", "select", "--fields", "id,name",
+                        "!", "write", "/vsimem/out.gpkg"
+                ),
+                filtered.arguments(DatasetRef.gdalVsi("/vsimem/out.gpkg"))
+        );
+    }
+
+    @Test
+    void rejectsInvalidSteps() {
+        GdalPipeline raster = GdalPipeline.readRaster(DatasetRef.gdalVsi("/vsimem/in.tif"));
+
+        assertThrows(IllegalStateException.class, () -> raster.filter("a = 1"));
+        assertThrows(IllegalArgumentException.class, () -> raster.step("write", "/vsimem/x.tif"));
+        assertThrows(IllegalArgumentException.class, () -> raster.step("edit", "!", "read"));
+        assertThrows(IllegalArgumentException.class, () -> raster.resize(0, 10));
+    }
+}
@@ -1,7 +1,9 @@
 package ch.so.agi.gdal.ffm;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
 import java.util.Map;
@@ -14,6 +16,7 @@ class OgrWriteApiTest {
         assertEquals(OgrWriteMode.FAIL_IF_EXISTS, OgrWriteMode.fromString("  "));
         assertEquals(OgrWriteMode.APPEND, OgrWriteMode.fromString("append"));
         assertEquals(OgrWriteMode.OVERWRITE, OgrWriteMode.fromString("OverWrite"));
+        assertEquals(OgrWriteMode.TRUNCATE, OgrWriteMode.fromString(" truncate "));
     }
 
     @Test
@@ -34,6 +37,40 @@ class OgrWriteApiTest {
         assertEquals(OgrWriteMode.APPEND, spec.writeMode());
     }
 
+    @Test
+    void defaultsToImmediateIndexCreation() {
+        OgrLayerWriteSpec spec = new OgrLayerWriteSpec("layer", 1, List.of());
+
+        assertFalse(spec.deferIndexCreation());
+        assertEquals(List.of(), spec.attributeIndexFields());
+    }
+
+    @Test
+    void copiesDeferredIndexSettings() {
+        OgrLayerWriteSpec spec = new OgrLayerWriteSpec("layer", 1, List.of())
+                .withDeferredIndexes(List.of("id"))
+                .withWriteMode(OgrWriteMode.OVERWRITE);
+
+        assertTrue(spec.deferIndexCreation());
+        assertEquals(List.of("id"), spec.attributeIndexFields());
+        assertEquals(OgrWriteMode.OVERWRITE, spec.writeMode());
+    }
+
+    @Test
+    void rejectsBlankAttributeIndexField() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new OgrLayerWriteSpec("layer", 1, List.of()).withDeferredIndexes(List.of(" ")));
+    }
+
+    @Test
+    void defaultsAndValidatesTransactionBatchSize() {
+        OgrLayerWriteSpec spec = new OgrLayerWriteSpec("layer", 1, List.of());
+
+        assertEquals(OgrLayerWriteSpec.DEFAULT_TRANSACTION_BATCH_SIZE, spec.transactionBatchSize());
+        assertEquals(10_000, spec.withTransactionBatchSize(10_000).transactionBatchSize());
+        assertThrows(IllegalArgumentException.class, () -> spec.withTransactionBatchSize(-1));
+    }
+
     @Test
     void rejectsBlankLayerName() {
         assertThrows(IllegalArgumentException.class, () ->
@@ -0,0 +1,117 @@
+package ch.so.agi.gdal.ffm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class PartitionedOgrWriterTest {
+    @Test
+    void partitionsByAttributeValue() {
+        Function<OgrFeature, String> key = PartitionedOgrWriter.byAttribute("bfs_nr");
+        Map<String, Object> withNull = new HashMap<>();
+        withNull.put("bfs_nr", null);
+
+        assertEquals("2601", key.apply(new OgrFeature(1, Map.of("bfs_nr", 2601), null)));
+        assertEquals("_null", key.apply(new OgrFeature(2, withNull, null)));
+        assertEquals("_null", key.apply(new OgrFeature(3, Map.of(), null)));
+    }
+
+    @Test
+    void partitionsByGridCellOfEnvelopeCenter() {
+        Function<OgrFeature, String> key = PartitionedOgrWriter.byGridCell(2_600_000, 1_200_000, 1000);
+
+        OgrGeometry point = OgrGeometry.fromWkb(pointWkb(2_601_500, 1_199_500), 2056);
+        assertEquals("1_-1", key.apply(new OgrFeature(1, Map.of(), point)));
+
+        OgrGeometry line = OgrGeometry.fromWkb(lineWkb(2_600_100, 1_200_100, 2_602_100, 1_200_300));
+        assertEquals("1_0", key.apply(new OgrFeature(2, Map.of(), line)));
+
+        assertEquals("_null", key.apply(new OgrFeature(3, Map.of(), null)));
+    }
+
+    @Test
+    void rejectsInvalidGridCellSize() {
+        assertThrows(IllegalArgumentException.class, () -> PartitionedOgrWriter.byGridCell(0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> PartitionedOgrWriter.byGridCell(0, 0, Double.NaN));
+    }
+
+    @Test
+    void computesEnvelopeOfMultiGeometry() {
+        ByteBuffer buffer = ByteBuffer.allocate(9 + 21 + 21).order(ByteOrder.BIG_ENDIAN);
+        buffer.put((byte) 0).putInt(4).putInt(2);
+        buffer.put(pointWkb(1, 5)).put(pointWkb(3, -2));
+
+        assertArrayEquals(new double[] {1, -2, 3, 5}, WkbEnvelope.of(buffer.array()));
+    }
+
+    @Test
+    void returnsNoEnvelopeForEmptyPoint() {
+        assertNull(WkbEnvelope.of(pointWkb(Double.NaN, Double.NaN)));
+    }
+
+    @Test
+    void sanitizesPartitionFileNames() {
+        assertEquals("Biel_Bienne", PartitionedOgrWriter.sanitizeFileName("Biel_Bienne"));
+        assertTrue(PartitionedOgrWriter.sanitizeFileName("Biel/Bienne").startsWith("Biel_Bienne-"));
+        assertTrue(PartitionedOgrWriter.sanitizeFileName("..").startsWith("_..-"));
+        assertTrue(PartitionedOgrWriter.sanitizeFileName("").startsWith("_-"));
+    }
+
+    @Test
+    void keysThatSanitizeAlikeGetDistinctFileNames() {
+        assertNotEquals(
+                PartitionedOgrWriter.sanitizeFileName("Biel/Bienne"),
+                PartitionedOgrWriter.sanitizeFileName("Biel_Bienne")
+        );
+        assertNotEquals(
+                PartitionedOgrWriter.sanitizeFileName("Zürich"),
+                PartitionedOgrWriter.sanitizeFileName("Z?rich")
+        );
+    }
+
+    @Test
+    void rejectsTwoPartitionsResolvingToTheSameTarget() {
+        Map<String, String> claimed = new HashMap<>();
+        PartitionedOgrWriter.claimTarget(claimed, "a", DatasetRef.local(Path.of("out", "A.gpkg")));
+        PartitionedOgrWriter.claimTarget(claimed, "a", DatasetRef.local(Path.of("out", "A.gpkg")));
+
+        assertThrows(
+                IllegalStateException.class,
+                () -> PartitionedOgrWriter.claimTarget(claimed, "b", DatasetRef.local(Path.of("out", "a.gpkg")))
+        );
+    }
+
+    private static byte[] pointWkb(double x, double y) {
+        return ByteBuffer.allocate(21)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .put((byte) 1)
+                .putInt(1)
+                .putDouble(x)
+                .putDouble(y)
+                .array();
+    }
+
+    private static byte[] lineWkb(double x1, double y1, double x2, double y2) {
+        return ByteBuffer.allocate(41)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .put((byte) 1)
+                .putInt(2)
+                .putInt(2)
+                .putDouble(x1)
+                .putDouble(y1)
+                .putDouble(x2)
+                .putDouble(y2)
+                .array();
+    }
+}
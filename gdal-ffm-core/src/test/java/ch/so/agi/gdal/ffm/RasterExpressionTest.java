@@ -0,0 +1,86 @@
+package ch.so.agi.gdal.ffm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import ch.so.agi.gdal.ffm.internal.BandMathKernels;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class RasterExpressionTest {
+    @Test
+    void evaluatesNormalizedDifference() {
+        RasterExpression expression = RasterExpression.parse("(A - B) / (A + B)");
+        float[] a = {3f, 1f, Float.NaN};
+        float[] b = {1f, 1f, 2f};
+
+        float[] result = expression.evaluate(Map.of("A", a, "B", b), 3);
+
+        assertEquals(List.of("A", "B"), List.copyOf(expression.variables()));
+        assertArrayEquals(new float[] {0.5f, 0f, Float.NaN}, result);
+        assertArrayEquals(new float[] {3f, 1f, Float.NaN}, a);
+    }
+
+    @Test
+    void honoursPrecedenceComparisonsAndFunctions() {
+        Map<String, float[]> inputs = Map.of("nir", new float[] {1f, 4f, 9f, -16f});
+
+        assertArrayEquals(
+                new float[] {-1f, 5f, 15f, -35f},
+                RasterExpression.parse("nir * 2 - 3").evaluate(inputs, 4)
+        );
+        assertArrayEquals(
+                new float[] {0f, 1f, 1f, 0f},
+                RasterExpression.parse("nir >= 2 * 2").evaluate(inputs, 4)
+        );
+        assertArrayEquals(
+                new float[] {1f, 2f, 3f, 4f},
+                RasterExpression.parse("sqrt(abs(nir))").evaluate(inputs, 4)
+        );
+        assertArrayEquals(
+                new float[] {2f, 4f, 5f, 2f},
+                RasterExpression.parse("max(2, min(nir, 5))").evaluate(inputs, 4)
+        );
+        assertArrayEquals(
+                new float[] {0f, 4f, 9f, 0f},
+                RasterExpression.parse("where(nir > 1, nir, 0)").evaluate(inputs, 4)
+        );
+        assertArrayEquals(
+                new float[] {10f, 20f, Float.NaN, -1f},
+                RasterExpression.parse("reclass(nir, 0, 2, 10, 2, 5, 20, -100, 0, -1)").evaluate(inputs, 4)
+        );
+    }
+
+    @Test
+    void scalarAndBestKernelsAgree() {
+        RasterExpression expression = RasterExpression.parse("where(A > B, (A - B) / (A + B), -A)");
+        float[] a = new float[101];
+        float[] b = new float[101];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i * 0.5f;
+            b[i] = 25f - i * 0.25f;
+        }
+        Map<String, float[]> inputs = Map.of("A", a, "B", b);
+
+        assertArrayEquals(
+                expression.evaluate(inputs, a.length, BandMathKernels.scalar()),
+                expression.evaluate(inputs, a.length, BandMathKernels.best()),
+                1e-6f
+        );
+    }
+
+    @Test
+    void rejectsInvalidExpressionsAndMissingInputs() {
+        assertThrows(IllegalArgumentException.class, () -> RasterExpression.parse("A +"));
+        assertThrows(IllegalArgumentException.class, () -> RasterExpression.parse("(A - B"));
+        assertThrows(IllegalArgumentException.class, () -> RasterExpression.parse("log(A)"));
+        assertThrows(IllegalArgumentException.class, () -> RasterExpression.parse("min(A)"));
+        assertThrows(IllegalArgumentException.class, () -> RasterExpression.parse("reclass(A, 0, B, 1)"));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> RasterExpression.parse("A + B").evaluate(Map.of("A", new float[2]), 2)
+        );
+    }
+}
@@ -0,0 +1,40 @@
+package ch.so.agi.gdal.ffm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RasterHistogramTest {
+    @Test
+    void exposesBucketGeometryAndTotals() {
+        long[] counts = {1, 2, 3, 4};
+        RasterHistogram histogram = new RasterHistogram(0, 8, counts, false);
+        counts[0] = 100;
+
+        assertEquals(4, histogram.bucketCount());
+        assertEquals(2.0, histogram.bucketWidth());
+        assertEquals(10, histogram.totalCount());
+        assertArrayEquals(new long[] {1, 2, 3, 4}, histogram.counts());
+    }
+
+    @Test
+    void comparesCountsByValue() {
+        RasterHistogram histogram = new RasterHistogram(0, 8, new long[] {1, 2}, true);
+        RasterHistogram same = new RasterHistogram(0, 8, new long[] {1, 2}, true);
+
+        assertEquals(histogram, same);
+        assertEquals(histogram.hashCode(), same.hashCode());
+        assertNotEquals(histogram, new RasterHistogram(0, 8, new long[] {1, 3}, true));
+        assertTrue(histogram.toString().contains("counts=[1, 2]"));
+    }
+
+    @Test
+    void rejectsEmptyOrInvertedRange() {
+        assertThrows(IllegalArgumentException.class, () -> new RasterHistogram(0, 1, new long[0], false));
+        assertThrows(IllegalArgumentException.class, () -> new RasterHistogram(1, 1, new long[] {1}, false));
+    }
+}
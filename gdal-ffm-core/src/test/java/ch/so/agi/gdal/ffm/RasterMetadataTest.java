@@ -0,0 +1,38 @@
+package ch.so.agi.gdal.ffm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.OptionalDouble;
+import org.junit.jupiter.api.Test;
+
+class RasterMetadataTest {
+    @Test
+    void copiesAndComparesGeoTransformByValue() {
+        double[] transform = {0, 1, 0, 10, 0, -1};
+        RasterMetadata metadata = metadata(transform);
+        transform[1] = 5;
+
+        assertArrayEquals(new double[] {0, 1, 0, 10, 0, -1}, metadata.geoTransform());
+        assertEquals(metadata, metadata(new double[] {0, 1, 0, 10, 0, -1}));
+        assertEquals(metadata.hashCode(), metadata(new double[] {0, 1, 0, 10, 0, -1}).hashCode());
+        assertNotEquals(metadata, metadata(new double[] {0, 2, 0, 10, 0, -2}));
+        assertTrue(metadata.toString().contains("geoTransform=[0.0, 1.0, 0.0, 10.0, 0.0, -1.0]"));
+    }
+
+    private static RasterMetadata metadata(double[] geoTransform) {
+        RasterBandMetadata band = new RasterBandMetadata(1, RasterDataType.BYTE, 10, 10, 0, OptionalDouble.empty());
+        return new RasterMetadata(
+                10,
+                10,
+                List.of(band),
+                geoTransform,
+                RasterMetadata.extentOf(geoTransform, 10, 10),
+                "EPSG:2056",
+                null
+        );
+    }
+}
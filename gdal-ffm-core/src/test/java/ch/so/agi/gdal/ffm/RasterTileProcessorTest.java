@@ -0,0 +1,31 @@
+package ch.so.agi.gdal.ffm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RasterTileProcessorTest {
+    @Test
+    void tilesFollowBlockGridInRowMajorOrder() {
+        List<RasterTile> tiles = new ArrayList<>();
+        RasterTileProcessor.tiles(1, 10, 7, 4, 4).forEach(tiles::add);
+
+        assertEquals(6, tiles.size());
+        assertEquals(new RasterTile(1, 0, 0, new RasterWindow(0, 0, 4, 4)), tiles.get(0));
+        assertEquals(new RasterTile(1, 2, 0, new RasterWindow(8, 0, 2, 4)), tiles.get(2));
+        assertEquals(new RasterTile(1, 0, 1, new RasterWindow(0, 4, 4, 3)), tiles.get(3));
+        assertEquals(new RasterTile(1, 2, 1, new RasterWindow(8, 4, 2, 3)), tiles.get(5));
+    }
+
+    @Test
+    void rejectsInvalidThreadCount() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> RasterTileProcessor.process(DatasetRef.local(Path.of("x.tif")), 1, 0, (d, t) -> t)
+        );
+    }
+}
@@ -0,0 +1,37 @@
+package ch.so.agi.gdal.ffm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RasterWindowTest {
+    @Test
+    void rejectsInvalidWindows() {
+        assertThrows(IllegalArgumentException.class, () -> new RasterWindow(-1, 0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RasterWindow(0, 0, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RasterWindow(0, 0, 1, -3));
+    }
+
+    @Test
+    void checksBoundsAgainstBandSize() {
+        RasterWindow window = new RasterWindow(2, 3, 4, 5);
+
+        assertEquals(20, window.pixelCount());
+        assertTrue(window.fitsWithin(6, 8));
+        assertFalse(window.fitsWithin(5, 8));
+        assertFalse(window.fitsWithin(6, 7));
+    }
+
+    @Test
+    void clipsEdgeBlocksToRasterSize() {
+        assertEquals(3, RasterWindow.blockCount(10, 4));
+        assertEquals(2, RasterWindow.blockCount(7, 4));
+        assertEquals(2, RasterWindow.blockCount(8, 4));
+        assertEquals(new RasterWindow(0, 0, 4, 4), RasterWindow.ofBlock(10, 7, 4, 4, 0, 0));
+        assertEquals(new RasterWindow(8, 4, 2, 3), RasterWindow.ofBlock(10, 7, 4, 4, 2, 1));
+        assertThrows(IllegalArgumentException.class, () -> RasterWindow.ofBlock(10, 7, 4, 4, 3, 0));
+    }
+}
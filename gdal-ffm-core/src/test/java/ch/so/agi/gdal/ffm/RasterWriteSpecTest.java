@@ -0,0 +1,67 @@
+package ch.so.agi.gdal.ffm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class RasterWriteSpecTest {
+    @Test
+    void defaultsLeaveDriverLayoutUntouched() {
+        RasterWriteSpec spec = new RasterWriteSpec(" GTiff ", 10, 20, 3, RasterDataType.UINT16);
+
+        assertEquals("GTiff", spec.driverShortName());
+        assertEquals(0, spec.blockWidth());
+        assertEquals(0, spec.compressionThreads());
+        assertEquals(RasterWriteSpec.DEFAULT_OVERVIEW_RESAMPLING, spec.overviewResampling());
+        assertNull(spec.geoTransform());
+        assertNull(spec.cogTarget());
+    }
+
+    @Test
+    void copiesGeoTransformDefensively() {
+        double[] transform = {2600000, 1, 0, 1200000, 0, -1};
+        RasterWriteSpec spec = new RasterWriteSpec("MEM", 10, 10, 1, RasterDataType.BYTE)
+                .withGeoreference(transform, "EPSG:2056");
+        transform[0] = 0;
+
+        assertArrayEquals(new double[] {2600000, 1, 0, 1200000, 0, -1}, spec.geoTransform());
+        assertEquals("EPSG:2056", spec.crs());
+    }
+
+    @Test
+    void comparesGeoTransformByValue() {
+        RasterWriteSpec spec = new RasterWriteSpec("MEM", 10, 10, 1, RasterDataType.BYTE)
+                .withGeoreference(new double[] {0, 1, 0, 10, 0, -1}, "EPSG:2056");
+        RasterWriteSpec same = new RasterWriteSpec("MEM", 10, 10, 1, RasterDataType.BYTE)
+                .withGeoreference(new double[] {0, 1, 0, 10, 0, -1}, "EPSG:2056");
+
+        assertEquals(spec, same);
+        assertEquals(spec.hashCode(), same.hashCode());
+        assertNotEquals(spec, same.withGeoreference(new double[] {0, 2, 0, 10, 0, -2}, "EPSG:2056"));
+        assertTrue(spec.toString().contains("geoTransform=[0.0, 1.0, 0.0, 10.0, 0.0, -1.0]"));
+    }
+
+    @Test
+    void rejectsInvalidValues() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new RasterWriteSpec("GTiff", 0, 10, 1, RasterDataType.BYTE)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new RasterWriteSpec("GTiff", 10, 10, 1, RasterDataType.UNKNOWN)
+        );
+        RasterWriteSpec spec = new RasterWriteSpec("GTiff", 10, 10, 1, RasterDataType.BYTE);
+        assertThrows(IllegalArgumentException.class, () -> spec.withGeoreference(new double[4], null));
+        assertThrows(IllegalArgumentException.class, () -> spec.withOverviews("NEAREST", List.of(1)));
+        assertThrows(IllegalArgumentException.class, () -> spec.withCompressionThreads(-1));
+        assertThrows(NullPointerException.class, () -> spec.withCogCopy(null, Map.of()));
+    }
+}
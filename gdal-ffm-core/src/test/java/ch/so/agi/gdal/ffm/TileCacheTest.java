@@ -0,0 +1,55 @@
+package ch.so.agi.gdal.ffm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+
+class TileCacheTest {
+    @Test
+    void evictsLeastRecentlyUsedTiles() {
+        TileCache cache = new TileCache(8);
+        TileCache.Key first = new TileCache.Key(0, 0, 0);
+        TileCache.Key second = new TileCache.Key(1, 0, 0);
+        TileCache.Key third = new TileCache.Key(1, 1, 0);
+
+        cache.put(first, Arena.ofAuto().allocate(4));
+        cache.put(second, MemorySegment.ofArray(new byte[] {1, 2, 3, 4}));
+        cache.get(first);
+        cache.put(third, MemorySegment.ofArray(new byte[] {5, 6, 7, 8}));
+
+        assertEquals(2, cache.size());
+        assertEquals(8, cache.sizeBytes());
+        assertNull(cache.get(second));
+        assertEquals(4, cache.get(first).remaining());
+
+        cache.put(second, Arena.ofAuto().allocate(16));
+        assertEquals(2, cache.size());
+        assertNull(cache.get(second));
+
+        cache.clear();
+        assertEquals(0, cache.sizeBytes());
+        assertNull(cache.get(first));
+    }
+
+    @Test
+    void returnsReadOnlyViewsThatOutliveEviction() {
+        TileCache cache = new TileCache(4);
+        TileCache.Key first = new TileCache.Key(0, 0, 0);
+        MemorySegment bytes = Arena.ofAuto().allocate(4);
+        bytes.set(ValueLayout.JAVA_BYTE, 0, (byte) 7);
+        cache.put(first, bytes);
+
+        ByteBuffer view = cache.get(first);
+        cache.put(new TileCache.Key(1, 0, 0), Arena.ofAuto().allocate(4));
+
+        assertNull(cache.get(first));
+        assertTrue(view.isReadOnly());
+        assertEquals(7, view.get(0));
+    }
+}
@@ -0,0 +1,45 @@
+package ch.so.agi.gdal.ffm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TileMatrixSetTest {
+    @Test
+    void webMercatorTilesSplitTheWorldPerZoom() {
+        TileMatrixSet grid = TileMatrixSet.webMercatorQuad();
+
+        assertEquals(25, grid.zoomLevels());
+        assertEquals(156543.03392804097, grid.resolution(0), 1e-6);
+        BoundingBox world = grid.tileBounds(0, 0, 0);
+        assertEquals(-20037508.342789244, world.minX(), 1e-6);
+        assertEquals(20037508.342789244, world.maxY(), 1e-6);
+        BoundingBox southEast = grid.tileBounds(1, 1, 1);
+        assertEquals(0, southEast.minX(), 1e-6);
+        assertEquals(-20037508.342789244, southEast.minY(), 1e-6);
+    }
+
+    @Test
+    void swissGridRowsCountDownFromTheOrigin() {
+        TileMatrixSet grid = TileMatrixSet.swissLv95();
+
+        assertEquals("EPSG:2056", grid.crs());
+        assertEquals(new BoundingBox(2599968, 1199984, 2600224, 1200240), grid.tileBounds(25, 703, 585));
+        assertThrows(IllegalArgumentException.class, () -> grid.resolution(29));
+        assertThrows(IllegalArgumentException.class, () -> grid.tileBounds(0, -1, 0));
+    }
+
+    @Test
+    void rejectsInvalidResolutions() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new TileMatrixSet("bad", "EPSG:2056", 0, 0, 256, 256, List.of(1.0, 0.0))
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new TileMatrixSet("bad", "EPSG:2056", 0, 0, 256, 256, List.of())
+        );
+    }
+}
@@ -0,0 +1,46 @@
+package ch.so.agi.gdal.ffm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TileRendererTest {
+    private static final DriverCapabilities PNG = raster("PNG", List.of("png"));
+    private static final DriverCapabilities JPEG = raster("JPEG", List.of("jpg", "jpeg"));
+    private static final List<DriverCapabilities> DRIVERS = List.of(PNG, JPEG);
+
+    @Test
+    void resolvesOutputFormatByShortNameOrExtension() {
+        assertEquals(PNG, TileRenderer.resolveDriver("png", DRIVERS).orElseThrow());
+        assertEquals(JPEG, TileRenderer.resolveDriver("JPEG", DRIVERS).orElseThrow());
+        assertEquals(JPEG, TileRenderer.resolveDriver("JPG", DRIVERS).orElseThrow());
+        assertEquals(JPEG, TileRenderer.resolveDriver("jfif", DRIVERS).orElseThrow());
+        assertTrue(TileRenderer.resolveDriver("WEBP", DRIVERS).isEmpty());
+    }
+
+    @Test
+    void onlyJpegDropsTheAlphaBand() {
+        assertTrue(TileRenderer.supportsAlpha(PNG));
+        assertFalse(TileRenderer.supportsAlpha(JPEG));
+    }
+
+    private static DriverCapabilities raster(String shortName, List<String> extensions) {
+        return new DriverCapabilities(
+                shortName,
+                shortName,
+                extensions,
+                false,
+                true,
+                true,
+                true,
+                false,
+                false,
+                false,
+                true,
+                List.of()
+        );
+    }
+}
@@ -0,0 +1,96 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class BandMathKernelsTest {
+    // Not a multiple of any vector length, so the scalar tail runs as well.
+    private static final int LENGTH = 1_037;
+
+    private final BandMathKernels scalar = BandMathKernels.scalar();
+    private final BandMathKernels best = BandMathKernels.best();
+
+    @Test
+    void binaryKernelsMatchScalarResults() {
+        float[] left = values(1);
+        float[] right = values(2);
+        for (BandMathKernels.BinaryOp op : BandMathKernels.BinaryOp.values()) {
+            float[] expected = new float[LENGTH];
+            float[] actual = new float[LENGTH];
+            scalar.binary(op, left, right, expected, LENGTH);
+            best.binary(op, left, right, actual, LENGTH);
+            assertArrayEquals(expected, actual, 1e-6f, op.name() + " on " + best.name());
+        }
+    }
+
+    @Test
+    void unaryKernelsMatchScalarResults() {
+        float[] operand = values(3);
+        for (BandMathKernels.UnaryOp op : BandMathKernels.UnaryOp.values()) {
+            float[] expected = new float[LENGTH];
+            float[] actual = new float[LENGTH];
+            scalar.unary(op, operand, expected, LENGTH);
+            best.unary(op, operand, actual, LENGTH);
+            assertArrayEquals(expected, actual, 1e-6f, op.name() + " on " + best.name());
+        }
+    }
+
+    @Test
+    void selectReclassAndNoDataMatchScalarResults() {
+        float[] condition = values(4);
+        float[] whenTrue = values(5);
+        float[] whenFalse = values(6);
+        float[] expected = new float[LENGTH];
+        float[] actual = new float[LENGTH];
+        scalar.select(condition, whenTrue, whenFalse, expected, LENGTH);
+        best.select(condition, whenTrue, whenFalse, actual, LENGTH);
+        assertArrayEquals(expected, actual);
+
+        float[] mins = {-100f, 0f, 0f};
+        float[] maxs = {0f, 50f, 100f};
+        float[] classes = {1f, 2f, 3f};
+        scalar.reclass(condition, mins, maxs, classes, expected, LENGTH);
+        best.reclass(condition, mins, maxs, classes, actual, LENGTH);
+        assertArrayEquals(expected, actual);
+
+        float[] masked = condition.clone();
+        masked[7] = -9999f;
+        masked[LENGTH - 1] = -9999f;
+        best.maskNoData(masked, -9999f, LENGTH);
+        assertEquals(Float.NaN, masked[7]);
+        assertEquals(Float.NaN, masked[LENGTH - 1]);
+        assertEquals(condition[8], masked[8]);
+    }
+
+    @Test
+    void scalarKernelsFollowDocumentedSemantics() {
+        float[] out = new float[4];
+        scalar.select(new float[] {1f, 0f, Float.NaN, -2f}, new float[] {10f, 10f, 10f, 10f},
+                new float[] {20f, 20f, 20f, 20f}, out, 4);
+        assertArrayEquals(new float[] {10f, 20f, 20f, 10f}, out);
+
+        scalar.reclass(new float[] {-1f, 0f, 5f, 10f}, new float[] {0f, 5f}, new float[] {5f, 10f},
+                new float[] {1f, 2f}, out, 4);
+        assertArrayEquals(new float[] {Float.NaN, 1f, 2f, Float.NaN}, out);
+
+        scalar.binary(BandMathKernels.BinaryOp.LESS, new float[] {1f, 2f, Float.NaN, 0f},
+                new float[] {2f, 2f, 1f, 0f}, out, 4);
+        assertArrayEquals(new float[] {1f, 0f, 0f, 0f}, out);
+    }
+
+    private static float[] values(long seed) {
+        Random random = new Random(seed);
+        float[] values = new float[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            values[i] = switch (i % 17) {
+                case 0 -> Float.NaN;
+                case 1 -> 0f;
+                default -> (random.nextFloat() - 0.5f) * 200f;
+            };
+        }
+        return values;
+    }
+}
@@ -0,0 +1,71 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import ch.so.agi.gdal.ffm.GdalConfig;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class CpuBudgetTest {
+    @Test
+    void readsRequestedThreadsFromOptionsArgsAndConfig() {
+        assertEquals(1, CpuBudget.requestedThreads(Map.of(), List.of("--of", "GTiff"), 16));
+        assertEquals(16, CpuBudget.requestedThreads(Map.of(), List.of("--co", "NUM_THREADS=ALL_CPUS"), 16));
+        assertEquals(6, CpuBudget.requestedThreads(Map.of(), List.of("--wo=num_threads=6"), 16));
+        assertEquals(4, CpuBudget.requestedThreads(Map.of(), List.of("--num-threads", "4"), 16));
+        assertEquals(3, CpuBudget.requestedThreads(Map.of(), List.of("--config", "GDAL_NUM_THREADS=3"), 16));
+        assertEquals(8, CpuBudget.requestedThreads(Map.of("GDAL_NUM_THREADS", "8"), List.of(), 16));
+        assertEquals(1, CpuBudget.requestedThreads(Map.of(), List.of("MY_NUM_THREADS=9"), 16));
+    }
+
+    @Test
+    void rewritesThreadSettingsToGrantedCount() {
+        assertEquals(
+                List.of("--co", "NUM_THREADS=2", "--wo=NUM_THREADS=2", "--num-threads", "2", "--num-threads=2", "-r"),
+                CpuBudget.limitArgs(
+                        List.of("--co", "NUM_THREADS=ALL_CPUS", "--wo=NUM_THREADS=8", "--num-threads", "8",
+                                "--num-threads=ALL_CPUS", "-r"),
+                        2
+                )
+        );
+        assertEquals(
+                List.of("--config", "GDAL_NUM_THREADS=2"),
+                CpuBudget.limitArgs(List.of("--config", "GDAL_NUM_THREADS=9"), 2)
+        );
+        GdalConfig config = GdalConfig.empty().withConfigOption("GDAL_NUM_THREADS", "ALL_CPUS");
+        assertEquals("2", CpuBudget.limitConfig(config, 2).options().get("GDAL_NUM_THREADS"));
+        assertEquals("2", CpuBudget.limitConfig(GdalConfig.empty(), 2).options().get("GDAL_NUM_THREADS"));
+    }
+
+    @Test
+    void leasesShareTheBudgetAndBlockWhenExhausted() throws Exception {
+        int previous = CpuBudget.total();
+        CpuBudget.configure(2);
+        try {
+            CompletableFuture<Integer> waiting;
+            try (CpuBudget.Lease lease = CpuBudget.acquire(8)) {
+                assertEquals(2, lease.threads());
+                try (CpuBudget.Lease nested = CpuBudget.acquire(1)) {
+                    assertEquals(2, nested.threads());
+                }
+                assertEquals(2, CpuBudget.inUse());
+
+                waiting = CompletableFuture.supplyAsync(() -> {
+                    try (CpuBudget.Lease other = CpuBudget.acquire(8)) {
+                        return other.threads();
+                    }
+                });
+                Thread.sleep(50);
+                assertFalse(waiting.isDone());
+            }
+            assertEquals(2, waiting.get(5, TimeUnit.SECONDS));
+            assertEquals(0, CpuBudget.inUse());
+        } finally {
+            CpuBudget.configure(previous);
+        }
+    }
+}
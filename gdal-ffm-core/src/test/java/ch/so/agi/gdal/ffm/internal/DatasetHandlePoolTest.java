@@ -0,0 +1,198 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.foreign.MemorySegment;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class DatasetHandlePoolTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong nextAddress = new AtomicLong(0x1000);
+    private final List<MemorySegment> closed = new ArrayList<>();
+
+    @Test
+    void reusesReleasedHandleForSameKey() {
+        DatasetHandlePool pool = pool(4, Duration.ofMinutes(1));
+
+        DatasetHandlePool.Lease first = pool.checkout(key("a.gpkg"), this::openHandle);
+        MemorySegment handle = first.handle();
+        first.release();
+        DatasetHandlePool.Lease second = pool.checkout(key("a.gpkg"), this::openHandle);
+
+        assertEquals(handle, second.handle());
+        assertEquals(1, pool.openHandleCount());
+        assertTrue(closed.isEmpty());
+    }
+
+    @Test
+    void keepsAttachmentWithReusedHandle() {
+        DatasetHandlePool pool = pool(4, Duration.ofMinutes(1));
+        Object metadata = new Object();
+
+        DatasetHandlePool.Lease first = pool.checkout(key("a.gpkg"), this::openHandle);
+        assertNull(first.attachment());
+        first.attach(metadata);
+        first.release();
+        DatasetHandlePool.Lease second = pool.checkout(key("a.gpkg"), this::openHandle);
+
+        assertSame(metadata, second.attachment());
+    }
+
+    @Test
+    void checksOutHandlesExclusively() {
+        DatasetHandlePool pool = pool(4, Duration.ofMinutes(1));
+
+        DatasetHandlePool.Lease first = pool.checkout(key("a.gpkg"), this::openHandle);
+        DatasetHandlePool.Lease second = pool.checkout(key("a.gpkg"), this::openHandle);
+
+        assertNotEquals(first.handle(), second.handle());
+        assertEquals(2, pool.openHandleCount());
+    }
+
+    @Test
+    void distinguishesKeysByOptionsAndConfig() {
+        DatasetHandlePool pool = pool(4, Duration.ofMinutes(1));
+        DatasetHandlePool.Lease plain = pool.checkout(key("a.gpkg"), this::openHandle);
+        MemorySegment plainHandle = plain.handle();
+        plain.release();
+
+        DatasetHandlePool.Key withConfig = new DatasetHandlePool.Key(
+                "a.gpkg", 4, List.of(), Map.of(), Map.of("GDAL_HTTP_TIMEOUT", "5"), 0L
+        );
+        DatasetHandlePool.Lease configured = pool.checkout(withConfig, this::openHandle);
+
+        assertNotEquals(plainHandle, configured.handle());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedIdleHandleAtBound() {
+        DatasetHandlePool pool = pool(2, Duration.ofMinutes(1));
+        DatasetHandlePool.Lease a = pool.checkout(key("a"), this::openHandle);
+        DatasetHandlePool.Lease b = pool.checkout(key("b"), this::openHandle);
+        MemorySegment handleA = a.handle();
+        a.release();
+        b.release();
+
+        pool.checkout(key("c"), this::openHandle);
+
+        assertEquals(List.of(handleA), closed);
+        assertEquals(2, pool.openHandleCount());
+        assertEquals(1, pool.idleHandleCount());
+    }
+
+    @Test
+    void closesHandlesAfterIdleTimeout() {
+        DatasetHandlePool pool = pool(4, Duration.ofSeconds(10));
+        DatasetHandlePool.Lease lease = pool.checkout(key("a"), this::openHandle);
+        MemorySegment handle = lease.handle();
+        lease.release();
+
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+        DatasetHandlePool.Lease next = pool.checkout(key("a"), this::openHandle);
+
+        assertEquals(List.of(handle), closed);
+        assertNotEquals(handle, next.handle());
+    }
+
+    @Test
+    void sweeperClosesExpiredHandlesWithoutFurtherPoolCalls() throws Exception {
+        CountDownLatch swept = new CountDownLatch(1);
+        DatasetHandlePool pool = new DatasetHandlePool(
+                4,
+                Duration.ofMillis(20),
+                Duration.ofSeconds(1),
+                System::nanoTime,
+                handle -> swept.countDown()
+        );
+        pool.checkout(key("a"), this::openHandle).release();
+
+        assertTrue(swept.await(10, TimeUnit.SECONDS));
+        assertEquals(0, pool.idleHandleCount());
+        assertEquals(0, pool.openHandleCount());
+    }
+
+    @Test
+    void failsWhenAllHandlesAreCheckedOut() {
+        DatasetHandlePool pool = new DatasetHandlePool(1, Duration.ofMinutes(1), Duration.ZERO, clock::get, closed::add);
+        pool.checkout(key("a"), this::openHandle);
+
+        assertThrows(IllegalStateException.class, () -> pool.checkout(key("b"), this::openHandle));
+    }
+
+    @Test
+    void invalidatedHandleIsClosedAndNotReused() {
+        DatasetHandlePool pool = pool(4, Duration.ofMinutes(1));
+        DatasetHandlePool.Lease lease = pool.checkout(key("a"), this::openHandle);
+        MemorySegment handle = lease.handle();
+
+        lease.invalidate();
+        lease.release();
+
+        assertEquals(List.of(handle), closed);
+        assertEquals(0, pool.openHandleCount());
+    }
+
+    @Test
+    void releasesSlotWhenOpenFails() {
+        DatasetHandlePool pool = pool(1, Duration.ofMinutes(1));
+
+        assertThrows(IllegalArgumentException.class, () -> pool.checkout(key("a"), () -> {
+            throw new IllegalArgumentException("boom");
+        }));
+        assertEquals(0, pool.openHandleCount());
+    }
+
+    @Test
+    void clearClosesIdleHandles() {
+        DatasetHandlePool pool = pool(4, Duration.ofMinutes(1));
+        DatasetHandlePool.Lease idle = pool.checkout(key("a"), this::openHandle);
+        DatasetHandlePool.Lease busy = pool.checkout(key("b"), this::openHandle);
+        idle.release();
+
+        pool.clear();
+
+        assertEquals(List.of(idle.handle()), closed);
+        assertEquals(1, pool.openHandleCount());
+        busy.release();
+        assertEquals(1, pool.idleHandleCount());
+    }
+
+    @Test
+    void clearWithPrefixClosesOnlyMatchingIdleHandles() {
+        DatasetHandlePool pool = pool(4, Duration.ofMinutes(1));
+        DatasetHandlePool.Lease memory = pool.checkout(key("/vsimem/gdal-ffm/1/a.vrt"), this::openHandle);
+        DatasetHandlePool.Lease file = pool.checkout(key("/data/a.tif"), this::openHandle);
+        memory.release();
+        file.release();
+
+        pool.clear("/vsimem/gdal-ffm/1/");
+
+        assertEquals(List.of(memory.handle()), closed);
+        assertEquals(1, pool.openHandleCount());
+        assertEquals(1, pool.idleHandleCount());
+    }
+
+    private DatasetHandlePool pool(int maxOpenHandles, Duration idleTimeout) {
+        return new DatasetHandlePool(maxOpenHandles, idleTimeout, Duration.ofSeconds(1), clock::get, closed::add);
+    }
+
+    private MemorySegment openHandle() {
+        return MemorySegment.ofAddress(nextAddress.getAndAdd(16));
+    }
+
+    private static DatasetHandlePool.Key key(String identifier) {
+        return new DatasetHandlePool.Key(identifier, 4, List.of(), Map.of(), Map.of(), 0L);
+    }
+}
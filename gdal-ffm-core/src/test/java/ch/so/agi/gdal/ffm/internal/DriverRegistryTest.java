@@ -0,0 +1,65 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.so.agi.gdal.ffm.DriverCapabilities;
+import ch.so.agi.gdal.ffm.OgrDriverInfo;
+import ch.so.agi.gdal.ffm.RasterDriverInfo;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class DriverRegistryTest {
+    @Test
+    void parsesCapabilityMatrixFromMetadata() {
+        DriverCapabilities gpkg = DriverRegistry.fromMetadata("GPKG", "GeoPackage", Map.of(
+                "DCAP_VECTOR", "YES",
+                "DCAP_RASTER", "YES",
+                "DCAP_CREATE", "YES",
+                "DCAP_CREATECOPY", "YES",
+                "DCAP_UPSERT", "YES",
+                "DMD_EXTENSIONS", "gpkg gpkg.zip",
+                "DMD_SUPPORTED_SQL_DIALECTS", "NATIVE OGRSQL SQLITE"
+        ));
+
+        assertTrue(gpkg.vector());
+        assertTrue(gpkg.raster());
+        assertTrue(gpkg.upsert());
+        assertFalse(gpkg.update());
+        assertEquals(List.of("gpkg", "gpkg.zip"), gpkg.extensions());
+        assertTrue(gpkg.supportsSqlDialect("native"));
+        assertFalse(gpkg.supportsSqlDialect("INDIRECT_SQLITE"));
+    }
+
+    @Test
+    void fallsBackToSingleExtensionAndShortName() {
+        DriverCapabilities driver = DriverRegistry.fromMetadata("XYZ", " ", Map.of("DMD_EXTENSION", "xyz"));
+
+        assertEquals("XYZ", driver.longName());
+        assertEquals(List.of("xyz"), driver.extensions());
+    }
+
+    @Test
+    void derivesWritableListingsAndCaseInsensitiveLookup() {
+        DriverRegistry registry = new DriverRegistry(List.of(
+                DriverRegistry.fromMetadata("GTiff", "GeoTIFF", Map.of("DCAP_RASTER", "YES", "DCAP_CREATE", "YES")),
+                DriverRegistry.fromMetadata("COG", "COG", Map.of("DCAP_RASTER", "YES", "DCAP_CREATECOPY", "YES")),
+                DriverRegistry.fromMetadata("GeoJSON", "GeoJSON", Map.of("DCAP_VECTOR", "YES", "DCAP_CREATE", "YES")),
+                DriverRegistry.fromMetadata("WFS", "OGC WFS", Map.of("DCAP_VECTOR", "YES"))
+        ));
+
+        assertEquals(
+                List.of("GeoJSON"),
+                registry.writableVectorDrivers().stream().map(OgrDriverInfo::shortName).toList()
+        );
+        assertEquals(
+                List.of("COG", "GTiff"),
+                registry.writableRasterDrivers().stream().map(RasterDriverInfo::shortName).toList()
+        );
+        assertEquals("GTiff", registry.find(" gtiff ").orElseThrow().shortName());
+        assertTrue(registry.find("missing").isEmpty());
+        assertEquals(4, registry.drivers().size());
+    }
+}
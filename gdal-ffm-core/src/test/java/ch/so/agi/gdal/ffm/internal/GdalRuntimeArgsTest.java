@@ -0,0 +1,43 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import org.junit.jupiter.api.Test;
+
+class GdalRuntimeArgsTest {
+    @Test
+    void appendsDefaultOutputFormat() {
+        assertArrayEquals(
+                new String[] {"--bbox", "1,1,3,3", "--output-format", "VRT"},
+                GdalRuntime.withDefaultOutputFormat(new String[] {"--bbox", "1,1,3,3"}, "VRT")
+        );
+        assertArrayEquals(
+                new String[] {"--output-format", "VRT"},
+                GdalRuntime.withDefaultOutputFormat(null, "VRT")
+        );
+    }
+
+    @Test
+    void keepsExplicitOutputFormat() {
+        assertArrayEquals(
+                new String[] {"--of", "COG"},
+                GdalRuntime.withDefaultOutputFormat(new String[] {"--of", "COG"}, "VRT")
+        );
+        assertArrayEquals(
+                new String[] {"--output-format=GTiff"},
+                GdalRuntime.withDefaultOutputFormat(new String[] {"--output-format=GTiff"}, "VRT")
+        );
+        assertArrayEquals(
+                new String[] {"--format", "PNG"},
+                GdalRuntime.withDefaultOutputFormat(new String[] {"--format", "PNG"}, "VRT")
+        );
+        assertArrayEquals(
+                new String[] {"--format=PNG"},
+                GdalRuntime.withDefaultOutputFormat(new String[] {"--format=PNG"}, "VRT")
+        );
+        assertArrayEquals(
+                new String[] {"-f", "GTiff"},
+                GdalRuntime.withDefaultOutputFormat(new String[] {"-f", "GTiff"}, "VRT")
+        );
+    }
+}
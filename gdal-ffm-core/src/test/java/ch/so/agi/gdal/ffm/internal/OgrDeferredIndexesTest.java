@@ -0,0 +1,83 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class OgrDeferredIndexesTest {
+    @Test
+    void buildsGpkgSpatialAndAttributeIndexStatements() {
+        List<String> statements = OgrDeferredIndexes.statements(
+                "GPKG",
+                "my_layer",
+                "geom",
+                true,
+                List.of("Name")
+        );
+
+        assertEquals(List.of(
+                "SELECT CreateSpatialIndex('my_layer', 'geom')",
+                "CREATE INDEX IF NOT EXISTS \"idx_my_layer_name\" ON \"my_layer\" (\"Name\")"
+        ), statements);
+    }
+
+    @Test
+    void buildsShapefileIndexStatements() {
+        List<String> statements = OgrDeferredIndexes.statements(
+                "ESRI Shapefile",
+                "features",
+                "",
+                true,
+                List.of("id")
+        );
+
+        assertEquals(List.of(
+                "CREATE SPATIAL INDEX ON \"features\"",
+                "CREATE INDEX ON \"features\" USING \"id\""
+        ), statements);
+    }
+
+    @Test
+    void skipsSpatialIndexForUnsupportedDriver() {
+        assertTrue(OgrDeferredIndexes.statements("SQLite", "layer", "GEOMETRY", true, List.of()).isEmpty());
+        assertTrue(OgrDeferredIndexes.statements("FlatGeobuf", "layer", "", true, List.of()).isEmpty());
+    }
+
+    @Test
+    void rejectsAttributeIndexesForUnsupportedDriver() {
+        assertThrows(IllegalArgumentException.class, () ->
+                OgrDeferredIndexes.statements("GeoJSON", "layer", "", false, List.of("id")));
+    }
+
+    @Test
+    void quotesIdentifiersAndLiterals() {
+        List<String> statements = OgrDeferredIndexes.statements("GPKG", "it's", "ge\"om", true, List.of());
+
+        assertEquals(List.of("SELECT CreateSpatialIndex('it''s', 'ge\"om')"), statements);
+    }
+
+    @Test
+    void defersOnlyDefaultOrRequestedSpatialIndexes() {
+        Map<String, String> gpkg = OgrDeferredIndexes.layerCreationOptions(
+                "GPKG",
+                Map.of("spatial_index", "YES", "FID", "fid")
+        );
+        assertEquals(Map.of("SPATIAL_INDEX", "NO", "FID", "fid"), gpkg);
+        assertTrue(OgrDeferredIndexes.defersSpatialIndex("GPKG", Map.of()));
+        assertFalse(OgrDeferredIndexes.defersSpatialIndex("GPKG", Map.of("SPATIAL_INDEX", "NO")));
+
+        Map<String, String> shapefile = Map.of("ENCODING", "UTF-8");
+        assertFalse(OgrDeferredIndexes.defersSpatialIndex("ESRI Shapefile", shapefile));
+        assertEquals(shapefile, OgrDeferredIndexes.layerCreationOptions("ESRI Shapefile", shapefile));
+        assertTrue(OgrDeferredIndexes.defersSpatialIndex("ESRI Shapefile", Map.of("SPATIAL_INDEX", "YES")));
+        assertEquals(
+                Map.of("SPATIAL_INDEX", "NO"),
+                OgrDeferredIndexes.layerCreationOptions("ESRI Shapefile", Map.of("SPATIAL_INDEX", "YES"))
+        );
+    }
+}
@@ -9,6 +9,7 @@ import ch.so.agi.gdal.ffm.OgrFieldType;
 import ch.so.agi.gdal.ffm.OgrOpenOptions;
 import ch.so.agi.gdal.ffm.OgrReaderOptions;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 
@@ -32,6 +33,19 @@ class OgrOptionsTest {
         assertEquals(2, parsed.datasetOptions().size());
     }
 
+    @Test
+    void parsesPooledOpenOption() {
+        OgrOptions.OpenOptions parsed = OgrOptions.parseOpenOptions(Map.of(
+                OgrOpenOptions.POOLED, "yes",
+                "LIST_ALL_TABLES", "NO"
+        ));
+
+        assertTrue(parsed.pooled());
+        assertEquals(Map.of("LIST_ALL_TABLES", "NO"), parsed.datasetOptions());
+        assertThrows(IllegalArgumentException.class, () ->
+                OgrOptions.parseOpenOptions(Map.of(OgrOpenOptions.POOLED, "maybe")));
+    }
+
     @Test
     void parsesReaderOptions() {
         OgrOptions.ReaderOptions parsed = OgrOptions.parseReaderOptions(Map.of(
@@ -53,6 +67,20 @@ class OgrOptionsTest {
         assertTrue(parsed.selectedFieldsLowercase().contains("id"));
     }
 
+    @Test
+    void parsesFidsAndBuildsSequentialFidFilter() {
+        OgrOptions.ReaderOptions parsed = OgrOptions.parseReaderOptions(Map.of(OgrReaderOptions.FIDS, "3, 1;3"));
+
+        assertEquals(List.of(3L, 1L), parsed.fids());
+        assertEquals("FID IN (3,1)", OgrOptions.attributeFilterWithFids(null, parsed.fids()));
+        assertEquals("(name = 'a') AND FID IN (3,1)", OgrOptions.attributeFilterWithFids("name = 'a'", parsed.fids()));
+        assertEquals("name = 'a'", OgrOptions.attributeFilterWithFids("name = 'a'", List.of()));
+        assertThrows(IllegalArgumentException.class, () ->
+                OgrOptions.parseReaderOptions(Map.of(OgrReaderOptions.FIDS, "-1")));
+        assertThrows(IllegalArgumentException.class, () ->
+                OgrOptions.parseReaderOptions(Map.of(OgrReaderOptions.FIDS, "x")));
+    }
+
     @Test
     void rejectsConflictingSpatialFilters() {
         IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () ->
@@ -101,5 +129,6 @@ class OgrOptionsTest {
         assertNull(parsed.spatialFilterWkt());
         assertNull(parsed.limit());
         assertEquals(0, parsed.selectedFields().size());
+        assertTrue(parsed.fids().isEmpty());
     }
 }
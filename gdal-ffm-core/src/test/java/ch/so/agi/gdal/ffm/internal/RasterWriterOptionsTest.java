@@ -0,0 +1,55 @@
+package ch.so.agi.gdal.ffm.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import ch.so.agi.gdal.ffm.RasterDataType;
+import ch.so.agi.gdal.ffm.RasterWriteSpec;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class RasterWriterOptionsTest {
+    private static final String GTIFF_OPTIONS = """
+            <CreationOptionList>
+              <Option name='COMPRESS' type='string-select'/>
+              <Option name='NUM_THREADS' type='string'/>
+              <Option name='TILED' type='boolean'/>
+              <Option name='BLOCKXSIZE' type='int'/>
+              <Option name='BLOCKYSIZE' type='int'/>
+            </CreationOptionList>
+            """;
+
+    @Test
+    void addsBlockLayoutAndThreadsForDeclaredOptions() {
+        RasterWriteSpec spec = new RasterWriteSpec("GTiff", 1024, 1024, 1, RasterDataType.FLOAT32)
+                .withBlockSize(256, 256)
+                .withCompressionThreads(4)
+                .withCreationOptions(Map.of("COMPRESS", "DEFLATE"));
+
+        Map<String, String> options = RasterRuntime.creationOptions(spec, GTIFF_OPTIONS);
+
+        assertEquals(
+                Map.of(
+                        "COMPRESS", "DEFLATE",
+                        "TILED", "YES",
+                        "BLOCKXSIZE", "256",
+                        "BLOCKYSIZE", "256",
+                        "NUM_THREADS", "4"
+                ),
+                options
+        );
+    }
+
+    @Test
+    void keepsExplicitOptionsAndSkipsUndeclaredOnes() {
+        RasterWriteSpec spec = new RasterWriteSpec("MEM", 64, 64, 1, RasterDataType.BYTE)
+                .withBlockSize(32, 32)
+                .withCompressionThreads(2)
+                .withCreationOptions(Map.of("num_threads", "ALL_CPUS"));
+
+        assertEquals(Map.of("num_threads", "ALL_CPUS"), RasterRuntime.creationOptions(spec, GTIFF_OPTIONS
+                .replace("<Option name='TILED' type='boolean'/>", "")
+                .replace("<Option name='BLOCKXSIZE' type='int'/>", "")
+                .replace("<Option name='BLOCKYSIZE' type='int'/>", "")));
+        assertEquals(Map.of("num_threads", "ALL_CPUS"), RasterRuntime.creationOptions(spec, ""));
+    }
+}